@@ -0,0 +1,15 @@
+CREATE TABLE IF NOT EXISTS `m_loan_summary_change_log` (
+  `id` bigint(20) NOT NULL AUTO_INCREMENT,
+  `loan_id` bigint(20) NOT NULL,
+  `created_date` datetime NOT NULL,
+  PRIMARY KEY (`id`),
+  KEY `FK_loan_summary_change_log_loan_id` (`loan_id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8;
+
+INSERT INTO `c_configuration` (`name`, `enabled`, `value`)
+SELECT 'loan-summary-update-chunk-size', 1, 500 FROM DUAL
+WHERE NOT EXISTS (SELECT 1 FROM `c_configuration` WHERE `name` = 'loan-summary-update-chunk-size');
+
+INSERT INTO `job` (`name`, `display_name`, `cron_expression`, `create_time`, `task_priority`, `group_name`, `previous_run_start_time`, `next_run_time`, `job_key`, `initializing_errorlog`, `is_active`, `currently_running`, `updates_allowed`, `scheduler_group`, `is_misfired`)
+SELECT 'Rebuild Loan Summary', 'Rebuild Loan Summary', '0 0 1 ? * SUN *', now(), 5, NULL, NULL, NULL, NULL, NULL, 0, 0, 1, 0, 0 FROM DUAL
+WHERE NOT EXISTS (SELECT 1 FROM `job` WHERE `name` = 'Rebuild Loan Summary');
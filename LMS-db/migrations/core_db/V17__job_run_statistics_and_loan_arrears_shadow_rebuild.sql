@@ -0,0 +1,21 @@
+ALTER TABLE `job_run_history`
+  ADD COLUMN `processed_count` BIGINT(20) NULL DEFAULT NULL AFTER `error_log`,
+  ADD COLUMN `processed_per_second` DECIMAL(19,2) NULL DEFAULT NULL AFTER `processed_count`;
+
+CREATE TABLE IF NOT EXISTS `m_loan_paid_in_advance` (
+  `loan_id` bigint(20) NOT NULL,
+  `principal_in_advance_derived` decimal(19,6) NOT NULL DEFAULT '0.000000',
+  `interest_in_advance_derived` decimal(19,6) NOT NULL DEFAULT '0.000000',
+  `fee_charges_in_advance_derived` decimal(19,6) NOT NULL DEFAULT '0.000000',
+  `penalty_charges_in_advance_derived` decimal(19,6) NOT NULL DEFAULT '0.000000',
+  `total_in_advance_derived` decimal(19,6) NOT NULL DEFAULT '0.000000',
+  PRIMARY KEY (`loan_id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8;
+
+INSERT INTO `c_configuration` (`name`, `enabled`, `value`)
+SELECT 'loan-arrears-shadow-rebuild', 0, 5000 FROM DUAL
+WHERE NOT EXISTS (SELECT 1 FROM `c_configuration` WHERE `name` = 'loan-arrears-shadow-rebuild');
+
+INSERT INTO `c_configuration` (`name`, `enabled`, `value`)
+SELECT 'job-worker-threads', 1, 4 FROM DUAL
+WHERE NOT EXISTS (SELECT 1 FROM `c_configuration` WHERE `name` = 'job-worker-threads');
@@ -0,0 +1,6 @@
+ALTER TABLE `job_run_history`
+  ADD COLUMN `failed_count` BIGINT(20) NULL DEFAULT NULL AFTER `processed_per_second`;
+
+INSERT INTO `c_configuration` (`name`, `enabled`, `value`)
+SELECT 'savings-interest-posting-batch-size', 1, 100 FROM DUAL
+WHERE NOT EXISTS (SELECT 1 FROM `c_configuration` WHERE `name` = 'savings-interest-posting-batch-size');
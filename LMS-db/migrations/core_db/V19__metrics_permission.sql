@@ -0,0 +1 @@
+INSERT IGNORE INTO `m_permission` (`grouping`, `code`, `entity_name`, `action_name`, `can_maker_checker`) VALUES ('administration', 'READ_METRICS', 'METRICS', 'READ', 0);
@@ -0,0 +1,26 @@
+-- debits and credits per office, GL account and day; closing balances are
+-- summed from them when read, so posting an entry only touches its own day
+CREATE TABLE IF NOT EXISTS `acc_gl_daily_balance` (
+  `id` bigint(20) NOT NULL AUTO_INCREMENT,
+  `office_id` bigint(20) NOT NULL,
+  `account_id` bigint(20) NOT NULL,
+  `balance_date` date NOT NULL,
+  `debit_amount` decimal(19,6) NOT NULL DEFAULT '0.000000',
+  `credit_amount` decimal(19,6) NOT NULL DEFAULT '0.000000',
+  PRIMARY KEY (`id`),
+  UNIQUE KEY `UQ_gl_daily_balance` (`office_id`,`account_id`,`balance_date`),
+  KEY `IDX_gl_daily_balance_date` (`balance_date`),
+  KEY `FK_gl_daily_balance_account_id` (`account_id`),
+  CONSTRAINT `FK_gl_daily_balance_office_id` FOREIGN KEY (`office_id`) REFERENCES `m_office` (`id`),
+  CONSTRAINT `FK_gl_daily_balance_account_id` FOREIGN KEY (`account_id`) REFERENCES `acc_gl_account` (`id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8;
+
+INSERT INTO `acc_gl_daily_balance` (`office_id`, `account_id`, `balance_date`, `debit_amount`, `credit_amount`)
+SELECT je.office_id, je.account_id, je.entry_date,
+  SUM(IF(je.type_enum = 2, je.amount, 0)), SUM(IF(je.type_enum = 1, je.amount, 0))
+FROM `acc_gl_journal_entry` je
+GROUP BY je.office_id, je.account_id, je.entry_date;
+
+INSERT INTO `job` (`name`, `display_name`, `cron_expression`, `create_time`, `task_priority`, `group_name`, `previous_run_start_time`, `next_run_time`, `job_key`, `initializing_errorlog`, `is_active`, `currently_running`, `updates_allowed`, `scheduler_group`, `is_misfired`)
+SELECT 'Rebuild GL Daily Balances', 'Rebuild GL Daily Balances', '0 30 2 ? * SUN *', now(), 5, NULL, NULL, NULL, NULL, NULL, 0, 0, 1, 0, 0 FROM DUAL
+WHERE NOT EXISTS (SELECT 1 FROM `job` WHERE `name` = 'Rebuild GL Daily Balances');
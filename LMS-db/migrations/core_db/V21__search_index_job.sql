@@ -0,0 +1,4 @@
+-- the search index is kept in memory and rebuilt nightly to pick up changes made outside the write services, such as renamed offices and products
+INSERT INTO `job` (`name`, `display_name`, `cron_expression`, `create_time`, `task_priority`, `group_name`, `previous_run_start_time`, `next_run_time`, `job_key`, `initializing_errorlog`, `is_active`, `currently_running`, `updates_allowed`, `scheduler_group`, `is_misfired`)
+SELECT 'Rebuild Search Index', 'Rebuild Search Index', '0 0 3 1/1 * ? *', now(), 5, NULL, NULL, NULL, NULL, NULL, 0, 0, 1, 0, 0 FROM DUAL
+WHERE NOT EXISTS (SELECT 1 FROM `job` WHERE `name` = 'Rebuild Search Index');
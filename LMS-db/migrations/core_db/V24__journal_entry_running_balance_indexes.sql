@@ -0,0 +1,5 @@
+-- serve the keyset chunks of the running balance calculation, which walk the
+-- entries of one GL account (and office) in entry_date, id order
+ALTER TABLE `acc_gl_journal_entry`
+  ADD INDEX `IDX_journal_entry_account_date_id` (`account_id`, `entry_date`, `id`),
+  ADD INDEX `IDX_journal_entry_account_office_date_id` (`account_id`, `office_id`, `entry_date`, `id`);
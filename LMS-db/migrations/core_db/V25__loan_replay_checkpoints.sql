@@ -0,0 +1,13 @@
+-- installment and charge state of a loan part way through the replay of its transactions, so that a backdated
+-- or adjusted transaction is replayed from the last checkpoint before it rather than from the disbursement
+CREATE TABLE IF NOT EXISTS `m_loan_replay_checkpoint` (
+  `id` bigint(20) NOT NULL AUTO_INCREMENT,
+  `loan_id` bigint(20) NOT NULL,
+  `transaction_count` int(11) NOT NULL,
+  `start_state_digest` varchar(40) NOT NULL,
+  `transactions_digest` varchar(40) NOT NULL,
+  `state` mediumtext NOT NULL,
+  PRIMARY KEY (`id`),
+  KEY `FK_loan_replay_checkpoint_loan_id` (`loan_id`),
+  CONSTRAINT `FK_loan_replay_checkpoint_loan_id` FOREIGN KEY (`loan_id`) REFERENCES `m_loan` (`id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8;
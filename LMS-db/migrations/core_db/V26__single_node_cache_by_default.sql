@@ -0,0 +1,3 @@
+-- cache reference data on a single node; it can still be switched off
+-- through the caches API
+UPDATE `c_cache` SET `cache_type_enum` = 2 WHERE `id` = 1 AND `cache_type_enum` = 1;
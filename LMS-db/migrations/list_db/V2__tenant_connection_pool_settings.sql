@@ -0,0 +1,8 @@
+ALTER TABLE `tenants`
+	ADD COLUMN `pool_initial_size` INT(5) NULL DEFAULT NULL AFTER `auto_update`,
+	ADD COLUMN `pool_min_idle` INT(5) NULL DEFAULT NULL AFTER `pool_initial_size`,
+	ADD COLUMN `pool_max_idle` INT(5) NULL DEFAULT NULL AFTER `pool_min_idle`,
+	ADD COLUMN `pool_max_active` INT(5) NULL DEFAULT NULL AFTER `pool_max_idle`,
+	ADD COLUMN `pool_max_wait` INT(11) NULL DEFAULT NULL AFTER `pool_max_active`,
+	ADD COLUMN `pool_test_on_borrow` TINYINT(1) NULL DEFAULT NULL AFTER `pool_max_wait`,
+	ADD COLUMN `pool_validation_interval` INT(11) NULL DEFAULT NULL AFTER `pool_test_on_borrow`;
@@ -0,0 +1,84 @@
+package org.mifosplatform.infrastructure.core.serialization;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.mifosplatform.organisation.monetary.domain.ApplicationCurrency;
+import org.mifosplatform.portfolio.loanaccount.loanschedule.LoanScheduleBenchmarkFixtures;
+import org.mifosplatform.portfolio.loanaccount.loanschedule.data.LoanScheduleData;
+import org.mifosplatform.portfolio.loanaccount.loanschedule.domain.DecliningBalanceInterestLoanScheduleGenerator;
+import org.mifosplatform.portfolio.loanaccount.loanschedule.domain.LoanApplicationTerms;
+import org.mifosplatform.portfolio.loanproduct.domain.AmortizationMethod;
+import org.mifosplatform.portfolio.loanproduct.domain.InterestMethod;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Serializes a loan schedule through {@link DefaultToApiJsonSerializer} the
+ * ways the API resources do: in full, pretty printed and as a partial
+ * response.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class ToApiJsonSerializerBenchmark {
+
+    private static final Set<String> SCHEDULE_DATA_PARAMETERS = new HashSet<String>(Arrays.asList("currency", "loanTermInDays",
+            "totalPrincipalDisbursed", "totalPrincipalExpected", "totalPrincipalPaid", "totalInterestCharged", "totalFeeChargesCharged",
+            "totalPenaltyChargesCharged", "totalWaived", "totalWrittenOff", "totalRepaymentExpected", "totalRepayment",
+            "totalPaidInAdvance", "totalPaidLate", "totalOutstanding", "periods"));
+
+    @Param({ "12", "240" })
+    private int numberOfRepayments;
+
+    private final GoogleGsonSerializerHelper helper = new GoogleGsonSerializerHelper();
+    private final DefaultToApiJsonSerializer<LoanScheduleData> serializer = new DefaultToApiJsonSerializer<LoanScheduleData>(
+            new ExcludeNothingWithPrettyPrintingOffJsonSerializerGoogleGson(),
+            new ExcludeNothingWithPrettyPrintingOnJsonSerializerGoogleGson(), new CommandProcessingResultJsonSerializer(), this.helper);
+    private final ApiRequestJsonSerializationSettings partialResponse = ApiRequestJsonSerializationSettings.from(false,
+            new HashSet<String>(Arrays.asList("currency", "totalOutstanding", "periods")), false, false, false);
+    private LoanScheduleData schedule;
+
+    @Setup
+    public void setUp() throws Exception {
+        final ApplicationCurrency applicationCurrency = LoanScheduleBenchmarkFixtures.usDollars();
+        final LoanApplicationTerms terms = LoanScheduleBenchmarkFixtures.monthlyTerms(applicationCurrency,
+                InterestMethod.DECLINING_BALANCE, AmortizationMethod.EQUAL_INSTALLMENTS, this.numberOfRepayments);
+        this.schedule = LoanScheduleBenchmarkFixtures.generate(new DecliningBalanceInterestLoanScheduleGenerator(), applicationCurrency,
+                terms, LoanScheduleBenchmarkFixtures.mondayToFriday()).toData();
+    }
+
+    @Benchmark
+    public String serialize() {
+        return this.serializer.serialize(this.schedule);
+    }
+
+    @Benchmark
+    public String serializePretty() {
+        return this.serializer.serializePretty(true, this.schedule);
+    }
+
+    @Benchmark
+    public String serializePartialResponse() {
+        return this.serializer.serialize(this.partialResponse, this.schedule, SCHEDULE_DATA_PARAMETERS);
+    }
+
+    @Benchmark
+    public String serializeWithNewGson() {
+        return this.helper.createGsonBuilder(false).toJson(this.schedule);
+    }
+}
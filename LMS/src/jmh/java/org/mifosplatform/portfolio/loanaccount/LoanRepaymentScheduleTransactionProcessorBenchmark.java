@@ -0,0 +1,113 @@
+package org.mifosplatform.portfolio.loanaccount;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.joda.time.LocalDate;
+import org.mifosplatform.organisation.monetary.domain.MonetaryCurrency;
+import org.mifosplatform.portfolio.loanaccount.domain.ChangedTransactionDetail;
+import org.mifosplatform.portfolio.loanaccount.domain.LoanCharge;
+import org.mifosplatform.portfolio.loanaccount.domain.LoanRepaymentScheduleInstallment;
+import org.mifosplatform.portfolio.loanaccount.domain.LoanReplayCheckpoint;
+import org.mifosplatform.portfolio.loanaccount.domain.LoanTransaction;
+import org.mifosplatform.portfolio.loanaccount.domain.transactionprocessor.LoanReplayCheckpoints;
+import org.mifosplatform.portfolio.loanaccount.domain.transactionprocessor.LoanRepaymentScheduleTransactionProcessor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Replays the saved repayments of a weekly loan with a long history through
+ * each transaction processor, from scratch and from checkpoints.
+ *
+ * Every tenth repayment is short and the one after it makes up the
+ * difference, and every seventh is a few days late, so that the processors go
+ * through their partial and late payment paths as well.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class LoanRepaymentScheduleTransactionProcessorBenchmark {
+
+    private static final String PROCESSOR_PACKAGE = "org.mifosplatform.portfolio.loanaccount.domain.transactionprocessor.impl.";
+
+    @Param({ "MifosStyleLoanRepaymentScheduleTransactionProcessor", "HeavensFamilyLoanRepaymentScheduleTransactionProcessor",
+            "CreocoreLoanRepaymentScheduleTransactionProcessor", "RBILoanRepaymentScheduleTransactionProcessor",
+            "PrincipalInterestPenaltyFeesOrderLoanRepaymentScheduleTransactionProcessor",
+            "InterestPrincipalPenaltyFeesOrderLoanRepaymentScheduleTransactionProcessor" })
+    private String processorName;
+
+    @Param({ "100", "500" })
+    private int numberOfRepayments;
+
+    private final LocalDate disbursementDate = new LocalDate(2013, 1, 7);
+    private final MonetaryCurrency usDollars = new MonetaryCurrencyBuilder().withCode("USD").withDigitsAfterDecimal(2).build();
+    private final List<LoanRepaymentScheduleInstallment> installments = new ArrayList<LoanRepaymentScheduleInstallment>();
+    private final List<LoanTransaction> transactions = new ArrayList<LoanTransaction>();
+    private final Set<LoanCharge> charges = new HashSet<LoanCharge>();
+    private final LoanReplayCheckpoints checkpoints = new LoanReplayCheckpoints(null, new ArrayList<LoanReplayCheckpoint>());
+    private LoanRepaymentScheduleTransactionProcessor processor;
+
+    @Setup
+    public void setUp() throws Exception {
+        this.processor = (LoanRepaymentScheduleTransactionProcessor) Class.forName(PROCESSOR_PACKAGE + this.processorName).newInstance();
+
+        final int numberOfInstallments = this.numberOfRepayments + 10;
+        for (int i = 0; i < numberOfInstallments; i++) {
+            this.installments.add(new LoanRepaymentScheduleInstallmentBuilder(this.usDollars).withInstallmentNumber(i + 1)
+                    .withDueDate(dueDate(i)).withPrincipal("100").withInterest("10").build());
+        }
+
+        for (int i = 0; i < this.numberOfRepayments; i++) {
+            String amount = "110";
+            if (i % 10 == 0) {
+                amount = "80";
+            } else if (i % 10 == 1) {
+                amount = "140";
+            }
+            final LocalDate paymentDate = i % 7 == 0 ? dueDate(i).plusDays(3) : dueDate(i);
+            this.transactions.add(LoanTransaction.repayment(null, new MoneyBuilder().with(this.usDollars).with(amount).build(), null,
+                    paymentDate, null));
+        }
+
+        // first replay splits the repayments, as when they are made, after
+        // which they are saved and later replays work on copies of them
+        this.processor.handleTransaction(this.disbursementDate, this.transactions, this.usDollars, this.installments, this.charges);
+        long transactionId = 1;
+        for (final LoanTransaction transaction : this.transactions) {
+            ReflectionTestUtils.setField(transaction, "id", transactionId++);
+        }
+        this.processor.handleTransaction(this.disbursementDate, this.transactions, this.usDollars, this.installments, this.charges,
+                this.checkpoints);
+    }
+
+    @Benchmark
+    public ChangedTransactionDetail replayFromScratch() {
+        return this.processor.handleTransaction(this.disbursementDate, this.transactions, this.usDollars, this.installments, this.charges);
+    }
+
+    @Benchmark
+    public ChangedTransactionDetail replayFromCheckpoints() {
+        return this.processor.handleTransaction(this.disbursementDate, this.transactions, this.usDollars, this.installments, this.charges,
+                this.checkpoints);
+    }
+
+    private LocalDate dueDate(final int installmentIndex) {
+        return this.disbursementDate.plusWeeks(installmentIndex + 1);
+    }
+}
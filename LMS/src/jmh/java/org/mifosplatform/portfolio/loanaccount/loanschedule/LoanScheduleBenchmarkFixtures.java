@@ -0,0 +1,87 @@
+package org.mifosplatform.portfolio.loanaccount.loanschedule;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.HashSet;
+
+import org.joda.time.LocalDate;
+import org.mifosplatform.organisation.holiday.domain.Holiday;
+import org.mifosplatform.organisation.monetary.domain.ApplicationCurrency;
+import org.mifosplatform.organisation.monetary.domain.MonetaryCurrency;
+import org.mifosplatform.organisation.monetary.domain.Money;
+import org.mifosplatform.organisation.workingdays.domain.RepaymentRescheduleType;
+import org.mifosplatform.organisation.workingdays.domain.WorkingDays;
+import org.mifosplatform.portfolio.loanaccount.MonetaryCurrencyBuilder;
+import org.mifosplatform.portfolio.loanaccount.MoneyBuilder;
+import org.mifosplatform.portfolio.loanaccount.domain.LoanCharge;
+import org.mifosplatform.portfolio.loanaccount.loanschedule.domain.LoanApplicationTerms;
+import org.mifosplatform.portfolio.loanaccount.loanschedule.domain.LoanScheduleGenerator;
+import org.mifosplatform.portfolio.loanaccount.loanschedule.domain.LoanScheduleModel;
+import org.mifosplatform.portfolio.loanproduct.domain.AmortizationMethod;
+import org.mifosplatform.portfolio.loanproduct.domain.InterestCalculationPeriodMethod;
+import org.mifosplatform.portfolio.loanproduct.domain.InterestMethod;
+import org.mifosplatform.portfolio.loanproduct.domain.PeriodFrequencyType;
+import org.springframework.beans.BeanUtils;
+
+/**
+ * Loan terms and the organisation settings schedule generation needs, set up
+ * the way they are for a monthly loan disbursed on a Monday with repayments
+ * moved off weekends.
+ */
+public final class LoanScheduleBenchmarkFixtures {
+
+    public static final MathContext MATH_CONTEXT = new MathContext(8, RoundingMode.HALF_EVEN);
+
+    private static final LocalDate DISBURSEMENT_DATE = new LocalDate(2013, 1, 7);
+
+    private LoanScheduleBenchmarkFixtures() {
+        //
+    }
+
+    public static ApplicationCurrency usDollars() throws Exception {
+        return BeanUtils.instantiateClass(ApplicationCurrency.class.getDeclaredConstructor(String.class, String.class, int.class,
+                Integer.class, String.class, String.class), "USD", "US Dollar", 2, null, "currency.USD", "$");
+    }
+
+    public static WorkingDays mondayToFriday() {
+        return new WorkingDays("FREQ=WEEKLY;INTERVAL=1;BYDAY=MO,TU,WE,TH,FR", RepaymentRescheduleType.MOVE_TO_NEXT_WORKING_DAY.getValue()) {
+            //
+        };
+    }
+
+    /**
+     * Terms for 100,000 at 24% a year over the given number of monthly
+     * repayments. Schedule generation updates the terms it is given, so each
+     * generation needs terms of its own.
+     */
+    public static LoanApplicationTerms monthlyTerms(final ApplicationCurrency applicationCurrency, final InterestMethod interestMethod,
+            final AmortizationMethod amortizationMethod, final int numberOfRepayments) {
+
+        final MonetaryCurrency currency = new MonetaryCurrencyBuilder().withCode(applicationCurrency.getCode())
+                .withDigitsAfterDecimal(applicationCurrency.getDecimalPlaces()).build();
+        final Money principal = new MoneyBuilder().with(currency).with("100000").build();
+        final Money inArrearsTolerance = new MoneyBuilder().with(currency).build();
+
+        final Integer graceOnPrincipalPayment = Integer.valueOf(0);
+        final Integer graceOnInterestPayment = Integer.valueOf(0);
+        final Integer graceOnInterestCharged = Integer.valueOf(0);
+        final LocalDate repaymentsStartingFromDate = null;
+        final LocalDate interestChargedFromDate = null;
+        final BigDecimal residualAmount = null;
+
+        return LoanApplicationTerms.assembleFrom(applicationCurrency, numberOfRepayments, PeriodFrequencyType.MONTHS, numberOfRepayments,
+                1, PeriodFrequencyType.MONTHS, amortizationMethod, interestMethod, BigDecimal.valueOf(2), PeriodFrequencyType.MONTHS,
+                BigDecimal.valueOf(24), InterestCalculationPeriodMethod.SAME_AS_REPAYMENT_PERIOD, principal, DISBURSEMENT_DATE,
+                repaymentsStartingFromDate, DISBURSEMENT_DATE.plusMonths(1), graceOnPrincipalPayment, graceOnInterestPayment,
+                graceOnInterestCharged, interestChargedFromDate, inArrearsTolerance, residualAmount);
+    }
+
+    public static LoanScheduleModel generate(final LoanScheduleGenerator generator, final ApplicationCurrency applicationCurrency,
+            final LoanApplicationTerms loanApplicationTerms, final WorkingDays workingDays) {
+        final boolean isHolidayEnabled = false;
+        return generator.generate(MATH_CONTEXT, applicationCurrency, loanApplicationTerms, new HashSet<LoanCharge>(), isHolidayEnabled,
+                new ArrayList<Holiday>(), workingDays);
+    }
+}
@@ -0,0 +1,67 @@
+package org.mifosplatform.portfolio.loanaccount.loanschedule;
+
+import java.util.concurrent.TimeUnit;
+
+import org.mifosplatform.organisation.monetary.domain.ApplicationCurrency;
+import org.mifosplatform.organisation.workingdays.domain.WorkingDays;
+import org.mifosplatform.portfolio.loanaccount.loanschedule.domain.DecliningBalanceInterestLoanScheduleGenerator;
+import org.mifosplatform.portfolio.loanaccount.loanschedule.domain.FlatInterestLoanScheduleGenerator;
+import org.mifosplatform.portfolio.loanaccount.loanschedule.domain.LoanScheduleGenerator;
+import org.mifosplatform.portfolio.loanaccount.loanschedule.domain.LoanScheduleModel;
+import org.mifosplatform.portfolio.loanproduct.domain.AmortizationMethod;
+import org.mifosplatform.portfolio.loanproduct.domain.InterestMethod;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Generates the schedule of a monthly loan with declining balance and flat
+ * interest, for short and long terms.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class LoanScheduleGeneratorBenchmark {
+
+    @Param({ "12", "60", "240" })
+    private int numberOfRepayments;
+
+    @Param({ "EQUAL_INSTALLMENTS", "EQUAL_PRINCIPAL" })
+    private AmortizationMethod amortizationMethod;
+
+    private final LoanScheduleGenerator decliningBalanceGenerator = new DecliningBalanceInterestLoanScheduleGenerator();
+    private final LoanScheduleGenerator flatGenerator = new FlatInterestLoanScheduleGenerator();
+    private ApplicationCurrency applicationCurrency;
+    private WorkingDays workingDays;
+
+    @Setup
+    public void setUp() throws Exception {
+        this.applicationCurrency = LoanScheduleBenchmarkFixtures.usDollars();
+        this.workingDays = LoanScheduleBenchmarkFixtures.mondayToFriday();
+    }
+
+    @Benchmark
+    public LoanScheduleModel decliningBalance() {
+        return LoanScheduleBenchmarkFixtures.generate(this.decliningBalanceGenerator, this.applicationCurrency,
+                LoanScheduleBenchmarkFixtures.monthlyTerms(this.applicationCurrency, InterestMethod.DECLINING_BALANCE,
+                        this.amortizationMethod, this.numberOfRepayments), this.workingDays);
+    }
+
+    @Benchmark
+    public LoanScheduleModel flat() {
+        return LoanScheduleBenchmarkFixtures.generate(this.flatGenerator, this.applicationCurrency, LoanScheduleBenchmarkFixtures
+                .monthlyTerms(this.applicationCurrency, InterestMethod.FLAT, this.amortizationMethod, this.numberOfRepayments),
+                this.workingDays);
+    }
+}
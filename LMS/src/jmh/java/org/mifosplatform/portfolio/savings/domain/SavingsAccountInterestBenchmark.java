@@ -0,0 +1,89 @@
+package org.mifosplatform.portfolio.savings.domain;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.joda.time.LocalDate;
+import org.mifosplatform.organisation.monetary.domain.MonetaryCurrency;
+import org.mifosplatform.portfolio.accountdetails.domain.AccountType;
+import org.mifosplatform.portfolio.loanaccount.MonetaryCurrencyBuilder;
+import org.mifosplatform.portfolio.loanaccount.MoneyBuilder;
+import org.mifosplatform.portfolio.savings.SavingsCompoundingInterestPeriodType;
+import org.mifosplatform.portfolio.savings.SavingsInterestCalculationDaysInYearType;
+import org.mifosplatform.portfolio.savings.SavingsInterestCalculationType;
+import org.mifosplatform.portfolio.savings.SavingsPostingInterestPeriodType;
+import org.mifosplatform.portfolio.savings.domain.interest.PostingPeriod;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Calculates the interest of a savings account with a weekly deposit and a
+ * monthly withdrawal over a number of years, compounded daily and monthly.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class SavingsAccountInterestBenchmark {
+
+    @Param({ "1", "5" })
+    private int years;
+
+    @Param({ "DAILY_BALANCE", "AVERAGE_DAILY_BALANCE" })
+    private SavingsInterestCalculationType interestCalculationType;
+
+    @Param({ "DAILY", "MONTHLY" })
+    private SavingsCompoundingInterestPeriodType compoundingPeriodType;
+
+    private final MathContext mc = new MathContext(15, RoundingMode.HALF_EVEN);
+    private final LocalDate activationDate = new LocalDate(2013, 1, 1);
+    private SavingsAccount account;
+    private LocalDate interestCalculatedUpTo;
+
+    @Setup
+    public void setUp() {
+        final MonetaryCurrency currency = new MonetaryCurrencyBuilder().withCode("USD").withDigitsAfterDecimal(2).build();
+        final BigDecimal interestRate = BigDecimal.valueOf(6);
+        final SavingsPostingInterestPeriodType postingPeriodType = SavingsPostingInterestPeriodType.MONTHLY;
+        final SavingsInterestCalculationDaysInYearType daysInYearType = SavingsInterestCalculationDaysInYearType.DAYS_365;
+
+        final SavingsProduct product = SavingsProduct.createNew("benchmark", null, currency, interestRate, this.compoundingPeriodType,
+                postingPeriodType, this.interestCalculationType, daysInYearType, null, null, null, false, null, null);
+        this.account = SavingsAccount.createNewApplicationForSubmittal(null, null, product, null, "000000001", null,
+                AccountType.INDIVIDUAL, this.activationDate, null, interestRate, this.compoundingPeriodType, postingPeriodType,
+                this.interestCalculationType, daysInYearType, null, null, null, false, null);
+        ReflectionTestUtils.setField(this.account, "activatedOnDate", this.activationDate.toDate());
+        this.account.setHelpers(new SavingsAccountTransactionSummaryWrapper(), new SavingsHelper());
+
+        this.interestCalculatedUpTo = this.activationDate.plusYears(this.years).minusDays(1);
+        final List<SavingsAccountTransaction> transactions = this.account.getTransactions();
+        for (LocalDate date = this.activationDate; date.isBefore(this.interestCalculatedUpTo); date = date.plusWeeks(1)) {
+            transactions.add(SavingsAccountTransaction.deposit(this.account, null, null, date,
+                    new MoneyBuilder().with(currency).with("250").build()));
+        }
+        for (LocalDate date = this.activationDate.plusDays(14); date.isBefore(this.interestCalculatedUpTo); date = date.plusMonths(1)) {
+            transactions.add(SavingsAccountTransaction.withdrawal(this.account, null, null, date,
+                    new MoneyBuilder().with(currency).with("600").build()));
+        }
+    }
+
+    @Benchmark
+    public List<PostingPeriod> calculateInterest() {
+        return this.account.calculateInterestUsing(this.mc, this.interestCalculatedUpTo);
+    }
+}
@@ -34,6 +34,7 @@ import org.mifosplatform.infrastructure.core.exception.PlatformDataIntegrityExce
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -98,6 +99,7 @@ public class GLAccountWritePlatformServiceJpaRepositoryImpl implements GLAccount
 
     @Transactional
     @Override
+    @CacheEvict(value = "glAccountMappings", allEntries = true)
     public CommandProcessingResult updateGLAccount(final Long glAccountId, final JsonCommand command) {
         try {
             final GLAccountCommand accountCommand = this.fromApiJsonDeserializer.commandFromApiJson(command.json());
@@ -154,6 +156,7 @@ public class GLAccountWritePlatformServiceJpaRepositoryImpl implements GLAccount
 
     @Transactional
     @Override
+    @CacheEvict(value = "glAccountMappings", allEntries = true)
     public CommandProcessingResult deleteGLAccount(final Long glAccountId) {
         final GLAccount glAccount = this.glAccountRepository.findOne(glAccountId);
 
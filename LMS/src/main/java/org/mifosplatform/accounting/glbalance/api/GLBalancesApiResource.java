@@ -0,0 +1,89 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.accounting.glbalance.api;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.Set;
+
+import javax.ws.rs.Consumes;
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.UriInfo;
+
+import org.mifosplatform.accounting.glbalance.data.GLAccountBalanceData;
+import org.mifosplatform.accounting.glbalance.service.GLBalanceReadPlatformService;
+import org.mifosplatform.accounting.journalentry.api.DateParam;
+import org.mifosplatform.infrastructure.core.api.ApiRequestParameterHelper;
+import org.mifosplatform.infrastructure.core.serialization.ApiRequestJsonSerializationSettings;
+import org.mifosplatform.infrastructure.core.serialization.DefaultToApiJsonSerializer;
+import org.mifosplatform.infrastructure.core.service.DateUtils;
+import org.mifosplatform.infrastructure.security.service.PlatformSecurityContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Scope;
+import org.springframework.stereotype.Component;
+
+@Path("/glbalances")
+@Component
+@Scope("singleton")
+public class GLBalancesApiResource {
+
+    private static final Set<String> RESPONSE_DATA_PARAMETERS = new HashSet<String>(Arrays.asList("glAccountId", "glAccountName",
+            "glAccountCode", "glAccountType", "openingBalance", "debitAmount", "creditAmount", "closingBalance"));
+
+    private final String resourceNameForPermission = "JOURNALENTRY";
+
+    private final PlatformSecurityContext context;
+    private final GLBalanceReadPlatformService glBalanceReadPlatformService;
+    private final DefaultToApiJsonSerializer<GLAccountBalanceData> apiJsonSerializerService;
+    private final ApiRequestParameterHelper apiRequestParameterHelper;
+
+    @Autowired
+    public GLBalancesApiResource(final PlatformSecurityContext context, final GLBalanceReadPlatformService glBalanceReadPlatformService,
+            final DefaultToApiJsonSerializer<GLAccountBalanceData> toApiJsonSerializer,
+            final ApiRequestParameterHelper apiRequestParameterHelper) {
+        this.context = context;
+        this.glBalanceReadPlatformService = glBalanceReadPlatformService;
+        this.apiJsonSerializerService = toApiJsonSerializer;
+        this.apiRequestParameterHelper = apiRequestParameterHelper;
+    }
+
+    /**
+     * Trial balance for the period of an office and its sub-offices, by
+     * default the office of the user. Offices outside the user's hierarchy are
+     * refused. Both dates are inclusive and default to today.
+     */
+    @GET
+    @Consumes({ MediaType.APPLICATION_JSON })
+    @Produces({ MediaType.APPLICATION_JSON })
+    public String retrieveTrialBalance(@Context final UriInfo uriInfo, @QueryParam("officeId") final Long officeId,
+            @QueryParam("fromDate") final DateParam fromDateParam, @QueryParam("toDate") final DateParam toDateParam,
+            @QueryParam("locale") final String locale, @QueryParam("dateFormat") final String dateFormat) {
+
+        this.context.authenticatedUser().validateHasReadPermission(this.resourceNameForPermission);
+
+        Date toDate = DateUtils.getDateOfTenant();
+        if (toDateParam != null) {
+            toDate = toDateParam.getDate("toDate", dateFormat, locale);
+        }
+        Date fromDate = toDate;
+        if (fromDateParam != null) {
+            fromDate = fromDateParam.getDate("fromDate", dateFormat, locale);
+        }
+
+        final Collection<GLAccountBalanceData> trialBalance = this.glBalanceReadPlatformService.retrieveTrialBalance(officeId, fromDate,
+                toDate);
+
+        final ApiRequestJsonSerializationSettings settings = this.apiRequestParameterHelper.process(uriInfo.getQueryParameters());
+        return this.apiJsonSerializerService.serialize(settings, trialBalance, RESPONSE_DATA_PARAMETERS);
+    }
+}
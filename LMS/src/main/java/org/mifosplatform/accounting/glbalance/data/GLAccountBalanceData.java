@@ -0,0 +1,59 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.accounting.glbalance.data;
+
+import java.math.BigDecimal;
+
+import org.mifosplatform.infrastructure.core.data.EnumOptionData;
+
+/**
+ * Immutable object representing one line of a trial balance. Opening and
+ * closing balances are in the normal direction of the account type, i.e.
+ * positive debit balances for assets and expenses and positive credit
+ * balances for liabilities, equity and income.
+ */
+public class GLAccountBalanceData {
+
+    private final Long glAccountId;
+    @SuppressWarnings("unused")
+    private final String glAccountName;
+    @SuppressWarnings("unused")
+    private final String glAccountCode;
+    @SuppressWarnings("unused")
+    private final EnumOptionData glAccountType;
+    @SuppressWarnings("unused")
+    private final BigDecimal openingBalance;
+    @SuppressWarnings("unused")
+    private final BigDecimal debitAmount;
+    @SuppressWarnings("unused")
+    private final BigDecimal creditAmount;
+    @SuppressWarnings("unused")
+    private final BigDecimal closingBalance;
+
+    public static GLAccountBalanceData instance(final Long glAccountId, final String glAccountName, final String glAccountCode,
+            final EnumOptionData glAccountType, final BigDecimal openingBalance, final BigDecimal debitAmount,
+            final BigDecimal creditAmount, final BigDecimal closingBalance) {
+        return new GLAccountBalanceData(glAccountId, glAccountName, glAccountCode, glAccountType, openingBalance, debitAmount,
+                creditAmount, closingBalance);
+    }
+
+    private GLAccountBalanceData(final Long glAccountId, final String glAccountName, final String glAccountCode,
+            final EnumOptionData glAccountType, final BigDecimal openingBalance, final BigDecimal debitAmount,
+            final BigDecimal creditAmount, final BigDecimal closingBalance) {
+        this.glAccountId = glAccountId;
+        this.glAccountName = glAccountName;
+        this.glAccountCode = glAccountCode;
+        this.glAccountType = glAccountType;
+        this.openingBalance = openingBalance;
+        this.debitAmount = debitAmount;
+        this.creditAmount = creditAmount;
+        this.closingBalance = closingBalance;
+    }
+
+    public Long getGlAccountId() {
+        return this.glAccountId;
+    }
+}
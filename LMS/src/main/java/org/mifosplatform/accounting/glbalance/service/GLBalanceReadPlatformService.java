@@ -0,0 +1,57 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.accounting.glbalance.service;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.Date;
+import java.util.Map;
+
+import org.mifosplatform.accounting.glbalance.data.GLAccountBalanceData;
+
+/**
+ * Range queries over the per office, account and day debits and credits of
+ * the journal (<code>acc_gl_daily_balance</code>), so balances cost the
+ * number of accounts and days involved rather than the number of journal
+ * entries.
+ */
+public interface GLBalanceReadPlatformService {
+
+    /**
+     * @return debits minus credits per GL code over all offices, for entries
+     *         dated after <code>startDate</code> up to and including
+     *         <code>endDate</code>
+     */
+    Map<String, BigDecimal> retrieveNetMovementsByGLCode(Date startDate, Date endDate);
+
+    /**
+     * @param officeId
+     *            office whose entries (including those of its sub offices)
+     *            are included, or <code>null</code> for the office of the
+     *            current user. The office must be in the user's hierarchy.
+     */
+    Collection<GLAccountBalanceData> retrieveTrialBalance(Long officeId, Date fromDate, Date toDate);
+
+    /**
+     * @param officeId
+     *            restricts the result to one office, <code>null</code> for
+     *            all offices
+     * @return balance in the normal direction of the account of all entries
+     *         dated before <code>date</code>, by office id and then GL
+     *         account id. The returned maps are mutable.
+     */
+    Map<Long, Map<Long, BigDecimal>> retrieveOfficeBalancesBefore(Long officeId, Date date);
+
+    /**
+     * @param officeId
+     *            restricts the result to one office, <code>null</code> for
+     *            all offices
+     * @return balance of one GL account in its normal direction of all
+     *         entries dated before <code>date</code>, by office id. Offices
+     *         without entries for the account are absent.
+     */
+    Map<Long, BigDecimal> retrieveAccountBalancesBefore(Long accountId, Long officeId, Date date);
+}
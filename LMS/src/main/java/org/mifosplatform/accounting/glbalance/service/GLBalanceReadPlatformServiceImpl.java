@@ -0,0 +1,194 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.accounting.glbalance.service;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.mifosplatform.accounting.common.AccountingEnumerations;
+import org.mifosplatform.accounting.glaccount.domain.GLAccountType;
+import org.mifosplatform.accounting.glbalance.data.GLAccountBalanceData;
+import org.mifosplatform.infrastructure.core.data.EnumOptionData;
+import org.mifosplatform.infrastructure.core.domain.JdbcSupport;
+import org.mifosplatform.infrastructure.core.service.RoutingDataSource;
+import org.mifosplatform.infrastructure.security.service.PlatformSecurityContext;
+import org.mifosplatform.organisation.office.exception.OfficeNotFoundException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Service;
+
+@Service
+public class GLBalanceReadPlatformServiceImpl implements GLBalanceReadPlatformService {
+
+    private final PlatformSecurityContext context;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public GLBalanceReadPlatformServiceImpl(final PlatformSecurityContext context, final RoutingDataSource dataSource) {
+        this.context = context;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @Override
+    public Map<String, BigDecimal> retrieveNetMovementsByGLCode(final Date startDate, final Date endDate) {
+
+        final String sql = "select a.gl_code as glCode, sum(b.debit_amount - b.credit_amount) as balance "
+                + "from acc_gl_daily_balance b join acc_gl_account a on a.id = b.account_id "
+                + "where b.balance_date > ? and b.balance_date <= ? group by a.gl_code";
+
+        final Map<String, BigDecimal> balances = new HashMap<String, BigDecimal>();
+        this.jdbcTemplate.query(sql, new RowCallbackHandler() {
+
+            @Override
+            public void processRow(final ResultSet rs) throws SQLException {
+                balances.put(rs.getString("glCode"), rs.getBigDecimal("balance"));
+            }
+        }, startDate, endDate);
+
+        return balances;
+    }
+
+    @Override
+    public Collection<GLAccountBalanceData> retrieveTrialBalance(final Long officeId, final Date fromDate, final Date toDate) {
+
+        String officeHierarchy = this.context.officeHierarchy();
+        if (officeId != null) {
+            officeHierarchy = officeHierarchy(officeId);
+            this.context.validateAccessRights(officeHierarchy);
+        }
+        final String hierarchy = officeHierarchy + "%";
+
+        final List<Object> params = new ArrayList<Object>();
+
+        final StringBuilder sql = new StringBuilder(1200);
+        sql.append("select a.id as glAccountId, a.name as glAccountName, a.gl_code as glCode, a.classification_enum as classification, ");
+        sql.append("ifnull(opening.balance, 0) as openingBalance, ifnull(movement.debits, 0) as debits, ifnull(movement.credits, 0) as credits ");
+        sql.append("from acc_gl_account a ");
+
+        sql.append("left join (select b.account_id, sum(b.debit_amount - b.credit_amount) as balance from acc_gl_daily_balance b ");
+        sql.append("join m_office o on o.id = b.office_id where b.balance_date < ? and o.hierarchy like ? ");
+        sql.append("group by b.account_id) opening on opening.account_id = a.id ");
+        params.add(fromDate);
+        params.add(hierarchy);
+
+        sql.append("left join (select b.account_id, sum(b.debit_amount) as debits, sum(b.credit_amount) as credits ");
+        sql.append("from acc_gl_daily_balance b join m_office o on o.id = b.office_id ");
+        sql.append("where b.balance_date >= ? and b.balance_date <= ? and o.hierarchy like ? ");
+        sql.append("group by b.account_id) movement on movement.account_id = a.id ");
+        params.add(fromDate);
+        params.add(toDate);
+        params.add(hierarchy);
+
+        sql.append("where opening.account_id is not null or movement.account_id is not null ");
+        sql.append("order by a.gl_code");
+
+        return this.jdbcTemplate.query(sql.toString(), new TrialBalanceMapper(), params.toArray());
+    }
+
+    @Override
+    public Map<Long, Map<Long, BigDecimal>> retrieveOfficeBalancesBefore(final Long officeId, final Date date) {
+        return retrieveBalancesBefore(officeId, null, date);
+    }
+
+    @Override
+    public Map<Long, BigDecimal> retrieveAccountBalancesBefore(final Long accountId, final Long officeId, final Date date) {
+
+        final Map<Long, BigDecimal> officeBalances = new HashMap<Long, BigDecimal>();
+        for (final Map.Entry<Long, Map<Long, BigDecimal>> balances : retrieveBalancesBefore(officeId, accountId, date).entrySet()) {
+            officeBalances.put(balances.getKey(), balances.getValue().get(accountId));
+        }
+        return officeBalances;
+    }
+
+    private Map<Long, Map<Long, BigDecimal>> retrieveBalancesBefore(final Long officeId, final Long accountId, final Date date) {
+
+        final List<Object> params = new ArrayList<Object>();
+        params.add(date);
+        String criteria = "";
+        if (officeId != null) {
+            criteria += "and b.office_id = ? ";
+            params.add(officeId);
+        }
+        if (accountId != null) {
+            criteria += "and b.account_id = ? ";
+            params.add(accountId);
+        }
+
+        // closing balance is the sum of the daily movements, one row per day
+        // with entries rather than one per entry
+        final String sql = "select b.office_id as officeId, b.account_id as accountId, a.classification_enum as classification, "
+                + "sum(b.debit_amount - b.credit_amount) as closingBalance from acc_gl_daily_balance b "
+                + "join acc_gl_account a on a.id = b.account_id where b.balance_date < ? " + criteria
+                + "group by b.office_id, b.account_id, a.classification_enum";
+
+        final Map<Long, Map<Long, BigDecimal>> balances = new HashMap<Long, Map<Long, BigDecimal>>();
+        this.jdbcTemplate.query(sql, new RowCallbackHandler() {
+
+            @Override
+            public void processRow(final ResultSet rs) throws SQLException {
+                final Long rowOfficeId = rs.getLong("officeId");
+                Map<Long, BigDecimal> officeBalances = balances.get(rowOfficeId);
+                if (officeBalances == null) {
+                    officeBalances = new HashMap<Long, BigDecimal>();
+                    balances.put(rowOfficeId, officeBalances);
+                }
+                final GLAccountType accountType = GLAccountType.fromInt(JdbcSupport.getInteger(rs, "classification"));
+                officeBalances.put(rs.getLong("accountId"), inNormalDirection(accountType, rs.getBigDecimal("closingBalance")));
+            }
+        }, params.toArray());
+
+        return balances;
+    }
+
+    private String officeHierarchy(final Long officeId) {
+        try {
+            return this.jdbcTemplate.queryForObject("select o.hierarchy from m_office o where o.id = ?", String.class, officeId);
+        } catch (final EmptyResultDataAccessException e) {
+            throw new OfficeNotFoundException(officeId);
+        }
+    }
+
+    /**
+     * Daily balances are kept as debits minus credits; assets and expenses
+     * increase with debits, all other account types with credits.
+     */
+    static BigDecimal inNormalDirection(final GLAccountType accountType, final BigDecimal debitBalance) {
+        if (GLAccountType.ASSET.equals(accountType) || GLAccountType.EXPENSE.equals(accountType)) { return debitBalance; }
+        return debitBalance.negate();
+    }
+
+    private static final class TrialBalanceMapper implements RowMapper<GLAccountBalanceData> {
+
+        @Override
+        public GLAccountBalanceData mapRow(final ResultSet rs, @SuppressWarnings("unused") final int rowNum) throws SQLException {
+
+            final Long glAccountId = rs.getLong("glAccountId");
+            final String glAccountName = rs.getString("glAccountName");
+            final String glCode = rs.getString("glCode");
+            final GLAccountType accountType = GLAccountType.fromInt(JdbcSupport.getInteger(rs, "classification"));
+            final EnumOptionData glAccountType = AccountingEnumerations.gLAccountType(accountType);
+
+            final BigDecimal openingDebitBalance = rs.getBigDecimal("openingBalance");
+            final BigDecimal debits = rs.getBigDecimal("debits");
+            final BigDecimal credits = rs.getBigDecimal("credits");
+            final BigDecimal closingDebitBalance = openingDebitBalance.add(debits).subtract(credits);
+
+            return GLAccountBalanceData.instance(glAccountId, glAccountName, glCode, glAccountType,
+                    inNormalDirection(accountType, openingDebitBalance), debits, credits,
+                    inNormalDirection(accountType, closingDebitBalance));
+        }
+    }
+}
@@ -0,0 +1,27 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.accounting.glbalance.service;
+
+import java.util.Collection;
+
+import org.mifosplatform.accounting.journalentry.domain.JournalEntry;
+
+public interface GLBalanceWritePlatformService {
+
+    /**
+     * Adds a newly posted journal entry to the debits or credits of its
+     * office, account and date. No other day is touched.
+     */
+    void recordJournalEntry(JournalEntry journalEntry);
+
+    /**
+     * Adds journal entries posted together, summed per office, account and
+     * date first, so each day is touched once.
+     */
+    void recordJournalEntries(Collection<JournalEntry> journalEntries);
+
+    void rebuildDailyBalances();
+}
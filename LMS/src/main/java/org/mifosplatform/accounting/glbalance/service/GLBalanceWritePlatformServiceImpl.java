@@ -0,0 +1,103 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.accounting.glbalance.service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.mifosplatform.accounting.journalentry.domain.JournalEntry;
+import org.mifosplatform.infrastructure.core.service.RoutingDataSource;
+import org.mifosplatform.infrastructure.core.service.ThreadLocalContextUtil;
+import org.mifosplatform.infrastructure.jobs.annotation.CronTarget;
+import org.mifosplatform.infrastructure.jobs.service.JobName;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+public class GLBalanceWritePlatformServiceImpl implements GLBalanceWritePlatformService {
+
+    private final static Logger logger = LoggerFactory.getLogger(GLBalanceWritePlatformServiceImpl.class);
+
+    private static final String RECORD_MOVEMENT_SQL = "insert into acc_gl_daily_balance (office_id, account_id, balance_date, "
+            + "debit_amount, credit_amount) values (?, ?, ?, ?, ?) on duplicate key update "
+            + "debit_amount = debit_amount + values(debit_amount), credit_amount = credit_amount + values(credit_amount)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public GLBalanceWritePlatformServiceImpl(final RoutingDataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @Transactional
+    @Override
+    public void recordJournalEntry(final JournalEntry journalEntry) {
+
+        final Long officeId = journalEntry.getOffice().getId();
+        final Long accountId = journalEntry.getGlAccount().getId();
+        final Date entryDate = journalEntry.getTransactionDate();
+
+        final BigDecimal amount = journalEntry.getAmount();
+        final BigDecimal debit = journalEntry.isDebitEntry() ? amount : BigDecimal.ZERO;
+        final BigDecimal credit = journalEntry.isDebitEntry() ? BigDecimal.ZERO : amount;
+
+        // only the row of the entry day changes, closing balances are summed
+        // from the daily movements when read
+        this.jdbcTemplate.update(RECORD_MOVEMENT_SQL, officeId, accountId, entryDate, debit, credit);
+    }
+
+    @Transactional
+    @Override
+    public void recordJournalEntries(final Collection<JournalEntry> journalEntries) {
+
+        final Map<List<Object>, BigDecimal[]> movements = new LinkedHashMap<List<Object>, BigDecimal[]>();
+        for (final JournalEntry journalEntry : journalEntries) {
+            final List<Object> day = Arrays.<Object> asList(journalEntry.getOffice().getId(), journalEntry.getGlAccount().getId(),
+                    journalEntry.getTransactionDate());
+            BigDecimal[] movement = movements.get(day);
+            if (movement == null) {
+                movement = new BigDecimal[] { BigDecimal.ZERO, BigDecimal.ZERO };
+                movements.put(day, movement);
+            }
+            final int side = journalEntry.isDebitEntry() ? 0 : 1;
+            movement[side] = movement[side].add(journalEntry.getAmount());
+        }
+
+        final List<Object[]> batchArgs = new ArrayList<Object[]>(movements.size());
+        for (final Map.Entry<List<Object>, BigDecimal[]> movement : movements.entrySet()) {
+            final List<Object> day = movement.getKey();
+            batchArgs.add(new Object[] { day.get(0), day.get(1), day.get(2), movement.getValue()[0], movement.getValue()[1] });
+        }
+        if (!batchArgs.isEmpty()) {
+            this.jdbcTemplate.batchUpdate(RECORD_MOVEMENT_SQL, batchArgs);
+        }
+    }
+
+    @Transactional
+    @Override
+    @CronTarget(jobName = JobName.REBUILD_GL_DAILY_BALANCES)
+    public void rebuildDailyBalances() {
+
+        this.jdbcTemplate.update("delete from acc_gl_daily_balance");
+
+        final int days = this.jdbcTemplate.update("insert into acc_gl_daily_balance (office_id, account_id, balance_date, "
+                + "debit_amount, credit_amount) select je.office_id, je.account_id, je.entry_date, "
+                + "sum(if(je.type_enum = 2, je.amount, 0)), sum(if(je.type_enum = 1, je.amount, 0)) from acc_gl_journal_entry je "
+                + "group by je.office_id, je.account_id, je.entry_date");
+
+        logger.info(ThreadLocalContextUtil.getTenant().getName() + ": GL daily balances rebuilt for " + days + " office/account days");
+    }
+}
@@ -1,12 +1,14 @@
 package org.mifosplatform.accounting.journalentry.handler;
 
 import org.mifosplatform.accounting.journalentry.service.JournalEntryRunningBalanceUpdateService;
+import org.mifosplatform.commands.annotation.CommandType;
 import org.mifosplatform.commands.handler.NewCommandSourceHandler;
 import org.mifosplatform.infrastructure.core.api.JsonCommand;
 import org.mifosplatform.infrastructure.core.data.CommandProcessingResult;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+@CommandType(entity = "JOURNALENTRY", action = "UPDATERUNNINGBALANCE")
 @Service
 public class UpdateRunningBalanceCommandHandler implements NewCommandSourceHandler {
 
@@ -37,4 +37,23 @@ public class AccountingProcessorForLoanFactory {
         return accountingProcessorForLoan;
     }
 
+    /**
+     * Returns a processor that creates its journal entries through the given
+     * helper, such as one from {@link AccountingProcessorHelper#batch()}.
+     */
+    public AccountingProcessorForLoan determineProcessor(final LoanDTO loanDTO, final AccountingProcessorHelper helper) {
+
+        AccountingProcessorForLoan accountingProcessorForLoan = null;
+
+        if (loanDTO.isCashBasedAccountingEnabled()) {
+            accountingProcessorForLoan = new CashBasedAccountingProcessorForLoan(helper);
+        }
+
+        else if (loanDTO.isAccrualBasedAccountingEnabled()) {
+            accountingProcessorForLoan = new AccrualBasedAccountingProcessorForLoan(helper);
+        }
+
+        return accountingProcessorForLoan;
+    }
+
 }
@@ -8,6 +8,7 @@ package org.mifosplatform.accounting.journalentry.service;
 import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -20,6 +21,7 @@ import org.mifosplatform.accounting.common.AccountingConstants.ACCRUAL_ACCOUNTS_
 import org.mifosplatform.accounting.common.AccountingConstants.CASH_ACCOUNTS_FOR_LOAN;
 import org.mifosplatform.accounting.common.AccountingConstants.CASH_ACCOUNTS_FOR_SAVINGS;
 import org.mifosplatform.accounting.glaccount.domain.GLAccount;
+import org.mifosplatform.accounting.glbalance.service.GLBalanceWritePlatformService;
 import org.mifosplatform.accounting.journalentry.data.ChargePaymentDTO;
 import org.mifosplatform.accounting.journalentry.data.LoanDTO;
 import org.mifosplatform.accounting.journalentry.data.LoanTransactionDTO;
@@ -58,18 +60,67 @@ public class AccountingProcessorHelper {
     private final OfficeRepository officeRepository;
     private final LoanTransactionRepository loanTransactionRepository;
     private final SavingsAccountTransactionRepository savingsAccountTransactionRepository;
+    private final GLBalanceWritePlatformService glBalanceWritePlatformService;
+
+    /**
+     * Loan journal entries held back until {@link #flushJournalEntries()},
+     * <code>null</code> when each entry is written as it is created
+     */
+    private final List<JournalEntry> pendingLoanJournalEntries;
+    private final Map<Long, GLClosure> latestClosuresByOffice;
 
     @Autowired
     public AccountingProcessorHelper(final JournalEntryRepository glJournalEntryRepository,
             final ProductToGLAccountMappingRepository accountMappingRepository, final GLClosureRepository closureRepository,
             final OfficeRepository officeRepository, final LoanTransactionRepository loanTransactionRepository,
-            final SavingsAccountTransactionRepository savingsAccountTransactionRepository) {
+            final SavingsAccountTransactionRepository savingsAccountTransactionRepository,
+            final GLBalanceWritePlatformService glBalanceWritePlatformService) {
         this.glJournalEntryRepository = glJournalEntryRepository;
         this.accountMappingRepository = accountMappingRepository;
         this.closureRepository = closureRepository;
         this.officeRepository = officeRepository;
         this.loanTransactionRepository = loanTransactionRepository;
         this.savingsAccountTransactionRepository = savingsAccountTransactionRepository;
+        this.glBalanceWritePlatformService = glBalanceWritePlatformService;
+        this.pendingLoanJournalEntries = null;
+        this.latestClosuresByOffice = null;
+    }
+
+    private AccountingProcessorHelper(final AccountingProcessorHelper helper) {
+        this.glJournalEntryRepository = helper.glJournalEntryRepository;
+        this.accountMappingRepository = helper.accountMappingRepository;
+        this.closureRepository = helper.closureRepository;
+        this.officeRepository = helper.officeRepository;
+        this.loanTransactionRepository = helper.loanTransactionRepository;
+        this.savingsAccountTransactionRepository = helper.savingsAccountTransactionRepository;
+        this.glBalanceWritePlatformService = helper.glBalanceWritePlatformService;
+        this.pendingLoanJournalEntries = new ArrayList<JournalEntry>();
+        this.latestClosuresByOffice = new HashMap<Long, GLClosure>();
+    }
+
+    /**
+     * Returns a helper for posting the journal entries of several loans as one
+     * batch: the loan journal entries it creates are held back and written
+     * together by {@link #flushJournalEntries()}, and the latest closure of
+     * each branch is read once. It must not outlive the transaction it is
+     * used in.
+     */
+    public AccountingProcessorHelper batch() {
+        return new AccountingProcessorHelper(this);
+    }
+
+    /**
+     * Writes the loan journal entries held back by a helper from
+     * {@link #batch()} with a single flush, and adds them to the daily
+     * balances together.
+     */
+    public void flushJournalEntries() {
+        if (this.pendingLoanJournalEntries == null || this.pendingLoanJournalEntries.isEmpty()) { return; }
+
+        this.glJournalEntryRepository.save(this.pendingLoanJournalEntries);
+        this.glJournalEntryRepository.flush();
+        this.glBalanceWritePlatformService.recordJournalEntries(this.pendingLoanJournalEntries);
+        this.pendingLoanJournalEntries.clear();
     }
 
     public LoanDTO populateLoanDtoFromMap(final Map<String, Object> accountingBridgeData, final boolean cashBasedAccountingEnabled,
@@ -334,7 +385,12 @@ public class AccountingProcessorHelper {
     }
 
     public GLClosure getLatestClosureByBranch(final long officeId) {
-        return this.closureRepository.getLatestGLClosureByBranch(officeId);
+        if (this.latestClosuresByOffice == null) { return this.closureRepository.getLatestGLClosureByBranch(officeId); }
+
+        if (!this.latestClosuresByOffice.containsKey(officeId)) {
+            this.latestClosuresByOffice.put(officeId, this.closureRepository.getLatestGLClosureByBranch(officeId));
+        }
+        return this.latestClosuresByOffice.get(officeId);
     }
 
     public Office getOfficeById(final long officeId) {
@@ -501,7 +557,16 @@ public class AccountingProcessorHelper {
         final JournalEntry journalEntry = JournalEntry.createNew(office, account, currencyCode, modifiedTransactionId, manualEntry,
                 transactionDate, JournalEntryType.CREDIT, amount, null, PortfolioProductType.LOAN.getValue(), loanId, null, 
                 loanTransaction, savingsAccountTransaction);
-        this.glJournalEntryRepository.saveAndFlush(journalEntry);
+        saveLoanJournalEntry(journalEntry);
+    }
+
+    private void saveLoanJournalEntry(final JournalEntry journalEntry) {
+        if (this.pendingLoanJournalEntries != null) {
+            this.pendingLoanJournalEntries.add(journalEntry);
+        } else {
+            this.glJournalEntryRepository.saveAndFlush(journalEntry);
+            this.glBalanceWritePlatformService.recordJournalEntry(journalEntry);
+        }
     }
 
     private void createCreditJournalEntryForSavings(final Office office, final String currencyCode, final GLAccount account,
@@ -519,6 +584,7 @@ public class AccountingProcessorHelper {
                 transactionDate, JournalEntryType.CREDIT, amount, null, PortfolioProductType.SAVING.getValue(), savingsId, null, 
                 loanTransaction, savingsAccountTransaction);
         this.glJournalEntryRepository.saveAndFlush(journalEntry);
+        this.glBalanceWritePlatformService.recordJournalEntry(journalEntry);
     }
 
     private void createDebitJournalEntryForLoan(final Office office, final String currencyCode, final GLAccount account, final Long loanId,
@@ -535,7 +601,7 @@ public class AccountingProcessorHelper {
         final JournalEntry journalEntry = JournalEntry.createNew(office, account, currencyCode, modifiedTransactionId, manualEntry,
                 transactionDate, JournalEntryType.DEBIT, amount, null, PortfolioProductType.LOAN.getValue(), loanId, null, 
                 loanTransaction, savingsAccountTransaction);
-        this.glJournalEntryRepository.saveAndFlush(journalEntry);
+        saveLoanJournalEntry(journalEntry);
     }
 
     private void createDebitJournalEntryForSavings(final Office office, final String currencyCode, final GLAccount account,
@@ -553,6 +619,7 @@ public class AccountingProcessorHelper {
                 transactionDate, JournalEntryType.DEBIT, amount, null, PortfolioProductType.SAVING.getValue(), savingsId, null, 
                 loanTransaction, savingsAccountTransaction);
         this.glJournalEntryRepository.saveAndFlush(journalEntry);
+        this.glBalanceWritePlatformService.recordJournalEntry(journalEntry);
     }
 
     private GLAccount getLinkedGLAccountForLoanProduct(final Long loanProductId, final int accountMappingTypeId, final Long paymentTypeId) {
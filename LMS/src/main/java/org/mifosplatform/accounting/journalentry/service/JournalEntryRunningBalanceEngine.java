@@ -0,0 +1,328 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.accounting.journalentry.service;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import org.mifosplatform.accounting.glaccount.domain.GLAccountType;
+import org.mifosplatform.accounting.glbalance.service.GLBalanceReadPlatformService;
+import org.mifosplatform.accounting.journalentry.domain.JournalEntryType;
+import org.mifosplatform.infrastructure.core.domain.JdbcSupport;
+import org.mifosplatform.infrastructure.core.service.RoutingDataSource;
+import org.mifosplatform.infrastructure.core.service.TenantAwareCallable;
+import org.mifosplatform.infrastructure.jobs.service.JobWorkerPool;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallbackWithoutResult;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Calculates the running balances of journal entries.
+ *
+ * Running balances of one GL account do not depend on the entries of any
+ * other account, so every account with uncalculated entries is processed as
+ * a separate partition on the job worker pool. A partition starts from the
+ * balances at the end of the day before its earliest uncalculated entry, taken
+ * from the daily GL balances, and walks its entries in
+ * <code>entry_date, id</code> order in chunks. Each chunk is written with a
+ * single parameterized batch and committed on its own, together with the
+ * <code>is_running_balance_caculated</code> flag of its entries. That flag is
+ * the checkpoint: a run that stops part way resumes from the first entry
+ * still flagged as uncalculated.
+ */
+@Component
+public class JournalEntryRunningBalanceEngine {
+
+    private final static Logger logger = LoggerFactory.getLogger(JournalEntryRunningBalanceEngine.class);
+
+    private static final int CHUNK_SIZE = 1000;
+
+    /**
+     * Amounts are stored as decimal(19,6), so balances are carried as longs
+     * in millionths.
+     */
+    private static final int AMOUNT_SCALE = 6;
+
+    private static final String ORGANIZATION_UPDATE_SQL = "update acc_gl_journal_entry set office_running_balance = ?, "
+            + "organization_running_balance = ?, is_running_balance_caculated = 1 where id = ?";
+
+    private static final String OFFICE_UPDATE_SQL = "update acc_gl_journal_entry set office_running_balance = ? where id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final GLBalanceReadPlatformService glBalanceReadPlatformService;
+    private final JobWorkerPool jobWorkerPool;
+
+    @Autowired
+    public JournalEntryRunningBalanceEngine(final RoutingDataSource dataSource, final PlatformTransactionManager transactionManager,
+            final GLBalanceReadPlatformService glBalanceReadPlatformService, final JobWorkerPool jobWorkerPool) {
+        this(new JdbcTemplate(dataSource), new TransactionTemplate(transactionManager), glBalanceReadPlatformService, jobWorkerPool);
+    }
+
+    JournalEntryRunningBalanceEngine(final JdbcTemplate jdbcTemplate, final TransactionTemplate transactionTemplate,
+            final GLBalanceReadPlatformService glBalanceReadPlatformService, final JobWorkerPool jobWorkerPool) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.glBalanceReadPlatformService = glBalanceReadPlatformService;
+        this.jobWorkerPool = jobWorkerPool;
+    }
+
+    /**
+     * Calculates the office and organization running balances of all
+     * accounts with uncalculated entries and flags the entries as calculated.
+     *
+     * @return number of entries updated
+     */
+    public long updateOrganizationRunningBalances() {
+        return run(null);
+    }
+
+    /**
+     * Recalculates only the office running balances of entries of the given
+     * office, from its earliest uncalculated entry of each account on.
+     *
+     * @return number of entries updated
+     */
+    public long updateOfficeRunningBalances(final Long officeId) {
+        return run(officeId);
+    }
+
+    private long run(final Long officeId) {
+
+        final List<RunningBalancePartition> partitions = retrievePartitions(officeId);
+        if (partitions.isEmpty()) { return 0; }
+
+        final ExecutorService executorService = this.jobWorkerPool.newExecutorService(Math.min(this.jobWorkerPool.threadCount(),
+                partitions.size()));
+        long updated = 0;
+        try {
+            final List<Future<Long>> results = new ArrayList<Future<Long>>();
+            for (final RunningBalancePartition partition : partitions) {
+                results.add(executorService.submit(new TenantAwareCallable<Long>() {
+
+                    @Override
+                    protected Long callForTenant() {
+                        return Long.valueOf(process(partition));
+                    }
+                }));
+            }
+            for (final Future<Long> result : results) {
+                updated += result.get().longValue();
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Running balance update was interrupted", e);
+        } catch (final ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) { throw (RuntimeException) cause; }
+            throw new IllegalStateException(cause);
+        } finally {
+            executorService.shutdownNow();
+        }
+        return updated;
+    }
+
+    private List<RunningBalancePartition> retrievePartitions(final Long officeId) {
+
+        final List<Object> params = new ArrayList<Object>();
+        String officeCriteria = "";
+        if (officeId != null) {
+            officeCriteria = "and je.office_id = ? ";
+            params.add(officeId);
+        }
+        final String sql = "select je.account_id as accountId, a.classification_enum as classification, min(je.entry_date) as startDate "
+                + "from acc_gl_journal_entry je join acc_gl_account a on a.id = je.account_id "
+                + "where je.is_running_balance_caculated = 0 " + officeCriteria + "group by je.account_id, a.classification_enum";
+
+        final List<RunningBalancePartition> partitions = new ArrayList<RunningBalancePartition>();
+        this.jdbcTemplate.query(sql, new RowCallbackHandler() {
+
+            @Override
+            public void processRow(final ResultSet rs) throws SQLException {
+                final GLAccountType accountType = GLAccountType.fromInt(JdbcSupport.getInteger(rs, "classification"));
+                partitions.add(new RunningBalancePartition(rs.getLong("accountId"), officeId, accountType, rs.getDate("startDate")));
+            }
+        }, params.toArray());
+        return partitions;
+    }
+
+    private long process(final RunningBalancePartition partition) {
+
+        final boolean organization = partition.officeId == null;
+
+        final Map<Long, long[]> officeBalances = new HashMap<Long, long[]>();
+        long organizationBalance = 0;
+        for (final Map.Entry<Long, BigDecimal> opening : this.glBalanceReadPlatformService.retrieveAccountBalancesBefore(
+                partition.accountId, partition.officeId, partition.startDate).entrySet()) {
+            final long balance = toScaledLong(opening.getValue());
+            officeBalances.put(opening.getKey(), new long[] { balance });
+            organizationBalance = addExact(organizationBalance, balance);
+        }
+
+        final List<Object> params = new ArrayList<Object>();
+        params.add(Long.valueOf(partition.accountId));
+        String officeCriteria = "";
+        if (!organization) {
+            officeCriteria = "and je.office_id = ? ";
+            params.add(partition.officeId);
+        }
+        final String sql = "select je.id as id, je.entry_date as entryDate, je.office_id as officeId, je.type_enum as entryType, "
+                + "je.amount as amount "
+                + "from acc_gl_journal_entry je where je.account_id = ? " + officeCriteria
+                + "and (je.entry_date > ? or (je.entry_date = ? and je.id > ?)) order by je.entry_date, je.id limit " + CHUNK_SIZE;
+
+        final RunningBalanceChunk chunk = new RunningBalanceChunk();
+        // cursor positioned just before the first entry of the start date
+        Date lastEntryDate = partition.startDate;
+        long lastId = 0;
+        long updated = 0;
+        while (true) {
+            chunk.clear();
+            final Object[] chunkParams = params.toArray(new Object[params.size() + 3]);
+            chunkParams[params.size()] = lastEntryDate;
+            chunkParams[params.size() + 1] = lastEntryDate;
+            chunkParams[params.size() + 2] = Long.valueOf(lastId);
+            this.jdbcTemplate.query(sql, chunk, chunkParams);
+            if (chunk.size == 0) {
+                break;
+            }
+
+            for (int i = 0; i < chunk.size; i++) {
+                final long amount = partition.increases(chunk.entryTypes[i]) ? chunk.amounts[i] : -chunk.amounts[i];
+                long[] officeBalance = officeBalances.get(Long.valueOf(chunk.officeIds[i]));
+                if (officeBalance == null) {
+                    officeBalance = new long[1];
+                    officeBalances.put(Long.valueOf(chunk.officeIds[i]), officeBalance);
+                }
+                officeBalance[0] = addExact(officeBalance[0], amount);
+                organizationBalance = addExact(organizationBalance, amount);
+                chunk.officeBalances[i] = officeBalance[0];
+                chunk.organizationBalances[i] = organizationBalance;
+            }
+
+            write(chunk, organization);
+            updated += chunk.size;
+
+            lastEntryDate = chunk.lastEntryDate;
+            lastId = chunk.ids[chunk.size - 1];
+            if (chunk.size < CHUNK_SIZE) {
+                break;
+            }
+        }
+
+        logger.debug("Updated running balances of " + updated + " journal entries of GL account " + partition.accountId);
+        return updated;
+    }
+
+    private void write(final RunningBalanceChunk chunk, final boolean organization) {
+        this.transactionTemplate.execute(new TransactionCallbackWithoutResult() {
+
+            @Override
+            protected void doInTransactionWithoutResult(@SuppressWarnings("unused") final TransactionStatus status) {
+                JournalEntryRunningBalanceEngine.this.jdbcTemplate.batchUpdate(organization ? ORGANIZATION_UPDATE_SQL : OFFICE_UPDATE_SQL,
+                        new BatchPreparedStatementSetter() {
+
+                            @Override
+                            public void setValues(final PreparedStatement ps, final int i) throws SQLException {
+                                int parameterIndex = 1;
+                                ps.setBigDecimal(parameterIndex++, fromScaledLong(chunk.officeBalances[i]));
+                                if (organization) {
+                                    ps.setBigDecimal(parameterIndex++, fromScaledLong(chunk.organizationBalances[i]));
+                                }
+                                ps.setLong(parameterIndex, chunk.ids[i]);
+                            }
+
+                            @Override
+                            public int getBatchSize() {
+                                return chunk.size;
+                            }
+                        });
+            }
+        });
+    }
+
+    static long toScaledLong(final BigDecimal amount) {
+        if (amount == null) { return 0; }
+        return amount.setScale(AMOUNT_SCALE).unscaledValue().longValue();
+    }
+
+    static BigDecimal fromScaledLong(final long scaledAmount) {
+        return BigDecimal.valueOf(scaledAmount, AMOUNT_SCALE);
+    }
+
+    static long addExact(final long augend, final long addend) {
+        final long sum = augend + addend;
+        if (((augend ^ sum) & (addend ^ sum)) < 0) { throw new ArithmeticException("Running balance overflow"); }
+        return sum;
+    }
+
+    private static final class RunningBalancePartition {
+
+        private final long accountId;
+        private final Long officeId;
+        private final boolean increasesWithDebits;
+        private final Date startDate;
+
+        RunningBalancePartition(final long accountId, final Long officeId, final GLAccountType accountType, final Date startDate) {
+            this.accountId = accountId;
+            this.officeId = officeId;
+            this.increasesWithDebits = GLAccountType.ASSET.equals(accountType) || GLAccountType.EXPENSE.equals(accountType);
+            this.startDate = startDate;
+        }
+
+        boolean increases(final int entryType) {
+            return JournalEntryType.fromInt(entryType).isDebitType() == this.increasesWithDebits;
+        }
+    }
+
+    /**
+     * One chunk of entries of a partition, kept in parallel primitive arrays
+     * that are reused from chunk to chunk.
+     */
+    private static final class RunningBalanceChunk implements RowCallbackHandler {
+
+        private final long[] ids = new long[CHUNK_SIZE];
+        private final long[] officeIds = new long[CHUNK_SIZE];
+        private final int[] entryTypes = new int[CHUNK_SIZE];
+        private final long[] amounts = new long[CHUNK_SIZE];
+        private final long[] officeBalances = new long[CHUNK_SIZE];
+        private final long[] organizationBalances = new long[CHUNK_SIZE];
+        private Date lastEntryDate;
+        private int size;
+
+        void clear() {
+            this.size = 0;
+        }
+
+        @Override
+        public void processRow(final ResultSet rs) throws SQLException {
+            this.ids[this.size] = rs.getLong("id");
+            this.officeIds[this.size] = rs.getLong("officeId");
+            this.entryTypes[this.size] = rs.getInt("entryType");
+            this.amounts[this.size] = toScaledLong(rs.getBigDecimal("amount"));
+            this.lastEntryDate = rs.getDate("entryDate");
+            this.size++;
+        }
+    }
+}
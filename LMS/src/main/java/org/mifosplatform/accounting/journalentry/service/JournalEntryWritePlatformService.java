@@ -5,6 +5,7 @@
  */
 package org.mifosplatform.accounting.journalentry.service;
 
+import java.util.Collection;
 import java.util.Map;
 
 import org.mifosplatform.infrastructure.core.api.JsonCommand;
@@ -18,5 +19,7 @@ public interface JournalEntryWritePlatformService {
 
     void createJournalEntriesForLoan(Map<String, Object> accountingBridgeData);
 
+    void createJournalEntriesForLoans(Collection<Map<String, Object>> accountingBridgeDataForLoans);
+
     void createJournalEntriesForSavings(Map<String, Object> accountingBridgeData);
 }
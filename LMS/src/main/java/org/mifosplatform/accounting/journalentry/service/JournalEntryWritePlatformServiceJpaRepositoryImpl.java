@@ -7,6 +7,7 @@ package org.mifosplatform.accounting.journalentry.service;
 
 import java.math.BigDecimal;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
@@ -20,6 +21,7 @@ import org.mifosplatform.accounting.glaccount.domain.GLAccount;
 import org.mifosplatform.accounting.glaccount.domain.GLAccountRepository;
 import org.mifosplatform.accounting.glaccount.exception.GLAccountNotFoundException;
 import org.mifosplatform.accounting.glaccount.service.GLAccountReadPlatformService;
+import org.mifosplatform.accounting.glbalance.service.GLBalanceWritePlatformService;
 import org.mifosplatform.accounting.journalentry.api.JournalEntryJsonInputParams;
 import org.mifosplatform.accounting.journalentry.command.JournalEntryCommand;
 import org.mifosplatform.accounting.journalentry.command.SingleDebitOrCreditEntryCommand;
@@ -69,6 +71,7 @@ public class JournalEntryWritePlatformServiceJpaRepositoryImpl implements Journa
     private final GLAccountReadPlatformService glAccountReadPlatformService;
     private final OrganisationCurrencyRepositoryWrapper organisationCurrencyRepository;
     private final PlatformSecurityContext context;
+    private final GLBalanceWritePlatformService glBalanceWritePlatformService;
 
     @Autowired
     public JournalEntryWritePlatformServiceJpaRepositoryImpl(final GLClosureRepository glClosureRepository,
@@ -79,7 +82,7 @@ public class JournalEntryWritePlatformServiceJpaRepositoryImpl implements Journa
             final AccountingProcessorForSavingsFactory accountingProcessorForSavingsFactory,
             final GLAccountReadPlatformService glAccountReadPlatformService,
             final OrganisationCurrencyRepositoryWrapper organisationCurrencyRepository,
-            final PlatformSecurityContext context) {
+            final PlatformSecurityContext context, final GLBalanceWritePlatformService glBalanceWritePlatformService) {
         this.glClosureRepository = glClosureRepository;
         this.officeRepository = officeRepository;
         this.glJournalEntryRepository = glJournalEntryRepository;
@@ -92,6 +95,7 @@ public class JournalEntryWritePlatformServiceJpaRepositoryImpl implements Journa
         this.glAccountReadPlatformService = glAccountReadPlatformService;
         this.organisationCurrencyRepository = organisationCurrencyRepository;
         this.context = context;
+        this.glBalanceWritePlatformService = glBalanceWritePlatformService;
     }
 
     @Transactional
@@ -288,6 +292,7 @@ public class JournalEntryWritePlatformServiceJpaRepositoryImpl implements Journa
             }
             // save the reversal entry
             this.glJournalEntryRepository.saveAndFlush(reversalJournalEntry);
+            this.glBalanceWritePlatformService.recordJournalEntry(reversalJournalEntry);
             journalEntry.setReversed(true);
             journalEntry.setReversalJournalEntry(reversalJournalEntry);
             // save the updated journal entry
@@ -312,6 +317,30 @@ public class JournalEntryWritePlatformServiceJpaRepositoryImpl implements Journa
         }
     }
 
+    /**
+     * Posts the journal entries of several loans (for example all repayments
+     * of a collection sheet) as one batch, after the loan transactions they
+     * refer to have been written: the entries are written with a single flush
+     * and added to the daily balances together, instead of a flush and a
+     * balance update per entry.
+     */
+    @Transactional
+    @Override
+    public void createJournalEntriesForLoans(final Collection<Map<String, Object>> accountingBridgeDataForLoans) {
+        final AccountingProcessorHelper batch = this.helper.batch();
+        for (final Map<String, Object> accountingBridgeData : accountingBridgeDataForLoans) {
+            final boolean cashBasedAccountingEnabled = (Boolean) accountingBridgeData.get("cashBasedAccountingEnabled");
+            final boolean accrualBasedAccountingEnabled = (Boolean) accountingBridgeData.get("accrualBasedAccountingEnabled");
+
+            if (cashBasedAccountingEnabled || accrualBasedAccountingEnabled) {
+                final LoanDTO loanDTO = batch.populateLoanDtoFromMap(accountingBridgeData, cashBasedAccountingEnabled,
+                        accrualBasedAccountingEnabled);
+                this.accountingProcessorForLoanFactory.determineProcessor(loanDTO, batch).createJournalEntriesForLoan(loanDTO);
+            }
+        }
+        batch.flushJournalEntries();
+    }
+
     @Transactional
     @Override
     public void createJournalEntriesForSavings(final Map<String, Object> accountingBridgeData) {
@@ -376,6 +405,7 @@ public class JournalEntryWritePlatformServiceJpaRepositoryImpl implements Journa
             final JournalEntry glJournalEntry = JournalEntry.createNew(office, glAccount, currencyCode, transactionId, manualEntry,
                     transactionDate, type, singleDebitOrCreditEntryCommand.getAmount(), comments, null, null, referenceNumber, null, null);
             this.glJournalEntryRepository.saveAndFlush(glJournalEntry);
+            this.glBalanceWritePlatformService.recordJournalEntry(glJournalEntry);
         }
     }
 
@@ -8,6 +8,7 @@ package org.mifosplatform.accounting.producttoaccountmapping.service;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -27,6 +28,7 @@ import org.mifosplatform.infrastructure.core.domain.JdbcSupport;
 import org.mifosplatform.infrastructure.core.service.RoutingDataSource;
 import org.mifosplatform.portfolio.charge.data.ChargeData;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Service;
@@ -88,6 +90,7 @@ public class ProductToGLAccountMappingReadPlatformServiceImpl implements Product
     }
 
     @Override
+    @Cacheable(value = "glAccountMappings", key = "T(org.mifosplatform.infrastructure.core.service.ThreadLocalContextUtil).getTenant().getTenantIdentifier().concat(#root.methodName+#loanProductId+'_'+#accountingType)")
     public Map<String, Object> fetchAccountMappingDetailsForLoanProduct(final Long loanProductId, final Integer accountingType) {
 
         final Map<String, Object> accountMappingDetails = new LinkedHashMap<String, Object>(8);
@@ -166,10 +169,11 @@ public class ProductToGLAccountMappingReadPlatformServiceImpl implements Product
 
         }
 
-        return accountMappingDetails;
+        return Collections.unmodifiableMap(accountMappingDetails);
     }
 
     @Override
+    @Cacheable(value = "glAccountMappings", key = "T(org.mifosplatform.infrastructure.core.service.ThreadLocalContextUtil).getTenant().getTenantIdentifier().concat(#root.methodName+#savingsProductId+'_'+#accountingType)")
     public Map<String, Object> fetchAccountMappingDetailsForSavingsProduct(final Long savingsProductId, final Integer accountingType) {
         final Map<String, Object> accountMappingDetails = new LinkedHashMap<String, Object>(8);
 
@@ -207,15 +211,17 @@ public class ProductToGLAccountMappingReadPlatformServiceImpl implements Product
                 }
             }
         }
-        return accountMappingDetails;
+        return Collections.unmodifiableMap(accountMappingDetails);
     }
 
     @Override
+    @Cacheable(value = "glAccountMappings", key = "T(org.mifosplatform.infrastructure.core.service.ThreadLocalContextUtil).getTenant().getTenantIdentifier().concat(#root.methodName+#loanProductId)")
     public List<PaymentTypeToGLAccountMapper> fetchPaymentTypeToFundSourceMappingsForLoanProduct(final Long loanProductId) {
         return fetchPaymentTypeToFundSourceMappings(PortfolioProductType.LOAN, loanProductId);
     }
 
     @Override
+    @Cacheable(value = "glAccountMappings", key = "T(org.mifosplatform.infrastructure.core.service.ThreadLocalContextUtil).getTenant().getTenantIdentifier().concat(#root.methodName+#savingsProductId)")
     public List<PaymentTypeToGLAccountMapper> fetchPaymentTypeToFundSourceMappingsForSavingsProduct(final Long savingsProductId) {
         return fetchPaymentTypeToFundSourceMappings(PortfolioProductType.SAVING, savingsProductId);
     }
@@ -249,25 +255,30 @@ public class ProductToGLAccountMappingReadPlatformServiceImpl implements Product
             final PaymentTypeToGLAccountMapper paymentTypeToGLAccountMapper = new PaymentTypeToGLAccountMapper(codeValueData,gLAccountData);
             paymentTypeToGLAccountMappers.add(paymentTypeToGLAccountMapper);
         }
-        return paymentTypeToGLAccountMappers;
+        if (paymentTypeToGLAccountMappers == null) { return null; }
+        return Collections.unmodifiableList(paymentTypeToGLAccountMappers);
     }
 
     @Override
+    @Cacheable(value = "glAccountMappings", key = "T(org.mifosplatform.infrastructure.core.service.ThreadLocalContextUtil).getTenant().getTenantIdentifier().concat(#root.methodName+#loanProductId)")
     public List<ChargeToGLAccountMapper> fetchFeeToIncomeAccountMappingsForLoanProduct(final Long loanProductId) {
         return fetchChargeToIncomeAccountMappings(PortfolioProductType.LOAN, loanProductId, false);
     }
 
     @Override
+    @Cacheable(value = "glAccountMappings", key = "T(org.mifosplatform.infrastructure.core.service.ThreadLocalContextUtil).getTenant().getTenantIdentifier().concat(#root.methodName+#loanProductId)")
     public List<ChargeToGLAccountMapper> fetchPenaltyToIncomeAccountMappingsForLoanProduct(final Long loanProductId) {
         return fetchChargeToIncomeAccountMappings(PortfolioProductType.LOAN, loanProductId, true);
     }
 
     @Override
+    @Cacheable(value = "glAccountMappings", key = "T(org.mifosplatform.infrastructure.core.service.ThreadLocalContextUtil).getTenant().getTenantIdentifier().concat(#root.methodName+#savingsProductId)")
     public List<ChargeToGLAccountMapper> fetchFeeToIncomeAccountMappingsForSavingsProduct(Long savingsProductId) {
         return fetchChargeToIncomeAccountMappings(PortfolioProductType.SAVING, savingsProductId, false);
     }
 
     @Override
+    @Cacheable(value = "glAccountMappings", key = "T(org.mifosplatform.infrastructure.core.service.ThreadLocalContextUtil).getTenant().getTenantIdentifier().concat(#root.methodName+#savingsProductId)")
     public List<ChargeToGLAccountMapper> fetchPenaltyToIncomeAccountMappingsForSavingsProduct(Long savingsProductId) {
         return fetchChargeToIncomeAccountMappings(PortfolioProductType.SAVING, savingsProductId, true);
     }
@@ -300,7 +311,8 @@ public class ProductToGLAccountMappingReadPlatformServiceImpl implements Product
             final ChargeToGLAccountMapper chargeToGLAccountMapper = new ChargeToGLAccountMapper(chargeData, gLAccountData);
             chargeToGLAccountMappers.add(chargeToGLAccountMapper);
         }
-        return chargeToGLAccountMappers;
+        if (chargeToGLAccountMappers == null) { return null; }
+        return Collections.unmodifiableList(chargeToGLAccountMappers);
     }
 
 }
\ No newline at end of file
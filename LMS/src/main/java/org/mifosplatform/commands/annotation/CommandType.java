@@ -0,0 +1,38 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.commands.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import org.mifosplatform.commands.handler.NewCommandSourceHandler;
+
+/**
+ * Annotation that marks a {@link NewCommandSourceHandler} as the handler of
+ * the commands with the given action on any of the given entities.
+ * 
+ * Datatables are dispatched on the pseudo entities <code>DATATABLE</code>,
+ * <code>DATATABLE_ENTRY</code> and <code>DATATABLE_MULTIROW_ENTRY</code>
+ * rather than on the name of the datatable.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface CommandType {
+
+    String[] entity();
+
+    String action();
+
+    /**
+     * Whether <code>UPDATE</code> and <code>DELETE</code> commands need a
+     * resource id to be dispatched to this handler. Handlers of commands on
+     * the platform as a whole, such as currencies or the cache, or on a
+     * resource found by its parent, turn this off.
+     */
+    boolean resourceIdRequired() default true;
+}
@@ -28,6 +28,8 @@ import org.mifosplatform.infrastructure.core.api.ApiParameterHelper;
 import org.mifosplatform.infrastructure.core.api.ApiRequestParameterHelper;
 import org.mifosplatform.infrastructure.core.serialization.ApiRequestJsonSerializationSettings;
 import org.mifosplatform.infrastructure.core.serialization.DefaultToApiJsonSerializer;
+import org.mifosplatform.infrastructure.core.service.KeysetPageRequest;
+import org.mifosplatform.infrastructure.core.service.Page;
 import org.mifosplatform.infrastructure.security.service.PlatformSecurityContext;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Scope;
@@ -72,7 +74,9 @@ public class AuditsApiResource {
             @QueryParam("checkerDateTimeTo") final String checkerDateTimeTo,
             @QueryParam("processingResult") final Integer processingResult, @QueryParam("officeId") final Integer officeId,
             @QueryParam("groupId") final Integer groupId, @QueryParam("clientId") final Integer clientId,
-            @QueryParam("loanid") final Integer loanId, @QueryParam("savingsAccountId") final Integer savingsAccountId) {
+            @QueryParam("loanid") final Integer loanId, @QueryParam("savingsAccountId") final Integer savingsAccountId,
+            @QueryParam("cursor") final String cursor, @QueryParam("limit") final Integer limit,
+            @QueryParam("sortOrder") final String sortOrder, @QueryParam("totalCount") final String totalCount) {
 
         this.context.authenticatedUser().validateHasReadPermission(this.resourceNameForPermissions);
 
@@ -81,6 +85,14 @@ public class AuditsApiResource {
 
         final ApiRequestJsonSerializationSettings settings = this.apiRequestParameterHelper.process(uriInfo.getQueryParameters());
 
+        // newest first, one page at a time, when the client asks for a cursor
+        if (cursor != null) {
+            final KeysetPageRequest pageRequest = KeysetPageRequest.from(cursor, sortOrder, limit, totalCount, true);
+            final Page<AuditData> auditEntries = this.auditReadPlatformService.retrieveAuditEntries(extraCriteria,
+                    settings.isIncludeJson(), pageRequest);
+            return this.toApiJsonSerializer.serialize(settings, auditEntries, this.RESPONSE_DATA_PARAMETERS);
+        }
+
         final Collection<AuditData> auditEntries = this.auditReadPlatformService.retrieveAuditEntries(extraCriteria,
                 settings.isIncludeJson());
 
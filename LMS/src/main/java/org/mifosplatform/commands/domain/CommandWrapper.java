@@ -5,6 +5,8 @@
  */
 package org.mifosplatform.commands.domain;
 
+import java.util.Locale;
+
 public class CommandWrapper {
 
     private final Long commandId;
@@ -27,6 +29,8 @@ public class CommandWrapper {
     private final Long supportedEntityId;
     private final Long productId;
     private Long templateId;
+    private final String handlerEntityName;
+    private final String handlerActionName;
 
     public static CommandWrapper wrap(final String actionName, final String entityName, final Long resourceId, final Long subresourceId) {
         return new CommandWrapper(null, actionName, entityName, resourceId, subresourceId, null, null);
@@ -57,6 +61,8 @@ public class CommandWrapper {
         this.json = null;
         this.transactionId = null;
         this.productId = productId;
+        this.handlerEntityName = handlerEntityNameFor(entityName, actionName, resourceId, subresourceId, resourceGetUrl);
+        this.handlerActionName = internedUpperCase(actionName);
     }
 
     public CommandWrapper(final Long officeId, final Long groupId, final Long clientId, final Long loanId, final Long savingsId,
@@ -82,6 +88,28 @@ public class CommandWrapper {
         this.transactionId = transactionId;
         this.productId = productId;
         this.templateId = templateId;
+        this.handlerEntityName = handlerEntityNameFor(entityName, actionName, entityId, subentityId, href);
+        this.handlerActionName = internedUpperCase(actionName);
+    }
+
+    /**
+     * Datatable commands are handled by the kind of change made rather than by
+     * the datatable they are made on, so they map onto a pseudo entity: the
+     * datatable itself, an entry of it or an entry of a multi-row datatable.
+     */
+    private static String handlerEntityNameFor(final String entityName, final String actionName, final Long entityId,
+            final Long subentityId, final String href) {
+        if (href != null && href.startsWith("/datatables/")) {
+            if (entityId == null) { return "DATATABLE"; }
+            if (subentityId != null && !"CREATE".equalsIgnoreCase(actionName)) { return "DATATABLE_MULTIROW_ENTRY"; }
+            return "DATATABLE_ENTRY";
+        }
+        return internedUpperCase(entityName);
+    }
+
+    private static String internedUpperCase(final String name) {
+        if (name == null) { return null; }
+        return name.toUpperCase(Locale.ENGLISH).intern();
     }
 
     public Long commandId() {
@@ -104,6 +132,17 @@ public class CommandWrapper {
         return this.subentityId;
     }
 
+    /**
+     * The entity this command is dispatched on to its handler.
+     */
+    public String handlerEntityName() {
+        return this.handlerEntityName;
+    }
+
+    public String handlerActionName() {
+        return this.handlerActionName;
+    }
+
     public String taskPermissionName() {
         return this.actionName + "_" + this.entityName;
     }
@@ -9,11 +9,15 @@ import java.util.Collection;
 
 import org.mifosplatform.commands.data.AuditData;
 import org.mifosplatform.commands.data.AuditSearchData;
+import org.mifosplatform.infrastructure.core.service.KeysetPageRequest;
+import org.mifosplatform.infrastructure.core.service.Page;
 
 public interface AuditReadPlatformService {
 
     Collection<AuditData> retrieveAuditEntries(String extraCriteria, boolean includeJson);
 
+    Page<AuditData> retrieveAuditEntries(String extraCriteria, boolean includeJson, KeysetPageRequest pageRequest);
+
     Collection<AuditData> retrieveAllEntriesToBeChecked(String extraCriteria, boolean includeJson);
 
     AuditData retrieveAuditEntry(Long auditId);
@@ -20,6 +20,9 @@ import org.mifosplatform.commands.data.ProcessingResultLookup;
 import org.mifosplatform.infrastructure.core.domain.JdbcSupport;
 import org.mifosplatform.infrastructure.core.exception.PlatformDataIntegrityException;
 import org.mifosplatform.infrastructure.core.serialization.FromJsonHelper;
+import org.mifosplatform.infrastructure.core.service.KeysetPageRequest;
+import org.mifosplatform.infrastructure.core.service.Page;
+import org.mifosplatform.infrastructure.core.service.PaginationHelper;
 import org.mifosplatform.infrastructure.core.service.RoutingDataSource;
 import org.mifosplatform.infrastructure.security.service.PlatformSecurityContext;
 import org.mifosplatform.organisation.office.data.OfficeData;
@@ -58,6 +61,7 @@ public class AuditReadPlatformServiceImpl implements AuditReadPlatformService {
     private final ClientReadPlatformService clientReadPlatformService;
     private final LoanProductReadPlatformService loanProductReadPlatformService;
     private final StaffReadPlatformService staffReadPlatformService;
+    private final PaginationHelper<AuditData> paginationHelper = new PaginationHelper<AuditData>();
 
     @Autowired
     public AuditReadPlatformServiceImpl(final PlatformSecurityContext context, final RoutingDataSource dataSource,
@@ -150,6 +154,24 @@ public class AuditReadPlatformServiceImpl implements AuditReadPlatformService {
         return retrieveEntries("audit", updatedExtraCriteria, includeJson);
     }
 
+    @Override
+    public Page<AuditData> retrieveAuditEntries(final String extraCriteria, final boolean includeJson,
+            final KeysetPageRequest pageRequest) {
+
+        final AppUser currentUser = this.context.authenticatedUser();
+        final String hierarchy = currentUser.getOffice().getHierarchy();
+
+        final AuditMapper rm = new AuditMapper();
+        String sql = "select " + rm.schema(includeJson, hierarchy);
+        if (StringUtils.isNotBlank(extraCriteria)) {
+            sql += " where (" + extraCriteria + ")";
+        } else {
+            sql += " where 1=1";
+        }
+
+        return this.paginationHelper.fetchPage(this.jdbcTemplate, sql, new Object[] {}, "aud.id", "id", pageRequest, rm);
+    }
+
     @Override
     public Collection<AuditData> retrieveAllEntriesToBeChecked(final String extraCriteria, final boolean includeJson) {
 
@@ -0,0 +1,137 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.commands.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import org.mifosplatform.commands.annotation.CommandType;
+import org.mifosplatform.commands.domain.CommandWrapper;
+import org.mifosplatform.commands.exception.UnsupportedCommandException;
+import org.mifosplatform.commands.handler.NewCommandSourceHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.stereotype.Service;
+
+/**
+ * Looks up the {@link NewCommandSourceHandler} of a command by its entity and
+ * action, as declared on the handlers with {@link CommandType}.
+ *
+ * The handlers are resolved once the application context is refreshed rather
+ * than when this bean is created, as some of them depend on services that in
+ * turn process commands. Conflicting declarations, and handler beans that
+ * declare no command, fail the refresh.
+ *
+ * That every command built by {@link CommandWrapperBuilder} has a handler is
+ * checked by the tests instead: the builder only describes commands through
+ * its methods, which cannot be called here without made up arguments.
+ *
+ * As with the dispatch chain this replaces, <code>UPDATE</code> and
+ * <code>DELETE</code> commands without a resource id are only dispatched to
+ * handlers that declare they do not need one.
+ */
+@Service
+public class CommandHandlerRegistry implements ApplicationListener<ContextRefreshedEvent> {
+
+    private final static Logger logger = LoggerFactory.getLogger(CommandHandlerRegistry.class);
+
+    private final ApplicationContext applicationContext;
+    private volatile Map<String, Map<String, NewCommandSourceHandler>> handlers = Collections.emptyMap();
+    private volatile Set<String> commandsWithoutResourceId = Collections.emptySet();
+
+    @Autowired
+    public CommandHandlerRegistry(final ApplicationContext applicationContext) {
+        this.applicationContext = applicationContext;
+    }
+
+    @Override
+    public void onApplicationEvent(final ContextRefreshedEvent event) {
+        if (event.getApplicationContext() != this.applicationContext) { return; }
+        registerCommandHandlers();
+    }
+
+    public NewCommandSourceHandler findCommandHandler(final CommandWrapper wrapper) {
+        NewCommandSourceHandler handler = null;
+        final Map<String, NewCommandSourceHandler> handlersByAction = this.handlers.get(wrapper.handlerEntityName());
+        if (handlersByAction != null) {
+            handler = handlersByAction.get(wrapper.handlerActionName());
+        }
+        if (handler != null && wrapper.resourceId() == null && (wrapper.isUpdateOperation() || wrapper.isDeleteOperation())
+                && !this.commandsWithoutResourceId.contains(wrapper.handlerActionName() + "_" + wrapper.handlerEntityName())) {
+            handler = null;
+        }
+        if (handler == null) { throw new UnsupportedCommandException(wrapper.commandName()); }
+        return handler;
+    }
+
+    private void registerCommandHandlers() {
+        final Map<String, Map<String, NewCommandSourceHandler>> byEntity = new TreeMap<String, Map<String, NewCommandSourceHandler>>();
+        final Map<String, String> beanNamesByCommand = new HashMap<String, String>();
+        final Set<String> withoutResourceId = new HashSet<String>();
+        final List<String> handlersWithoutCommandType = new ArrayList<String>();
+
+        for (final String beanName : this.applicationContext.getBeanNamesForType(NewCommandSourceHandler.class)) {
+            final CommandType commandType = this.applicationContext.findAnnotationOnBean(beanName, CommandType.class);
+            if (commandType == null) {
+                handlersWithoutCommandType.add(beanName);
+                continue;
+            }
+            if (commandType.entity().length == 0 || commandType.action().trim().isEmpty()) { throw new IllegalStateException(
+                    "Command handler " + beanName + " declares no entity or action"); }
+
+            final NewCommandSourceHandler handler = this.applicationContext.getBean(beanName, NewCommandSourceHandler.class);
+            final String actionName = commandType.action().toUpperCase(Locale.ENGLISH).intern();
+            for (final String entity : commandType.entity()) {
+                final String entityName = entity.toUpperCase(Locale.ENGLISH).intern();
+                final String previousBeanName = beanNamesByCommand.put(actionName + "_" + entityName, beanName);
+                if (previousBeanName != null) { throw new IllegalStateException("Command " + actionName + "_" + entityName
+                        + " is handled by both " + previousBeanName + " and " + beanName); }
+                if (!commandType.resourceIdRequired()) {
+                    withoutResourceId.add(actionName + "_" + entityName);
+                }
+
+                Map<String, NewCommandSourceHandler> handlersByAction = byEntity.get(entityName);
+                if (handlersByAction == null) {
+                    handlersByAction = new HashMap<String, NewCommandSourceHandler>();
+                    byEntity.put(entityName, handlersByAction);
+                }
+                handlersByAction.put(actionName, handler);
+            }
+        }
+
+        if (!handlersWithoutCommandType.isEmpty()) {
+            Collections.sort(handlersWithoutCommandType);
+            throw new IllegalStateException("Command handlers without @CommandType, which no command is dispatched to: "
+                    + handlersWithoutCommandType);
+        }
+
+        for (final Map.Entry<String, Object> bean : this.applicationContext.getBeansWithAnnotation(CommandType.class).entrySet()) {
+            if (!(bean.getValue() instanceof NewCommandSourceHandler)) { throw new IllegalStateException("Bean " + bean.getKey()
+                    + " is annotated with @CommandType but is not a command handler"); }
+        }
+
+        final Map<String, Map<String, NewCommandSourceHandler>> registered = new HashMap<String, Map<String, NewCommandSourceHandler>>();
+        for (final Map.Entry<String, Map<String, NewCommandSourceHandler>> entry : byEntity.entrySet()) {
+            registered.put(entry.getKey(), Collections.unmodifiableMap(entry.getValue()));
+            logger.debug("Commands on " + entry.getKey() + ": " + new TreeMap<String, NewCommandSourceHandler>(entry.getValue()).keySet());
+        }
+        this.commandsWithoutResourceId = Collections.unmodifiableSet(withoutResourceId);
+        this.handlers = Collections.unmodifiableMap(registered);
+
+        logger.info("Registered handlers for " + beanNamesByCommand.size() + " commands on " + registered.size() + " entities");
+    }
+}
@@ -12,17 +12,16 @@ import org.mifosplatform.commands.domain.CommandSource;
 import org.mifosplatform.commands.domain.CommandSourceRepository;
 import org.mifosplatform.commands.domain.CommandWrapper;
 import org.mifosplatform.commands.exception.RollbackTransactionAsCommandIsNotApprovedByCheckerException;
-import org.mifosplatform.commands.exception.UnsupportedCommandException;
 import org.mifosplatform.commands.handler.NewCommandSourceHandler;
 import org.mifosplatform.infrastructure.configuration.domain.ConfigurationDomainService;
 import org.mifosplatform.infrastructure.core.api.JsonCommand;
 import org.mifosplatform.infrastructure.core.data.CommandProcessingResult;
 import org.mifosplatform.infrastructure.core.data.CommandProcessingResultBuilder;
 import org.mifosplatform.infrastructure.core.serialization.ToApiJsonSerializer;
+import org.mifosplatform.infrastructure.metrics.service.MetricsRegistry;
 import org.mifosplatform.infrastructure.security.service.PlatformSecurityContext;
 import org.mifosplatform.useradministration.domain.AppUser;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.context.ApplicationContext;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -30,22 +29,24 @@ import org.springframework.transaction.annotation.Transactional;
 public class SynchronousCommandProcessingService implements CommandProcessingService {
 
     private PlatformSecurityContext context;
-    private final ApplicationContext applicationContext;
+    private final CommandHandlerRegistry commandHandlerRegistry;
     private final ToApiJsonSerializer<Map<String, Object>> toApiJsonSerializer;
     private CommandSourceRepository commandSourceRepository;
     private final ConfigurationDomainService configurationDomainService;
+    private final MetricsRegistry metricsRegistry;
 
     @Autowired
-    public SynchronousCommandProcessingService(final PlatformSecurityContext context, final ApplicationContext applicationContext,
+    public SynchronousCommandProcessingService(final PlatformSecurityContext context, final CommandHandlerRegistry commandHandlerRegistry,
             final ToApiJsonSerializer<Map<String, Object>> toApiJsonSerializer, final CommandSourceRepository commandSourceRepository,
-            final ConfigurationDomainService configurationDomainService) {
+            final ConfigurationDomainService configurationDomainService, final MetricsRegistry metricsRegistry) {
         this.context = context;
         this.context = context;
-        this.applicationContext = applicationContext;
+        this.commandHandlerRegistry = commandHandlerRegistry;
         this.toApiJsonSerializer = toApiJsonSerializer;
         this.commandSourceRepository = commandSourceRepository;
         this.commandSourceRepository = commandSourceRepository;
         this.configurationDomainService = configurationDomainService;
+        this.metricsRegistry = metricsRegistry;
     }
 
     @Transactional
@@ -56,8 +57,8 @@ public class SynchronousCommandProcessingService implements CommandProcessingSer
         final boolean rollbackTransaction = this.configurationDomainService.isMakerCheckerEnabledForTask(wrapper.taskPermissionName())
                 && !isApprovedByChecker;
 
-        final NewCommandSourceHandler handler = findCommandHandler(wrapper);
-        final CommandProcessingResult result = handler.processCommand(command);
+        final NewCommandSourceHandler handler = this.commandHandlerRegistry.findCommandHandler(wrapper);
+        final CommandProcessingResult result = processCommand(handler, wrapper, command);
 
         final AppUser maker = this.context.authenticatedUser();
 
@@ -91,6 +92,23 @@ public class SynchronousCommandProcessingService implements CommandProcessingSer
         return result;
     }
 
+    private CommandProcessingResult processCommand(final NewCommandSourceHandler handler, final CommandWrapper wrapper,
+            final JsonCommand command) {
+        final long startNanos = System.nanoTime();
+        boolean succeeded = false;
+        try {
+            final CommandProcessingResult result = handler.processCommand(command);
+            succeeded = true;
+            return result;
+        } finally {
+            this.metricsRegistry.recordLatency(MetricsRegistry.COMMANDS, wrapper.entityName(), wrapper.actionName(), System.nanoTime()
+                    - startNanos);
+            if (!succeeded) {
+                this.metricsRegistry.incrementCounter(MetricsRegistry.COMMAND_ERRORS, wrapper.entityName(), wrapper.actionName());
+            }
+        }
+    }
+
     @Transactional
     @Override
     public CommandProcessingResult logCommand(final CommandSource commandSourceResult) {
@@ -101,667 +119,4 @@ public class SynchronousCommandProcessingService implements CommandProcessingSer
         return new CommandProcessingResultBuilder().withCommandId(commandSourceResult.getId())
                 .withEntityId(commandSourceResult.getResourceId()).build();
     }
-
-    private NewCommandSourceHandler findCommandHandler(final CommandWrapper wrapper) {
-        NewCommandSourceHandler handler = null;
-
-        if (wrapper.isAccountTransferResource()) {
-            if (wrapper.isCreate()) {
-                handler = this.applicationContext.getBean("createAccountTransferCommandHandler", NewCommandSourceHandler.class);
-            } else {
-                throw new UnsupportedCommandException(wrapper.commandName());
-            }
-        } else if (wrapper.isConfigurationResource()) {
-            handler = this.applicationContext.getBean("updateGlobalConfigurationCommandHandler", NewCommandSourceHandler.class);
-        } else if (wrapper.isDatatableResource()) {
-            if (wrapper.isCreateDatatable()) {
-                handler = this.applicationContext.getBean("createDatatableCommandHandler", NewCommandSourceHandler.class);
-            } else if (wrapper.isDeleteDatatable()) {
-                handler = this.applicationContext.getBean("deleteDatatableCommandHandler", NewCommandSourceHandler.class);
-            } else if (wrapper.isUpdateDatatable()) {
-                handler = this.applicationContext.getBean("updateDatatableCommandHandler", NewCommandSourceHandler.class);
-            } else if (wrapper.isCreate()) {
-                handler = this.applicationContext.getBean("createDatatableEntryCommandHandler", NewCommandSourceHandler.class);
-            } else if (wrapper.isUpdateMultiple()) {
-                handler = this.applicationContext.getBean("updateOneToManyDatatableEntryCommandHandler", NewCommandSourceHandler.class);
-            } else if (wrapper.isUpdateOneToOne()) {
-                handler = this.applicationContext.getBean("updateOneToOneDatatableEntryCommandHandler", NewCommandSourceHandler.class);
-            } else if (wrapper.isDeleteMultiple()) {
-                handler = this.applicationContext.getBean("deleteOneToManyDatatableEntryCommandHandler", NewCommandSourceHandler.class);
-            } else if (wrapper.isDeleteOneToOne()) {
-                handler = this.applicationContext.getBean("deleteOneToOneDatatableEntryCommandHandler", NewCommandSourceHandler.class);
-            } else {
-                throw new UnsupportedCommandException(wrapper.commandName());
-            }
-        } else if (wrapper.isNoteResource()) {
-            if (wrapper.isCreate()) {
-                handler = this.applicationContext.getBean("createNoteCommandHandler", NewCommandSourceHandler.class);
-            } else if (wrapper.isUpdate()) {
-                handler = this.applicationContext.getBean("updateNoteCommandHandler", NewCommandSourceHandler.class);
-            } else if (wrapper.isDelete()) {
-                handler = this.applicationContext.getBean("deleteNoteCommandHandler", NewCommandSourceHandler.class);
-            } else {
-                throw new UnsupportedCommandException(wrapper.commandName());
-            }
-        } else if (wrapper.isClientIdentifierResource()) {
-            if (wrapper.isCreate()) {
-                handler = this.applicationContext.getBean("createClientIdentifierCommandHandler", NewCommandSourceHandler.class);
-            } else if (wrapper.isUpdate()) {
-                handler = this.applicationContext.getBean("updateClientIdentifierCommandHandler", NewCommandSourceHandler.class);
-            } else if (wrapper.isDelete()) {
-                handler = this.applicationContext.getBean("deleteClientIdentifierCommandHandler", NewCommandSourceHandler.class);
-            } else {
-                throw new UnsupportedCommandException(wrapper.commandName());
-            }
-        } else if (wrapper.isClientResource() && !wrapper.isClientNoteResource() && !wrapper.isClientIdentifierResource()) {
-            if (wrapper.isCreate()) {
-                handler = this.applicationContext.getBean("createClientCommandHandler", NewCommandSourceHandler.class);
-            } else if (wrapper.isUpdate()) {
-                handler = this.applicationContext.getBean("updateClientCommandHandler", NewCommandSourceHandler.class);
-            } else if (wrapper.isDelete()) {
-                handler = this.applicationContext.getBean("deleteClientCommandHandler", NewCommandSourceHandler.class);
-            } else if (wrapper.isClientActivation()) {
-                handler = this.applicationContext.getBean("activateClientCommandHandler", NewCommandSourceHandler.class);
-            } else if (wrapper.isClientUnassignStaff()) {
-                handler = this.applicationContext.getBean("unassignClientStaffCommandHandler", NewCommandSourceHandler.class);
-            } else if (wrapper.isClientAssignStaff()) {
-                handler = this.applicationContext.getBean("assignClientStaffCommandHandler", NewCommandSourceHandler.class);
-            } else if (wrapper.isClientClose()) {
-                handler = this.applicationContext.getBean("closeClientCommandHandler", NewCommandSourceHandler.class);
-            } else if (wrapper.isProposeClientTransfer()) {
-                handler = this.applicationContext.getBean("proposeClientTransferCommandHandler", NewCommandSourceHandler.class);
-            } else if (wrapper.isProposeAndAcceptClientTransfer()) {
-                handler = this.applicationContext.getBean("proposeAndAcceptClientTransferCommandHandler", NewCommandSourceHandler.class);
-            } else if (wrapper.isWithdrawClientTransfer()) {
-                handler = this.applicationContext.getBean("withdrawClientTransferCommandHandler", NewCommandSourceHandler.class);
-            } else if (wrapper.isAcceptClientTransfer()) {
-                handler = this.applicationContext.getBean("acceptClientTransferCommandHandler", NewCommandSourceHandler.class);
-            } else if (wrapper.isRejectClientTransfer()) {
-                handler = this.applicationContext.getBean("rejectClientTransferCommandHandler", NewCommandSourceHandler.class);
-            } else {
-                throw new UnsupportedCommandException(wrapper.commandName());
-            }
-            // end of client
-        } else if (wrapper.isUpdateRolePermissions()) {
-            handler = this.applicationContext.getBean("updateRolePermissionsCommandHandler", NewCommandSourceHandler.class);
-        } else if (wrapper.isPermissionResource()) {
-            handler = this.applicationContext.getBean("updateMakerCheckerPermissionsCommandHandler", NewCommandSourceHandler.class);
-        } else if (wrapper.isRoleResource()) {
-
-            if (wrapper.isCreate()) {
-                handler = this.applicationContext.getBean("createRoleCommandHandler", NewCommandSourceHandler.class);
-            } else if (wrapper.isUpdate()) {
-                handler = this.applicationContext.getBean("updateRoleCommandHandler", NewCommandSourceHandler.class);
-            } else {
-                throw new UnsupportedCommandException(wrapper.commandName());
-            }
-
-        } else if (wrapper.isUserResource()) {
-            if (wrapper.isCreate()) {
-                handler = this.applicationContext.getBean("createUserCommandHandler", NewCommandSourceHandler.class);
-            } else if (wrapper.isUpdate()) {
-                handler = this.applicationContext.getBean("updateUserCommandHandler", NewCommandSourceHandler.class);
-            } else if (wrapper.isDelete()) {
-                handler = this.applicationContext.getBean("deleteUserCommandHandler", NewCommandSourceHandler.class);
-            } else {
-                throw new UnsupportedCommandException(wrapper.commandName());
-            }
-        } else if (wrapper.isStaffResource()) {
-            if (wrapper.isCreate()) {
-                handler = this.applicationContext.getBean("createStaffCommandHandler", NewCommandSourceHandler.class);
-            } else if (wrapper.isUpdate()) {
-                handler = this.applicationContext.getBean("updateStaffCommandHandler", NewCommandSourceHandler.class);
-            } else {
-                throw new UnsupportedCommandException(wrapper.commandName());
-            }
-        } else if (wrapper.isGuarantorResource()) {
-            if (wrapper.isCreate()) {
-                handler = this.applicationContext.getBean("createGuarantorCommandHandler", NewCommandSourceHandler.class);
-            } else if (wrapper.isUpdate()) {
-                handler = this.applicationContext.getBean("updateGuarantorCommandHandler", NewCommandSourceHandler.class);
-            } else if (wrapper.isDelete()) {
-                handler = this.applicationContext.getBean("deleteGuarantorCommandHandler", NewCommandSourceHandler.class);
-            } else {
-                throw new UnsupportedCommandException(wrapper.commandName());
-            }
-        } else if (wrapper.isCollateralResource()) {
-            if (wrapper.isCreate()) {
-                handler = this.applicationContext.getBean("createCollateralCommandHandler", NewCommandSourceHandler.class);
-            } else if (wrapper.isUpdate()) {
-                handler = this.applicationContext.getBean("updateCollateralCommandHandler", NewCommandSourceHandler.class);
-            } else if (wrapper.isDelete()) {
-                handler = this.applicationContext.getBean("deleteCollateralCommandHandler", NewCommandSourceHandler.class);
-            } else {
-                throw new UnsupportedCommandException(wrapper.commandName());
-            }
-        } else if (wrapper.isCodeResource()) {
-            if (wrapper.isCreate()) {
-                handler = this.applicationContext.getBean("createCodeCommandHandler", NewCommandSourceHandler.class);
-            } else if (wrapper.isUpdate()) {
-                handler = this.applicationContext.getBean("updateCodeCommandHandler", NewCommandSourceHandler.class);
-            } else if (wrapper.isDelete()) {
-                handler = this.applicationContext.getBean("deleteCodeCommandHandler", NewCommandSourceHandler.class);
-            } else {
-                throw new UnsupportedCommandException(wrapper.commandName());
-            }
-        } else if (wrapper.isCodeValueResource()) {
-            if (wrapper.isCreate()) {
-                handler = this.applicationContext.getBean("createCodeValueCommandHandler", NewCommandSourceHandler.class);
-            } else if (wrapper.isUpdate()) {
-                handler = this.applicationContext.getBean("updateCodeValueCommandHandler", NewCommandSourceHandler.class);
-            } else if (wrapper.isDelete()) {
-                handler = this.applicationContext.getBean("deleteCodeValueCommandHandler", NewCommandSourceHandler.class);
-            } else {
-                throw new UnsupportedCommandException(wrapper.commandName());
-            }
-        } else if (wrapper.isSmsResource()) {
-            if (wrapper.isCreate()) {
-                handler = this.applicationContext.getBean("createSmsCommandHandler", NewCommandSourceHandler.class);
-            } else if (wrapper.isUpdate()) {
-                handler = this.applicationContext.getBean("updateSmsCommandHandler", NewCommandSourceHandler.class);
-            } else if (wrapper.isDelete()) {
-                handler = this.applicationContext.getBean("deleteSmsCommandHandler", NewCommandSourceHandler.class);
-            } else {
-                throw new UnsupportedCommandException(wrapper.commandName());
-            }
-        } else if (wrapper.isCurrencyResource()) {
-            handler = this.applicationContext.getBean("updateCurrencyCommandHandler", NewCommandSourceHandler.class);
-        } else if (wrapper.isFundResource()) {
-            if (wrapper.isCreate()) {
-                handler = this.applicationContext.getBean("createFundCommandHandler", NewCommandSourceHandler.class);
-            } else if (wrapper.isUpdate()) {
-                handler = this.applicationContext.getBean("updateFundCommandHandler", NewCommandSourceHandler.class);
-            } else {
-                throw new UnsupportedCommandException(wrapper.commandName());
-            }
-        } else if (wrapper.isOfficeResource()) {
-            if (wrapper.isCreate()) {
-                handler = this.applicationContext.getBean("createOfficeCommandHandler", NewCommandSourceHandler.class);
-            } else if (wrapper.isUpdate()) {
-                handler = this.applicationContext.getBean("updateOfficeCommandHandler", NewCommandSourceHandler.class);
-            } else {
-                throw new UnsupportedCommandException(wrapper.commandName());
-            }
-        } else if (wrapper.isOfficeTransactionResource()) {
-            if (wrapper.isCreate()) {
-                handler = this.applicationContext.getBean("createOfficeTransactionCommandHandler", NewCommandSourceHandler.class);
-            } else if (wrapper.isDelete()) {
-                handler = this.applicationContext.getBean("deleteOfficeTransactionCommandHandler", NewCommandSourceHandler.class);
-            } else {
-                throw new UnsupportedCommandException(wrapper.commandName());
-            }
-        } else if (wrapper.isChargeDefinitionResource()) {
-            if (wrapper.isCreate()) {
-                handler = this.applicationContext.getBean("createChargeDefinitionCommandHandler", NewCommandSourceHandler.class);
-            } else if (wrapper.isUpdate()) {
-                handler = this.applicationContext.getBean("updateChargeDefinitionCommandHandler", NewCommandSourceHandler.class);
-            } else if (wrapper.isDelete()) {
-                handler = this.applicationContext.getBean("deleteChargeDefinitionCommandHandler", NewCommandSourceHandler.class);
-            } else {
-                throw new UnsupportedCommandException(wrapper.commandName());
-            }
-        } else if (wrapper.isLoanProductResource()) {
-            if (wrapper.isCreate()) {
-                handler = this.applicationContext.getBean("createLoanProductCommandHandler", NewCommandSourceHandler.class);
-            } else if (wrapper.isUpdate()) {
-                handler = this.applicationContext.getBean("updateLoanProductCommandHandler", NewCommandSourceHandler.class);
-            } else {
-                throw new UnsupportedCommandException(wrapper.commandName());
-            }
-        } else if (wrapper.isLoanResource()) {
-            if (wrapper.isApproveLoanApplication()) {
-                handler = this.applicationContext.getBean("loanApplicationApprovalCommandHandler", NewCommandSourceHandler.class);
-            } else if (wrapper.isUndoApprovalOfLoanApplication()) {
-                handler = this.applicationContext.getBean("loanApplicationApprovalUndoCommandHandler", NewCommandSourceHandler.class);
-            } else if (wrapper.isApplicantWithdrawalFromLoanApplication()) {
-                handler = this.applicationContext.getBean("loanApplicationWithdrawnByApplicantCommandHandler",
-                        NewCommandSourceHandler.class);
-            } else if (wrapper.isRejectionOfLoanApplication()) {
-                handler = this.applicationContext.getBean("loanApplicationRejectedCommandHandler", NewCommandSourceHandler.class);
-            } else if (wrapper.isDisbursementOfLoan()) {
-                handler = this.applicationContext.getBean("disburseLoanCommandHandler", NewCommandSourceHandler.class);
-            } else if (wrapper.isUndoDisbursementOfLoan()) {
-                handler = this.applicationContext.getBean("undoDisbursalLoanCommandHandler", NewCommandSourceHandler.class);
-            } else if (wrapper.isLoanRepayment()) {
-                handler = this.applicationContext.getBean("loanRepaymentCommandHandler", NewCommandSourceHandler.class);
-            } else if (wrapper.isLoanRepaymentAdjustment()) {
-                handler = this.applicationContext.getBean("loanRepaymentAdjustmentCommandHandler", NewCommandSourceHandler.class);
-            } else if (wrapper.isWaiveInterestPortionOnLoan()) {
-                handler = this.applicationContext.getBean("waiveInterestPortionOnLoanCommandHandler", NewCommandSourceHandler.class);
-            } else if (wrapper.isLoanWriteOff()) {
-                handler = this.applicationContext.getBean("writeOffLoanCommandHandler", NewCommandSourceHandler.class);
-            } else if (wrapper.isCloseLoanAsObligationsMet()) {
-                handler = this.applicationContext.getBean("closeLoanCommandHandler", NewCommandSourceHandler.class);
-            } else if (wrapper.isCloseLoanAsRescheduled()) {
-                handler = this.applicationContext.getBean("closeLoanAsRescheduledCommandHandler", NewCommandSourceHandler.class);
-            } else if (wrapper.isUpdateLoanOfficer()) {
-                handler = this.applicationContext.getBean("updateLoanOfficerCommandHandler", NewCommandSourceHandler.class);
-            } else if (wrapper.isRemoveLoanOfficer()) {
-                handler = this.applicationContext.getBean("removeLoanOfficerCommandHandler", NewCommandSourceHandler.class);
-            } else if (wrapper.isBulkUpdateLoanOfficer()) {
-                handler = this.applicationContext.getBean("bulkUpdateLoanOfficerCommandHandler", NewCommandSourceHandler.class);
-            } else if (wrapper.isCreate()) {
-                handler = this.applicationContext.getBean("loanApplicationSubmittalCommandHandler", NewCommandSourceHandler.class);
-            } else if (wrapper.isUpdate()) {
-                handler = this.applicationContext.getBean("loanApplicationModificationCommandHandler", NewCommandSourceHandler.class);
-            } else if (wrapper.isDelete()) {
-                handler = this.applicationContext.getBean("loanApplicationDeletionCommandHandler", NewCommandSourceHandler.class);
-            } else if (wrapper.isUndoLoanWriteOff()) {
-                handler = this.applicationContext.getBean("undoWriteOffLoanCommandHandler", NewCommandSourceHandler.class);
-            }else {
-                throw new UnsupportedCommandException(wrapper.commandName());
-            }
-        } else if (wrapper.isLoanChargeResource()) {
-            if (wrapper.isAddLoanCharge()) {
-                handler = this.applicationContext.getBean("addLoanChargeCommandHandler", NewCommandSourceHandler.class);
-            } else if (wrapper.isDeleteLoanCharge()) {
-                handler = this.applicationContext.getBean("deleteLoanChargeCommandHandler", NewCommandSourceHandler.class);
-            } else if (wrapper.isUpdateLoanCharge()) {
-                handler = this.applicationContext.getBean("updateLoanChargeCommandHandler", NewCommandSourceHandler.class);
-            } else if (wrapper.isWaiveLoanCharge()) {
-                handler = this.applicationContext.getBean("waiveLoanChargeCommandHandler", NewCommandSourceHandler.class);
-            } else if (wrapper.isPayLoanCharge()) {
-                handler = this.applicationContext.getBean("payLoanChargeCommandHandler", NewCommandSourceHandler.class);
-            }
-        } else if (wrapper.isGLAccountResource()) {
-            if (wrapper.isCreate()) {
-                handler = this.applicationContext.getBean("createGLAccountCommandHandler", NewCommandSourceHandler.class);
-            } else if (wrapper.isUpdate()) {
-                handler = this.applicationContext.getBean("updateGLAccountCommandHandler", NewCommandSourceHandler.class);
-            } else if (wrapper.isDelete()) {
-                handler = this.applicationContext.getBean("deleteGLAccountCommandHandler", NewCommandSourceHandler.class);
-            } else {
-                throw new UnsupportedCommandException(wrapper.commandName());
-            }
-        } else if (wrapper.isGLClosureResource()) {
-            if (wrapper.isCreate()) {
-                handler = this.applicationContext.getBean("createGLClosureCommandHandler", NewCommandSourceHandler.class);
-            } else if (wrapper.isUpdate()) {
-                handler = this.applicationContext.getBean("updateGLClosureCommandHandler", NewCommandSourceHandler.class);
-            } else if (wrapper.isDelete()) {
-                handler = this.applicationContext.getBean("deleteGLClosureCommandHandler", NewCommandSourceHandler.class);
-            } else {
-                throw new UnsupportedCommandException(wrapper.commandName());
-            }
-        } else if (wrapper.isJournalEntryResource()) {
-            if (wrapper.isCreate()) {
-                handler = this.applicationContext.getBean("createJournalEntryCommandHandler", NewCommandSourceHandler.class);
-            } else if (wrapper.isRevertJournalEntry()) {
-                handler = this.applicationContext.getBean("reverseJournalEntryCommandHandler", NewCommandSourceHandler.class);
-            }else if(wrapper.isUpdateRunningbalance()){
-                handler = this.applicationContext.getBean("updateRunningBalanceCommandHandler", NewCommandSourceHandler.class);
-            }else {
-                throw new UnsupportedCommandException(wrapper.commandName());
-            }
-        } else if (wrapper.isSavingsProductResource()) {
-            if (wrapper.isCreate()) {
-                handler = this.applicationContext.getBean("createSavingsProductCommandHandler", NewCommandSourceHandler.class);
-            } else if (wrapper.isUpdate()) {
-                handler = this.applicationContext.getBean("updateSavingsProductCommandHandler", NewCommandSourceHandler.class);
-            } else if (wrapper.isDelete()) {
-                handler = this.applicationContext.getBean("deleteSavingsProductCommandHandler", NewCommandSourceHandler.class);
-            } else {
-                throw new UnsupportedCommandException(wrapper.commandName());
-            }
-        } else if (wrapper.isSavingsAccountResource()) {
-            if (wrapper.isCreate()) {
-                handler = this.applicationContext
-                        .getBean("savingsAccountApplicationSubmittalCommandHandler", NewCommandSourceHandler.class);
-            } else if (wrapper.isUpdate()) {
-                handler = this.applicationContext.getBean("savingsAccountApplicationModificationCommandHandler",
-                        NewCommandSourceHandler.class);
-            } else if (wrapper.isDelete()) {
-                handler = this.applicationContext.getBean("savingsAccountApplicationDeletionCommandHandler", NewCommandSourceHandler.class);
-            } else if (wrapper.isRejectionOfSavingsAccountApplication()) {
-                handler = this.applicationContext.getBean("savingsAccountApplicationRejectedCommandHandler", NewCommandSourceHandler.class);
-            } else if (wrapper.isWithdrawFromSavingsAccountApplicationByApplicant()) {
-                handler = this.applicationContext.getBean("savingsAccountApplicationWithdrawnByApplicantCommandHandler",
-                        NewCommandSourceHandler.class);
-            } else if (wrapper.isApprovalOfSavingsAccountApplication()) {
-                handler = this.applicationContext.getBean("savingsAccountApplicationApprovalCommandHandler", NewCommandSourceHandler.class);
-            } else if (wrapper.isUndoApprovalOfSavingsAccountApplication()) {
-                handler = this.applicationContext.getBean("savingsAccountApplicationApprovalUndoCommandHandler",
-                        NewCommandSourceHandler.class);
-            } else if (wrapper.isSavingsAccountDeposit()) {
-                handler = this.applicationContext.getBean("depositSavingsAccountCommandHandler", NewCommandSourceHandler.class);
-            } else if (wrapper.isSavingsAccountWithdrawal()) {
-                handler = this.applicationContext.getBean("withdrawSavingsAccountCommandHandler", NewCommandSourceHandler.class);
-            } else if (wrapper.isSavingsAccountActivation()) {
-                handler = this.applicationContext.getBean("activateSavingsAccountCommandHandler", NewCommandSourceHandler.class);
-            } else if (wrapper.isSavingsAccountInterestCalculation()) {
-                handler = this.applicationContext.getBean("calculateInterestSavingsAccountCommandHandler", NewCommandSourceHandler.class);
-            } else if (wrapper.isSavingsAccountInterestPosting()) {
-                handler = this.applicationContext.getBean("postInterestSavingsAccountCommandHandler", NewCommandSourceHandler.class);
-            } /*else if (wrapper.isSavingsAccountApplyAnnualFee()) {
-                handler = this.applicationContext.getBean("applyAnnualFeeSavingsAccountCommandHandler", NewCommandSourceHandler.class);
-            } */else if (wrapper.isSavingsAccountUndoTransaction()) {
-                handler = this.applicationContext.getBean("undoTransactionSavingsAccountCommandHandler", NewCommandSourceHandler.class);
-            } else if (wrapper.isAdjustSavingsAccountTransaction()) {
-                handler = this.applicationContext.getBean("savingsTransactionAdjustmentCommandHandler", NewCommandSourceHandler.class);
-            } else if (wrapper.isSavingsAccountClose()) {
-                handler = this.applicationContext.getBean("closeSavingsAccountCommandHandler", NewCommandSourceHandler.class);
-            } else {
-                throw new UnsupportedCommandException(wrapper.commandName());
-            }
-        } else if (wrapper.isSavingsAccountChargeResource()) {
-            if (wrapper.isAddSavingsAccountCharge()) {
-                handler = this.applicationContext.getBean("addSavingsAccountChargeCommandHandler", NewCommandSourceHandler.class);
-            } else if (wrapper.isDeleteSavingsAccountCharge()) {
-                handler = this.applicationContext.getBean("deleteSavingsAccountChargeCommandHandler", NewCommandSourceHandler.class);
-            } else if (wrapper.isUpdateSavingsAccountCharge()) {
-                handler = this.applicationContext.getBean("updateSavingsAccountChargeCommandHandler", NewCommandSourceHandler.class);
-            } else if (wrapper.isWaiveSavingsAccountCharge()) {
-                handler = this.applicationContext.getBean("waiveSavingsAccountChargeCommandHandler", NewCommandSourceHandler.class);
-            } else if (wrapper.isPaySavingsAccountCharge()) {
-                handler = this.applicationContext.getBean("paySavingsAccountChargeCommandHandler", NewCommandSourceHandler.class);
-            } else {
-                throw new UnsupportedCommandException(wrapper.commandName());
-            }
-        } else if (wrapper.isCalendarResource()) {
-            if (wrapper.isCreate()) {
-                handler = this.applicationContext.getBean("createCalendarCommandHandler", NewCommandSourceHandler.class);
-            } else if (wrapper.isUpdate()) {
-                handler = this.applicationContext.getBean("updateCalendarCommandHandler", NewCommandSourceHandler.class);
-            } else if (wrapper.isDelete()) {
-                handler = this.applicationContext.getBean("deleteCalendarCommandHandler", NewCommandSourceHandler.class);
-            } else {
-                throw new UnsupportedCommandException(wrapper.commandName());
-            }
-        } else if (wrapper.isGroupResource()) {
-            if (wrapper.isCreate()) {
-                handler = this.applicationContext.getBean("createGroupCommandHandler", NewCommandSourceHandler.class);
-            } else if (wrapper.isUpdate()) {
-                handler = this.applicationContext.getBean("updateGroupCommandHandler", NewCommandSourceHandler.class);
-            } else if (wrapper.isUnassignStaff()) {
-                handler = this.applicationContext.getBean("unassignGroupStaffCommandHandler", NewCommandSourceHandler.class);
-            } else if (wrapper.isDelete()) {
-                handler = this.applicationContext.getBean("deleteGroupCommandHandler", NewCommandSourceHandler.class);
-            } else if (wrapper.isGroupActivation()) {
-                handler = this.applicationContext.getBean("activateGroupCommandHandler", NewCommandSourceHandler.class);
-            } else if (wrapper.isAssociateClients()) {
-                handler = this.applicationContext.getBean("associateClientsToGroupCommandHandler", NewCommandSourceHandler.class);
-            } else if (wrapper.isDisassociateClients()) {
-                handler = this.applicationContext.getBean("disassociateClientsFromGroupCommandHandler", NewCommandSourceHandler.class);
-            } else if (wrapper.isSaveGroupCollectionSheet()) {
-                handler = this.applicationContext.getBean("saveGroupCollectionSheetCommandHandler", NewCommandSourceHandler.class);
-            } else if (wrapper.isAssignGroupRole()) {
-                handler = this.applicationContext.getBean("assignRoleCommandHandler", NewCommandSourceHandler.class);
-            } else if (wrapper.isUnAssignGroupRole()) {
-                handler = this.applicationContext.getBean("unassignRoleCommandHandler", NewCommandSourceHandler.class);
-            } else if (wrapper.isUpdateGroupRole()) {
-                handler = this.applicationContext.getBean("updateGroupRoleCommandHandler", NewCommandSourceHandler.class);
-            } else if (wrapper.isAssignStaff()) {
-                handler = this.applicationContext.getBean("assignGroupStaffCommandHandler", NewCommandSourceHandler.class);
-            } else if (wrapper.isTransferClientsBetweenGroups()) {
-                handler = this.applicationContext.getBean("transferClientsBetweenGroupsCommandHandler", NewCommandSourceHandler.class);
-            } else if (wrapper.isGroupClose()) {
-                handler = this.applicationContext.getBean("closeGroupCommandHandler", NewCommandSourceHandler.class);
-            } else {
-                throw new UnsupportedCommandException(wrapper.commandName());
-            }
-        } else if (wrapper.isCenterResource()) {
-            if (wrapper.isCreate()) {
-                handler = this.applicationContext.getBean("createCenterCommandHandler", NewCommandSourceHandler.class);
-            } else if (wrapper.isUpdate()) {
-                handler = this.applicationContext.getBean("updateCenterCommandHandler", NewCommandSourceHandler.class);
-            } else if (wrapper.isDelete()) {
-                handler = this.applicationContext.getBean("deleteCenterCommandHandler", NewCommandSourceHandler.class);
-            } else if (wrapper.isCenterActivation()) {
-                handler = this.applicationContext.getBean("activateCenterCommandHandler", NewCommandSourceHandler.class);
-            } else if (wrapper.isSaveCenterCollectionSheet()) {
-                handler = this.applicationContext.getBean("saveCenterCollectionSheetCommandHandler", NewCommandSourceHandler.class);
-            } else if (wrapper.isCenterClose()) {
-                handler = this.applicationContext.getBean("closeCenterCommandHandler", NewCommandSourceHandler.class);
-            } else {
-                throw new UnsupportedCommandException(wrapper.commandName());
-            }
-        } else if (wrapper.isCollectionSheetResource()) {
-            if (wrapper.isUpdate()) {
-                handler = this.applicationContext.getBean("updateCollectionSheetCommandHandler", NewCommandSourceHandler.class);
-            } else {
-                throw new UnsupportedCommandException(wrapper.commandName());
-            }
-        } else if (wrapper.isReportResource()) {
-            if (wrapper.isCreate()) {
-                handler = this.applicationContext.getBean("createReportCommandHandler", NewCommandSourceHandler.class);
-            } else if (wrapper.isUpdate()) {
-                handler = this.applicationContext.getBean("updateReportCommandHandler", NewCommandSourceHandler.class);
-            } else if (wrapper.isDelete()) {
-                handler = this.applicationContext.getBean("deleteReportCommandHandler", NewCommandSourceHandler.class);
-            } else {
-                throw new UnsupportedCommandException(wrapper.commandName());
-            }
-        } else if (wrapper.isAccountingRuleResource()) {
-            if (wrapper.isCreate()) {
-                handler = this.applicationContext.getBean("createAccountingRuleCommandHandler", NewCommandSourceHandler.class);
-            } else if (wrapper.isUpdate()) {
-                handler = this.applicationContext.getBean("updateAccountingRuleCommandHandler", NewCommandSourceHandler.class);
-            } else if (wrapper.isDelete()) {
-                handler = this.applicationContext.getBean("deleteAccountingRuleCommandHandler", NewCommandSourceHandler.class);
-            } else {
-                throw new UnsupportedCommandException(wrapper.commandName());
-            }
-        } else if (wrapper.isXBRLMappingResource()) {
-            if (wrapper.isUpdate()) {
-                handler = this.applicationContext.getBean("updateTaxonomyMappingCommandHandler", NewCommandSourceHandler.class);
-            } else {
-                throw new UnsupportedCommandException(wrapper.commandName());
-            }
-        } else if (wrapper.isHolidayResource()) {
-            if (wrapper.isCreate()) {
-                handler = this.applicationContext.getBean("createHolidayCommandHandler", NewCommandSourceHandler.class);
-            } else if (wrapper.isHolidayActivation()) {
-                handler = this.applicationContext.getBean("activateHolidayCommandHandler", NewCommandSourceHandler.class);
-            } else if (wrapper.isUpdate()) {
-                handler = this.applicationContext.getBean("updateHolidayCommandHandler", NewCommandSourceHandler.class);
-            } else if (wrapper.isDelete()) {
-                handler = this.applicationContext.getBean("deleteHolidayCommandHandler", NewCommandSourceHandler.class);
-            } else {
-                throw new UnsupportedCommandException(wrapper.commandName());
-            }
-        } else if (wrapper.isProductMixResource()) {
-            if (wrapper.isCreate()) {
-                handler = this.applicationContext.getBean("createProductMixCommandHandler", NewCommandSourceHandler.class);
-            } else if (wrapper.isUpdateOperation()) {
-                handler = this.applicationContext.getBean("updateProductMixCommandHandler", NewCommandSourceHandler.class);
-            } else if (wrapper.isDeleteOperation()) {
-                handler = this.applicationContext.getBean("deleteProductMixCommandHandler", NewCommandSourceHandler.class);
-            } else {
-                throw new UnsupportedCommandException(wrapper.commandName());
-            }
-        } else if (wrapper.isSchedulerResource()) {
-            if (wrapper.isUpdate()) {
-                handler = this.applicationContext.getBean("updateJobDetailCommandhandler", NewCommandSourceHandler.class);
-            } else {
-                throw new UnsupportedCommandException(wrapper.commandName());
-            }
-        } else if (wrapper.isCacheResource()) {
-            if (wrapper.isUpdateOperation()) {
-                handler = this.applicationContext.getBean("updateCacheCommandHandler", NewCommandSourceHandler.class);
-            } else {
-                throw new UnsupportedCommandException(wrapper.commandName());
-            }
-        } else if (wrapper.isMeetingResource()) {
-            if (wrapper.isCreate()) {
-                handler = this.applicationContext.getBean("createMeetingCommandHandler", NewCommandSourceHandler.class);
-            } else if (wrapper.isUpdate()) {
-                handler = this.applicationContext.getBean("updateMeetingCommandHandler", NewCommandSourceHandler.class);
-            } else if (wrapper.isDelete()) {
-                handler = this.applicationContext.getBean("deleteMeetingCommandHandler", NewCommandSourceHandler.class);
-            } else if (wrapper.isSaveOrUpdateAttendance()) {
-                handler = this.applicationContext.getBean("updateMeetingAttendanceCommandHandler", NewCommandSourceHandler.class);
-            } else {
-                throw new UnsupportedCommandException(wrapper.commandName());
-            }
-        }  else if (wrapper.isAssetRessource()) {
-            if (wrapper.isCreate()) {
-                handler = this.applicationContext.getBean("createAssetCommandHandler", NewCommandSourceHandler.class);
-            } else if (wrapper.isUpdate()) {
-                handler = this.applicationContext.getBean("updateAssetCommandHandler", NewCommandSourceHandler.class);
-            } else if (wrapper.isDelete()) {
-                handler = this.applicationContext.getBean("deleteAssetCommandHandler", NewCommandSourceHandler.class);
-            } else {
-                throw new UnsupportedCommandException(wrapper.commandName());
-            }
-
-        }else if (wrapper.isInsuranceRessource()) {
-            if (wrapper.isCreate()) {
-                handler = this.applicationContext.getBean("createInsuranceCommandHandler", NewCommandSourceHandler.class);
-            } else if (wrapper.isUpdate()) {
-                handler = this.applicationContext.getBean("updateAssetCommandHandler", NewCommandSourceHandler.class);
-            } else if (wrapper.isDelete()) {
-                handler = this.applicationContext.getBean("deleteInsuranceCommandHandler", NewCommandSourceHandler.class);
-            } else {
-                throw new UnsupportedCommandException(wrapper.commandName());
-            }
-
-        }else if (wrapper.isTemplateRessource()) {
-
-            if (wrapper.isCreate()) {
-                handler = this.applicationContext.getBean("createTemplateCommandHandler", NewCommandSourceHandler.class);
-            } else if (wrapper.isUpdate()) {
-                handler = this.applicationContext.getBean("updateTemplateCommandHandler", NewCommandSourceHandler.class);
-            } else if (wrapper.isDelete()) {
-                handler = this.applicationContext.getBean("deleteTemplateCommandHandler", NewCommandSourceHandler.class);
-            } else {
-                throw new UnsupportedCommandException(wrapper.commandName());
-            }
-
-        } else if (wrapper.isTemplateRessource()) {
-            if (wrapper.isCreate()) {
-                handler = this.applicationContext.getBean("createTemplateCommandHandler", NewCommandSourceHandler.class);
-            } else if (wrapper.isUpdate()) {
-                handler = this.applicationContext.getBean("updateTemplateCommandHandler", NewCommandSourceHandler.class);
-            } else if (wrapper.isDelete()) {
-                handler = this.applicationContext.getBean("deleteTemplateCommandHandler", NewCommandSourceHandler.class);
-            } else {
-                throw new UnsupportedCommandException(wrapper.commandName());
-            }
-
-        } else if (wrapper.isTaxMapResource()) {
-			if(wrapper.isCreate()){
-				handler = applicationContext.getBean("createTaxMapCommandHandler",NewCommandSourceHandler.class);
-			} else if(wrapper.isUpdateTaxMap()){
-				handler = applicationContext.getBean("updateTaxMapCommandHandler",NewCommandSourceHandler.class);
-			} else {
-                throw new UnsupportedCommandException(wrapper.commandName());
-            }
-		
-        } else if (wrapper.isLoanTaxMapResource()) {
-			if(wrapper.isCreate()){
-				handler = applicationContext.getBean("createLoanTaxMapCommandHandler",NewCommandSourceHandler.class);
-			} else if(wrapper.isUpdateLoneTaxMap()){
-				handler = applicationContext.getBean("updateLoanTaxMapCommandHandler",NewCommandSourceHandler.class);
-			} else if(wrapper.isDelete()){
-				handler = applicationContext.getBean("deleteLoanTaxMapCommandHandler",NewCommandSourceHandler.class);
-			} else if(wrapper.isAllDelete()){
-				handler = applicationContext.getBean("deleteAllLoanTaxMapCommandHandler",NewCommandSourceHandler.class);
-			} else {
-                throw new UnsupportedCommandException(wrapper.commandName());
-            }
-		
-        } else if (wrapper.isLoanCalculatorResource()) {
-			if(wrapper.isCreate()){
-				handler = applicationContext.getBean("createLoanCalculatorCommandHandler",NewCommandSourceHandler.class);
-			} else {
-                throw new UnsupportedCommandException(wrapper.commandName());
-            }
-		
-        }else if(wrapper.isRefund()){
-	    	  if(wrapper.isCreate()){
-	    		  handler = applicationContext.getBean("createRefundAmountCommandHandler",NewCommandSourceHandler.class);
-	    	  }else {
-	    		  throw new UnsupportedCommandException(wrapper.commandName());
-	    	  }
-	    }else if(wrapper.isDeposit()){
-	    	  if(wrapper.isCreate()){
-	    		  handler = applicationContext.getBean("createDepositeCommandHandler",NewCommandSourceHandler.class);
-	    	  }else {
-	    		  throw new UnsupportedCommandException(wrapper.commandName());
-	    	  }
-	    }else if(wrapper.isFeeMasterResource()){
-	    	  if(wrapper.isCreate()){
-	    		  handler = applicationContext.getBean("createFeeMasterCommandHandler",NewCommandSourceHandler.class);
-	    	  }else if(wrapper.isUpdate()) {
-					 handler = applicationContext.getBean("updateFeeMasterCommandHandler",NewCommandSourceHandler.class);
-			  }else if(wrapper.isDelete()){
-	               handler = applicationContext.getBean("deleteFeeMasterCommandHandler",NewCommandSourceHandler.class);
-	           }else {
-	    		  throw new UnsupportedCommandException(wrapper.commandName());
-	    	  }	            
-	    }else if(wrapper.isProspect()){
-	    	  if(wrapper.isCreate()){
-	    		  handler = applicationContext.getBean("createProspectCommandHandler",NewCommandSourceHandler.class);
-	    	  }else if(wrapper.isUpdate()) {
-					 handler = applicationContext.getBean("updateProspectCommandHandler",NewCommandSourceHandler.class);
-			  }else if(wrapper.isConvertToClient()) {
-					 handler = applicationContext.getBean("convertProspectToClientCommandHandler",NewCommandSourceHandler.class);
-			  }else {
-	    		  throw new UnsupportedCommandException(wrapper.commandName());
-	    	  }
-	    } else if (wrapper.isSupplierRessource()) {
-            if (wrapper.isCreate()) {
-                handler = this.applicationContext.getBean("createSupplierCommandHandler", NewCommandSourceHandler.class);
-            } else if (wrapper.isUpdate()) {
-                handler = this.applicationContext.getBean("updateSupplierCommandHandler", NewCommandSourceHandler.class);
-            } else {
-                throw new UnsupportedCommandException(wrapper.commandName());
-            }
-
-        } else if (wrapper.isItemResource()) {
-			if (wrapper.isCreate()) {
-				handler = applicationContext.getBean("createItemCommandHandler",NewCommandSourceHandler.class);
-			} else if (wrapper.isUpdate()) {
-				handler = applicationContext.getBean("updateItemCommandHandler",NewCommandSourceHandler.class);
-			} else if (wrapper.isDelete()) {
-				handler = applicationContext.getBean("deleteItemCommandHandler",NewCommandSourceHandler.class);
-			}
-		}else if(wrapper.isMRN()){
-			if(wrapper.isMoveItemSale()){
-				handler=applicationContext.getBean("createItemSaleDetailsMoveCommandHandler",NewCommandSourceHandler.class);
-			}
-           if(wrapper.isCreateMRN()){
-               handler = applicationContext.getBean("createMRNDetailsCommandHandler",NewCommandSourceHandler.class);
-              }else if(wrapper.moveMRN()){
-               handler = applicationContext.getBean("createMRNDetailsMoveCommandHandler",NewCommandSourceHandler.class);
-              }
-             }else if (wrapper.isGrnResource()) {
-				if (wrapper.isCreate()){
-					handler = applicationContext.getBean("createInventoryGrnCommandHandler", NewCommandSourceHandler.class);
-				}else if(wrapper.isUpdateOperation()){
-					handler = applicationContext.getBean("editInventoryGrnCommandHandler", NewCommandSourceHandler.class);
-				}
-			}else if (wrapper.isInventoryResource()) {
-	        	if (wrapper.isCreate()) {
-					handler = applicationContext.getBean("createInventoryItemsCommandHandler", NewCommandSourceHandler.class);
-					
-	        	}else if(wrapper.isUpdateInventoryItem()){
-	        		handler = applicationContext.getBean("updateInventoryItemsCommandHandler", NewCommandSourceHandler.class);
-	        		
-	        	}else if(wrapper.isDeleteInventoryItem()){
-	        		handler = applicationContext.getBean("deleteInventoryItemsCommandHandler", NewCommandSourceHandler.class);
-	        		
-	        	}/*else if (wrapper.isDeAllocateHardwareResource()) {
-					handler = applicationContext.getBean("deAllocateItemCommandHandler",NewCommandSourceHandler.class);
-			    }*/
-			}else if(wrapper.isItemSale()){
-			     if(wrapper.isCreate()) {
-			         handler = applicationContext.getBean("createItemSaleCommandHandler",NewCommandSourceHandler.class);
-			     }else {
-			           throw new UnsupportedCommandException(wrapper.commandName());
-			     }
-		   }else if(wrapper.isDeviceSaleResource()){
-			   if (wrapper.isCreate()) {
-					handler = applicationContext.getBean("createOneTimeSaleCommandHandler",NewCommandSourceHandler.class);
-				}else{
-					 throw new UnsupportedCommandException(wrapper.commandName());
-				}
-			   
-		   }else {
-
-            throw new UnsupportedCommandException(wrapper.commandName());
-        }
-
-        return handler;
-    }
 }
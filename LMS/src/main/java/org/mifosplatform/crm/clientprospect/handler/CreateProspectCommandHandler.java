@@ -1,5 +1,6 @@
 package org.mifosplatform.crm.clientprospect.handler;
 
+import org.mifosplatform.commands.annotation.CommandType;
 import org.mifosplatform.commands.handler.NewCommandSourceHandler;
 import org.mifosplatform.crm.clientprospect.service.ClientProspectWritePlatformService;
 import org.mifosplatform.infrastructure.core.api.JsonCommand;
@@ -7,6 +8,7 @@ import org.mifosplatform.infrastructure.core.data.CommandProcessingResult;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+@CommandType(entity = "PROSPECT", action = "CREATE")
 @Service
 public class CreateProspectCommandHandler implements NewCommandSourceHandler {
 
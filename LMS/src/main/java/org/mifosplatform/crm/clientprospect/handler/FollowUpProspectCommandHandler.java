@@ -5,9 +5,7 @@ import org.mifosplatform.crm.clientprospect.service.ClientProspectWritePlatformS
 import org.mifosplatform.infrastructure.core.api.JsonCommand;
 import org.mifosplatform.infrastructure.core.data.CommandProcessingResult;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.stereotype.Service;
 
-@Service
 public class FollowUpProspectCommandHandler implements NewCommandSourceHandler {
 
 	private ClientProspectWritePlatformService clientProspectWritePlatformService;
@@ -1,5 +1,6 @@
 package org.mifosplatform.crm.clientprospect.handler;
 
+import org.mifosplatform.commands.annotation.CommandType;
 import org.mifosplatform.commands.handler.NewCommandSourceHandler;
 import org.mifosplatform.crm.clientprospect.service.ClientProspectWritePlatformService;
 import org.mifosplatform.infrastructure.core.api.JsonCommand;
@@ -8,6 +9,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+@CommandType(entity = "PROSPECT", action = "UPDATE")
 @Service
 public class UpdateProspectCommandHandler implements NewCommandSourceHandler {
 
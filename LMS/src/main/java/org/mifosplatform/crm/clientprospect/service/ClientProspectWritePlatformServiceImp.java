@@ -37,6 +37,8 @@ import org.mifosplatform.portfolio.loanaccount.api.LoansApiResource;
 import org.mifosplatform.portfolio.loanaccount.data.LoanAccountData;
 import org.mifosplatform.portfolio.loanaccount.data.LoanChargeData;
 import org.mifosplatform.portfolio.loanaccount.data.LoanTaxData;
+import org.mifosplatform.portfolio.search.domain.SearchEntityType;
+import org.mifosplatform.portfolio.search.service.SearchIndexService;
 import org.mifosplatform.useradministration.domain.AppUser;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -66,6 +68,7 @@ public class ClientProspectWritePlatformServiceImp implements
 	private final ProspectLoanDetailsRepository prospectLoanDetailsRepository;
 	private final LoansApiResource loansApiResource;
 	private final FeeMasterReadplatformService feeMasterReadplatformService;
+	private final SearchIndexService searchIndexService;
 	
 	private final String dateFormat = "dd MMMM yyyy";
 	private final String locale = "en";
@@ -88,7 +91,8 @@ public class ClientProspectWritePlatformServiceImp implements
 			final ProspectLoanCalculatorRepository prospectLoanCalculatorRepository,
 			final ProspectLoanDetailsRepository prospectLoanDetailsRepository,
 			final LoansApiResource loansApiResource, 
-			final FeeMasterReadplatformService feeMasterReadplatformService) {
+			final FeeMasterReadplatformService feeMasterReadplatformService,
+			final SearchIndexService searchIndexService) {
 		
 		this.context = context;
 		this.clientProspectJpaRepository = clientProspectJpaRepository;
@@ -100,6 +104,7 @@ public class ClientProspectWritePlatformServiceImp implements
 		this.prospectLoanDetailsRepository = prospectLoanDetailsRepository;
 		this.loansApiResource = loansApiResource;
 		this.feeMasterReadplatformService = feeMasterReadplatformService;
+		this.searchIndexService = searchIndexService;
 	}
 
 	@Transactional
@@ -112,6 +117,7 @@ public class ClientProspectWritePlatformServiceImp implements
 			
 			final ClientProspect entity = ClientProspect.fromJson(fromApiJsonHelper, command);
 			this.clientProspectJpaRepository.save(entity);
+			this.searchIndexService.entityChanged(SearchEntityType.PROSPECT, entity.getId());
 			
 			if (command.parameterExists("prospectLoanCalculatorId")) {
 
@@ -168,6 +174,7 @@ public class ClientProspectWritePlatformServiceImp implements
 		//clientProspect.setStatusRemark(command.stringValueOfParameterNamed("statusRemark"));
 		
 		this.clientProspectJpaRepository.saveAndFlush(clientProspect);
+		this.searchIndexService.entityChanged(SearchEntityType.PROSPECT, clientProspect.getId());
 		
 		return new CommandProcessingResultBuilder().withEntityId(
 				clientProspect.getId()).build();
@@ -455,6 +462,7 @@ public class ClientProspectWritePlatformServiceImp implements
 			final Map<String, Object> changes = pros.update(command);
 			
 			this.clientProspectJpaRepository.save(pros);
+			this.searchIndexService.entityChanged(SearchEntityType.PROSPECT, pros.getId());
 			
 			if (command.parameterExists("prospectLoanCalculatorId")) {
 
@@ -1,4 +1,5 @@
 package org.mifosplatform.finance.depositandrefund.handler;
+import org.mifosplatform.commands.annotation.CommandType;
 import org.mifosplatform.commands.handler.NewCommandSourceHandler;
 import org.mifosplatform.finance.depositandrefund.service.DepositeWritePlatformService;
 import org.mifosplatform.infrastructure.core.api.JsonCommand;
@@ -7,6 +8,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+@CommandType(entity = "DEPOSIT", action = "CREATE")
 @Service
 public class CreateDepositeCommandHandler implements NewCommandSourceHandler {
 
@@ -23,6 +23,7 @@ import org.mifosplatform.commands.domain.CommandWrapper;
 import org.mifosplatform.commands.service.CommandWrapperBuilder;
 import org.mifosplatform.commands.service.PortfolioCommandSourceWritePlatformService;
 import org.mifosplatform.infrastructure.cache.data.CacheData;
+import org.mifosplatform.infrastructure.cache.data.CacheStatisticsData;
 import org.mifosplatform.infrastructure.cache.service.RuntimeDelegatingCacheManager;
 import org.mifosplatform.infrastructure.core.api.ApiRequestParameterHelper;
 import org.mifosplatform.infrastructure.core.data.CommandProcessingResult;
@@ -46,6 +47,7 @@ public class CacheApiResource {
 
     private final PlatformSecurityContext context;
     private final DefaultToApiJsonSerializer<CacheData> toApiJsonSerializer;
+    private final DefaultToApiJsonSerializer<CacheStatisticsData> statisticsToApiJsonSerializer;
     private final ApiRequestParameterHelper apiRequestParameterHelper;
     private final PortfolioCommandSourceWritePlatformService commandsSourceWritePlatformService;
     private final RuntimeDelegatingCacheManager cacheService;
@@ -53,11 +55,14 @@ public class CacheApiResource {
     @Autowired
     public CacheApiResource(final PlatformSecurityContext context,
             @Qualifier("runtimeDelegatingCacheManager") final RuntimeDelegatingCacheManager cacheService,
-            final DefaultToApiJsonSerializer<CacheData> toApiJsonSerializer, final ApiRequestParameterHelper apiRequestParameterHelper,
+            final DefaultToApiJsonSerializer<CacheData> toApiJsonSerializer,
+            final DefaultToApiJsonSerializer<CacheStatisticsData> statisticsToApiJsonSerializer,
+            final ApiRequestParameterHelper apiRequestParameterHelper,
             final PortfolioCommandSourceWritePlatformService commandsSourceWritePlatformService) {
         this.context = context;
         this.cacheService = cacheService;
         this.toApiJsonSerializer = toApiJsonSerializer;
+        this.statisticsToApiJsonSerializer = statisticsToApiJsonSerializer;
         this.apiRequestParameterHelper = apiRequestParameterHelper;
         this.commandsSourceWritePlatformService = commandsSourceWritePlatformService;
     }
@@ -73,6 +78,18 @@ public class CacheApiResource {
         return this.toApiJsonSerializer.serialize(settings, codes, this.RESPONSE_DATA_PARAMETERS);
     }
 
+    @GET
+    @Path("statistics")
+    public String retrieveStatistics(@Context final UriInfo uriInfo) {
+
+        this.context.authenticatedUser().validateHasReadPermission(this.resourceNameForPermissions);
+
+        final Collection<CacheStatisticsData> statistics = this.cacheService.retrieveCacheStatistics();
+
+        final ApiRequestJsonSerializationSettings settings = this.apiRequestParameterHelper.process(uriInfo.getQueryParameters());
+        return this.statisticsToApiJsonSerializer.serialize(settings, statistics, this.RESPONSE_DATA_PARAMETERS);
+    }
+
     @PUT
     public String switchCache(final String apiRequestBodyAsJson) {
 
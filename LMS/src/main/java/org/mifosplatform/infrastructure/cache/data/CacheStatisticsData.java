@@ -0,0 +1,57 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.cache.data;
+
+/**
+ * Immutable snapshot of the size, policy and hit/miss/eviction counters of a
+ * single named cache.
+ */
+public class CacheStatisticsData {
+
+    @SuppressWarnings("unused")
+    private final String name;
+    @SuppressWarnings("unused")
+    private final boolean enabled;
+    @SuppressWarnings("unused")
+    private final long size;
+    @SuppressWarnings("unused")
+    private final long maxEntries;
+    @SuppressWarnings("unused")
+    private final long timeToLiveSeconds;
+    @SuppressWarnings("unused")
+    private final long hitCount;
+    @SuppressWarnings("unused")
+    private final long missCount;
+    @SuppressWarnings("unused")
+    private final long evictionCount;
+    @SuppressWarnings("unused")
+    private final long expiredCount;
+    @SuppressWarnings("unused")
+    private final double hitRatio;
+
+    public static CacheStatisticsData instance(final String name, final boolean enabled, final long size, final long maxEntries,
+            final long timeToLiveSeconds, final long hitCount, final long missCount, final long evictionCount, final long expiredCount) {
+        final long lookups = hitCount + missCount;
+        final double hitRatio = lookups == 0 ? 0d : (double) hitCount / lookups;
+        return new CacheStatisticsData(name, enabled, size, maxEntries, timeToLiveSeconds, hitCount, missCount, evictionCount,
+                expiredCount, hitRatio);
+    }
+
+    private CacheStatisticsData(final String name, final boolean enabled, final long size, final long maxEntries,
+            final long timeToLiveSeconds, final long hitCount, final long missCount, final long evictionCount, final long expiredCount,
+            final double hitRatio) {
+        this.name = name;
+        this.enabled = enabled;
+        this.size = size;
+        this.maxEntries = maxEntries;
+        this.timeToLiveSeconds = timeToLiveSeconds;
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.evictionCount = evictionCount;
+        this.expiredCount = expiredCount;
+        this.hitRatio = hitRatio;
+    }
+}
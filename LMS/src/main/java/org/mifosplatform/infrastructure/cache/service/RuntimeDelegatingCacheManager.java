@@ -1,13 +1,24 @@
 package org.mifosplatform.infrastructure.cache.service;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import net.sf.ehcache.Ehcache;
+import net.sf.ehcache.config.CacheConfiguration;
+import net.sf.ehcache.statistics.StatisticsGateway;
 
 import org.mifosplatform.infrastructure.cache.CacheApiConstants;
 import org.mifosplatform.infrastructure.cache.CacheEnumerations;
 import org.mifosplatform.infrastructure.cache.data.CacheData;
+import org.mifosplatform.infrastructure.cache.data.CacheStatisticsData;
 import org.mifosplatform.infrastructure.cache.domain.CacheType;
 import org.mifosplatform.infrastructure.core.data.EnumOptionData;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -21,26 +32,45 @@ import org.springframework.stereotype.Component;
  * At present this implementation of {@link CacheManager} just delegates to the
  * real {@link CacheManager} to use.
  * 
- * By default it is {@link NoOpCacheManager} but we can change that by checking
- * some persisted configuration in the database on startup and allow user to
- * switch implementation through UI/API
+ * By default it is the single node {@link EhCacheCacheManager}, whose caches
+ * are handed out as {@link TenantScopedCache}s so that evicting all entries
+ * only evicts those of the current tenant. The persisted configuration is
+ * checked on the first request and the user can switch implementation
+ * through UI/API.
  */
 @Component(value = "runtimeDelegatingCacheManager")
 public class RuntimeDelegatingCacheManager implements CacheManager {
 
+    /**
+     * Caches of platform wide data, read before the tenant of a request is
+     * known
+     */
+    private static final Set<String> SHARED_CACHES = Collections.singleton("tenantsById");
+
     private final EhCacheCacheManager ehcacheCacheManager;
     private final CacheManager noOpCacheManager = new NoOpCacheManager();
-    private CacheManager currentCacheManager;
+    private final ConcurrentMap<String, Cache> tenantScopedCaches = new ConcurrentHashMap<String, Cache>();
+    private volatile CacheManager currentCacheManager;
 
     @Autowired
     public RuntimeDelegatingCacheManager(final EhCacheCacheManager ehCacheCacheManager) {
         this.ehcacheCacheManager = ehCacheCacheManager;
-        this.currentCacheManager = this.noOpCacheManager;
+        this.currentCacheManager = this.ehcacheCacheManager;
     }
 
     @Override
     public Cache getCache(final String name) {
-        return this.currentCacheManager.getCache(name);
+        final CacheManager cacheManager = this.currentCacheManager;
+        if (cacheManager != this.ehcacheCacheManager || SHARED_CACHES.contains(name)) { return cacheManager.getCache(name); }
+
+        Cache cache = this.tenantScopedCaches.get(name);
+        if (cache == null) {
+            final Cache ehcache = this.ehcacheCacheManager.getCache(name);
+            if (ehcache == null) { return null; }
+            this.tenantScopedCaches.putIfAbsent(name, new TenantScopedCache(ehcache));
+            cache = this.tenantScopedCaches.get(name);
+        }
+        return cache;
     }
 
     @Override
@@ -69,6 +99,34 @@ public class RuntimeDelegatingCacheManager implements CacheManager {
         return caches;
     }
 
+    /**
+     * Statistics are always read from the underlying ehcache caches so that
+     * counters collected while single node caching was enabled remain visible
+     * after switching back to no cache.
+     */
+    public List<CacheStatisticsData> retrieveCacheStatistics() {
+
+        final boolean ehcacheEnabled = this.currentCacheManager instanceof EhCacheCacheManager;
+        final net.sf.ehcache.CacheManager cacheManager = this.ehcacheCacheManager.getCacheManager();
+
+        final String[] cacheNames = cacheManager.getCacheNames();
+        Arrays.sort(cacheNames);
+
+        final List<CacheStatisticsData> statistics = new ArrayList<CacheStatisticsData>(cacheNames.length);
+        for (final String cacheName : cacheNames) {
+            final Ehcache cache = cacheManager.getEhcache(cacheName);
+            if (cache == null) {
+                continue;
+            }
+            final CacheConfiguration configuration = cache.getCacheConfiguration();
+            final StatisticsGateway gateway = cache.getStatistics();
+            statistics.add(CacheStatisticsData.instance(cacheName, ehcacheEnabled, gateway.getSize(),
+                    configuration.getMaxEntriesLocalHeap(), configuration.getTimeToLiveSeconds(), gateway.cacheHitCount(),
+                    gateway.cacheMissCount(), gateway.cacheEvictedCount(), gateway.cacheExpiredCount()));
+        }
+        return statistics;
+    }
+
     public Map<String, Object> switchToCache(final boolean ehcacheEnabled, final CacheType toCacheType) {
 
         final Map<String, Object> changes = new HashMap<String, Object>();
@@ -0,0 +1,112 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.cache.service;
+
+import net.sf.ehcache.Ehcache;
+
+import org.mifosplatform.infrastructure.core.domain.MifosPlatformTenant;
+import org.mifosplatform.infrastructure.core.service.ThreadLocalContextUtil;
+import org.springframework.cache.Cache;
+
+/**
+ * Keeps the entries of each tenant apart in an ehcache cache shared by all
+ * tenants.
+ *
+ * Keys are stored along with the identifier of the current tenant, so
+ * {@link #clear()} (what <code>@CacheEvict(allEntries = true)</code> calls)
+ * only removes the entries of the tenant whose data changed. Without a
+ * current tenant the cache is used as it is.
+ */
+final class TenantScopedCache implements Cache {
+
+    private final Cache cache;
+
+    TenantScopedCache(final Cache cache) {
+        this.cache = cache;
+    }
+
+    @Override
+    public String getName() {
+        return this.cache.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return this.cache.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(final Object key) {
+        return this.cache.get(scoped(key));
+    }
+
+    @Override
+    public void put(final Object key, final Object value) {
+        this.cache.put(scoped(key), value);
+    }
+
+    @Override
+    public void evict(final Object key) {
+        this.cache.evict(scoped(key));
+    }
+
+    @Override
+    public void clear() {
+        final String tenantIdentifier = currentTenantIdentifier();
+        if (tenantIdentifier == null) {
+            this.cache.clear();
+            return;
+        }
+
+        final Ehcache ehcache = (Ehcache) this.cache.getNativeCache();
+        for (final Object key : ehcache.getKeys()) {
+            if (key instanceof TenantKey && ((TenantKey) key).tenantIdentifier.equals(tenantIdentifier)) {
+                ehcache.remove(key);
+            }
+        }
+    }
+
+    private static Object scoped(final Object key) {
+        final String tenantIdentifier = currentTenantIdentifier();
+        if (tenantIdentifier == null) { return key; }
+        return new TenantKey(tenantIdentifier, key);
+    }
+
+    private static String currentTenantIdentifier() {
+        final MifosPlatformTenant tenant = ThreadLocalContextUtil.getTenant();
+        return tenant == null ? null : tenant.getTenantIdentifier();
+    }
+
+    static final class TenantKey {
+
+        private final String tenantIdentifier;
+        private final Object key;
+
+        TenantKey(final String tenantIdentifier, final Object key) {
+            this.tenantIdentifier = tenantIdentifier;
+            this.key = key;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) { return true; }
+            if (!(obj instanceof TenantKey)) { return false; }
+            final TenantKey other = (TenantKey) obj;
+            return this.tenantIdentifier.equals(other.tenantIdentifier)
+                    && (this.key == null ? other.key == null : this.key.equals(other.key));
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * this.tenantIdentifier.hashCode() + (this.key == null ? 0 : this.key.hashCode());
+        }
+
+        @Override
+        public String toString() {
+            return this.tenantIdentifier + "/" + this.key;
+        }
+    }
+}
@@ -18,6 +18,7 @@ import org.mifosplatform.infrastructure.core.api.JsonCommand;
 import org.mifosplatform.infrastructure.core.data.CommandProcessingResult;
 import org.mifosplatform.infrastructure.core.data.CommandProcessingResultBuilder;
 import org.mifosplatform.infrastructure.core.exception.PlatformDataIntegrityException;
+import org.mifosplatform.infrastructure.dataqueries.service.DatatableSchemaRegistry;
 import org.mifosplatform.infrastructure.security.service.PlatformSecurityContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -37,16 +38,18 @@ public class CodeValueWritePlatformServiceJpaRepositoryImpl implements CodeValue
     private final CodeValueRepository codeValueRepository;
     private final CodeRepository codeRepository;
     private final CodeValueCommandFromApiJsonDeserializer fromApiJsonDeserializer;
+    private final DatatableSchemaRegistry datatableSchemaRegistry;
 
     @Autowired
     public CodeValueWritePlatformServiceJpaRepositoryImpl(final PlatformSecurityContext context, final CodeRepository codeRepository,
             final CodeValueRepositoryWrapper codeValueRepositoryWrapper, final CodeValueRepository codeValueRepository,
-            final CodeValueCommandFromApiJsonDeserializer fromApiJsonDeserializer) {
+            final CodeValueCommandFromApiJsonDeserializer fromApiJsonDeserializer, final DatatableSchemaRegistry datatableSchemaRegistry) {
         this.context = context;
         this.codeRepository = codeRepository;
         this.codeValueRepositoryWrapper = codeValueRepositoryWrapper;
         this.codeValueRepository = codeValueRepository;
         this.fromApiJsonDeserializer = fromApiJsonDeserializer;
+        this.datatableSchemaRegistry = datatableSchemaRegistry;
     }
 
     @Transactional
@@ -56,6 +59,7 @@ public class CodeValueWritePlatformServiceJpaRepositoryImpl implements CodeValue
 
         try {
             this.context.authenticatedUser();
+            this.datatableSchemaRegistry.evictAfterTransaction();
 
             this.fromApiJsonDeserializer.validateForCreate(command.json());
 
@@ -100,6 +104,7 @@ public class CodeValueWritePlatformServiceJpaRepositoryImpl implements CodeValue
 
         try {
             this.context.authenticatedUser();
+            this.datatableSchemaRegistry.evictAfterTransaction();
 
             this.fromApiJsonDeserializer.validateForUpdate(command.json());
 
@@ -131,6 +136,7 @@ public class CodeValueWritePlatformServiceJpaRepositoryImpl implements CodeValue
 
         try {
             this.context.authenticatedUser();
+            this.datatableSchemaRegistry.evictAfterTransaction();
 
             final Code code = this.codeRepository.findOne(codeId);
             if (code == null) { throw new CodeNotFoundException(codeId); }
@@ -16,6 +16,7 @@ import org.mifosplatform.infrastructure.core.api.JsonCommand;
 import org.mifosplatform.infrastructure.core.data.CommandProcessingResult;
 import org.mifosplatform.infrastructure.core.data.CommandProcessingResultBuilder;
 import org.mifosplatform.infrastructure.core.exception.PlatformDataIntegrityException;
+import org.mifosplatform.infrastructure.dataqueries.service.DatatableSchemaRegistry;
 import org.mifosplatform.infrastructure.security.service.PlatformSecurityContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -33,13 +34,15 @@ public class CodeWritePlatformServiceJpaRepositoryImpl implements CodeWritePlatf
     private final PlatformSecurityContext context;
     private final CodeRepository codeRepository;
     private final CodeCommandFromApiJsonDeserializer fromApiJsonDeserializer;
+    private final DatatableSchemaRegistry datatableSchemaRegistry;
 
     @Autowired
     public CodeWritePlatformServiceJpaRepositoryImpl(final PlatformSecurityContext context, final CodeRepository codeRepository,
-            final CodeCommandFromApiJsonDeserializer fromApiJsonDeserializer) {
+            final CodeCommandFromApiJsonDeserializer fromApiJsonDeserializer, final DatatableSchemaRegistry datatableSchemaRegistry) {
         this.context = context;
         this.codeRepository = codeRepository;
         this.fromApiJsonDeserializer = fromApiJsonDeserializer;
+        this.datatableSchemaRegistry = datatableSchemaRegistry;
     }
 
     @Transactional
@@ -69,6 +72,7 @@ public class CodeWritePlatformServiceJpaRepositoryImpl implements CodeWritePlatf
 
         try {
             this.context.authenticatedUser();
+            this.datatableSchemaRegistry.evictAfterTransaction();
 
             this.fromApiJsonDeserializer.validateForUpdate(command.json());
 
@@ -96,6 +100,7 @@ public class CodeWritePlatformServiceJpaRepositoryImpl implements CodeWritePlatf
     public CommandProcessingResult deleteCode(final Long codeId) {
 
         this.context.authenticatedUser();
+        this.datatableSchemaRegistry.evictAfterTransaction();
 
         final Code code = retrieveCodeBy(codeId);
         if (code.isSystemDefined()) { throw new SystemDefinedCodeCannotBeChangedException(); }
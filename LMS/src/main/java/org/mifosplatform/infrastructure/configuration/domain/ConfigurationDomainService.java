@@ -28,4 +28,14 @@ public interface ConfigurationDomainService {
     void updateCache(CacheType cacheType);
 
     Long retrievePenaltyWaitPeriod();
+
+    Long retrieveLoanSummaryUpdateChunkSize();
+
+    boolean isShadowTableRebuildForLoanArrearsEnabled();
+
+    Long retrieveLoanArrearsRebuildChunkSize();
+
+    Long retrieveJobWorkerThreadCount();
+
+    Long retrieveSavingsInterestPostingBatchSize();
 }
\ No newline at end of file
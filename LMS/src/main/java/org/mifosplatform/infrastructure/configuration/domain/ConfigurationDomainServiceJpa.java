@@ -120,4 +120,44 @@ public class ConfigurationDomainServiceJpa implements ConfigurationDomainService
         if (property == null) { throw new GlobalConfigurationPropertyNotFoundException(propertyName); }
         return property.getValue();
     }
-}
\ No newline at end of file
+
+    @Override
+    public Long retrieveLoanSummaryUpdateChunkSize() {
+        final String propertyName = "loan-summary-update-chunk-size";
+        final GlobalConfigurationProperty property = this.globalConfigurationRepository.findOneByName(propertyName);
+        if (property == null) { throw new GlobalConfigurationPropertyNotFoundException(propertyName); }
+        return property.getValue();
+    }
+
+    @Override
+    public boolean isShadowTableRebuildForLoanArrearsEnabled() {
+        final String propertyName = "loan-arrears-shadow-rebuild";
+        final GlobalConfigurationProperty property = this.globalConfigurationRepository.findOneByName(propertyName);
+        if (property == null) { throw new GlobalConfigurationPropertyNotFoundException(propertyName); }
+        return property.isEnabled();
+    }
+
+    @Override
+    public Long retrieveLoanArrearsRebuildChunkSize() {
+        final String propertyName = "loan-arrears-shadow-rebuild";
+        final GlobalConfigurationProperty property = this.globalConfigurationRepository.findOneByName(propertyName);
+        if (property == null) { throw new GlobalConfigurationPropertyNotFoundException(propertyName); }
+        return property.getValue();
+    }
+
+    @Override
+    public Long retrieveJobWorkerThreadCount() {
+        final String propertyName = "job-worker-threads";
+        final GlobalConfigurationProperty property = this.globalConfigurationRepository.findOneByName(propertyName);
+        if (property == null) { throw new GlobalConfigurationPropertyNotFoundException(propertyName); }
+        return property.getValue();
+    }
+
+    @Override
+    public Long retrieveSavingsInterestPostingBatchSize() {
+        final String propertyName = "savings-interest-posting-batch-size";
+        final GlobalConfigurationProperty property = this.globalConfigurationRepository.findOneByName(propertyName);
+        if (property == null) { throw new GlobalConfigurationPropertyNotFoundException(propertyName); }
+        return property.getValue();
+    }
+}
@@ -17,10 +17,11 @@ public class MifosPlatformTenant {
     private final String schemaPassword;
     private final String timezoneId;
     private final boolean autoUpdateEnabled;
+    private final TenantConnectionPoolSettings connectionPoolSettings;
 
     public MifosPlatformTenant(final Long id, final String tenantIdentifier, final String name, final String schemaName,
             final String schemaServer, final String schemaServerPort, final String schemaUsername, final String schemaPassword,
-            final String timezoneId, final boolean autoUpdateEnabled) {
+            final String timezoneId, final boolean autoUpdateEnabled, final TenantConnectionPoolSettings connectionPoolSettings) {
         this.id = id;
         this.tenantIdentifier = tenantIdentifier;
         this.name = name;
@@ -31,6 +32,7 @@ public class MifosPlatformTenant {
         this.schemaPassword = schemaPassword;
         this.timezoneId = timezoneId;
         this.autoUpdateEnabled = autoUpdateEnabled;
+        this.connectionPoolSettings = connectionPoolSettings;
     }
 
     public String databaseURL() {
@@ -71,4 +73,8 @@ public class MifosPlatformTenant {
         return this.autoUpdateEnabled;
     }
 
+    public TenantConnectionPoolSettings getConnectionPoolSettings() {
+        return this.connectionPoolSettings;
+    }
+
 }
\ No newline at end of file
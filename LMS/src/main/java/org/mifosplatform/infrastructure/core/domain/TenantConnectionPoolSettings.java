@@ -0,0 +1,65 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.core.domain;
+
+/**
+ * Connection pool sizing and validation settings of a tenant, as configured
+ * in the <code>tenants</code> table. A setting that is not configured is
+ * <code>null</code>, and the pool keeps its own default for it.
+ */
+public class TenantConnectionPoolSettings {
+
+    private final Integer initialSize;
+    private final Integer minIdle;
+    private final Integer maxIdle;
+    private final Integer maxActive;
+    private final Integer maxWaitMillis;
+    private final Boolean testOnBorrow;
+    private final Integer validationIntervalMillis;
+
+    public TenantConnectionPoolSettings(final Integer initialSize, final Integer minIdle, final Integer maxIdle, final Integer maxActive,
+            final Integer maxWaitMillis, final Boolean testOnBorrow, final Integer validationIntervalMillis) {
+        this.initialSize = valueIfSet(initialSize);
+        this.minIdle = valueIfSet(minIdle);
+        this.maxIdle = valueIfSet(maxIdle);
+        this.maxActive = valueIfSet(maxActive);
+        this.maxWaitMillis = valueIfSet(maxWaitMillis);
+        this.testOnBorrow = testOnBorrow;
+        this.validationIntervalMillis = valueIfSet(validationIntervalMillis);
+    }
+
+    private static Integer valueIfSet(final Integer value) {
+        return value == null || value.intValue() <= 0 ? null : value;
+    }
+
+    public Integer getInitialSize() {
+        return this.initialSize;
+    }
+
+    public Integer getMinIdle() {
+        return this.minIdle;
+    }
+
+    public Integer getMaxIdle() {
+        return this.maxIdle;
+    }
+
+    public Integer getMaxActive() {
+        return this.maxActive;
+    }
+
+    public Integer getMaxWaitMillis() {
+        return this.maxWaitMillis;
+    }
+
+    public Boolean getTestOnBorrow() {
+        return this.testOnBorrow;
+    }
+
+    public Integer getValidationIntervalMillis() {
+        return this.validationIntervalMillis;
+    }
+}
@@ -0,0 +1,53 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.core.filters;
+
+import java.util.List;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.ws.rs.core.Context;
+
+import com.sun.jersey.api.core.ExtendedUriInfo;
+import com.sun.jersey.api.uri.UriTemplate;
+import com.sun.jersey.spi.container.ContainerRequest;
+import com.sun.jersey.spi.container.ContainerResponse;
+import com.sun.jersey.spi.container.ContainerResponseFilter;
+
+/**
+ * Filter that records the resource path template matched for the request (e.g.
+ * <code>/loans/{loanId}/transactions</code>) and the response status as
+ * servlet request attributes so request metrics can be grouped by endpoint
+ * rather than by raw url.
+ */
+public class ResourcePathTemplateFilter implements ContainerResponseFilter {
+
+    public static final String PATH_TEMPLATE_ATTRIBUTE = ResourcePathTemplateFilter.class.getName() + ".pathTemplate";
+    public static final String RESPONSE_STATUS_ATTRIBUTE = ResourcePathTemplateFilter.class.getName() + ".responseStatus";
+
+    @Context
+    private ExtendedUriInfo uriInfo;
+
+    @Context
+    private HttpServletRequest servletRequest;
+
+    @Override
+    public ContainerResponse filter(final ContainerRequest request, final ContainerResponse response) {
+
+        final List<UriTemplate> matchedTemplates = this.uriInfo.getMatchedTemplates();
+        if (matchedTemplates != null && !matchedTemplates.isEmpty()) {
+            // templates are listed from the matched resource method back to
+            // the root resource
+            final StringBuilder pathTemplate = new StringBuilder();
+            for (int i = matchedTemplates.size() - 1; i >= 0; i--) {
+                pathTemplate.append(matchedTemplates.get(i).getTemplate());
+            }
+            this.servletRequest.setAttribute(PATH_TEMPLATE_ATTRIBUTE, pathTemplate.toString());
+        }
+        this.servletRequest.setAttribute(RESPONSE_STATUS_ATTRIBUTE, Integer.valueOf(response.getStatus()));
+
+        return response;
+    }
+}
@@ -0,0 +1,132 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.core.service;
+
+import java.nio.charset.Charset;
+
+import org.apache.commons.lang.StringUtils;
+import org.mifosplatform.infrastructure.core.exception.UnrecognizedQueryParamException;
+
+import com.google.common.io.BaseEncoding;
+
+/**
+ * Describes one page of a keyset (seek) paginated list. Rows are ordered by a
+ * unique key and each page starts after the last key of the previous page,
+ * so fetching a page costs the same however deep into the list it is.
+ * 
+ * The position is handed to API clients as an opaque cursor; clients must
+ * pass back the <code>nextCursor</code> of the previous page unchanged.
+ */
+public final class KeysetPageRequest {
+
+    public static final String TOTAL_COUNT_NONE = "none";
+    public static final String TOTAL_COUNT_EXACT = "exact";
+    public static final String TOTAL_COUNT_ESTIMATE = "estimate";
+
+    private static final int MAXIMUM_LIMIT = 200;
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+    private static final String CURSOR_PREFIX = "k1:";
+
+    private final Long afterKey;
+    private final boolean descending;
+    private final int limit;
+    private final String totalCount;
+
+    /**
+     * @param cursor
+     *            the <code>nextCursor</code> of the previous page, blank for
+     *            the first page
+     * @param sortOrder
+     *            <code>ASC</code> or <code>DESC</code>; ignored when a cursor
+     *            is given as the cursor carries the direction it was issued
+     *            for
+     * @param limit
+     *            page size; 200 rows when not given and never more than
+     *            200 rows, larger limits are capped
+     * @param totalCount
+     *            one of <code>none</code> (default), <code>exact</code> or
+     *            <code>estimate</code>
+     */
+    public static KeysetPageRequest from(final String cursor, final String sortOrder, final Integer limit, final String totalCount,
+            final boolean descendingByDefault) {
+
+        boolean descending = descendingByDefault;
+        if (StringUtils.isNotBlank(sortOrder)) {
+            descending = "DESC".equalsIgnoreCase(sortOrder.trim());
+        }
+
+        Long afterKey = null;
+        if (StringUtils.isNotBlank(cursor)) {
+            final String decoded = decode(cursor);
+            final String[] parts = decoded.substring(CURSOR_PREFIX.length()).split(":");
+            if (parts.length != 2) { throw new UnrecognizedQueryParamException("cursor", cursor); }
+            try {
+                afterKey = Long.valueOf(parts[0]);
+            } catch (final NumberFormatException e) {
+                throw new UnrecognizedQueryParamException("cursor", cursor);
+            }
+            descending = "d".equals(parts[1]);
+        }
+
+        final int checkedLimit = limit != null && limit.intValue() > 0 ? Math.min(limit.intValue(), MAXIMUM_LIMIT) : MAXIMUM_LIMIT;
+
+        String checkedTotalCount = TOTAL_COUNT_NONE;
+        if (StringUtils.isNotBlank(totalCount)) {
+            checkedTotalCount = totalCount.trim().toLowerCase();
+            if (!(TOTAL_COUNT_NONE.equals(checkedTotalCount) || TOTAL_COUNT_EXACT.equals(checkedTotalCount) || TOTAL_COUNT_ESTIMATE
+                    .equals(checkedTotalCount))) { throw new UnrecognizedQueryParamException("totalCount", totalCount, TOTAL_COUNT_NONE,
+                    TOTAL_COUNT_EXACT, TOTAL_COUNT_ESTIMATE); }
+        }
+
+        return new KeysetPageRequest(afterKey, descending, checkedLimit, checkedTotalCount);
+    }
+
+    private static String decode(final String cursor) {
+        try {
+            final String decoded = new String(BaseEncoding.base64Url().omitPadding().decode(cursor.trim()), UTF_8);
+            if (!decoded.startsWith(CURSOR_PREFIX)) { throw new UnrecognizedQueryParamException("cursor", cursor); }
+            return decoded;
+        } catch (final IllegalArgumentException e) {
+            throw new UnrecognizedQueryParamException("cursor", cursor);
+        }
+    }
+
+    private KeysetPageRequest(final Long afterKey, final boolean descending, final int limit, final String totalCount) {
+        this.afterKey = afterKey;
+        this.descending = descending;
+        this.limit = limit;
+        this.totalCount = totalCount;
+    }
+
+    public String cursorAfter(final Long lastKey) {
+        final String position = CURSOR_PREFIX + lastKey + ":" + (this.descending ? "d" : "a");
+        return BaseEncoding.base64Url().omitPadding().encode(position.getBytes(UTF_8));
+    }
+
+    public boolean isFirstPage() {
+        return this.afterKey == null;
+    }
+
+    public Long getAfterKey() {
+        return this.afterKey;
+    }
+
+    public boolean isDescending() {
+        return this.descending;
+    }
+
+    public int getLimit() {
+        return this.limit;
+    }
+
+    public boolean isExactCountRequested() {
+        return TOTAL_COUNT_EXACT.equals(this.totalCount);
+    }
+
+    public boolean isEstimatedCountRequested() {
+        return TOTAL_COUNT_ESTIMATE.equals(this.totalCount);
+    }
+}
@@ -9,19 +9,43 @@ import java.util.List;
 
 public class Page<E> {
 
-    private final int totalFilteredRecords;
+    private final Integer totalFilteredRecords;
     private final List<E> pageItems;
+    @SuppressWarnings("unused")
+    private final Boolean totalFilteredRecordsEstimated;
+    private final String nextCursor;
 
     public Page(final List<E> pageItems, final int totalFilteredRecords) {
+        this(pageItems, Integer.valueOf(totalFilteredRecords), null, null);
+    }
+
+    /**
+     * Page of a keyset paginated list. The total is <code>null</code> when the
+     * client did not ask for it and <code>nextCursor</code> is
+     * <code>null</code> on the last page.
+     */
+    public static <E> Page<E> keyset(final List<E> pageItems, final Integer totalFilteredRecords, final boolean totalEstimated,
+            final String nextCursor) {
+        return new Page<E>(pageItems, totalFilteredRecords, totalEstimated ? Boolean.TRUE : null, nextCursor);
+    }
+
+    private Page(final List<E> pageItems, final Integer totalFilteredRecords, final Boolean totalFilteredRecordsEstimated,
+            final String nextCursor) {
         this.pageItems = pageItems;
         this.totalFilteredRecords = totalFilteredRecords;
+        this.totalFilteredRecordsEstimated = totalFilteredRecordsEstimated;
+        this.nextCursor = nextCursor;
     }
 
-    public int getTotalFilteredRecords() {
+    public Integer getTotalFilteredRecords() {
         return this.totalFilteredRecords;
     }
 
     public List<E> getPageItems() {
         return this.pageItems;
     }
-}
\ No newline at end of file
+
+    public String getNextCursor() {
+        return this.nextCursor;
+    }
+}
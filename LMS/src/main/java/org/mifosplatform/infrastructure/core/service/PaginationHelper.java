@@ -5,9 +5,15 @@
  */
 package org.mifosplatform.infrastructure.core.service;
 
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
+import org.springframework.dao.DataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
 import org.springframework.jdbc.core.RowMapper;
 
 public class PaginationHelper<E> {
@@ -22,4 +28,117 @@ public class PaginationHelper<E> {
 
         return new Page<E>(items, totalFilteredRecords);
     }
-}
\ No newline at end of file
+
+    /**
+     * Fetches one page of a keyset paginated list.
+     * 
+     * @param sqlFetchRows
+     *            the filtered <code>select</code>, including its where clause
+     *            but without order by or limit
+     * @param keyColumn
+     *            unique column the list is ordered and seeked by, e.g.
+     *            <code>l.id</code>
+     * @param keyLabel
+     *            label of the key column in the select list
+     */
+    public Page<E> fetchPage(final JdbcTemplate jt, final String sqlFetchRows, final Object args[], final String keyColumn,
+            final String keyLabel, final KeysetPageRequest pageRequest, final RowMapper<E> rowMapper) {
+
+        final StringBuilder sqlBuilder = new StringBuilder(sqlFetchRows);
+        Object[] fetchArgs = args;
+        if (!pageRequest.isFirstPage()) {
+            sqlBuilder.append(" and ").append(keyColumn).append(pageRequest.isDescending() ? " < ?" : " > ?");
+            fetchArgs = Arrays.copyOf(args, args.length + 1);
+            fetchArgs[args.length] = pageRequest.getAfterKey();
+        }
+        sqlBuilder.append(" order by ").append(keyColumn).append(pageRequest.isDescending() ? " desc" : " asc");
+        // one extra row tells whether there is a next page without counting
+        sqlBuilder.append(" limit ").append(pageRequest.getLimit() + 1);
+
+        final List<Long> keys = new ArrayList<Long>();
+        final List<E> items = jt.query(sqlBuilder.toString(), fetchArgs, new RowMapper<E>() {
+
+            @Override
+            public E mapRow(final ResultSet rs, final int rowNum) throws SQLException {
+                keys.add(rs.getLong(keyLabel));
+                return rowMapper.mapRow(rs, rowNum);
+            }
+        });
+
+        String nextCursor = null;
+        if (items.size() > pageRequest.getLimit()) {
+            items.remove(items.size() - 1);
+            nextCursor = pageRequest.cursorAfter(keys.get(pageRequest.getLimit() - 1));
+        }
+
+        Integer totalFilteredRecords = null;
+        if (pageRequest.isExactCountRequested()) {
+            totalFilteredRecords = jt.queryForObject(countSql(sqlFetchRows, keyColumn), args, Integer.class);
+        } else if (pageRequest.isEstimatedCountRequested()) {
+            totalFilteredRecords = estimateRows(jt, sqlFetchRows, args);
+        }
+
+        return Page.keyset(items, totalFilteredRecords, pageRequest.isEstimatedCountRequested(), nextCursor);
+    }
+
+    /**
+     * Counts the whole filtered set with <code>count(*)</code> over the same
+     * from and where clauses. Only the key column is selected inside, so the
+     * select list can not clash and grouped or distinct selects still count
+     * one per row.
+     */
+    static String countSql(final String sqlFetchRows, final String keyColumn) {
+
+        final String sql = sqlFetchRows.trim();
+        final int fromIndex = topLevelFromIndex(sql);
+        if (!sql.regionMatches(true, 0, "select ", 0, 7) || fromIndex < 0) { throw new IllegalArgumentException(
+                "Not a select with a from clause: " + sqlFetchRows); }
+
+        final boolean distinct = sql.substring(7).trim().regionMatches(true, 0, "distinct ", 0, 9);
+        return "select count(*) from (select " + (distinct ? "distinct " : "") + keyColumn + " " + sql.substring(fromIndex)
+                + ") filtered";
+    }
+
+    /**
+     * @return the position of the <code>from</code> of the outer select,
+     *         skipping sub-selects in parentheses and quoted text
+     */
+    private static int topLevelFromIndex(final String sql) {
+        int depth = 0;
+        char quote = 0;
+        for (int i = 0; i < sql.length(); i++) {
+            final char c = sql.charAt(i);
+            if (quote != 0) {
+                if (c == quote) {
+                    quote = 0;
+                }
+            } else if (c == '\'' || c == '"' || c == '`') {
+                quote = c;
+            } else if (c == '(') {
+                depth++;
+            } else if (c == ')') {
+                depth--;
+            } else if (depth == 0 && sql.regionMatches(true, i, "from", 0, 4) && isWordBoundary(sql, i - 1)
+                    && isWordBoundary(sql, i + 4)) { return i; }
+        }
+        return -1;
+    }
+
+    private static boolean isWordBoundary(final String sql, final int index) {
+        return index < 0 || index >= sql.length() || !(Character.isLetterOrDigit(sql.charAt(index)) || sql.charAt(index) == '_');
+    }
+
+    /**
+     * Uses the optimizer's row estimate for the driving table instead of
+     * scanning the filtered set.
+     */
+    private static Integer estimateRows(final JdbcTemplate jt, final String sqlFetchRows, final Object args[]) {
+        return jt.query("explain " + sqlFetchRows, args, new ResultSetExtractor<Integer>() {
+
+            @Override
+            public Integer extractData(final ResultSet rs) throws SQLException, DataAccessException {
+                return rs.next() ? Integer.valueOf(rs.getInt("rows")) : Integer.valueOf(0);
+            }
+        });
+    }
+}
@@ -10,6 +10,7 @@ import java.sql.SQLException;
 
 import javax.sql.DataSource;
 
+import org.mifosplatform.infrastructure.metrics.service.MetricsRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.jdbc.datasource.AbstractDataSource;
 import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
@@ -24,6 +25,9 @@ import org.springframework.stereotype.Service;
  * 
  * The {@link RoutingDataSourceService} is responsible for returning the
  * appropriate {@link DataSource} for the tenant of this request.
+ * 
+ * The time spent waiting for a pooled connection is recorded with the
+ * {@link MetricsRegistry}.
  */
 @Service(value = "routingDataSource")
 public class RoutingDataSource extends AbstractDataSource {
@@ -31,9 +35,18 @@ public class RoutingDataSource extends AbstractDataSource {
     @Autowired
     private RoutingDataSourceServiceFactory dataSourceServiceFactory;
 
+    @Autowired
+    private MetricsRegistry metricsRegistry;
+
     @Override
     public Connection getConnection() throws SQLException {
-        return determineTargetDataSource().getConnection();
+        final DataSource targetDataSource = determineTargetDataSource();
+        final long startNanos = System.nanoTime();
+        try {
+            return targetDataSource.getConnection();
+        } finally {
+            this.metricsRegistry.recordLatency(MetricsRegistry.JDBC_POOL_WAIT, null, null, System.nanoTime() - startNanos);
+        }
     }
 
     private DataSource determineTargetDataSource() {
@@ -0,0 +1,36 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.core.service;
+
+import java.util.concurrent.Callable;
+
+import org.mifosplatform.infrastructure.core.domain.MifosPlatformTenant;
+
+/**
+ * {@link Callable} that runs on a worker thread with the tenant of the thread
+ * that created it set in {@link ThreadLocalContextUtil}, so that tenant
+ * routed data sources resolve to the same tenant as the submitting thread.
+ */
+public abstract class TenantAwareCallable<V> implements Callable<V> {
+
+    private final MifosPlatformTenant tenant;
+
+    protected TenantAwareCallable() {
+        this.tenant = ThreadLocalContextUtil.getTenant();
+    }
+
+    @Override
+    public final V call() throws Exception {
+        ThreadLocalContextUtil.setTenant(this.tenant);
+        try {
+            return callForTenant();
+        } finally {
+            ThreadLocalContextUtil.clearTenant();
+        }
+    }
+
+    protected abstract V callForTenant() throws Exception;
+}
@@ -5,14 +5,24 @@
  */
 package org.mifosplatform.infrastructure.core.service;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.sql.DataSource;
 
+import org.apache.tomcat.jdbc.pool.ConnectionPool;
 import org.apache.tomcat.jdbc.pool.PoolConfiguration;
 import org.apache.tomcat.jdbc.pool.PoolProperties;
 import org.mifosplatform.infrastructure.core.domain.MifosPlatformTenant;
+import org.mifosplatform.infrastructure.core.domain.TenantConnectionPoolSettings;
+import org.mifosplatform.infrastructure.metrics.data.ConnectionPoolStatisticsData;
+import org.mifosplatform.infrastructure.security.service.TenantDetailsService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
@@ -24,16 +34,47 @@ import org.springframework.stereotype.Service;
  * 
  * {@link ThreadLocalContextUtil} is used to retrieve the
  * {@link MifosPlatformTenant} for the request.
+ * 
+ * Pools for all known tenants are created when the application starts; a pool
+ * for a tenant added later is created on its first request. Looking up an
+ * existing pool takes no lock.
  */
 @Service
 public class TomcatJdbcDataSourcePerTenantService implements RoutingDataSourceService {
 
-    private final Map<Long, DataSource> tenantToDataSourceMap = new HashMap<Long, DataSource>(1);
+    private final static Logger logger = LoggerFactory.getLogger(TomcatJdbcDataSourcePerTenantService.class);
+
+    private final ConcurrentMap<Long, org.apache.tomcat.jdbc.pool.DataSource> tenantToDataSourceMap = new ConcurrentHashMap<Long, org.apache.tomcat.jdbc.pool.DataSource>();
     private final DataSource tenantDataSource;
+    private final TenantDetailsService tenantDetailsService;
 
     @Autowired
-    public TomcatJdbcDataSourcePerTenantService(final @Qualifier("tenantDataSourceJndi") DataSource tenantDataSource) {
+    public TomcatJdbcDataSourcePerTenantService(final @Qualifier("tenantDataSourceJndi") DataSource tenantDataSource,
+            final TenantDetailsService tenantDetailsService) {
         this.tenantDataSource = tenantDataSource;
+        this.tenantDetailsService = tenantDetailsService;
+    }
+
+    @PostConstruct
+    public void createDataSourcesForAllTenants() {
+        final List<MifosPlatformTenant> tenants = this.tenantDetailsService.findAllTenants();
+        for (final MifosPlatformTenant tenant : tenants) {
+            final org.apache.tomcat.jdbc.pool.DataSource dataSource = dataSourceFor(tenant);
+            try {
+                // opens the initial connections of the pool
+                dataSource.createPool();
+            } catch (final SQLException e) {
+                logger.warn("Unable to open connection pool for tenant " + tenant.getTenantIdentifier(), e);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void closeDataSources() {
+        for (final org.apache.tomcat.jdbc.pool.DataSource dataSource : this.tenantToDataSourceMap.values()) {
+            dataSource.close();
+        }
+        this.tenantToDataSourceMap.clear();
     }
 
     @Override
@@ -44,23 +85,54 @@ public class TomcatJdbcDataSourcePerTenantService implements RoutingDataSourceSe
 
         final MifosPlatformTenant tenant = ThreadLocalContextUtil.getTenant();
         if (tenant != null) {
-            synchronized (this.tenantToDataSourceMap) {
-                // if tenant information available switch to appropriate
-                // datasource
-                // for that tenant.
-                if (this.tenantToDataSourceMap.containsKey(tenant.getId())) {
-                    tenantDataSource = this.tenantToDataSourceMap.get(tenant.getId());
-                } else {
-                    tenantDataSource = createNewDataSourceFor(tenant);
-                    this.tenantToDataSourceMap.put(tenant.getId(), tenantDataSource);
-                }
-            }
+            // if tenant information available switch to appropriate
+            // datasource for that tenant.
+            tenantDataSource = dataSourceFor(tenant);
         }
 
         return tenantDataSource;
     }
 
-    private DataSource createNewDataSourceFor(final MifosPlatformTenant tenant) {
+    /**
+     * Returns a snapshot of the connection pool of the tenant, or
+     * <code>null</code> when no pool exists for the tenant yet.
+     */
+    public ConnectionPoolStatisticsData retrieveConnectionPoolStatistics(final MifosPlatformTenant tenant) {
+        final org.apache.tomcat.jdbc.pool.DataSource dataSource = this.tenantToDataSourceMap.get(tenant.getId());
+        if (dataSource == null) { return null; }
+
+        final ConnectionPool pool = dataSource.getPool();
+        if (pool == null) { return ConnectionPoolStatisticsData.notStarted(tenant.getTenantIdentifier(), dataSource.getMaxActive()); }
+
+        return ConnectionPoolStatisticsData.instance(tenant.getTenantIdentifier(), pool.getSize(), pool.getActive(), pool.getIdle(),
+                pool.getWaitCount(), dataSource.getMaxActive());
+    }
+
+    private org.apache.tomcat.jdbc.pool.DataSource dataSourceFor(final MifosPlatformTenant tenant) {
+        final org.apache.tomcat.jdbc.pool.DataSource existingDataSource = this.tenantToDataSourceMap.get(tenant.getId());
+        if (existingDataSource != null) { return existingDataSource; }
+
+        final org.apache.tomcat.jdbc.pool.DataSource newDataSource = createNewDataSourceFor(tenant);
+        final org.apache.tomcat.jdbc.pool.DataSource dataSource = this.tenantToDataSourceMap.putIfAbsent(tenant.getId(), newDataSource);
+        if (dataSource != null) {
+            // another thread won the race; the pool of this one was never
+            // started so closing it is cheap
+            newDataSource.close();
+            return dataSource;
+        }
+        return newDataSource;
+    }
+
+    private org.apache.tomcat.jdbc.pool.DataSource createNewDataSourceFor(final MifosPlatformTenant tenant) {
+        return new org.apache.tomcat.jdbc.pool.DataSource(poolConfigurationFor(tenant));
+    }
+
+    /**
+     * Pool settings configured for the tenant override the ones below; the
+     * pool sizes are otherwise left at the tomcat jdbc pool defaults
+     * (maxActive 100, maxIdle 100, minIdle 10).
+     */
+    static PoolConfiguration poolConfigurationFor(final MifosPlatformTenant tenant) {
         // see
         // http://www.tomcatexpert.com/blog/2010/04/01/configuring-jdbc-pool-high-concurrency
 
@@ -94,6 +166,31 @@ public class TomcatJdbcDataSourcePerTenantService implements RoutingDataSourceSe
         poolConfiguration.setJdbcInterceptors("org.apache.tomcat.jdbc.pool.interceptor.ConnectionState;"
                 + "org.apache.tomcat.jdbc.pool.interceptor.StatementFinalizer;org.apache.tomcat.jdbc.pool.interceptor.SlowQueryReport");
 
-        return new org.apache.tomcat.jdbc.pool.DataSource(poolConfiguration);
+        final TenantConnectionPoolSettings poolSettings = tenant.getConnectionPoolSettings();
+        if (poolSettings != null) {
+            if (poolSettings.getInitialSize() != null) {
+                poolConfiguration.setInitialSize(poolSettings.getInitialSize());
+            }
+            if (poolSettings.getMaxActive() != null) {
+                poolConfiguration.setMaxActive(poolSettings.getMaxActive());
+            }
+            if (poolSettings.getMinIdle() != null) {
+                poolConfiguration.setMinIdle(poolSettings.getMinIdle());
+            }
+            if (poolSettings.getMaxIdle() != null) {
+                poolConfiguration.setMaxIdle(poolSettings.getMaxIdle());
+            }
+            if (poolSettings.getMaxWaitMillis() != null) {
+                poolConfiguration.setMaxWait(poolSettings.getMaxWaitMillis());
+            }
+            if (poolSettings.getTestOnBorrow() != null) {
+                poolConfiguration.setTestOnBorrow(poolSettings.getTestOnBorrow());
+            }
+            if (poolSettings.getValidationIntervalMillis() != null) {
+                poolConfiguration.setValidationInterval(poolSettings.getValidationIntervalMillis());
+            }
+        }
+
+        return poolConfiguration;
     }
-}
\ No newline at end of file
+}
@@ -5,7 +5,6 @@
  */
 package org.mifosplatform.infrastructure.dataqueries.api;
 
-import java.io.File;
 import java.util.HashMap;
 import java.util.Locale;
 import java.util.Map;
@@ -20,7 +19,6 @@ import javax.ws.rs.core.Context;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.MultivaluedMap;
 import javax.ws.rs.core.Response;
-import javax.ws.rs.core.Response.ResponseBuilder;
 import javax.ws.rs.core.StreamingOutput;
 import javax.ws.rs.core.UriInfo;
 
@@ -88,22 +86,26 @@ public class RunreportsApiResource {
 
         if (exportPdf) {
             final Map<String, String> reportParams = getReportParams(queryParams, false);
-            final String pdfFileName = this.readExtraDataAndReportingService
-                    .retrieveReportPDF(reportName, parameterTypeValue, reportParams);
-
-            final File file = new File(pdfFileName);
-
-            final ResponseBuilder response = Response.ok(file);
-            response.header("Content-Disposition", "attachment; filename=\"" + pdfFileName + "\"");
-            response.header("content-Type", "application/pdf");
-
-            return response.build();
+            final StreamingOutput result = this.readExtraDataAndReportingService.retrieveReportPDF(reportName, parameterTypeValue,
+                    reportParams);
 
+            return Response.ok().entity(result).type("application/pdf")
+                    .header("Content-Disposition", "attachment; filename=\"" + reportName.replaceAll(" ", "") + ".pdf\"").build();
         }
 
         if (!exportCsv) {
             final Map<String, String> reportParams = getReportParams(queryParams, false);
 
+            if (!prettyPrint) {
+                // rows are written to the response as they are read
+                final boolean genericResultSetIsPassed = ApiParameterHelper.genericResultSetPassed(uriInfo.getQueryParameters());
+                final boolean genericResultSet = !genericResultSetIsPassed
+                        || ApiParameterHelper.genericResultSet(uriInfo.getQueryParameters());
+                final StreamingOutput result = this.readExtraDataAndReportingService.retrieveReportJSON(reportName, parameterTypeValue,
+                        reportParams, genericResultSet);
+                return Response.ok().entity(result).type(MediaType.APPLICATION_JSON).build();
+            }
+
             final GenericResultsetData result = this.readExtraDataAndReportingService.retrieveGenericResultset(reportName,
                     parameterTypeValue, reportParams);
 
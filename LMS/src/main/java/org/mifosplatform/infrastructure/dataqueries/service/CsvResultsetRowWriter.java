@@ -0,0 +1,81 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.dataqueries.service;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+
+import org.mifosplatform.infrastructure.dataqueries.data.ResultsetColumnHeaderData;
+
+/**
+ * Writes a resultset as CSV. Numeric columns are written as is, all other
+ * values are quoted with embedded quotes doubled.
+ */
+final class CsvResultsetRowWriter implements ResultsetRowWriter {
+
+    private final Writer writer;
+    private boolean[] numericColumns;
+
+    CsvResultsetRowWriter(final Writer writer) {
+        this.writer = writer;
+    }
+
+    @Override
+    public void writeHeader(final List<ResultsetColumnHeaderData> columnHeaders) throws IOException {
+        this.numericColumns = new boolean[columnHeaders.size()];
+        for (int i = 0; i < columnHeaders.size(); i++) {
+            final String columnType = columnHeaders.get(i).getColumnType();
+            this.numericColumns[i] = columnType.equals("DECIMAL") || columnType.equals("DOUBLE") || columnType.equals("BIGINT")
+                    || columnType.equals("SMALLINT") || columnType.equals("INT");
+
+            this.writer.write('"');
+            this.writer.write(columnHeaders.get(i).getColumnName());
+            this.writer.write('"');
+            if (i < columnHeaders.size() - 1) {
+                this.writer.write(',');
+            }
+        }
+        this.writer.write('\n');
+    }
+
+    @Override
+    public void writeRow(final List<String> row) throws IOException {
+        final int size = row.size();
+        for (int i = 0; i < size; i++) {
+            final String value = row.get(i);
+            if (value != null) {
+                if (this.numericColumns[i]) {
+                    this.writer.write(value);
+                } else {
+                    writeQuoted(value);
+                }
+            }
+            if (i < size - 1) {
+                this.writer.write(',');
+            }
+        }
+        this.writer.write('\n');
+    }
+
+    private void writeQuoted(final String value) throws IOException {
+        this.writer.write('"');
+        int start = 0;
+        int quote;
+        while ((quote = value.indexOf('"', start)) >= 0) {
+            this.writer.write(value, start, quote + 1 - start);
+            this.writer.write('"');
+            start = quote + 1;
+        }
+        this.writer.write(value, start, value.length() - start);
+        this.writer.write('"');
+    }
+
+    @Override
+    public void finish() throws IOException {
+        this.writer.flush();
+    }
+}
@@ -0,0 +1,115 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.dataqueries.service;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.mifosplatform.infrastructure.core.service.ThreadLocalContextUtil;
+import org.mifosplatform.infrastructure.dataqueries.data.ResultsetColumnHeaderData;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Holds the column headers of the datatables of each tenant in memory, loaded
+ * on first use. It does not go through the Spring cache abstraction, so it
+ * works whether or not caching is switched on for the platform.
+ *
+ * Datatable, code and code value writes drop the schemas of their tenant once
+ * their transaction is over, so that a request can never load and keep the
+ * schema as it was before the write. The schemas of a tenant are also dropped
+ * an hour after they were first loaded, so that tables altered outside the
+ * API are eventually picked up.
+ */
+@Component
+public class DatatableSchemaRegistry {
+
+    private static final long TIME_TO_LIVE_MILLIS = 60 * 60 * 1000L;
+
+    private final ConcurrentMap<String, TenantSchemas> schemasByTenant = new ConcurrentHashMap<String, TenantSchemas>();
+
+    public interface ColumnHeaderLoader {
+
+        List<ResultsetColumnHeaderData> load(String datatable);
+    }
+
+    /**
+     * @return the column headers of the datatable, loaded with the loader when
+     *         they are not held yet
+     */
+    public List<ResultsetColumnHeaderData> columnHeaders(final String datatable, final ColumnHeaderLoader loader) {
+        final TenantSchemas schemas = currentSchemas();
+        List<ResultsetColumnHeaderData> columnHeaders = schemas.columnHeadersByDatatable.get(datatable);
+        if (columnHeaders == null) {
+            columnHeaders = loader.load(datatable);
+            // a write evicting meanwhile replaces the schemas, so a header
+            // list loaded before it is not kept
+            final List<ResultsetColumnHeaderData> loadedMeanwhile = schemas.columnHeadersByDatatable.putIfAbsent(datatable,
+                    columnHeaders);
+            if (loadedMeanwhile != null) {
+                columnHeaders = loadedMeanwhile;
+            }
+        }
+        return columnHeaders;
+    }
+
+    /**
+     * Drops the schemas of the current tenant once the current transaction
+     * completes, or straight away when there is no transaction. They are
+     * dropped on rollback too, as MySQL commits table changes as soon as they
+     * are made.
+     */
+    public void evictAfterTransaction() {
+        final String tenantIdentifier = ThreadLocalContextUtil.getTenant().getTenantIdentifier();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+
+                @Override
+                public void afterCompletion(@SuppressWarnings("unused") final int status) {
+                    evict(tenantIdentifier);
+                }
+            });
+        } else {
+            evict(tenantIdentifier);
+        }
+    }
+
+    private void evict(final String tenantIdentifier) {
+        this.schemasByTenant.remove(tenantIdentifier);
+    }
+
+    private TenantSchemas currentSchemas() {
+        final String tenantIdentifier = ThreadLocalContextUtil.getTenant().getTenantIdentifier();
+        TenantSchemas schemas = this.schemasByTenant.get(tenantIdentifier);
+        if (schemas == null || schemas.hasExpired()) {
+            final TenantSchemas fresh = new TenantSchemas();
+            if (schemas == null) {
+                schemas = this.schemasByTenant.putIfAbsent(tenantIdentifier, fresh);
+                if (schemas == null) {
+                    schemas = fresh;
+                }
+            } else if (this.schemasByTenant.replace(tenantIdentifier, schemas, fresh)) {
+                schemas = fresh;
+            } else {
+                return currentSchemas();
+            }
+        }
+        return schemas;
+    }
+
+    private static final class TenantSchemas {
+
+        private final long loadedAt = System.currentTimeMillis();
+        private final ConcurrentMap<String, List<ResultsetColumnHeaderData>> columnHeadersByDatatable = //
+        new ConcurrentHashMap<String, List<ResultsetColumnHeaderData>>();
+
+        boolean hasExpired() {
+            return System.currentTimeMillis() - this.loadedAt > TIME_TO_LIVE_MILLIS;
+        }
+    }
+}
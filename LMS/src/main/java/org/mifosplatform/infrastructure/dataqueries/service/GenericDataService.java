@@ -14,6 +14,14 @@ public interface GenericDataService {
 
     GenericResultsetData fillGenericResultSet(final String sql);
 
+    /**
+     * Runs the query with a forward-only streaming cursor and hands each row
+     * to the writer as it is read, so the resultset is never held in memory.
+     * 
+     * @return the number of rows written
+     */
+    int streamGenericResultSet(String sql, ResultsetRowWriter rowWriter);
+
     String generateJsonFromGenericResultsetData(GenericResultsetData grs);
 
     String replace(String str, String pattern, String replace);
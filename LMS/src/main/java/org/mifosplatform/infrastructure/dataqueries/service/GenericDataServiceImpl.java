@@ -5,20 +5,36 @@
  */
 package org.mifosplatform.infrastructure.dataqueries.service;
 
+import java.io.IOException;
+import java.io.StringWriter;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import javax.sql.DataSource;
 
-import org.joda.time.LocalDate;
+import org.mifosplatform.infrastructure.core.exception.PlatformDataIntegrityException;
 import org.mifosplatform.infrastructure.core.service.RoutingDataSource;
 import org.mifosplatform.infrastructure.dataqueries.data.GenericResultsetData;
 import org.mifosplatform.infrastructure.dataqueries.data.ResultsetColumnHeaderData;
 import org.mifosplatform.infrastructure.dataqueries.data.ResultsetColumnValueData;
 import org.mifosplatform.infrastructure.dataqueries.data.ResultsetRowData;
 import org.mifosplatform.infrastructure.dataqueries.exception.DatatableNotFoundException;
+import org.mifosplatform.infrastructure.dataqueries.service.DatatableSchemaRegistry.ColumnHeaderLoader;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.ResultSetExtractor;
 import org.springframework.jdbc.support.rowset.SqlRowSet;
 import org.springframework.jdbc.support.rowset.SqlRowSetMetaData;
 import org.springframework.stereotype.Service;
@@ -28,11 +44,20 @@ public class GenericDataServiceImpl implements GenericDataService {
 
     private final JdbcTemplate jdbcTemplate;
     private final DataSource dataSource;
+    private final DatatableSchemaRegistry datatableSchemaRegistry;
+    private final ColumnHeaderLoader columnHeaderLoader = new ColumnHeaderLoader() {
+
+        @Override
+        public List<ResultsetColumnHeaderData> load(final String datatable) {
+            return readResultsetColumnHeaders(datatable);
+        }
+    };
 
     @Autowired
-    public GenericDataServiceImpl(final RoutingDataSource dataSource) {
+    public GenericDataServiceImpl(final RoutingDataSource dataSource, final DatatableSchemaRegistry datatableSchemaRegistry) {
         this.dataSource = dataSource;
         this.jdbcTemplate = new JdbcTemplate(this.dataSource);
+        this.datatableSchemaRegistry = datatableSchemaRegistry;
     }
 
     @Override
@@ -69,6 +94,58 @@ public class GenericDataServiceImpl implements GenericDataService {
         return new GenericResultsetData(columnHeaders, resultsetDataRows);
     }
 
+    @Override
+    public int streamGenericResultSet(final String sql, final ResultsetRowWriter rowWriter) {
+
+        final Integer rowCount = this.jdbcTemplate.query(new PreparedStatementCreator() {
+
+            @Override
+            public PreparedStatement createPreparedStatement(final Connection connection) throws SQLException {
+                final PreparedStatement statement = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY,
+                        ResultSet.CONCUR_READ_ONLY);
+                // MySQL Connector/J only streams rows (instead of reading the
+                // whole resultset into memory) for this fetch size
+                statement.setFetchSize(Integer.MIN_VALUE);
+                return statement;
+            }
+        }, new ResultSetExtractor<Integer>() {
+
+            @Override
+            public Integer extractData(final ResultSet rs) throws SQLException, DataAccessException {
+
+                final ResultSetMetaData rsmd = rs.getMetaData();
+                final int columnCount = rsmd.getColumnCount();
+
+                final List<ResultsetColumnHeaderData> columnHeaders = new ArrayList<ResultsetColumnHeaderData>(columnCount);
+                for (int i = 0; i < columnCount; i++) {
+                    columnHeaders.add(ResultsetColumnHeaderData.basic(rsmd.getColumnLabel(i + 1), rsmd.getColumnTypeName(i + 1)));
+                }
+
+                int rows = 0;
+                try {
+                    rowWriter.writeHeader(columnHeaders);
+
+                    final List<String> columnValues = new ArrayList<String>(columnCount);
+                    while (rs.next()) {
+                        columnValues.clear();
+                        for (int i = 0; i < columnCount; i++) {
+                            columnValues.add(rs.getString(i + 1));
+                        }
+                        rowWriter.writeRow(columnValues);
+                        rows++;
+                    }
+
+                    rowWriter.finish();
+                } catch (final IOException e) {
+                    throw new PlatformDataIntegrityException("error.msg.reporting.error", e.getMessage());
+                }
+                return rows;
+            }
+        });
+
+        return rowCount.intValue();
+    }
+
     @Override
     public String replace(final String str, final String pattern, final String replace) {
         // JPW - this replace may / may not be any better or quicker than the
@@ -101,187 +178,218 @@ public class GenericDataServiceImpl implements GenericDataService {
     @Override
     public String generateJsonFromGenericResultsetData(final GenericResultsetData grs) {
 
-        final StringBuffer writer = new StringBuffer();
-
-        writer.append("[");
-
-        final List<ResultsetColumnHeaderData> columnHeaders = grs.getColumnHeaders();
-
-        final List<ResultsetRowData> data = grs.getData();
-        List<String> row;
-        Integer rSize;
-        final String doubleQuote = "\"";
-        final String slashDoubleQuote = "\\\"";
-        String currColType;
-        String currVal;
-
-        for (int i = 0; i < data.size(); i++) {
-            writer.append("\n{");
-
-            row = data.get(i).getRow();
-            rSize = row.size();
-            for (int j = 0; j < rSize; j++) {
-
-                writer.append(doubleQuote + columnHeaders.get(j).getColumnName() + doubleQuote + ": ");
-                currColType = columnHeaders.get(j).getColumnDisplayType();
-                final String colType = columnHeaders.get(j).getColumnType();
-                if (currColType == null && colType.equalsIgnoreCase("INT")) {
-                    currColType = "INTEGER";
-                }
-                if (currColType == null && colType.equalsIgnoreCase("VARCHAR")) {
-                    currColType = "VARCHAR";
-                }
-                if (currColType == null && colType.equalsIgnoreCase("DATE")) {
-                    currColType = "DATE";
-                }
-                currVal = row.get(j);
-                if (currVal != null && currColType != null) {
-                    if (currColType.equals("DECIMAL") || currColType.equals("INTEGER")) {
-                        writer.append(currVal);
-                    } else {
-                        if (currColType.equals("DATE")) {
-                            final LocalDate localDate = new LocalDate(currVal);
-                            writer.append("[" + localDate.getYear() + ", " + localDate.getMonthOfYear() + ", " + localDate.getDayOfMonth()
-                                    + "]");
-                        } else {
-
-                            writer.append(doubleQuote + replace(currVal, doubleQuote, slashDoubleQuote) + doubleQuote);
-                        }
-                    }
-                } else {
-                    writer.append("null");
-                }
-                if (j < (rSize - 1)) {
-                    writer.append(",\n");
-                }
-            }
-
-            if (i < (data.size() - 1)) {
-                writer.append("},");
-            } else {
-                writer.append("}");
+        final StringWriter writer = new StringWriter();
+        final ResultsetRowWriter rowWriter = new ResultsetJsonRowWriter(writer);
+        try {
+            rowWriter.writeHeader(grs.getColumnHeaders());
+            for (final ResultsetRowData row : grs.getData()) {
+                rowWriter.writeRow(row.getRow());
             }
+            rowWriter.finish();
+        } catch (final IOException e) {
+            // not thrown by StringWriter
+            throw new PlatformDataIntegrityException("error.msg.reporting.error", e.getMessage());
         }
-
-        writer.append("\n]");
         return writer.toString();
-
     }
 
+    /**
+     * Column definitions of a datatable with the code bound to each column and
+     * the code's allowed values. The returned headers are held per tenant in
+     * the {@link DatatableSchemaRegistry} and shared between requests, so the
+     * lists are unmodifiable.
+     */
     @Override
     public List<ResultsetColumnHeaderData> fillResultsetColumnHeaders(final String datatable) {
+        return this.datatableSchemaRegistry.columnHeaders(datatable, this.columnHeaderLoader);
+    }
 
-        final SqlRowSet columnDefinitions = getDatatableMetaData(datatable);
+    /**
+     * Reads the column headers with one query each for the columns, the column
+     * code mappings and the code values.
+     */
+    private List<ResultsetColumnHeaderData> readResultsetColumnHeaders(final String datatable) {
 
-        final List<ResultsetColumnHeaderData> columnHeaders = new ArrayList<ResultsetColumnHeaderData>();
+        final SqlRowSet columnDefinitions = getDatatableMetaData(datatable);
+        final Map<String, ColumnCode> columnCodeMappings = retrieveColumnCodeMappings(datatable);
 
+        // codes are bound by a _cv (varchar) or _cd (int) suffix on the
+        // column name, else by a column code mapping
+        final List<ColumnDefinition> columns = new ArrayList<ColumnDefinition>();
+        final Set<String> codeNames = new HashSet<String>();
+        final Set<Integer> codeIds = new HashSet<Integer>();
         columnDefinitions.beforeFirst();
         while (columnDefinitions.next()) {
-            final String columnName = columnDefinitions.getString("COLUMN_NAME");
-            final String isNullable = columnDefinitions.getString("IS_NULLABLE");
-            final String isPrimaryKey = columnDefinitions.getString("COLUMN_KEY");
-            final String columnType = columnDefinitions.getString("DATA_TYPE");
-            final Long columnLength = columnDefinitions.getLong("CHARACTER_MAXIMUM_LENGTH");
-
-            final boolean columnNullable = "YES".equalsIgnoreCase(isNullable);
-            final boolean columnIsPrimaryKey = "PRI".equalsIgnoreCase(isPrimaryKey);
-
-            List<ResultsetColumnValueData> columnValues = new ArrayList<ResultsetColumnValueData>();
-            String codeName = null;
-            if ("varchar".equalsIgnoreCase(columnType)) {
-                final int codePosition = columnName.indexOf("_cv");
-                if (codePosition > 0) {
-                    codeName = columnName.substring(0, codePosition);
-                    columnValues = retreiveColumnValues(codeName);
-                }
+            final ColumnDefinition column = new ColumnDefinition(columnDefinitions);
 
-            } else if ("int".equalsIgnoreCase(columnType)) {
-                final int codePosition = columnName.indexOf("_cd");
-                if (codePosition > 0) {
-                    codeName = columnName.substring(0, codePosition);
-                    columnValues = retreiveColumnValues(codeName);
-                }
+            if ("varchar".equalsIgnoreCase(column.type)) {
+                column.bindCodeNamedBySuffix("_cv");
+            } else if ("int".equalsIgnoreCase(column.type)) {
+                column.bindCodeNamedBySuffix("_cd");
             }
-            if (codeName == null) {
-                final SqlRowSet rsValues = getDatatableCodeData(datatable, columnName);
-                Integer codeId = null;
-                while (rsValues.next()) {
-                    codeId = rsValues.getInt("id");
-                    codeName = rsValues.getString("code_name");
+            if (column.codeName == null) {
+                final ColumnCode columnCode = columnCodeMappings.get(columnAliasName(datatable, column.name).toLowerCase());
+                if (columnCode != null) {
+                    column.codeId = columnCode.id;
+                    column.codeName = columnCode.name;
+                    codeIds.add(columnCode.id);
                 }
-                columnValues = retreiveColumnValues(codeId);
-
+            } else {
+                codeNames.add(column.codeName);
             }
+            columns.add(column);
+        }
 
-            final ResultsetColumnHeaderData rsch = ResultsetColumnHeaderData.detailed(columnName, columnType, columnLength, columnNullable,
-                    columnIsPrimaryKey, columnValues, codeName);
+        final Map<String, List<ResultsetColumnValueData>> valuesByCodeName = new HashMap<String, List<ResultsetColumnValueData>>();
+        final Map<Integer, List<ResultsetColumnValueData>> valuesByCodeId = new HashMap<Integer, List<ResultsetColumnValueData>>();
+        retrieveColumnValues(codeNames, codeIds, valuesByCodeName, valuesByCodeId);
+
+        final List<ResultsetColumnHeaderData> columnHeaders = new ArrayList<ResultsetColumnHeaderData>(columns.size());
+        for (final ColumnDefinition column : columns) {
+            List<ResultsetColumnValueData> columnValues = null;
+            if (column.codeId != null) {
+                columnValues = valuesByCodeId.get(column.codeId);
+            } else if (column.codeName != null) {
+                columnValues = valuesByCodeName.get(column.codeName);
+            }
+            if (columnValues == null) {
+                columnValues = Collections.emptyList();
+            }
 
-            columnHeaders.add(rsch);
+            columnHeaders.add(ResultsetColumnHeaderData.detailed(column.name, column.type, column.length, column.nullable,
+                    column.primaryKey, columnValues, column.codeName));
         }
 
-        return columnHeaders;
+        return Collections.unmodifiableList(columnHeaders);
     }
 
-    /*
-     * Candidate for using caching there to get allowed 'column values' from
-     * code/codevalue tables
+    /**
+     * Fills in the allowed values of the codes with the given names and ids,
+     * in display order.
      */
-    private List<ResultsetColumnValueData> retreiveColumnValues(final String codeName) {
-
-        final List<ResultsetColumnValueData> columnValues = new ArrayList<ResultsetColumnValueData>();
-
-        final String sql = "select v.id, v.code_value from m_code m " + " join m_code_value v on v.code_id = m.id "
-                + " where m.code_name = '" + codeName + "' order by v.order_position, v.id";
-
-        final SqlRowSet rsValues = this.jdbcTemplate.queryForRowSet(sql);
+    private void retrieveColumnValues(final Set<String> codeNames, final Set<Integer> codeIds,
+            final Map<String, List<ResultsetColumnValueData>> valuesByCodeName,
+            final Map<Integer, List<ResultsetColumnValueData>> valuesByCodeId) {
+
+        if (codeNames.isEmpty() && codeIds.isEmpty()) { return; }
+
+        final List<Object> params = new ArrayList<Object>(codeNames.size() + codeIds.size());
+        final StringBuilder sql = new StringBuilder("select m.id as codeId, m.code_name as codeName, v.id, v.code_value ")
+                .append("from m_code m join m_code_value v on v.code_id = m.id where ");
+        if (!codeNames.isEmpty()) {
+            sql.append("m.code_name in (").append(placeholders(codeNames.size())).append(")");
+            params.addAll(codeNames);
+        }
+        if (!codeIds.isEmpty()) {
+            sql.append(codeNames.isEmpty() ? "" : " or ").append("m.id in (").append(placeholders(codeIds.size())).append(")");
+            params.addAll(codeIds);
+        }
+        sql.append(" order by m.id, v.order_position, v.id");
 
-        rsValues.beforeFirst();
+        final Map<Integer, List<ResultsetColumnValueData>> values = new HashMap<Integer, List<ResultsetColumnValueData>>();
+        final Map<String, Integer> codeIdsByName = new HashMap<String, Integer>();
+        final SqlRowSet rsValues = this.jdbcTemplate.queryForRowSet(sql.toString(), params.toArray());
         while (rsValues.next()) {
-            final Integer id = rsValues.getInt("id");
-            final String codeValue = rsValues.getString("code_value");
-
-            columnValues.add(new ResultsetColumnValueData(id, codeValue));
+            final Integer codeId = rsValues.getInt("codeId");
+            List<ResultsetColumnValueData> codeValues = values.get(codeId);
+            if (codeValues == null) {
+                codeValues = new ArrayList<ResultsetColumnValueData>();
+                values.put(codeId, codeValues);
+                codeIdsByName.put(rsValues.getString("codeName").toLowerCase(), codeId);
+            }
+            codeValues.add(new ResultsetColumnValueData(rsValues.getInt("id"), rsValues.getString("code_value")));
         }
 
-        return columnValues;
-    }
-
-    private List<ResultsetColumnValueData> retreiveColumnValues(final Integer codeId) {
-
-        final List<ResultsetColumnValueData> columnValues = new ArrayList<ResultsetColumnValueData>();
-        if (codeId != null) {
-            final String sql = "select v.id, v.code_value from m_code_value v where v.code_id =" + codeId
-                    + " order by v.order_position, v.id";
-            final SqlRowSet rsValues = this.jdbcTemplate.queryForRowSet(sql);
-            rsValues.beforeFirst();
-            while (rsValues.next()) {
-                final Integer id = rsValues.getInt("id");
-                final String codeValue = rsValues.getString("code_value");
-                columnValues.add(new ResultsetColumnValueData(id, codeValue));
+        for (final Map.Entry<Integer, List<ResultsetColumnValueData>> codeValues : values.entrySet()) {
+            codeValues.setValue(Collections.unmodifiableList(codeValues.getValue()));
+        }
+        // code names compare case insensitively, as in the database
+        for (final String codeName : codeNames) {
+            final Integer codeId = codeIdsByName.get(codeName.toLowerCase());
+            if (codeId != null) {
+                valuesByCodeName.put(codeName, values.get(codeId));
             }
         }
-
-        return columnValues;
+        for (final Integer codeId : codeIds) {
+            valuesByCodeId.put(codeId, values.get(codeId));
+        }
     }
 
     private SqlRowSet getDatatableMetaData(final String datatable) {
 
         final String sql = "select COLUMN_NAME, IS_NULLABLE, DATA_TYPE, CHARACTER_MAXIMUM_LENGTH, COLUMN_KEY"
-                + " from INFORMATION_SCHEMA.COLUMNS " + " where TABLE_SCHEMA = schema() and TABLE_NAME = '" + datatable
-                + "'order by ORDINAL_POSITION";
+                + " from INFORMATION_SCHEMA.COLUMNS " + " where TABLE_SCHEMA = schema() and TABLE_NAME = ? order by ORDINAL_POSITION";
 
-        final SqlRowSet columnDefinitions = this.jdbcTemplate.queryForRowSet(sql);
+        final SqlRowSet columnDefinitions = this.jdbcTemplate.queryForRowSet(sql, datatable);
         if (columnDefinitions.next()) { return columnDefinitions; }
 
         throw new DatatableNotFoundException(datatable);
     }
 
-    private SqlRowSet getDatatableCodeData(final String datatable, final String columnName) {
+    /**
+     * @return the codes mapped to columns of the datatable, by column alias
+     *         name
+     */
+    private Map<String, ColumnCode> retrieveColumnCodeMappings(final String datatable) {
+
+        final String sql = "select xcc.column_alias_name, mc.id, mc.code_name from m_code mc "
+                + "join x_table_cloumn_code_mappings xcc on xcc.code_id = mc.id where xcc.column_alias_name like ?";
+        final SqlRowSet rsValues = this.jdbcTemplate.queryForRowSet(sql, columnAliasName(datatable, "%"));
+
+        final Map<String, ColumnCode> columnCodes = new HashMap<String, ColumnCode>();
+        while (rsValues.next()) {
+            final ColumnCode columnCode = new ColumnCode(rsValues.getInt("id"), rsValues.getString("code_name"));
+            columnCodes.put(rsValues.getString("column_alias_name").toLowerCase(), columnCode);
+        }
+        return columnCodes;
+    }
+
+    private static String columnAliasName(final String datatable, final String columnName) {
+        return datatable.toLowerCase().replaceAll("\\s", "_") + "_" + columnName;
+    }
+
+    private static String placeholders(final int count) {
+        final StringBuilder placeholders = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            placeholders.append(i == 0 ? "?" : ", ?");
+        }
+        return placeholders.toString();
+    }
+
+    private static final class ColumnDefinition {
+
+        private final String name;
+        private final String type;
+        private final Long length;
+        private final boolean nullable;
+        private final boolean primaryKey;
+        private String codeName;
+        private Integer codeId;
+
+        ColumnDefinition(final SqlRowSet columnDefinitions) {
+            this.name = columnDefinitions.getString("COLUMN_NAME");
+            this.type = columnDefinitions.getString("DATA_TYPE");
+            this.length = columnDefinitions.getLong("CHARACTER_MAXIMUM_LENGTH");
+            this.nullable = "YES".equalsIgnoreCase(columnDefinitions.getString("IS_NULLABLE"));
+            this.primaryKey = "PRI".equalsIgnoreCase(columnDefinitions.getString("COLUMN_KEY"));
+        }
+
+        void bindCodeNamedBySuffix(final String suffix) {
+            final int codePosition = this.name.indexOf(suffix);
+            if (codePosition > 0) {
+                this.codeName = this.name.substring(0, codePosition);
+            }
+        }
+    }
 
-        final String sql = "select mc.id,mc.code_name from m_code mc join x_table_cloumn_code_mappings xcc on xcc.code_id = mc.id where xcc.column_alias_name='"
-                + datatable.toLowerCase().replaceAll("\\s", "_") + "_" + columnName + "'";
-        final SqlRowSet rsValues = this.jdbcTemplate.queryForRowSet(sql);
+    private static final class ColumnCode {
 
-        return rsValues;
+        private final Integer id;
+        private final String name;
+
+        ColumnCode(final Integer id, final String name) {
+            this.id = id;
+            this.name = name;
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,62 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.dataqueries.service;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+
+import org.mifosplatform.infrastructure.dataqueries.data.ResultsetColumnHeaderData;
+
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonWriter;
+
+/**
+ * Writes a resultset in the same shape as a serialized
+ * {@link org.mifosplatform.infrastructure.dataqueries.data.GenericResultsetData}
+ * (<code>columnHeaders</code> and <code>data</code> of <code>row</code>
+ * arrays) without holding the rows in memory.
+ */
+final class GenericResultsetJsonRowWriter implements ResultsetRowWriter {
+
+    private final Gson gson;
+    private final JsonWriter jsonWriter;
+
+    GenericResultsetJsonRowWriter(final Gson gson, final Writer writer) {
+        this.gson = gson;
+        this.jsonWriter = new JsonWriter(writer);
+        this.jsonWriter.setHtmlSafe(true);
+    }
+
+    @Override
+    public void writeHeader(final List<ResultsetColumnHeaderData> columnHeaders) throws IOException {
+        this.jsonWriter.beginObject();
+        this.jsonWriter.name("columnHeaders");
+        this.gson.toJson(columnHeaders, new TypeToken<List<ResultsetColumnHeaderData>>() {}.getType(), this.jsonWriter);
+        this.jsonWriter.name("data");
+        this.jsonWriter.beginArray();
+    }
+
+    @Override
+    public void writeRow(final List<String> row) throws IOException {
+        this.jsonWriter.beginObject();
+        this.jsonWriter.name("row");
+        this.jsonWriter.beginArray();
+        for (final String value : row) {
+            this.jsonWriter.value(value);
+        }
+        this.jsonWriter.endArray();
+        this.jsonWriter.endObject();
+    }
+
+    @Override
+    public void finish() throws IOException {
+        this.jsonWriter.endArray();
+        this.jsonWriter.endObject();
+        this.jsonWriter.flush();
+    }
+}
@@ -0,0 +1,88 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.dataqueries.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+import org.mifosplatform.infrastructure.dataqueries.data.ResultsetColumnHeaderData;
+
+import com.lowagie.text.Document;
+import com.lowagie.text.DocumentException;
+import com.lowagie.text.PageSize;
+import com.lowagie.text.pdf.PdfPTable;
+import com.lowagie.text.pdf.PdfWriter;
+
+/**
+ * Writes a resultset as a PDF table. The table is an incomplete (large)
+ * element that is added to the document every {@link #ROWS_PER_CHUNK} rows,
+ * which lays out and writes the finished rows and drops them from the table,
+ * so memory use does not grow with the number of rows. The column header row
+ * is repeated on every page.
+ */
+final class PdfResultsetRowWriter implements ResultsetRowWriter {
+
+    private static final int ROWS_PER_CHUNK = 200;
+
+    private final OutputStream out;
+    private Document document;
+    private PdfPTable table;
+    private int rowsInChunk;
+
+    PdfResultsetRowWriter(final OutputStream out) {
+        this.out = out;
+    }
+
+    @Override
+    public void writeHeader(final List<ResultsetColumnHeaderData> columnHeaders) throws IOException {
+        this.document = new Document(PageSize.B0.rotate());
+        try {
+            final PdfWriter writer = PdfWriter.getInstance(this.document, this.out);
+            // the response stream is closed by the container
+            writer.setCloseStream(false);
+        } catch (final DocumentException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+        this.document.open();
+
+        this.table = new PdfPTable(columnHeaders.size());
+        this.table.setWidthPercentage(100);
+        this.table.setHeaderRows(1);
+        this.table.setComplete(false);
+        for (final ResultsetColumnHeaderData columnHeader : columnHeaders) {
+            this.table.addCell(columnHeader.getColumnName());
+        }
+    }
+
+    @Override
+    public void writeRow(final List<String> row) throws IOException {
+        for (final String value : row) {
+            this.table.addCell(value == null ? "" : value);
+        }
+        this.rowsInChunk++;
+        if (this.rowsInChunk == ROWS_PER_CHUNK) {
+            addTable();
+            this.rowsInChunk = 0;
+        }
+    }
+
+    @Override
+    public void finish() throws IOException {
+        this.table.setComplete(true);
+        addTable();
+        this.document.close();
+        this.out.flush();
+    }
+
+    private void addTable() throws IOException {
+        try {
+            this.document.add(this.table);
+        } catch (final DocumentException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+    }
+}
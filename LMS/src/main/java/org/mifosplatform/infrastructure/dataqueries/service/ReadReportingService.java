@@ -20,11 +20,18 @@ public interface ReadReportingService {
 
     StreamingOutput retrieveReportCSV(String name, String type, Map<String, String> extractedQueryParams);
 
+    /**
+     * @param genericResultSet
+     *            <code>true</code> for the columnHeaders/data format,
+     *            <code>false</code> for an array of objects keyed by column name
+     */
+    StreamingOutput retrieveReportJSON(String name, String type, Map<String, String> extractedQueryParams, boolean genericResultSet);
+
     GenericResultsetData retrieveGenericResultset(String name, String type, Map<String, String> extractedQueryParams);
 
     Response processPentahoRequest(String reportName, String outputType, Map<String, String> queryParams, Locale locale);
 
-    String retrieveReportPDF(String name, String type, Map<String, String> extractedQueryParams);
+    StreamingOutput retrieveReportPDF(String name, String type, Map<String, String> extractedQueryParams);
 
     String getReportType(String reportName);
 
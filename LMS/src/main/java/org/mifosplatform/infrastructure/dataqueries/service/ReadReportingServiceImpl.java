@@ -5,23 +5,27 @@
  */
 package org.mifosplatform.infrastructure.dataqueries.service;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
 import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.InputStream;
 import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
 import java.sql.Connection;
 import java.sql.Date;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 
 import javax.sql.DataSource;
 import javax.ws.rs.core.Response;
@@ -30,13 +34,12 @@ import javax.ws.rs.core.StreamingOutput;
 import org.apache.commons.lang.StringUtils;
 import org.mifosplatform.infrastructure.core.domain.JdbcSupport;
 import org.mifosplatform.infrastructure.core.exception.PlatformDataIntegrityException;
+import org.mifosplatform.infrastructure.core.serialization.GoogleGsonSerializerHelper;
 import org.mifosplatform.infrastructure.core.service.RoutingDataSource;
 import org.mifosplatform.infrastructure.dataqueries.data.GenericResultsetData;
 import org.mifosplatform.infrastructure.dataqueries.data.ReportData;
 import org.mifosplatform.infrastructure.dataqueries.data.ReportParameterData;
 import org.mifosplatform.infrastructure.dataqueries.data.ReportParameterJoinData;
-import org.mifosplatform.infrastructure.dataqueries.data.ResultsetColumnHeaderData;
-import org.mifosplatform.infrastructure.dataqueries.data.ResultsetRowData;
 import org.mifosplatform.infrastructure.dataqueries.exception.ReportNotFoundException;
 import org.mifosplatform.infrastructure.documentmanagement.contentrepository.FileSystemContentRepository;
 import org.mifosplatform.infrastructure.security.service.PlatformSecurityContext;
@@ -63,114 +66,100 @@ import org.springframework.jdbc.core.RowMapper;
 import org.springframework.jdbc.support.rowset.SqlRowSet;
 import org.springframework.stereotype.Service;
 
-import com.lowagie.text.Document;
-import com.lowagie.text.PageSize;
-import com.lowagie.text.pdf.PdfPTable;
-import com.lowagie.text.pdf.PdfWriter;
-
 @Service
 public class ReadReportingServiceImpl implements ReadReportingService {
 
     private final static Logger logger = LoggerFactory.getLogger(ReadReportingServiceImpl.class);
 
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+    private static final int STREAMING_BUFFER_SIZE = 64 * 1024;
+
+    /*
+     * pentaho keeps the whole report layout in memory while rendering, so
+     * only a few are rendered at a time and the rest wait for a permit
+     */
+    private static final int MAX_CONCURRENT_PENTAHO_RENDERS = 4;
+    private static final long PENTAHO_RENDER_WAIT_SECONDS = 120;
+
     private final JdbcTemplate jdbcTemplate;
     private final DataSource dataSource;
     private final PlatformSecurityContext context;
     private final GenericDataService genericDataService;
+    private final GoogleGsonSerializerHelper gsonSerializerHelper;
     private boolean noPentaho = false;
+    private final ResourceManager resourceManager;
+    private final ConcurrentMap<String, ReportDefinition> reportDefinitions = new ConcurrentHashMap<String, ReportDefinition>();
+    private final Semaphore pentahoRenderPermits = new Semaphore(MAX_CONCURRENT_PENTAHO_RENDERS, true);
 
     @Autowired
     public ReadReportingServiceImpl(final PlatformSecurityContext context, final RoutingDataSource dataSource,
-            final GenericDataService genericDataService) {
+            final GenericDataService genericDataService, final GoogleGsonSerializerHelper gsonSerializerHelper) {
         // kick off pentaho reports server
         ClassicEngineBoot.getInstance().start();
         this.noPentaho = false;
+        this.resourceManager = new ResourceManager();
+        this.resourceManager.registerDefaults();
 
         this.context = context;
         this.dataSource = dataSource;
         this.jdbcTemplate = new JdbcTemplate(this.dataSource);
         this.genericDataService = genericDataService;
+        this.gsonSerializerHelper = gsonSerializerHelper;
     }
 
     @Override
     public StreamingOutput retrieveReportCSV(final String name, final String type, final Map<String, String> queryParams) {
 
+        // resolved up front so that unknown reports fail before the response
+        // is committed
+        final String sql = getSQLtoRun(name, type, queryParams);
+
         return new StreamingOutput() {
 
             @Override
             public void write(final OutputStream out) {
-                try {
+                final Writer writer = new BufferedWriter(new OutputStreamWriter(out, UTF_8), STREAMING_BUFFER_SIZE);
+                streamReport(name, type, sql, new CsvResultsetRowWriter(writer));
+            }
+        };
+    }
 
-                    final GenericResultsetData result = retrieveGenericResultset(name, type, queryParams);
-                    final StringBuffer sb = generateCsvFileBuffer(result);
+    @Override
+    public StreamingOutput retrieveReportJSON(final String name, final String type, final Map<String, String> queryParams,
+            final boolean genericResultSet) {
 
-                    final InputStream in = new ByteArrayInputStream(sb.toString().getBytes("UTF-8"));
+        final String sql = getSQLtoRun(name, type, queryParams);
 
-                    final byte[] outputByte = new byte[4096];
-                    Integer readLen = in.read(outputByte, 0, 4096);
+        return new StreamingOutput() {
 
-                    while (readLen != -1) {
-                        out.write(outputByte, 0, readLen);
-                        readLen = in.read(outputByte, 0, 4096);
-                    }
-                    // in.close();
-                    // out.flush();
-                    // out.close();
-                } catch (final Exception e) {
-                    throw new PlatformDataIntegrityException("error.msg.exception.error", e.getMessage());
+            @Override
+            public void write(final OutputStream out) {
+                final Writer writer = new BufferedWriter(new OutputStreamWriter(out, UTF_8), STREAMING_BUFFER_SIZE);
+                if (genericResultSet) {
+                    streamReport(name, type, sql, new GenericResultsetJsonRowWriter(
+                            ReadReportingServiceImpl.this.gsonSerializerHelper.createGsonBuilder(false), writer));
+                } else {
+                    streamReport(name, type, sql, new ResultsetJsonRowWriter(writer));
                 }
             }
         };
-
     }
 
-    private StringBuffer generateCsvFileBuffer(final GenericResultsetData result) {
-        final StringBuffer writer = new StringBuffer();
+    private void streamReport(final String name, final String type, final String sql, final ResultsetRowWriter rowWriter) {
 
-        final List<ResultsetColumnHeaderData> columnHeaders = result.getColumnHeaders();
-        logger.info("NO. of Columns: " + columnHeaders.size());
-        final Integer chSize = columnHeaders.size();
-        for (int i = 0; i < chSize; i++) {
-            writer.append('"' + columnHeaders.get(i).getColumnName() + '"');
-            if (i < (chSize - 1)) {
-                writer.append(",");
-            }
-        }
-        writer.append('\n');
-
-        final List<ResultsetRowData> data = result.getData();
-        List<String> row;
-        Integer rSize;
-        // String currCol;
-        String currColType;
-        String currVal;
-        final String doubleQuote = "\"";
-        final String twoDoubleQuotes = doubleQuote + doubleQuote;
-        logger.info("NO. of Rows: " + data.size());
-        for (int i = 0; i < data.size(); i++) {
-            row = data.get(i).getRow();
-            rSize = row.size();
-            for (int j = 0; j < rSize; j++) {
-                // currCol = columnHeaders.get(j).getColumnName();
-                currColType = columnHeaders.get(j).getColumnType();
-                currVal = row.get(j);
-                if (currVal != null) {
-                    if (currColType.equals("DECIMAL") || currColType.equals("DOUBLE") || currColType.equals("BIGINT")
-                            || currColType.equals("SMALLINT") || currColType.equals("INT")) {
-                        writer.append(currVal);
-                    } else {
-                        writer.append('"' + this.genericDataService.replace(currVal, doubleQuote, twoDoubleQuotes) + '"');
-                    }
+        final long startTime = System.currentTimeMillis();
+        logger.info("STARTING REPORT: " + name + "   Type: " + type);
 
-                }
-                if (j < (rSize - 1)) {
-                    writer.append(",");
-                }
-            }
-            writer.append('\n');
-        }
+        try {
+            final int rows = this.genericDataService.streamGenericResultSet(sql, rowWriter);
 
-        return writer;
+            final long elapsed = System.currentTimeMillis() - startTime;
+            logger.info("FINISHING Report/Request Name: " + name + " - " + type + "     Rows: " + rows + "     Elapsed Time: " + elapsed);
+        } catch (final PlatformDataIntegrityException e) {
+            throw e;
+        } catch (final Exception e) {
+            throw new PlatformDataIntegrityException("error.msg.exception.error", e.getMessage());
+        }
     }
 
     @Override
@@ -257,52 +246,85 @@ public class ReadReportingServiceImpl implements ReadReportingService {
                 + reportName + ".prpt";
         logger.info("Report path: " + reportPath);
 
-        // load report definition
-        final ResourceManager manager = new ResourceManager();
-        manager.registerDefaults();
-        Resource res;
-
+        final MasterReport masterReport;
         try {
-            res = manager.createDirectly(reportPath, MasterReport.class);
-            final MasterReport masterReport = (MasterReport) res.getResource();
-            final DefaultReportEnvironment reportEnvironment = (DefaultReportEnvironment) masterReport.getReportEnvironment();
-            if (locale != null) {
-                reportEnvironment.setLocale(locale);
-            }
-            addParametersToReport(masterReport, queryParams);
+            masterReport = loadReportDefinition(reportPath);
+        } catch (final ResourceException e) {
+            throw new PlatformDataIntegrityException("error.msg.reporting.error", e.getMessage());
+        }
 
-            final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        final DefaultReportEnvironment reportEnvironment = new DefaultReportEnvironment(masterReport.getConfiguration());
+        if (locale != null) {
+            reportEnvironment.setLocale(locale);
+        }
+        masterReport.setReportEnvironment(reportEnvironment);
+        addParametersToReport(masterReport, queryParams);
 
-            if ("PDF".equalsIgnoreCase(outputType)) {
-                PdfReportUtil.createPDF(masterReport, baos);
-                return Response.ok().entity(baos.toByteArray()).type("application/pdf").build();
-            }
+        final String renderType = outputType;
+        final StreamingOutput output = new StreamingOutput() {
 
-            if ("XLS".equalsIgnoreCase(outputType)) {
-                ExcelReportUtil.createXLS(masterReport, baos);
-                return Response.ok().entity(baos.toByteArray()).type("application/vnd.ms-excel")
-                        .header("Content-Disposition", "attachment;filename=" + reportName.replaceAll(" ", "") + ".xls").build();
+            @Override
+            public void write(final OutputStream out) throws IOException {
+                renderPentahoReport(masterReport, renderType, out);
             }
+        };
 
-            if ("CSV".equalsIgnoreCase(outputType)) {
-                CSVReportUtil.createCSV(masterReport, baos, "UTF-8");
-                return Response.ok().entity(baos.toByteArray()).type("application/x-msdownload")
-                        .header("Content-Disposition", "attachment;filename=" + reportName.replaceAll(" ", "") + ".csv").build();
-            }
+        if ("PDF".equalsIgnoreCase(outputType)) { return Response.ok().entity(output).type("application/pdf").build(); }
 
-            if ("HTML".equalsIgnoreCase(outputType)) {
-                HtmlReportUtil.createStreamHTML(masterReport, baos);
-                return Response.ok().entity(baos.toByteArray()).type("text/html").build();
-            }
-        } catch (final ResourceException e) {
+        if ("XLS".equalsIgnoreCase(outputType)) { return Response.ok().entity(output).type("application/vnd.ms-excel")
+                .header("Content-Disposition", "attachment;filename=" + reportName.replaceAll(" ", "") + ".xls").build(); }
+
+        if ("CSV".equalsIgnoreCase(outputType)) { return Response.ok().entity(output).type("application/x-msdownload")
+                .header("Content-Disposition", "attachment;filename=" + reportName.replaceAll(" ", "") + ".csv").build(); }
+
+        return Response.ok().entity(output).type("text/html").build();
+    }
+
+    /**
+     * Returns a private copy of the parsed report definition, parsing the
+     * <code>.prpt</code> only when it is not cached yet or the file changed
+     * since.
+     */
+    private MasterReport loadReportDefinition(final String reportPath) throws ResourceException {
+
+        final long lastModified = new File(reportPath).lastModified();
+
+        ReportDefinition definition = this.reportDefinitions.get(reportPath);
+        if (definition == null || definition.lastModified != lastModified) {
+            final Resource res = this.resourceManager.createDirectly(reportPath, MasterReport.class);
+            definition = new ReportDefinition((MasterReport) res.getResource(), lastModified);
+            this.reportDefinitions.put(reportPath, definition);
+        }
+
+        // parameter values and environment are set per request
+        return (MasterReport) definition.masterReport.clone();
+    }
+
+    private void renderPentahoReport(final MasterReport masterReport, final String outputType, final OutputStream out) throws IOException {
+
+        try {
+            if (!this.pentahoRenderPermits.tryAcquire(PENTAHO_RENDER_WAIT_SECONDS, TimeUnit.SECONDS)) { throw new PlatformDataIntegrityException(
+                    "error.msg.reporting.busy", "Too many reports are being generated, try again later"); }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
             throw new PlatformDataIntegrityException("error.msg.reporting.error", e.getMessage());
+        }
+
+        try {
+            if ("PDF".equalsIgnoreCase(outputType)) {
+                PdfReportUtil.createPDF(masterReport, out);
+            } else if ("XLS".equalsIgnoreCase(outputType)) {
+                ExcelReportUtil.createXLS(masterReport, out);
+            } else if ("CSV".equalsIgnoreCase(outputType)) {
+                CSVReportUtil.createCSV(masterReport, out, "UTF-8");
+            } else {
+                HtmlReportUtil.createStreamHTML(masterReport, out);
+            }
         } catch (final ReportProcessingException e) {
             throw new PlatformDataIntegrityException("error.msg.reporting.error", e.getMessage());
-        } catch (final IOException e) {
-            throw new PlatformDataIntegrityException("error.msg.reporting.error", e.getMessage());
+        } finally {
+            this.pentahoRenderPermits.release();
         }
-
-        throw new PlatformDataIntegrityException("error.msg.invalid.outputType", "No matching Output Type: " + outputType);
     }
 
     private void addParametersToReport(final MasterReport report, final Map<String, String> queryParams) {
@@ -366,69 +388,17 @@ public class ReadReportingServiceImpl implements ReadReportingService {
     }
 
     @Override
-    public String retrieveReportPDF(final String reportName, final String type, final Map<String, String> queryParams) {
-
-        final String fileLocation = FileSystemContentRepository.MIFOSX_BASE_DIR + File.separator + "";
-        if (!new File(fileLocation).isDirectory()) {
-            new File(fileLocation).mkdirs();
-        }
-
-        final String genaratePdf = fileLocation + File.separator + reportName + ".pdf";
+    public StreamingOutput retrieveReportPDF(final String reportName, final String type, final Map<String, String> queryParams) {
 
-        try {
-            final GenericResultsetData result = retrieveGenericResultset(reportName, type, queryParams);
-
-            final List<ResultsetColumnHeaderData> columnHeaders = result.getColumnHeaders();
-            final List<ResultsetRowData> data = result.getData();
-            List<String> row;
-
-            logger.info("NO. of Columns: " + columnHeaders.size());
-            final Integer chSize = columnHeaders.size();
-
-            final Document document = new Document(PageSize.B0.rotate());
-
-            PdfWriter.getInstance(document, new FileOutputStream(new File(fileLocation + reportName + ".pdf")));
-            document.open();
-
-            final PdfPTable table = new PdfPTable(chSize);
-            table.setWidthPercentage(100);
+        final String sql = getSQLtoRun(reportName, type, queryParams);
 
-            for (int i = 0; i < chSize; i++) {
-
-                table.addCell(columnHeaders.get(i).getColumnName());
+        return new StreamingOutput() {
 
+            @Override
+            public void write(final OutputStream out) {
+                streamReport(reportName, type, sql, new PdfResultsetRowWriter(new BufferedOutputStream(out, STREAMING_BUFFER_SIZE)));
             }
-            table.completeRow();
-
-            Integer rSize;
-            String currColType;
-            String currVal;
-            logger.info("NO. of Rows: " + data.size());
-            for (int i = 0; i < data.size(); i++) {
-                row = data.get(i).getRow();
-                rSize = row.size();
-                for (int j = 0; j < rSize; j++) {
-                    currColType = columnHeaders.get(j).getColumnType();
-                    currVal = row.get(j);
-                    if (currVal != null) {
-                        if (currColType.equals("DECIMAL") || currColType.equals("DOUBLE") || currColType.equals("BIGINT")
-                                || currColType.equals("SMALLINT") || currColType.equals("INT")) {
-
-                            table.addCell(currVal.toString());
-                        } else {
-                            table.addCell(currVal.toString());
-                        }
-                    }
-                }
-            }
-            table.completeRow();
-            document.add(table);
-            document.close();
-            return genaratePdf;
-        } catch (final Exception e) {
-            logger.error("error.msg.reporting.error:" + e.getMessage());
-            throw new PlatformDataIntegrityException("error.msg.exception.error", e.getMessage());
-        }
+        };
     }
 
     @Override
@@ -613,4 +583,14 @@ public class ReadReportingServiceImpl implements ReadReportingService {
         }
     }
 
-}
\ No newline at end of file
+    private static final class ReportDefinition {
+
+        private final MasterReport masterReport;
+        private final long lastModified;
+
+        ReportDefinition(final MasterReport masterReport, final long lastModified) {
+            this.masterReport = masterReport;
+            this.lastModified = lastModified;
+        }
+    }
+}
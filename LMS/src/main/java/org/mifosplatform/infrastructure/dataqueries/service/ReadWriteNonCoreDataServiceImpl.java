@@ -89,12 +89,13 @@ public class ReadWriteNonCoreDataServiceImpl implements ReadWriteNonCoreDataServ
     private final DatatableCommandFromApiJsonDeserializer fromApiJsonDeserializer;
     private final ConfigurationDomainService configurationDomainService;
     private final CodeReadPlatformService codeReadPlatformService;
+    private final DatatableSchemaRegistry datatableSchemaRegistry;
 
     @Autowired
     public ReadWriteNonCoreDataServiceImpl(final RoutingDataSource dataSource, final PlatformSecurityContext context,
             final FromJsonHelper fromJsonHelper, final GenericDataService genericDataService,
             final DatatableCommandFromApiJsonDeserializer fromApiJsonDeserializer, final CodeReadPlatformService codeReadPlatformService,
-            final ConfigurationDomainService configurationDomainService) {
+            final ConfigurationDomainService configurationDomainService, final DatatableSchemaRegistry datatableSchemaRegistry) {
         this.dataSource = dataSource;
         this.jdbcTemplate = new JdbcTemplate(this.dataSource);
         this.context = context;
@@ -104,6 +105,7 @@ public class ReadWriteNonCoreDataServiceImpl implements ReadWriteNonCoreDataServ
         this.fromApiJsonDeserializer = fromApiJsonDeserializer;
         this.codeReadPlatformService = codeReadPlatformService;
         this.configurationDomainService = configurationDomainService;
+        this.datatableSchemaRegistry = datatableSchemaRegistry;
     }
 
     @Override
@@ -400,6 +402,7 @@ public class ReadWriteNonCoreDataServiceImpl implements ReadWriteNonCoreDataServ
 
         try {
             this.context.authenticatedUser();
+            this.datatableSchemaRegistry.evictAfterTransaction();
             this.fromApiJsonDeserializer.validateForCreate(command.json());
 
             final JsonElement element = this.fromJsonHelper.parse(command.json());
@@ -677,6 +680,7 @@ public class ReadWriteNonCoreDataServiceImpl implements ReadWriteNonCoreDataServ
 
         try {
             this.context.authenticatedUser();
+            this.datatableSchemaRegistry.evictAfterTransaction();
             this.fromApiJsonDeserializer.validateForUpdate(command.json());
 
             final JsonElement element = this.fromJsonHelper.parse(command.json());
@@ -817,6 +821,7 @@ public class ReadWriteNonCoreDataServiceImpl implements ReadWriteNonCoreDataServ
 
         try {
             this.context.authenticatedUser();
+            this.datatableSchemaRegistry.evictAfterTransaction();
             if (!isRegisteredDataTable(datatableName)) { throw new DatatableNotFoundException(datatableName); }
             validateDatatableName(datatableName);
             deregisterDatatable(datatableName);
@@ -0,0 +1,109 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.dataqueries.service;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+
+import org.joda.time.LocalDate;
+import org.mifosplatform.infrastructure.dataqueries.data.ResultsetColumnHeaderData;
+
+/**
+ * Writes a resultset as a JSON array with one object per row keyed by column
+ * name (the <code>genericResultSet=false</code> format).
+ */
+final class ResultsetJsonRowWriter implements ResultsetRowWriter {
+
+    private final Writer writer;
+    private String[] columnNames;
+    private String[] columnTypes;
+    private boolean firstRow = true;
+
+    ResultsetJsonRowWriter(final Writer writer) {
+        this.writer = writer;
+    }
+
+    @Override
+    public void writeHeader(final List<ResultsetColumnHeaderData> columnHeaders) throws IOException {
+        this.columnNames = new String[columnHeaders.size()];
+        this.columnTypes = new String[columnHeaders.size()];
+        for (int i = 0; i < columnHeaders.size(); i++) {
+            final ResultsetColumnHeaderData columnHeader = columnHeaders.get(i);
+            this.columnNames[i] = columnHeader.getColumnName();
+
+            String columnType = columnHeader.getColumnDisplayType();
+            final String colType = columnHeader.getColumnType();
+            if (columnType == null && colType.equalsIgnoreCase("INT")) {
+                columnType = "INTEGER";
+            }
+            if (columnType == null && colType.equalsIgnoreCase("VARCHAR")) {
+                columnType = "VARCHAR";
+            }
+            if (columnType == null && colType.equalsIgnoreCase("DATE")) {
+                columnType = "DATE";
+            }
+            this.columnTypes[i] = columnType;
+        }
+        this.writer.write('[');
+    }
+
+    @Override
+    public void writeRow(final List<String> row) throws IOException {
+        if (this.firstRow) {
+            this.firstRow = false;
+        } else {
+            this.writer.write(',');
+        }
+        this.writer.write("\n{");
+
+        final int size = row.size();
+        for (int i = 0; i < size; i++) {
+            this.writer.write('"');
+            this.writer.write(this.columnNames[i]);
+            this.writer.write("\": ");
+
+            final String columnType = this.columnTypes[i];
+            final String value = row.get(i);
+            if (value != null && columnType != null) {
+                if (columnType.equals("DECIMAL") || columnType.equals("INTEGER")) {
+                    this.writer.write(value);
+                } else if (columnType.equals("DATE")) {
+                    final LocalDate localDate = new LocalDate(value);
+                    this.writer.write("[" + localDate.getYear() + ", " + localDate.getMonthOfYear() + ", " + localDate.getDayOfMonth()
+                            + "]");
+                } else {
+                    writeQuoted(value);
+                }
+            } else {
+                this.writer.write("null");
+            }
+            if (i < size - 1) {
+                this.writer.write(",\n");
+            }
+        }
+        this.writer.write('}');
+    }
+
+    private void writeQuoted(final String value) throws IOException {
+        this.writer.write('"');
+        int start = 0;
+        int quote;
+        while ((quote = value.indexOf('"', start)) >= 0) {
+            this.writer.write(value, start, quote - start);
+            this.writer.write("\\\"");
+            start = quote + 1;
+        }
+        this.writer.write(value, start, value.length() - start);
+        this.writer.write('"');
+    }
+
+    @Override
+    public void finish() throws IOException {
+        this.writer.write("\n]");
+        this.writer.flush();
+    }
+}
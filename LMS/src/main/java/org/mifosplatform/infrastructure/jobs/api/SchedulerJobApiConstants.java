@@ -23,6 +23,9 @@ public class SchedulerJobApiConstants {
     public static final String jobRunErrorMessageParamName = "jobRunErrorMessage";
     public static final String triggerTypeParamName = "triggerType";
     public static final String jobRunErrorLogParamName = "jobRunErrorLog";
+    public static final String processedCountParamName = "processedCount";
+    public static final String processedPerSecondParamName = "processedPerSecond";
+    public static final String failedCountParamName = "failedCount";
     public static final String cronExpressionParamName = "cronExpression";
     public static final String schedulerStatusParamName = "active";
 
@@ -32,7 +35,8 @@ public class SchedulerJobApiConstants {
 
     public static final Set<String> JOB_HISTORY_RESPONSE_DATA_PARAMETERS = new HashSet<String>(Arrays.asList(versionParamName,
             jobRunStartTimeParamName, jobRunEndTimeParamName, statusParamName, jobRunErrorMessageParamName, triggerTypeParamName,
-            jobRunErrorLogParamName));
+            jobRunErrorLogParamName, processedCountParamName, processedPerSecondParamName,
+            failedCountParamName));
 
     public static final Set<String> JOB_UPDATE_REQUEST_DATA_PARAMETERS = new HashSet<String>(Arrays.asList(displayNameParamName,
             jobActiveStatusParamName, cronExpressionParamName));
@@ -1,5 +1,6 @@
 package org.mifosplatform.infrastructure.jobs.data;
 
+import java.math.BigDecimal;
 import java.util.Date;
 
 public class JobDetailHistoryData {
@@ -25,8 +26,18 @@ public class JobDetailHistoryData {
     @SuppressWarnings("unused")
     private final String jobRunErrorLog;
 
+    @SuppressWarnings("unused")
+    private final Long processedCount;
+
+    @SuppressWarnings("unused")
+    private final BigDecimal processedPerSecond;
+
+    @SuppressWarnings("unused")
+    private final Long failedCount;
+
     public JobDetailHistoryData(final Long version, final Date jobRunStartTime, final Date jobRunEndTime, final String status,
-            final String jobRunErrorMessage, final String triggerType, final String jobRunErrorLog) {
+            final String jobRunErrorMessage, final String triggerType, final String jobRunErrorLog, final Long processedCount,
+            final BigDecimal processedPerSecond, final Long failedCount) {
         this.version = version;
         this.jobRunStartTime = jobRunStartTime;
         this.jobRunEndTime = jobRunEndTime;
@@ -34,5 +45,8 @@ public class JobDetailHistoryData {
         this.jobRunErrorMessage = jobRunErrorMessage;
         this.triggerType = triggerType;
         this.jobRunErrorLog = jobRunErrorLog;
+        this.processedCount = processedCount;
+        this.processedPerSecond = processedPerSecond;
+        this.failedCount = failedCount;
     }
 }
\ No newline at end of file
@@ -1,5 +1,6 @@
 package org.mifosplatform.infrastructure.jobs.domain;
 
+import java.math.BigDecimal;
 import java.util.Date;
 
 import javax.persistence.Column;
@@ -43,6 +44,15 @@ public class ScheduledJobRunHistory extends AbstractPersistable<Long> {
     @Column(name = "error_log")
     private String errorLog;
 
+    @Column(name = "processed_count")
+    private Long processedCount;
+
+    @Column(name = "processed_per_second", scale = 2, precision = 19)
+    private BigDecimal processedPerSecond;
+
+    @Column(name = "failed_count")
+    private Long failedCount;
+
     public ScheduledJobRunHistory() {
 
     }
@@ -59,4 +69,10 @@ public class ScheduledJobRunHistory extends AbstractPersistable<Long> {
         this.errorLog = errorLog;
     }
 
+    public void updateStatistics(final Long processedCount, final BigDecimal processedPerSecond, final Long failedCount) {
+        this.processedCount = processedCount;
+        this.processedPerSecond = processedPerSecond;
+        this.failedCount = failedCount;
+    }
+
 }
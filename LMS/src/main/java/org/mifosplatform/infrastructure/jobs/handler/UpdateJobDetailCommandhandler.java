@@ -1,5 +1,6 @@
 package org.mifosplatform.infrastructure.jobs.handler;
 
+import org.mifosplatform.commands.annotation.CommandType;
 import org.mifosplatform.commands.handler.NewCommandSourceHandler;
 import org.mifosplatform.infrastructure.core.api.JsonCommand;
 import org.mifosplatform.infrastructure.core.data.CommandProcessingResult;
@@ -7,6 +8,7 @@ import org.mifosplatform.infrastructure.jobs.service.SchedularWritePlatformServi
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+@CommandType(entity = "SCHEDULER", action = "UPDATE")
 @Service
 public class UpdateJobDetailCommandhandler implements NewCommandSourceHandler {
 
@@ -0,0 +1,24 @@
+package org.mifosplatform.infrastructure.jobs.service;
+
+import java.util.List;
+
+/**
+ * Work of a job run by {@link ChunkedJobExecutor}. Items are grouped into
+ * partitions by key, and all items of a partition are processed together on
+ * one worker thread.
+ */
+public interface ChunkedJob<T> {
+
+    /**
+     * Items sharing a key are processed in order on the same thread, so items
+     * touching the same accounts must share a key. Keys are processed in
+     * their natural order; see
+     * {@link ChunkedJobExecutor#partitionKey(Long...)}.
+     */
+    String partitionKey(T item);
+
+    /**
+     * @return a message for each item that could not be processed
+     */
+    List<String> processPartition(List<T> items);
+}
@@ -0,0 +1,189 @@
+package org.mifosplatform.infrastructure.jobs.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import org.mifosplatform.infrastructure.core.service.TenantAwareCallable;
+import org.mifosplatform.infrastructure.core.service.ThreadLocalContextUtil;
+import org.mifosplatform.infrastructure.jobs.exception.JobExecutionException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runs a {@link ChunkedJob} over its items on the job worker pool.
+ *
+ * Items are grouped into partitions by key and the partitions, in key order,
+ * into chunks that run concurrently. Partitions whose keys share their first
+ * component (the account money is taken from) are kept in one chunk so that
+ * no two workers update the same account.
+ *
+ * A run that stops part way is not resumed; the next run fetches the items due
+ * as of its own date, which no longer include the ones already processed.
+ */
+@Component
+public class ChunkedJobExecutor {
+
+    private final static Logger logger = LoggerFactory.getLogger(ChunkedJobExecutor.class);
+
+    private static final int PARTITIONS_PER_CHUNK = 50;
+    private static final char KEY_SEPARATOR = ':';
+
+    private final JobWorkerPool jobWorkerPool;
+
+    @Autowired
+    public ChunkedJobExecutor(final JobWorkerPool jobWorkerPool) {
+        this.jobWorkerPool = jobWorkerPool;
+    }
+
+    /**
+     * Builds a partition key from ids, zero padded so that keys sort in the
+     * order of their ids.
+     */
+    public static String partitionKey(final Long... ids) {
+        final StringBuilder key = new StringBuilder(ids.length * 20);
+        for (final Long id : ids) {
+            if (key.length() > 0) {
+                key.append(KEY_SEPARATOR);
+            }
+            final String digits = String.valueOf(id);
+            for (int i = digits.length(); i < 19; i++) {
+                key.append('0');
+            }
+            key.append(digits);
+        }
+        return key.toString();
+    }
+
+    public <T> void execute(final JobName jobName, final Collection<T> items, final ChunkedJob<T> job) throws JobExecutionException {
+
+        final long startTime = System.currentTimeMillis();
+
+        final TreeMap<String, List<T>> partitions = new TreeMap<String, List<T>>();
+        for (final T item : items) {
+            final String key = job.partitionKey(item);
+            List<T> partition = partitions.get(key);
+            if (partition == null) {
+                partition = new ArrayList<T>();
+                partitions.put(key, partition);
+            }
+            partition.add(item);
+        }
+
+        final int threadCount = this.jobWorkerPool.threadCount();
+        final ExecutorService executorService = this.jobWorkerPool.newExecutorService(threadCount);
+        final List<String> failures = new ArrayList<String>();
+        final LinkedList<Chunk<T>> pendingChunks = new LinkedList<Chunk<T>>();
+        long processed = 0;
+        try {
+            for (final Chunk<T> chunk : chunks(partitions)) {
+                // keep only a bounded number of chunks in flight
+                while (pendingChunks.size() >= threadCount * 2) {
+                    processed += complete(pendingChunks.removeFirst(), failures);
+                }
+                pendingChunks.add(submit(executorService, job, chunk));
+            }
+            while (!pendingChunks.isEmpty()) {
+                processed += complete(pendingChunks.removeFirst(), failures);
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new JobExecutionException(jobName + " was interrupted");
+        } catch (final ExecutionException e) {
+            logger.error(e.getMessage(), e.getCause());
+            throw new JobExecutionException(jobName + " failed: " + e.getCause().getMessage());
+        } finally {
+            executorService.shutdownNow();
+        }
+
+        JobRunStatisticsHolder.setStatistics(new JobRunStatistics(processed - failures.size(), failures.size(), System.currentTimeMillis()
+                - startTime));
+
+        logger.info(ThreadLocalContextUtil.getTenant().getName() + ": " + jobName + " processed: " + (processed - failures.size())
+                + ", failed: " + failures.size());
+
+        if (!failures.isEmpty()) {
+            final StringBuilder sb = new StringBuilder();
+            for (final String failure : failures) {
+                sb.append(failure).append("--------");
+            }
+            throw new JobExecutionException(sb.toString());
+        }
+    }
+
+    /**
+     * Groups partitions, in key order, into chunks of about
+     * {@link #PARTITIONS_PER_CHUNK}, never splitting partitions whose keys
+     * share their first component.
+     */
+    static <T> List<Chunk<T>> chunks(final TreeMap<String, List<T>> partitions) {
+        final List<Chunk<T>> chunks = new ArrayList<Chunk<T>>();
+        Chunk<T> chunk = new Chunk<T>();
+        for (final Map.Entry<String, List<T>> partition : partitions.entrySet()) {
+            if (chunk.partitions.size() >= PARTITIONS_PER_CHUNK
+                    && !leadingComponent(partition.getKey()).equals(leadingComponent(chunk.lastKey))) {
+                chunks.add(chunk);
+                chunk = new Chunk<T>();
+            }
+            chunk.add(partition.getKey(), partition.getValue());
+        }
+        if (!chunk.partitions.isEmpty()) {
+            chunks.add(chunk);
+        }
+        return chunks;
+    }
+
+    private <T> Chunk<T> submit(final ExecutorService executorService, final ChunkedJob<T> job, final Chunk<T> chunk) {
+        chunk.result = executorService.submit(new TenantAwareCallable<List<String>>() {
+
+            @Override
+            protected List<String> callForTenant() {
+                final List<String> failures = new ArrayList<String>();
+                for (final List<T> partition : chunk.partitions) {
+                    failures.addAll(job.processPartition(partition));
+                }
+                return failures;
+            }
+        });
+        return chunk;
+    }
+
+    /**
+     * @return number of items in the chunk
+     */
+    private <T> long complete(final Chunk<T> chunk, final List<String> failures) throws InterruptedException, ExecutionException {
+        failures.addAll(chunk.result.get());
+        return chunk.itemCount;
+    }
+
+    private static String leadingComponent(final String key) {
+        final int separator = key.indexOf(KEY_SEPARATOR);
+        return separator < 0 ? key : key.substring(0, separator);
+    }
+
+    static final class Chunk<T> {
+
+        private final List<List<T>> partitions = new ArrayList<List<T>>();
+        private String lastKey;
+        private long itemCount;
+        private Future<List<String>> result;
+
+        void add(final String key, final List<T> partition) {
+            this.partitions.add(partition);
+            this.lastKey = key;
+            this.itemCount += partition.size();
+        }
+
+        String lastKey() {
+            return this.lastKey;
+        }
+    }
+}
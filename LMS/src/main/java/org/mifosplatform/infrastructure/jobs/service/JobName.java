@@ -3,6 +3,7 @@ package org.mifosplatform.infrastructure.jobs.service;
 public enum JobName {
 
     UPDATE_LOAN_SUMMARY("Update loan Summary"), //
+    REBUILD_LOAN_SUMMARY("Rebuild Loan Summary"), //
     UPDATE_LOAN_ARREARS_AGEING("Update Loan Arrears Ageing"), //
     UPDATE_LOAN_PAID_IN_ADVANCE("Update Loan Paid In Advance"), //
     APPLY_ANNUAL_FEE_FOR_SAVINGS("Apply Annual Fee For Savings"), //
@@ -11,7 +12,9 @@ public enum JobName {
     TRANSFER_FEE_CHARGE_FOR_LOANS("Transfer Fee For Loans From Savings"), //
     ACCOUNTING_RUNNING_BALANCE_UPDATE("Update Accounting Running Balances"), //
     PAY_DUE_SAVINGS_CHARGES("Pay Due Savings Charges"), //
-    APPLY_CHARGE_TO_OVERDUE_LOAN_INSTALLMENT("Apply penalty to overdue loans");
+    APPLY_CHARGE_TO_OVERDUE_LOAN_INSTALLMENT("Apply penalty to overdue loans"), //
+    REBUILD_GL_DAILY_BALANCES("Rebuild GL Daily Balances"), //
+    REBUILD_SEARCH_INDEX("Rebuild Search Index");
 
     private final String name;
 
@@ -0,0 +1,42 @@
+package org.mifosplatform.infrastructure.jobs.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Throughput figures reported by a batch job for a single run, persisted
+ * along with the {@link org.mifosplatform.infrastructure.jobs.domain.ScheduledJobRunHistory}.
+ */
+public class JobRunStatistics {
+
+    private final long processedCount;
+    private final long failedCount;
+    private final long elapsedMillis;
+
+    public JobRunStatistics(final long processedCount, final long elapsedMillis) {
+        this(processedCount, 0, elapsedMillis);
+    }
+
+    public JobRunStatistics(final long processedCount, final long failedCount, final long elapsedMillis) {
+        this.processedCount = processedCount;
+        this.failedCount = failedCount;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public long getProcessedCount() {
+        return this.processedCount;
+    }
+
+    public long getFailedCount() {
+        return this.failedCount;
+    }
+
+    public long getElapsedMillis() {
+        return this.elapsedMillis;
+    }
+
+    public BigDecimal getProcessedPerSecond() {
+        if (this.elapsedMillis <= 0) { return BigDecimal.valueOf(this.processedCount); }
+        return BigDecimal.valueOf(this.processedCount * 1000L).divide(BigDecimal.valueOf(this.elapsedMillis), 2, RoundingMode.HALF_UP);
+    }
+}
@@ -0,0 +1,23 @@
+package org.mifosplatform.infrastructure.jobs.service;
+
+/**
+ * Holds the {@link JobRunStatistics} reported by the job executing on the
+ * current thread so that {@link SchedulerJobListener} can store them with the
+ * run history once the job completes.
+ */
+public class JobRunStatisticsHolder {
+
+    private static final ThreadLocal<JobRunStatistics> statisticsHolder = new ThreadLocal<JobRunStatistics>();
+
+    public static void setStatistics(final JobRunStatistics statistics) {
+        statisticsHolder.set(statistics);
+    }
+
+    public static JobRunStatistics getStatistics() {
+        return statisticsHolder.get();
+    }
+
+    public static void clearStatistics() {
+        statisticsHolder.remove();
+    }
+}
@@ -0,0 +1,62 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.jobs.service;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.mifosplatform.infrastructure.configuration.domain.ConfigurationDomainService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Creates the thread pools jobs spread their work over, sized by the
+ * <code>job-worker-threads</code> configuration. Work submitted to them should
+ * be a {@link org.mifosplatform.infrastructure.core.service.TenantAwareCallable}
+ * so that it runs against the tenant of the job, and the pool must be shut
+ * down by the job once its work is done.
+ */
+@Component
+public class JobWorkerPool {
+
+    private static final int DEFAULT_THREAD_COUNT = 4;
+
+    private final ConfigurationDomainService configurationDomainService;
+
+    @Autowired
+    public JobWorkerPool(final ConfigurationDomainService configurationDomainService) {
+        this.configurationDomainService = configurationDomainService;
+    }
+
+    /**
+     * @return the configured number of worker threads, or 4 when it is not
+     *         set
+     */
+    public int threadCount() {
+        final Long threadCount = this.configurationDomainService.retrieveJobWorkerThreadCount();
+        if (threadCount == null || threadCount.longValue() <= 0) { return DEFAULT_THREAD_COUNT; }
+        return threadCount.intValue();
+    }
+
+    /**
+     * @param threadCount
+     *            number of threads, usually {@link #threadCount()} or fewer
+     *            when there is less work than that
+     */
+    public ExecutorService newExecutorService(final int threadCount) {
+        return Executors.newFixedThreadPool(Math.max(1, threadCount), new ThreadFactory() {
+
+            private final AtomicInteger threadNumber = new AtomicInteger();
+
+            @Override
+            public Thread newThread(final Runnable runnable) {
+                return new Thread(runnable, "job-worker-" + this.threadNumber.incrementAndGet());
+            }
+        });
+    }
+}
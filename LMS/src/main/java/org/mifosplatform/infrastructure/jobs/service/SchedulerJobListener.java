@@ -40,7 +40,7 @@ public class SchedulerJobListener implements JobListener {
 
     @Override
     public void jobToBeExecuted(@SuppressWarnings("unused") final JobExecutionContext context) {
-
+        JobRunStatisticsHolder.clearStatistics();
     }
 
     @Override
@@ -88,6 +88,11 @@ public class SchedulerJobListener implements JobListener {
 
         final ScheduledJobRunHistory runHistory = new ScheduledJobRunHistory(scheduledJobDetails, version, context.getFireTime(),
                 new Date(), status, errorMessage, triggerType, errorLog);
+        final JobRunStatistics statistics = JobRunStatisticsHolder.getStatistics();
+        if (statistics != null) {
+            runHistory.updateStatistics(statistics.getProcessedCount(), statistics.getProcessedPerSecond(), statistics.getFailedCount());
+            JobRunStatisticsHolder.clearStatistics();
+        }
         // scheduledJobDetails.addRunHistory(runHistory);
 
         this.schedularService.saveOrUpdate(scheduledJobDetails, runHistory);
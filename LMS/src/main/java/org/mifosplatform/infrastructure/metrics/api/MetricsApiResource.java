@@ -0,0 +1,85 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.metrics.api;
+
+import java.util.Collection;
+
+import javax.ws.rs.Consumes;
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.UriInfo;
+
+import org.mifosplatform.infrastructure.core.api.ApiRequestParameterHelper;
+import org.mifosplatform.infrastructure.core.serialization.ApiRequestJsonSerializationSettings;
+import org.mifosplatform.infrastructure.core.domain.MifosPlatformTenant;
+import org.mifosplatform.infrastructure.core.serialization.DefaultToApiJsonSerializer;
+import org.mifosplatform.infrastructure.core.service.ThreadLocalContextUtil;
+import org.mifosplatform.infrastructure.core.service.TomcatJdbcDataSourcePerTenantService;
+import org.mifosplatform.infrastructure.metrics.data.ConnectionPoolStatisticsData;
+import org.mifosplatform.infrastructure.metrics.data.MetricData;
+import org.mifosplatform.infrastructure.metrics.service.MetricsRegistry;
+import org.mifosplatform.infrastructure.security.service.PlatformSecurityContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Scope;
+import org.springframework.stereotype.Component;
+
+@Path("/metrics")
+@Consumes({ MediaType.APPLICATION_JSON })
+@Produces({ MediaType.APPLICATION_JSON })
+@Component
+@Scope("singleton")
+public class MetricsApiResource {
+
+    private final String resourceNameForPermissions = "METRICS";
+
+    private final PlatformSecurityContext context;
+    private final MetricsRegistry metricsRegistry;
+    private final DefaultToApiJsonSerializer<MetricData> toApiJsonSerializer;
+    private final ApiRequestParameterHelper apiRequestParameterHelper;
+    private final TomcatJdbcDataSourcePerTenantService dataSourcePerTenantService;
+    private final DefaultToApiJsonSerializer<ConnectionPoolStatisticsData> connectionPoolStatisticsSerializer;
+
+    @Autowired
+    public MetricsApiResource(final PlatformSecurityContext context, final MetricsRegistry metricsRegistry,
+            final DefaultToApiJsonSerializer<MetricData> toApiJsonSerializer, final ApiRequestParameterHelper apiRequestParameterHelper,
+            final TomcatJdbcDataSourcePerTenantService dataSourcePerTenantService,
+            final DefaultToApiJsonSerializer<ConnectionPoolStatisticsData> connectionPoolStatisticsSerializer) {
+        this.context = context;
+        this.metricsRegistry = metricsRegistry;
+        this.toApiJsonSerializer = toApiJsonSerializer;
+        this.apiRequestParameterHelper = apiRequestParameterHelper;
+        this.dataSourcePerTenantService = dataSourcePerTenantService;
+        this.connectionPoolStatisticsSerializer = connectionPoolStatisticsSerializer;
+    }
+
+    @GET
+    public String retrieveAll(@Context final UriInfo uriInfo) {
+
+        this.context.authenticatedUser().validateHasReadPermission(this.resourceNameForPermissions);
+
+        final String tenantIdentifier = ThreadLocalContextUtil.getTenant().getTenantIdentifier();
+        final Collection<MetricData> metrics = this.metricsRegistry.retrieveAllForTenant(tenantIdentifier);
+
+        final ApiRequestJsonSerializationSettings settings = this.apiRequestParameterHelper.process(uriInfo.getQueryParameters());
+        return this.toApiJsonSerializer.serialize(settings, metrics);
+    }
+
+    @GET
+    @Path("connectionpool")
+    public String retrieveConnectionPoolStatistics(@Context final UriInfo uriInfo) {
+
+        this.context.authenticatedUser().validateHasReadPermission(this.resourceNameForPermissions);
+
+        final MifosPlatformTenant tenant = ThreadLocalContextUtil.getTenant();
+        final ConnectionPoolStatisticsData statistics = this.dataSourcePerTenantService.retrieveConnectionPoolStatistics(tenant);
+
+        final ApiRequestJsonSerializationSettings settings = this.apiRequestParameterHelper.process(uriInfo.getQueryParameters());
+        return this.connectionPoolStatisticsSerializer.serialize(settings, statistics);
+    }
+}
@@ -0,0 +1,47 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.metrics.data;
+
+/**
+ * Immutable snapshot of a tenant's database connection pool.
+ */
+public class ConnectionPoolStatisticsData {
+
+    @SuppressWarnings("unused")
+    private final String tenantIdentifier;
+    @SuppressWarnings("unused")
+    private final boolean started;
+    @SuppressWarnings("unused")
+    private final int size;
+    @SuppressWarnings("unused")
+    private final int active;
+    @SuppressWarnings("unused")
+    private final int idle;
+    @SuppressWarnings("unused")
+    private final int waitCount;
+    @SuppressWarnings("unused")
+    private final int maxActive;
+
+    public static ConnectionPoolStatisticsData instance(final String tenantIdentifier, final int size, final int active, final int idle,
+            final int waitCount, final int maxActive) {
+        return new ConnectionPoolStatisticsData(tenantIdentifier, true, size, active, idle, waitCount, maxActive);
+    }
+
+    public static ConnectionPoolStatisticsData notStarted(final String tenantIdentifier, final int maxActive) {
+        return new ConnectionPoolStatisticsData(tenantIdentifier, false, 0, 0, 0, 0, maxActive);
+    }
+
+    private ConnectionPoolStatisticsData(final String tenantIdentifier, final boolean started, final int size, final int active,
+            final int idle, final int waitCount, final int maxActive) {
+        this.tenantIdentifier = tenantIdentifier;
+        this.started = started;
+        this.size = size;
+        this.active = active;
+        this.idle = idle;
+        this.waitCount = waitCount;
+        this.maxActive = maxActive;
+    }
+}
@@ -0,0 +1,61 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.metrics.data;
+
+/**
+ * Immutable snapshot of one metric series. Latencies are in microseconds and
+ * are null for plain counters.
+ */
+public class MetricData {
+
+    @SuppressWarnings("unused")
+    private final String name;
+    @SuppressWarnings("unused")
+    private final String tenantIdentifier;
+    @SuppressWarnings("unused")
+    private final String pathTemplate;
+    @SuppressWarnings("unused")
+    private final String method;
+    @SuppressWarnings("unused")
+    private final long count;
+    @SuppressWarnings("unused")
+    private final Long meanMicros;
+    @SuppressWarnings("unused")
+    private final Long p50Micros;
+    @SuppressWarnings("unused")
+    private final Long p90Micros;
+    @SuppressWarnings("unused")
+    private final Long p99Micros;
+    @SuppressWarnings("unused")
+    private final Long maxMicros;
+
+    public static MetricData counter(final String name, final String tenantIdentifier, final String pathTemplate, final String method,
+            final long count) {
+        return new MetricData(name, tenantIdentifier, pathTemplate, method, count, null, null, null, null, null);
+    }
+
+    public static MetricData latency(final String name, final String tenantIdentifier, final String pathTemplate, final String method,
+            final long count, final Long meanMicros, final Long p50Micros, final Long p90Micros, final Long p99Micros,
+            final Long maxMicros) {
+        return new MetricData(name, tenantIdentifier, pathTemplate, method, count, meanMicros, p50Micros, p90Micros, p99Micros,
+                maxMicros);
+    }
+
+    private MetricData(final String name, final String tenantIdentifier, final String pathTemplate, final String method,
+            final long count, final Long meanMicros, final Long p50Micros, final Long p90Micros, final Long p99Micros,
+            final Long maxMicros) {
+        this.name = name;
+        this.tenantIdentifier = tenantIdentifier;
+        this.pathTemplate = pathTemplate;
+        this.method = method;
+        this.count = count;
+        this.meanMicros = meanMicros;
+        this.p50Micros = p50Micros;
+        this.p90Micros = p90Micros;
+        this.p99Micros = p99Micros;
+        this.maxMicros = maxMicros;
+    }
+}
@@ -0,0 +1,94 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.metrics.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.mifosplatform.infrastructure.core.domain.MifosPlatformTenant;
+import org.mifosplatform.infrastructure.core.service.ThreadLocalContextUtil;
+import org.mifosplatform.infrastructure.metrics.data.MetricData;
+import org.springframework.stereotype.Service;
+
+/**
+ * {@link MetricsRegistry} that keeps all series in memory for the lifetime of
+ * the application.
+ * 
+ * The number of series is bounded; once {@link #MAX_SERIES} is reached new
+ * series are folded into a single overflow series per metric name so that a
+ * flood of unexpected paths cannot exhaust memory. Recording to a series that
+ * exists allocates nothing.
+ */
+@Service
+public class InMemoryMetricsRegistry implements MetricsRegistry {
+
+    private static final int MAX_SERIES = 5000;
+    private static final String NO_TENANT = "none";
+
+    private final MetricSeriesTable<LatencyHistogram> histograms = new MetricSeriesTable<LatencyHistogram>(MAX_SERIES) {
+
+        @Override
+        protected LatencyHistogram newSeries() {
+            return new LatencyHistogram();
+        }
+
+        @Override
+        protected MetricData toMetricData(final String name, final String tenantIdentifier, final String pathTemplate,
+                final String method, final LatencyHistogram histogram) {
+            return MetricData.latency(name, tenantIdentifier, pathTemplate, method, histogram.getCount(), histogram.getMeanMicros(),
+                    histogram.getValueAtPercentile(50), histogram.getValueAtPercentile(90), histogram.getValueAtPercentile(99),
+                    histogram.getMaxMicros());
+        }
+    };
+
+    private final MetricSeriesTable<AtomicLong> counters = new MetricSeriesTable<AtomicLong>(MAX_SERIES) {
+
+        @Override
+        protected AtomicLong newSeries() {
+            return new AtomicLong();
+        }
+
+        @Override
+        protected MetricData toMetricData(final String name, final String tenantIdentifier, final String pathTemplate,
+                final String method, final AtomicLong counter) {
+            return MetricData.counter(name, tenantIdentifier, pathTemplate, method, counter.get());
+        }
+    };
+
+    @Override
+    public void recordLatency(final String name, final String pathTemplate, final String method, final long durationNanos) {
+        this.histograms.findOrAdd(name, currentTenantIdentifier(), pathTemplate, method).recordNanos(durationNanos);
+    }
+
+    @Override
+    public void incrementCounter(final String name, final String pathTemplate, final String method) {
+        this.counters.findOrAdd(name, currentTenantIdentifier(), pathTemplate, method).incrementAndGet();
+    }
+
+    @Override
+    public Collection<MetricData> retrieveAll() {
+        return retrieveMetrics(null);
+    }
+
+    @Override
+    public Collection<MetricData> retrieveAllForTenant(final String tenantIdentifier) {
+        return retrieveMetrics(tenantIdentifier);
+    }
+
+    private Collection<MetricData> retrieveMetrics(final String tenantIdentifier) {
+        final List<MetricData> metrics = new ArrayList<MetricData>();
+        this.histograms.collect(tenantIdentifier, metrics);
+        this.counters.collect(tenantIdentifier, metrics);
+        return metrics;
+    }
+
+    private static String currentTenantIdentifier() {
+        final MifosPlatformTenant tenant = ThreadLocalContextUtil.getTenant();
+        return tenant == null ? NO_TENANT : tenant.getTenantIdentifier();
+    }
+}
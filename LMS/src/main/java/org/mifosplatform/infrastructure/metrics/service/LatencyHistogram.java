@@ -0,0 +1,109 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.metrics.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A lock free latency histogram in the style of HdrHistogram.
+ * 
+ * Values are recorded in microseconds into log-linear buckets: every power of
+ * two range is split into {@link #SUB_BUCKET_COUNT} equal sub buckets, which
+ * keeps the relative error of reported percentiles below ~6% regardless of
+ * magnitude. Recording a value does not allocate.
+ */
+public final class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+
+    /**
+     * Values above 2^36 microseconds (~19 hours) are clamped to the highest
+     * bucket.
+     */
+    private static final int MAX_EXPONENT = 35;
+    private static final long MAX_TRACKABLE_VALUE = (1L << (MAX_EXPONENT + 1)) - 1;
+    private static final int BUCKET_COUNT = SUB_BUCKET_COUNT + (MAX_EXPONENT - SUB_BUCKET_BITS + 1) * SUB_BUCKET_COUNT;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+    private final AtomicLong totalCount = new AtomicLong();
+    private final AtomicLong totalMicros = new AtomicLong();
+    private final AtomicLong maxMicros = new AtomicLong();
+
+    public void recordNanos(final long durationNanos) {
+        recordMicros(durationNanos / 1000);
+    }
+
+    public void recordMicros(final long durationMicros) {
+        final long value = Math.min(Math.max(durationMicros, 0), MAX_TRACKABLE_VALUE);
+
+        this.counts.incrementAndGet(bucketIndex(value));
+        this.totalCount.incrementAndGet();
+        this.totalMicros.addAndGet(value);
+
+        long currentMax = this.maxMicros.get();
+        while (value > currentMax && !this.maxMicros.compareAndSet(currentMax, value)) {
+            currentMax = this.maxMicros.get();
+        }
+    }
+
+    public long getCount() {
+        return this.totalCount.get();
+    }
+
+    public long getMaxMicros() {
+        return this.maxMicros.get();
+    }
+
+    public long getMeanMicros() {
+        final long count = this.totalCount.get();
+        if (count == 0) { return 0; }
+        return this.totalMicros.get() / count;
+    }
+
+    /**
+     * Returns the upper bound of the bucket holding the value at the given
+     * percentile (0 to 100), or zero when nothing has been recorded.
+     * 
+     * Buckets are read one at a time, so percentiles taken while values are
+     * still being recorded are approximate.
+     */
+    public long getValueAtPercentile(final double percentile) {
+        long total = 0;
+        final long[] snapshot = new long[BUCKET_COUNT];
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            snapshot[i] = this.counts.get(i);
+            total += snapshot[i];
+        }
+        if (total == 0) { return 0; }
+
+        final double boundedPercentile = Math.min(Math.max(percentile, 0.0), 100.0);
+        final long targetRank = Math.max(1, (long) Math.ceil(boundedPercentile / 100.0 * total));
+
+        long rank = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            rank += snapshot[i];
+            if (rank >= targetRank) { return Math.min(bucketUpperBound(i), this.maxMicros.get()); }
+        }
+        return this.maxMicros.get();
+    }
+
+    static int bucketIndex(final long value) {
+        if (value < SUB_BUCKET_COUNT) { return (int) value; }
+        final int exponent = 63 - Long.numberOfLeadingZeros(value);
+        final int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKET_COUNT - 1);
+        return SUB_BUCKET_COUNT + (exponent - SUB_BUCKET_BITS) * SUB_BUCKET_COUNT + subBucket;
+    }
+
+    static long bucketUpperBound(final int index) {
+        if (index < SUB_BUCKET_COUNT) { return index; }
+        final int exponent = (index - SUB_BUCKET_COUNT) / SUB_BUCKET_COUNT + SUB_BUCKET_BITS;
+        final int subBucket = (index - SUB_BUCKET_COUNT) % SUB_BUCKET_COUNT;
+        final long lowerBound = (1L << exponent) | ((long) subBucket << (exponent - SUB_BUCKET_BITS));
+        return lowerBound + (1L << (exponent - SUB_BUCKET_BITS)) - 1;
+    }
+}
@@ -0,0 +1,123 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.metrics.service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.mifosplatform.infrastructure.metrics.data.MetricData;
+
+/**
+ * Metric series of one kind by name, tenant, path template and method.
+ *
+ * The series are held in nested maps keyed by those strings, so finding an
+ * existing series allocates nothing. Series are only added under the lock of
+ * the table; once the maximum number of series is reached, new series are
+ * folded into a single overflow series per metric name.
+ */
+abstract class MetricSeriesTable<T> {
+
+    private static final String NONE = "";
+    private static final String OVERFLOW = "overflow";
+
+    private final int maxSeries;
+    private final ConcurrentMap<String, ConcurrentMap<String, ConcurrentMap<String, ConcurrentMap<String, T>>>> seriesByName =
+            new ConcurrentHashMap<String, ConcurrentMap<String, ConcurrentMap<String, ConcurrentMap<String, T>>>>();
+    private int seriesCount;
+
+    MetricSeriesTable(final int maxSeries) {
+        this.maxSeries = maxSeries;
+    }
+
+    protected abstract T newSeries();
+
+    protected abstract MetricData toMetricData(String name, String tenantIdentifier, String pathTemplate, String method, T series);
+
+    /**
+     * @param pathTemplate
+     *            may be <code>null</code>
+     * @param method
+     *            may be <code>null</code>
+     */
+    final T findOrAdd(final String name, final String tenantIdentifier, final String pathTemplate, final String method) {
+        final String path = pathTemplate == null ? NONE : pathTemplate;
+        final String action = method == null ? NONE : method;
+        final T series = find(name, tenantIdentifier, path, action);
+        if (series != null) { return series; }
+        return add(name, tenantIdentifier, path, action);
+    }
+
+    /**
+     * @param tenantIdentifier
+     *            the tenant whose series to collect, or <code>null</code> for
+     *            all
+     */
+    final void collect(final String tenantIdentifier, final List<MetricData> metrics) {
+        for (final Map.Entry<String, ConcurrentMap<String, ConcurrentMap<String, ConcurrentMap<String, T>>>> byName : this.seriesByName
+                .entrySet()) {
+            for (final Map.Entry<String, ConcurrentMap<String, ConcurrentMap<String, T>>> byTenant : byName.getValue().entrySet()) {
+                if (tenantIdentifier != null && !tenantIdentifier.equals(byTenant.getKey())) {
+                    continue;
+                }
+                for (final Map.Entry<String, ConcurrentMap<String, T>> byPath : byTenant.getValue().entrySet()) {
+                    for (final Map.Entry<String, T> byMethod : byPath.getValue().entrySet()) {
+                        metrics.add(toMetricData(byName.getKey(), byTenant.getKey(), orNull(byPath.getKey()), orNull(byMethod.getKey()),
+                                byMethod.getValue()));
+                    }
+                }
+            }
+        }
+    }
+
+    private T find(final String name, final String tenantIdentifier, final String pathTemplate, final String method) {
+        final ConcurrentMap<String, ConcurrentMap<String, ConcurrentMap<String, T>>> byTenant = this.seriesByName.get(name);
+        if (byTenant == null) { return null; }
+        final ConcurrentMap<String, ConcurrentMap<String, T>> byPath = byTenant.get(tenantIdentifier);
+        if (byPath == null) { return null; }
+        final ConcurrentMap<String, T> byMethod = byPath.get(pathTemplate);
+        if (byMethod == null) { return null; }
+        return byMethod.get(method);
+    }
+
+    private synchronized T add(final String name, final String tenantIdentifier, final String pathTemplate, final String method) {
+        T series = find(name, tenantIdentifier, pathTemplate, method);
+        if (series != null) { return series; }
+        if (this.seriesCount >= this.maxSeries) {
+            series = find(name, OVERFLOW, OVERFLOW, OVERFLOW);
+            if (series != null) { return series; }
+            return put(name, OVERFLOW, OVERFLOW, OVERFLOW);
+        }
+        this.seriesCount++;
+        return put(name, tenantIdentifier, pathTemplate, method);
+    }
+
+    private T put(final String name, final String tenantIdentifier, final String pathTemplate, final String method) {
+        ConcurrentMap<String, ConcurrentMap<String, ConcurrentMap<String, T>>> byTenant = this.seriesByName.get(name);
+        if (byTenant == null) {
+            byTenant = new ConcurrentHashMap<String, ConcurrentMap<String, ConcurrentMap<String, T>>>();
+            this.seriesByName.put(name, byTenant);
+        }
+        ConcurrentMap<String, ConcurrentMap<String, T>> byPath = byTenant.get(tenantIdentifier);
+        if (byPath == null) {
+            byPath = new ConcurrentHashMap<String, ConcurrentMap<String, T>>();
+            byTenant.put(tenantIdentifier, byPath);
+        }
+        ConcurrentMap<String, T> byMethod = byPath.get(pathTemplate);
+        if (byMethod == null) {
+            byMethod = new ConcurrentHashMap<String, T>();
+            byPath.put(pathTemplate, byMethod);
+        }
+        final T series = newSeries();
+        byMethod.put(method, series);
+        return series;
+    }
+
+    private static String orNull(final String key) {
+        return NONE.equals(key) ? null : key;
+    }
+}
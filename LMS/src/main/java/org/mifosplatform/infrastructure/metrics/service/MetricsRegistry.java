@@ -0,0 +1,35 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.metrics.service;
+
+import java.util.Collection;
+
+import org.mifosplatform.infrastructure.metrics.data.MetricData;
+
+/**
+ * Collects counters and latency histograms for hot paths of the platform.
+ * 
+ * Metrics are qualified by the tenant of the current thread (see
+ * {@link org.mifosplatform.infrastructure.core.service.ThreadLocalContextUtil}
+ * ), so callers only pass the metric name, path template and method. Command
+ * metrics use the command entity and action in place of path and method.
+ */
+public interface MetricsRegistry {
+
+    String HTTP_REQUESTS = "http.requests";
+    String HTTP_REQUEST_ERRORS = "http.requests.errors";
+    String JDBC_POOL_WAIT = "jdbc.pool.wait";
+    String COMMANDS = "commands";
+    String COMMAND_ERRORS = "commands.errors";
+
+    void recordLatency(String name, String pathTemplate, String method, long durationNanos);
+
+    void incrementCounter(String name, String pathTemplate, String method);
+
+    Collection<MetricData> retrieveAll();
+
+    Collection<MetricData> retrieveAllForTenant(String tenantIdentifier);
+}
@@ -0,0 +1,122 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.metrics.service;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.mifosplatform.infrastructure.core.serialization.ToApiJsonSerializer;
+import org.mifosplatform.infrastructure.documentmanagement.contentrepository.FileSystemContentRepository;
+import org.mifosplatform.infrastructure.metrics.data.MetricData;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+/**
+ * Periodically dumps a snapshot of all metrics to
+ * <code>~/.LMS/metrics/metrics-snapshot.json</code> so they survive restarts
+ * and can be collected without calling the API.
+ */
+@Service
+public class MetricsSnapshotWriter {
+
+    private final static Logger logger = LoggerFactory.getLogger(MetricsSnapshotWriter.class);
+
+    private static final long SNAPSHOT_INTERVAL_SECONDS = 60;
+    private static final String SNAPSHOT_DIRECTORY = FileSystemContentRepository.MIFOSX_BASE_DIR + File.separator + "metrics";
+    private static final String SNAPSHOT_FILE_NAME = "metrics-snapshot.json";
+
+    private final MetricsRegistry metricsRegistry;
+    private final ToApiJsonSerializer<MetricData> toApiJsonSerializer;
+    private ScheduledExecutorService executorService;
+
+    @Autowired
+    public MetricsSnapshotWriter(final MetricsRegistry metricsRegistry, final ToApiJsonSerializer<MetricData> toApiJsonSerializer) {
+        this.metricsRegistry = metricsRegistry;
+        this.toApiJsonSerializer = toApiJsonSerializer;
+    }
+
+    @PostConstruct
+    public void start() {
+        this.executorService = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+
+            @Override
+            public Thread newThread(final Runnable runnable) {
+                final Thread thread = new Thread(runnable, "metrics-snapshot-writer");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        this.executorService.scheduleWithFixedDelay(new Runnable() {
+
+            @Override
+            public void run() {
+                writeSnapshot();
+            }
+        }, SNAPSHOT_INTERVAL_SECONDS, SNAPSHOT_INTERVAL_SECONDS, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (this.executorService != null) {
+            this.executorService.shutdownNow();
+        }
+        writeSnapshot();
+    }
+
+    public void writeSnapshot() {
+        final Map<String, Object> snapshot = new LinkedHashMap<String, Object>();
+        snapshot.put("timestamp", new Date());
+        snapshot.put("metrics", this.metricsRegistry.retrieveAll());
+
+        final File directory = new File(SNAPSHOT_DIRECTORY);
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            logger.warn("Unable to create metrics snapshot directory " + SNAPSHOT_DIRECTORY);
+            return;
+        }
+
+        // write to a temporary file first so readers never see a partial dump
+        final File temporaryFile = new File(directory, SNAPSHOT_FILE_NAME + ".tmp");
+        final File snapshotFile = new File(directory, SNAPSHOT_FILE_NAME);
+        Writer writer = null;
+        try {
+            writer = new OutputStreamWriter(new FileOutputStream(temporaryFile), "UTF-8");
+            writer.write(this.toApiJsonSerializer.serialize(snapshot));
+            writer.close();
+            writer = null;
+            if (!temporaryFile.renameTo(snapshotFile)) {
+                snapshotFile.delete();
+                if (!temporaryFile.renameTo(snapshotFile)) {
+                    logger.warn("Unable to replace metrics snapshot " + snapshotFile.getAbsolutePath());
+                }
+            }
+        } catch (final IOException e) {
+            logger.warn("Unable to write metrics snapshot " + snapshotFile.getAbsolutePath(), e);
+        } finally {
+            if (writer != null) {
+                try {
+                    writer.close();
+                } catch (final IOException e) {
+                    // nothing more to do
+                }
+            }
+        }
+    }
+}
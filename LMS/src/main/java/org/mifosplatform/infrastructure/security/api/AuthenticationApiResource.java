@@ -17,7 +17,9 @@ import javax.ws.rs.core.MediaType;
 
 import org.mifosplatform.infrastructure.core.data.EnumOptionData;
 import org.mifosplatform.infrastructure.core.serialization.ToApiJsonSerializer;
+import org.mifosplatform.infrastructure.core.service.ThreadLocalContextUtil;
 import org.mifosplatform.infrastructure.security.data.AuthenticatedUserData;
+import org.mifosplatform.infrastructure.security.service.AccessTokenService;
 import org.mifosplatform.useradministration.data.RoleData;
 import org.mifosplatform.useradministration.domain.AppUser;
 import org.mifosplatform.useradministration.domain.Role;
@@ -39,13 +41,15 @@ public class AuthenticationApiResource {
 
     private final DaoAuthenticationProvider customAuthenticationProvider;
     private final ToApiJsonSerializer<AuthenticatedUserData> apiJsonSerializerService;
+    private final AccessTokenService accessTokenService;
 
     @Autowired
     public AuthenticationApiResource(
             @Qualifier("customAuthenticationProvider") final DaoAuthenticationProvider customAuthenticationProvider,
-            final ToApiJsonSerializer<AuthenticatedUserData> apiJsonSerializerService) {
+            final ToApiJsonSerializer<AuthenticatedUserData> apiJsonSerializerService, final AccessTokenService accessTokenService) {
         this.customAuthenticationProvider = customAuthenticationProvider;
         this.apiJsonSerializerService = apiJsonSerializerService;
+        this.accessTokenService = accessTokenService;
     }
 
     @POST
@@ -80,8 +84,13 @@ public class AuthenticationApiResource {
 
             final EnumOptionData organisationalRole = principal.organisationalRoleData();
 
+            // clients can send this as 'Authorization: Bearer <token>' instead
+            // of basic auth credentials on subsequent requests
+            final String accessToken = this.accessTokenService.createAccessToken(ThreadLocalContextUtil.getTenant().getTenantIdentifier(),
+                    principal.getId(), principal.getUsername());
+
             authenticatedUserData = new AuthenticatedUserData(username, officeId, officeName, staffId, staffDisplayName,
-                    organisationalRole, roles, permissions, principal.getId(), new String(base64EncodedAuthenticationKey));
+                    organisationalRole, roles, permissions, principal.getId(), new String(base64EncodedAuthenticationKey), accessToken);
         }
 
         return this.apiJsonSerializerService.serialize(authenticatedUserData);
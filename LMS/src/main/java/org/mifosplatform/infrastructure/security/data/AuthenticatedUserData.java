@@ -22,6 +22,8 @@ public class AuthenticatedUserData {
     @SuppressWarnings("unused")
     private final String base64EncodedAuthenticationKey;
     @SuppressWarnings("unused")
+    private final String accessToken;
+    @SuppressWarnings("unused")
     private final boolean authenticated;
     @SuppressWarnings("unused")
     private final Long officeId;
@@ -42,6 +44,7 @@ public class AuthenticatedUserData {
         this.username = username;
         this.userId = null;
         this.base64EncodedAuthenticationKey = null;
+        this.accessToken = null;
         this.authenticated = false;
         this.officeId = null;
         this.officeName = null;
@@ -54,7 +57,8 @@ public class AuthenticatedUserData {
 
     public AuthenticatedUserData(final String username, final Long officeId, final String officeName, final Long staffId,
             final String staffDisplayName, final EnumOptionData organisationalRole, final Collection<RoleData> roles,
-            final Collection<String> permissions, final Long userId, final String base64EncodedAuthenticationKey) {
+            final Collection<String> permissions, final Long userId, final String base64EncodedAuthenticationKey,
+            final String accessToken) {
         this.username = username;
         this.officeId = officeId;
         this.officeName = officeName;
@@ -63,6 +67,7 @@ public class AuthenticatedUserData {
         this.organisationalRole = organisationalRole;
         this.userId = userId;
         this.base64EncodedAuthenticationKey = base64EncodedAuthenticationKey;
+        this.accessToken = accessToken;
         this.authenticated = true;
         this.roles = roles;
         this.permissions = permissions;
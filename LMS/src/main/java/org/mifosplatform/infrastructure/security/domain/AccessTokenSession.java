@@ -0,0 +1,41 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.security.domain;
+
+/**
+ * An authenticated session identified by an opaque access token, held in
+ * memory only.
+ */
+public final class AccessTokenSession {
+
+    private final String tenantIdentifier;
+    private final Long userId;
+    private final String username;
+    private final long createdMillis;
+
+    public AccessTokenSession(final String tenantIdentifier, final Long userId, final String username, final long createdMillis) {
+        this.tenantIdentifier = tenantIdentifier;
+        this.userId = userId;
+        this.username = username;
+        this.createdMillis = createdMillis;
+    }
+
+    public boolean isForTenant(final String tenantIdentifier) {
+        return this.tenantIdentifier.equals(tenantIdentifier);
+    }
+
+    public boolean isForUser(final String tenantIdentifier, final Long userId) {
+        return isForTenant(tenantIdentifier) && this.userId.equals(userId);
+    }
+
+    public boolean isOlderThan(final long maximumAgeMillis, final long nowMillis) {
+        return nowMillis - this.createdMillis > maximumAgeMillis;
+    }
+
+    public String getUsername() {
+        return this.username;
+    }
+}
@@ -19,8 +19,10 @@ import org.mifosplatform.infrastructure.cache.domain.CacheType;
 import org.mifosplatform.infrastructure.cache.service.CacheWritePlatformService;
 import org.mifosplatform.infrastructure.configuration.domain.ConfigurationDomainService;
 import org.mifosplatform.infrastructure.core.domain.MifosPlatformTenant;
+import org.mifosplatform.infrastructure.core.filters.ResourcePathTemplateFilter;
 import org.mifosplatform.infrastructure.core.serialization.ToApiJsonSerializer;
 import org.mifosplatform.infrastructure.core.service.ThreadLocalContextUtil;
+import org.mifosplatform.infrastructure.metrics.service.MetricsRegistry;
 import org.mifosplatform.infrastructure.security.data.PlatformRequestLog;
 import org.mifosplatform.infrastructure.security.exception.InvalidTenantIdentiferException;
 import org.mifosplatform.infrastructure.security.service.BasicAuthTenantDetailsService;
@@ -58,6 +60,7 @@ public class TenantAwareBasicAuthenticationFilter extends BasicAuthenticationFil
     private final ToApiJsonSerializer<PlatformRequestLog> toApiJsonSerializer;
     private final ConfigurationDomainService configurationDomainService;
     private final CacheWritePlatformService cacheWritePlatformService;
+    private final MetricsRegistry metricsRegistry;
 
     private final String tenantRequestHeader = "X-Mifos-Platform-TenantId";
     private final boolean exceptionIfHeaderMissing = true;
@@ -66,12 +69,13 @@ public class TenantAwareBasicAuthenticationFilter extends BasicAuthenticationFil
     public TenantAwareBasicAuthenticationFilter(final AuthenticationManager authenticationManager,
             final AuthenticationEntryPoint authenticationEntryPoint, final BasicAuthTenantDetailsService basicAuthTenantDetailsService,
             final ToApiJsonSerializer<PlatformRequestLog> toApiJsonSerializer, final ConfigurationDomainService configurationDomainService,
-            final CacheWritePlatformService cacheWritePlatformService) {
+            final CacheWritePlatformService cacheWritePlatformService, final MetricsRegistry metricsRegistry) {
         super(authenticationManager, authenticationEntryPoint);
         this.basicAuthTenantDetailsService = basicAuthTenantDetailsService;
         this.toApiJsonSerializer = toApiJsonSerializer;
         this.configurationDomainService = configurationDomainService;
         this.cacheWritePlatformService = cacheWritePlatformService;
+        this.metricsRegistry = metricsRegistry;
     }
 
     @Override
@@ -82,6 +86,7 @@ public class TenantAwareBasicAuthenticationFilter extends BasicAuthenticationFil
 
         final StopWatch task = new StopWatch();
         task.start();
+        final long startNanos = System.nanoTime();
 
         try {
 
@@ -123,9 +128,25 @@ public class TenantAwareBasicAuthenticationFilter extends BasicAuthenticationFil
             response.addHeader("WWW-Authenticate", "Basic realm=\"" + "Mifos Platform API" + "\"");
             response.sendError(HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
         } finally {
+            recordRequestMetrics(request, System.nanoTime() - startNanos);
             task.stop();
             final PlatformRequestLog log = PlatformRequestLog.from(task, request);
             logger.info(this.toApiJsonSerializer.serialize(log));
         }
     }
-}
\ No newline at end of file
+
+    private void recordRequestMetrics(final HttpServletRequest request, final long durationNanos) {
+        String pathTemplate = (String) request.getAttribute(ResourcePathTemplateFilter.PATH_TEMPLATE_ATTRIBUTE);
+        if (pathTemplate == null) {
+            // not matched to a resource, avoid one series per raw url
+            pathTemplate = "unmatched";
+        }
+        final String method = request.getMethod();
+        this.metricsRegistry.recordLatency(MetricsRegistry.HTTP_REQUESTS, pathTemplate, method, durationNanos);
+
+        final Integer status = (Integer) request.getAttribute(ResourcePathTemplateFilter.RESPONSE_STATUS_ATTRIBUTE);
+        if (status != null && status.intValue() >= 400) {
+            this.metricsRegistry.incrementCounter(MetricsRegistry.HTTP_REQUEST_ERRORS, pathTemplate, method);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.security.filter;
+
+import java.io.IOException;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.mifosplatform.infrastructure.core.domain.MifosPlatformTenant;
+import org.mifosplatform.infrastructure.core.service.ThreadLocalContextUtil;
+import org.mifosplatform.infrastructure.security.domain.AccessTokenSession;
+import org.mifosplatform.infrastructure.security.service.AccessTokenService;
+import org.mifosplatform.infrastructure.security.service.PlatformUserDetailsService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.web.AuthenticationEntryPoint;
+import org.springframework.stereotype.Service;
+import org.springframework.web.filter.GenericFilterBean;
+
+/**
+ * Authenticates requests that carry an access token issued by
+ * <code>/authentication</code> in an <code>Authorization: Bearer</code>
+ * header.
+ * 
+ * Runs after {@link TenantAwareBasicAuthenticationFilter} so the tenant of the
+ * request is already known. The token is looked up in memory and the user is
+ * resolved through the (cached) user details service, so no password hashing
+ * takes place. Requests with basic auth credentials are left untouched.
+ */
+@Service(value = "tokenAuthenticationProcessingFilter")
+public class TenantAwareTokenAuthenticationFilter extends GenericFilterBean {
+
+    private static final String AUTHORIZATION_HEADER = "Authorization";
+    private static final String TOKEN_SCHEME = "Bearer ";
+
+    private final AccessTokenService accessTokenService;
+    private final PlatformUserDetailsService userDetailsService;
+    private final AuthenticationEntryPoint authenticationEntryPoint;
+
+    @Autowired
+    public TenantAwareTokenAuthenticationFilter(final AccessTokenService accessTokenService,
+            final PlatformUserDetailsService userDetailsService, final AuthenticationEntryPoint authenticationEntryPoint) {
+        this.accessTokenService = accessTokenService;
+        this.userDetailsService = userDetailsService;
+        this.authenticationEntryPoint = authenticationEntryPoint;
+    }
+
+    @Override
+    public void doFilter(final ServletRequest req, final ServletResponse res, final FilterChain chain) throws IOException, ServletException {
+
+        final HttpServletRequest request = (HttpServletRequest) req;
+        final HttpServletResponse response = (HttpServletResponse) res;
+
+        final String header = request.getHeader(AUTHORIZATION_HEADER);
+        if (header != null && header.regionMatches(true, 0, TOKEN_SCHEME, 0, TOKEN_SCHEME.length())
+                && SecurityContextHolder.getContext().getAuthentication() == null) {
+
+            final String accessToken = header.substring(TOKEN_SCHEME.length()).trim();
+            final UserDetails user = authenticatedUser(accessToken);
+            if (user == null) {
+                SecurityContextHolder.clearContext();
+                this.authenticationEntryPoint.commence(request, response, new BadCredentialsException(
+                        "Access token is invalid or has expired"));
+                return;
+            }
+
+            final UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(user, null,
+                    user.getAuthorities());
+            SecurityContextHolder.getContext().setAuthentication(authentication);
+        }
+
+        chain.doFilter(req, res);
+    }
+
+    private UserDetails authenticatedUser(final String accessToken) {
+        final MifosPlatformTenant tenant = ThreadLocalContextUtil.getTenant();
+        if (tenant == null) { return null; }
+
+        final AccessTokenSession session = this.accessTokenService.retrieveSession(accessToken, tenant.getTenantIdentifier());
+        if (session == null) { return null; }
+
+        try {
+            final UserDetails user = this.userDetailsService.loadUserByUsername(session.getUsername());
+            if (user.isEnabled() && user.isAccountNonLocked() && user.isAccountNonExpired() && user.isCredentialsNonExpired()) { return user; }
+        } catch (final UsernameNotFoundException e) {
+            // user was removed since the token was issued
+        }
+
+        this.accessTokenService.invalidateAccessToken(accessToken);
+        return null;
+    }
+}
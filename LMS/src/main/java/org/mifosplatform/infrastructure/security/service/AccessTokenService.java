@@ -0,0 +1,25 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.security.service;
+
+import org.mifosplatform.infrastructure.security.domain.AccessTokenSession;
+
+public interface AccessTokenService {
+
+    String createAccessToken(String tenantIdentifier, Long userId, String username);
+
+    /**
+     * Returns the session for the token, or <code>null</code> when the token
+     * is unknown, expired or was issued for another tenant.
+     */
+    AccessTokenSession retrieveSession(String accessToken, String tenantIdentifier);
+
+    void invalidateAccessToken(String accessToken);
+
+    void invalidateAccessTokensOfUser(String tenantIdentifier, Long userId);
+
+    void invalidateAccessTokensOfTenant(String tenantIdentifier);
+}
@@ -0,0 +1,107 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.security.service;
+
+import java.security.SecureRandom;
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+
+import org.mifosplatform.infrastructure.security.domain.AccessTokenSession;
+import org.springframework.stereotype.Service;
+
+import com.google.common.cache.Cache;
+import com.google.common.base.Ticker;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.io.BaseEncoding;
+
+/**
+ * Keeps access token sessions in a bounded in-memory cache.
+ * 
+ * Sessions expire after {@link #IDLE_TIMEOUT_MINUTES} without use and in any
+ * case {@link #ABSOLUTE_TIMEOUT_HOURS} after the token was issued. When more
+ * than {@link #MAXIMUM_SESSIONS} are active the least recently used ones are
+ * dropped and those users have to authenticate again.
+ */
+@Service
+public class AccessTokenServiceImpl implements AccessTokenService {
+
+    private static final long MAXIMUM_SESSIONS = 10000;
+    private static final long IDLE_TIMEOUT_MINUTES = 30;
+    private static final long ABSOLUTE_TIMEOUT_HOURS = 12;
+    private static final int TOKEN_LENGTH_IN_BYTES = 32;
+
+    private final SecureRandom random = new SecureRandom();
+    private final Ticker ticker;
+    private final Cache<String, AccessTokenSession> sessions;
+
+    public AccessTokenServiceImpl() {
+        this(Ticker.systemTicker());
+    }
+
+    /**
+     * @param ticker
+     *            source of the time both timeouts are measured in
+     */
+    AccessTokenServiceImpl(final Ticker ticker) {
+        this.ticker = ticker;
+        this.sessions = CacheBuilder.newBuilder().maximumSize(MAXIMUM_SESSIONS).expireAfterAccess(IDLE_TIMEOUT_MINUTES, TimeUnit.MINUTES)
+                .ticker(ticker).build();
+    }
+
+    @Override
+    public String createAccessToken(final String tenantIdentifier, final Long userId, final String username) {
+        final byte[] tokenBytes = new byte[TOKEN_LENGTH_IN_BYTES];
+        this.random.nextBytes(tokenBytes);
+        final String accessToken = BaseEncoding.base64Url().omitPadding().encode(tokenBytes);
+
+        this.sessions.put(accessToken, new AccessTokenSession(tenantIdentifier, userId, username, currentTimeMillis()));
+        return accessToken;
+    }
+
+    @Override
+    public AccessTokenSession retrieveSession(final String accessToken, final String tenantIdentifier) {
+        final AccessTokenSession session = this.sessions.getIfPresent(accessToken);
+        if (session == null) { return null; }
+
+        if (session.isOlderThan(TimeUnit.HOURS.toMillis(ABSOLUTE_TIMEOUT_HOURS), currentTimeMillis())) {
+            this.sessions.invalidate(accessToken);
+            return null;
+        }
+
+        if (!session.isForTenant(tenantIdentifier)) { return null; }
+
+        return session;
+    }
+
+    @Override
+    public void invalidateAccessToken(final String accessToken) {
+        this.sessions.invalidate(accessToken);
+    }
+
+    @Override
+    public void invalidateAccessTokensOfUser(final String tenantIdentifier, final Long userId) {
+        final Iterator<AccessTokenSession> iterator = this.sessions.asMap().values().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().isForUser(tenantIdentifier, userId)) {
+                iterator.remove();
+            }
+        }
+    }
+
+    @Override
+    public void invalidateAccessTokensOfTenant(final String tenantIdentifier) {
+        final Iterator<AccessTokenSession> iterator = this.sessions.asMap().values().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().isForTenant(tenantIdentifier)) {
+                iterator.remove();
+            }
+        }
+    }
+
+    private long currentTimeMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(this.ticker.read());
+    }
+}
@@ -11,7 +11,9 @@ import java.util.List;
 
 import javax.sql.DataSource;
 
+import org.mifosplatform.infrastructure.core.domain.JdbcSupport;
 import org.mifosplatform.infrastructure.core.domain.MifosPlatformTenant;
+import org.mifosplatform.infrastructure.core.domain.TenantConnectionPoolSettings;
 import org.mifosplatform.infrastructure.security.exception.InvalidTenantIdentiferException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
@@ -39,7 +41,10 @@ public class JdbcTenantDetailsService implements TenantDetailsService {
 
         private final StringBuilder sqlBuilder = new StringBuilder(
                 "id, name,identifier, schema_name as schemaName, schema_server as schemaServer, schema_server_port as schemaServerPort, auto_update as autoUpdate, ")//
-                .append(" schema_username as schemaUsername, schema_password as schemaPassword , timezone_id as timezoneId ")//
+                .append(" schema_username as schemaUsername, schema_password as schemaPassword , timezone_id as timezoneId, ")//
+                .append(" pool_initial_size as poolInitialSize, pool_min_idle as poolMinIdle, pool_max_idle as poolMaxIdle, ")//
+                .append(" pool_max_active as poolMaxActive, pool_max_wait as poolMaxWait, pool_test_on_borrow as poolTestOnBorrow, ")//
+                .append(" pool_validation_interval as poolValidationInterval ")//
                 .append(" from tenants t");//
 
         public String schema() {
@@ -60,8 +65,21 @@ public class JdbcTenantDetailsService implements TenantDetailsService {
             final String timezoneId = rs.getString("timezoneId");
             final boolean autoUpdateEnabled = rs.getBoolean("autoUpdate");
 
+            final Integer poolInitialSize = JdbcSupport.getInteger(rs, "poolInitialSize");
+            final Integer poolMinIdle = JdbcSupport.getInteger(rs, "poolMinIdle");
+            final Integer poolMaxIdle = JdbcSupport.getInteger(rs, "poolMaxIdle");
+            final Integer poolMaxActive = JdbcSupport.getInteger(rs, "poolMaxActive");
+            final Integer poolMaxWait = JdbcSupport.getInteger(rs, "poolMaxWait");
+            Boolean poolTestOnBorrow = rs.getBoolean("poolTestOnBorrow");
+            if (rs.wasNull()) {
+                poolTestOnBorrow = null;
+            }
+            final Integer poolValidationInterval = JdbcSupport.getInteger(rs, "poolValidationInterval");
+            final TenantConnectionPoolSettings connectionPoolSettings = new TenantConnectionPoolSettings(poolInitialSize, poolMinIdle,
+                    poolMaxIdle, poolMaxActive, poolMaxWait, poolTestOnBorrow, poolValidationInterval);
+
             return new MifosPlatformTenant(id, tenantIdentifier, name, schemaName, schemaServer, schemaServerPort, schemaUsername,
-                    schemaPassword, timezoneId, autoUpdateEnabled);
+                    schemaPassword, timezoneId, autoUpdateEnabled, connectionPoolSettings);
         }
     }
 
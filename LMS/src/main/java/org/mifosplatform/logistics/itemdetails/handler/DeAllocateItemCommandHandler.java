@@ -5,9 +5,7 @@ import org.mifosplatform.infrastructure.core.api.JsonCommand;
 import org.mifosplatform.infrastructure.core.data.CommandProcessingResult;
 import org.mifosplatform.logistics.itemdetails.service.ItemDetailsWritePlatformService;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.stereotype.Service;
 
-@Service
 public class DeAllocateItemCommandHandler implements NewCommandSourceHandler{
 
 	private ItemDetailsWritePlatformService inventoryItemDetailsWritePlatformService;
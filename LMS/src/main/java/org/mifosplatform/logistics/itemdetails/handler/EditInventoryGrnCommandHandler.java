@@ -1,5 +1,6 @@
 package org.mifosplatform.logistics.itemdetails.handler;
 
+import org.mifosplatform.commands.annotation.CommandType;
 import org.mifosplatform.commands.handler.NewCommandSourceHandler;
 import org.mifosplatform.infrastructure.core.api.JsonCommand;
 import org.mifosplatform.infrastructure.core.data.CommandProcessingResult;
@@ -7,6 +8,7 @@ import org.mifosplatform.logistics.grn.service.GrnDetailsWritePlatformService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+@CommandType(entity = "GRN", action = "UPDATE", resourceIdRequired = false)
 @Service
 public class EditInventoryGrnCommandHandler implements NewCommandSourceHandler{
 
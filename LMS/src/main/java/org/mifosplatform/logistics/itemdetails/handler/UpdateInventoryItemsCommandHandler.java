@@ -5,6 +5,7 @@
  */
 package org.mifosplatform.logistics.itemdetails.handler;
 
+import org.mifosplatform.commands.annotation.CommandType;
 import org.mifosplatform.commands.handler.NewCommandSourceHandler;
 import org.mifosplatform.infrastructure.core.api.JsonCommand;
 import org.mifosplatform.infrastructure.core.data.CommandProcessingResult;
@@ -14,6 +15,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+@CommandType(entity = "INVENTORY", action = "UPDATE", resourceIdRequired = false)
 @Service
 public class UpdateInventoryItemsCommandHandler implements NewCommandSourceHandler {
 
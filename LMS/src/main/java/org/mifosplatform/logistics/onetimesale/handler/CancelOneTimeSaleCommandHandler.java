@@ -6,10 +6,8 @@ import org.mifosplatform.infrastructure.core.api.JsonCommand;
 import org.mifosplatform.infrastructure.core.data.CommandProcessingResult;
 import org.mifosplatform.logistics.onetimesale.service.OneTimeSaleWritePlatformService;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-@Service
 public class CancelOneTimeSaleCommandHandler implements NewCommandSourceHandler {
 
     private final OneTimeSaleWritePlatformService writePlatformService;
@@ -1,6 +1,7 @@
 
 package org.mifosplatform.logistics.onetimesale.handler;
 
+import org.mifosplatform.commands.annotation.CommandType;
 import org.mifosplatform.commands.handler.NewCommandSourceHandler;
 import org.mifosplatform.infrastructure.core.api.JsonCommand;
 import org.mifosplatform.infrastructure.core.data.CommandProcessingResult;
@@ -9,6 +10,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+@CommandType(entity = { "DEVICERENTAL", "NEWSALE", "SECONDSALE" }, action = "CREATE")
 @Service
 public class CreateOneTimeSaleCommandHandler implements NewCommandSourceHandler {
 
@@ -5,10 +5,8 @@ import org.mifosplatform.infrastructure.core.api.JsonCommand;
 import org.mifosplatform.infrastructure.core.data.CommandProcessingResult;
 import org.mifosplatform.logistics.ownedhardware.service.OwnedHardwareWritePlatformService;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-@Service
 public class CreateOwnedHardwareCommandHandler implements NewCommandSourceHandler {
 
 	
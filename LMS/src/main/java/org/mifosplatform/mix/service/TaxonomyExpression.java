@@ -0,0 +1,217 @@
+package org.mifosplatform.mix.service;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.Map;
+
+import org.mifosplatform.mix.exception.XBRLMappingInvalidException;
+
+/**
+ * Compiled form of a taxonomy mapping expression such as
+ * <code>{12000}+{11000}-({21000}*0.5)</code>, where <code>{glCode}</code>
+ * stands for the balance of the GL account with that code.
+ *
+ * Supports decimal numbers, <code>+ - * /</code>, unary minus and
+ * parentheses. Evaluation is exact over {@link BigDecimal}, except division
+ * which uses {@link MathContext#DECIMAL128}. A GL code without a balance
+ * counts as zero.
+ */
+public abstract class TaxonomyExpression {
+
+    public abstract BigDecimal evaluate(Map<String, BigDecimal> balances);
+
+    /**
+     * @throws XBRLMappingInvalidException
+     *             if the expression cannot be parsed
+     */
+    public static TaxonomyExpression compile(final String expression) {
+        return new Parser(expression).parse();
+    }
+
+    private static final class Constant extends TaxonomyExpression {
+
+        private final BigDecimal value;
+
+        Constant(final BigDecimal value) {
+            this.value = value;
+        }
+
+        @Override
+        public BigDecimal evaluate(@SuppressWarnings("unused") final Map<String, BigDecimal> balances) {
+            return this.value;
+        }
+    }
+
+    private static final class GLCodeReference extends TaxonomyExpression {
+
+        private final String glCode;
+
+        GLCodeReference(final String glCode) {
+            this.glCode = glCode;
+        }
+
+        @Override
+        public BigDecimal evaluate(final Map<String, BigDecimal> balances) {
+            final BigDecimal balance = balances.get(this.glCode);
+            return balance == null ? BigDecimal.ZERO : balance;
+        }
+    }
+
+    private static final class Negation extends TaxonomyExpression {
+
+        private final TaxonomyExpression operand;
+
+        Negation(final TaxonomyExpression operand) {
+            this.operand = operand;
+        }
+
+        @Override
+        public BigDecimal evaluate(final Map<String, BigDecimal> balances) {
+            return this.operand.evaluate(balances).negate();
+        }
+    }
+
+    private static final class BinaryOperation extends TaxonomyExpression {
+
+        private final char operator;
+        private final TaxonomyExpression left;
+        private final TaxonomyExpression right;
+
+        BinaryOperation(final char operator, final TaxonomyExpression left, final TaxonomyExpression right) {
+            this.operator = operator;
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        public BigDecimal evaluate(final Map<String, BigDecimal> balances) {
+            final BigDecimal leftValue = this.left.evaluate(balances);
+            final BigDecimal rightValue = this.right.evaluate(balances);
+            switch (this.operator) {
+                case '+':
+                    return leftValue.add(rightValue);
+                case '-':
+                    return leftValue.subtract(rightValue);
+                case '*':
+                    return leftValue.multiply(rightValue);
+                default:
+                    if (rightValue.signum() == 0) { throw new XBRLMappingInvalidException("Division by zero in mapping"); }
+                    return leftValue.divide(rightValue, MathContext.DECIMAL128);
+            }
+        }
+    }
+
+    /**
+     * Recursive descent parser for
+     *
+     * <pre>
+     * expression := term (('+' | '-') term)*
+     * term       := factor (('*' | '/') factor)*
+     * factor     := ('+' | '-') factor | number | '{' glCode '}' | '(' expression ')'
+     * </pre>
+     */
+    private static final class Parser {
+
+        private final String expression;
+        private int position;
+
+        Parser(final String expression) {
+            this.expression = expression == null ? "" : expression;
+        }
+
+        TaxonomyExpression parse() {
+            final TaxonomyExpression parsed = parseExpression();
+            skipWhitespace();
+            if (this.position < this.expression.length()) { throw invalid("Unexpected '" + this.expression.charAt(this.position) + "'"); }
+            return parsed;
+        }
+
+        private TaxonomyExpression parseExpression() {
+            TaxonomyExpression parsed = parseTerm();
+            while (true) {
+                final char operator = peek();
+                if (operator != '+' && operator != '-') { return parsed; }
+                this.position++;
+                parsed = new BinaryOperation(operator, parsed, parseTerm());
+            }
+        }
+
+        private TaxonomyExpression parseTerm() {
+            TaxonomyExpression parsed = parseFactor();
+            while (true) {
+                final char operator = peek();
+                if (operator != '*' && operator != '/') { return parsed; }
+                this.position++;
+                parsed = new BinaryOperation(operator, parsed, parseFactor());
+            }
+        }
+
+        private TaxonomyExpression parseFactor() {
+            final char next = peek();
+            if (next == '+') {
+                this.position++;
+                return parseFactor();
+            }
+            if (next == '-') {
+                this.position++;
+                return new Negation(parseFactor());
+            }
+            if (next == '(') {
+                this.position++;
+                final TaxonomyExpression parsed = parseExpression();
+                expect(')');
+                return parsed;
+            }
+            if (next == '{') {
+                this.position++;
+                final int end = this.expression.indexOf('}', this.position);
+                final String glCode = end < 0 ? "" : this.expression.substring(this.position, end).trim();
+                if (end < 0 || glCode.indexOf('{') >= 0) { throw invalid("Unterminated GL code"); }
+                if (glCode.length() == 0) { throw invalid("Empty GL code"); }
+                this.position = end + 1;
+                return new GLCodeReference(glCode);
+            }
+            if (Character.isDigit(next) || next == '.') { return parseNumber(); }
+            if (next == 0) { throw invalid("Unexpected end of mapping"); }
+            throw invalid("Unexpected '" + next + "'");
+        }
+
+        private TaxonomyExpression parseNumber() {
+            final int start = this.position;
+            while (this.position < this.expression.length()
+                    && (Character.isDigit(this.expression.charAt(this.position)) || this.expression.charAt(this.position) == '.')) {
+                this.position++;
+            }
+            try {
+                return new Constant(new BigDecimal(this.expression.substring(start, this.position)));
+            } catch (final NumberFormatException e) {
+                this.position = start;
+                throw invalid("Invalid number");
+            }
+        }
+
+        private void expect(final char expected) {
+            if (peek() != expected) { throw invalid("Expected '" + expected + "'"); }
+            this.position++;
+        }
+
+        /**
+         * @return the next non whitespace character without consuming it, or
+         *         <code>0</code> at the end of the expression
+         */
+        private char peek() {
+            skipWhitespace();
+            return this.position < this.expression.length() ? this.expression.charAt(this.position) : 0;
+        }
+
+        private void skipWhitespace() {
+            while (this.position < this.expression.length() && Character.isWhitespace(this.expression.charAt(this.position))) {
+                this.position++;
+            }
+        }
+
+        private XBRLMappingInvalidException invalid(final String message) {
+            return new XBRLMappingInvalidException(message + " at position " + this.position + " of mapping '" + this.expression + "'");
+        }
+    }
+}
@@ -4,22 +4,21 @@ import java.math.BigDecimal;
 import java.sql.Date;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
-import javax.script.ScriptEngine;
-import javax.script.ScriptEngineManager;
-import javax.script.ScriptException;
-
-import org.mifosplatform.infrastructure.core.service.RoutingDataSource;
+import org.mifosplatform.accounting.glbalance.service.GLBalanceReadPlatformService;
+import org.mifosplatform.infrastructure.core.service.ThreadLocalContextUtil;
 import org.mifosplatform.mix.data.MixTaxonomyData;
 import org.mifosplatform.mix.data.MixTaxonomyMappingData;
 import org.mifosplatform.mix.data.XBRLData;
 import org.mifosplatform.mix.exception.XBRLMappingInvalidException;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.jdbc.core.JdbcTemplate;
-import org.springframework.jdbc.support.rowset.SqlRowSet;
 import org.springframework.stereotype.Component;
 
 import com.google.gson.Gson;
@@ -27,19 +26,17 @@ import com.google.gson.Gson;
 @Component
 public class XBRLResultServiceImpl implements XBRLResultService {
 
-    private static final ScriptEngine SCRIPT_ENGINE = new ScriptEngineManager().getEngineByName("JavaScript");
-
     private final MixTaxonomyMappingReadPlatformService readTaxonomyMappingService;
     private final MixTaxonomyReadPlatformService readTaxonomyService;
-    private final JdbcTemplate jdbcTemplate;
-    private HashMap<String, BigDecimal> accountBalanceMap;
+    private final GLBalanceReadPlatformService glBalanceReadPlatformService;
+    private final ConcurrentMap<String, CompiledMapping> compiledMappings = new ConcurrentHashMap<String, CompiledMapping>();
 
     @Autowired
-    public XBRLResultServiceImpl(final RoutingDataSource dataSource,
+    public XBRLResultServiceImpl(final GLBalanceReadPlatformService glBalanceReadPlatformService,
             final MixTaxonomyMappingReadPlatformService readTaxonomyMappingService, final MixTaxonomyReadPlatformService readTaxonomyService) {
+        this.glBalanceReadPlatformService = glBalanceReadPlatformService;
         this.readTaxonomyMappingService = readTaxonomyMappingService;
         this.readTaxonomyService = readTaxonomyService;
-        this.jdbcTemplate = new JdbcTemplate(dataSource);
     }
 
     @Override
@@ -50,122 +47,56 @@ public class XBRLResultServiceImpl implements XBRLResultService {
         return new XBRLData(config, startDate, endDate, currency);
     }
 
-    @SuppressWarnings("unchecked")
     private HashMap<MixTaxonomyData, BigDecimal> retrieveTaxonomyConfig(final Date startDate, final Date endDate) {
         final MixTaxonomyMappingData taxonomyMapping = this.readTaxonomyMappingService.retrieveTaxonomyMapping();
         if (taxonomyMapping == null) { return null; }
         final String config = taxonomyMapping.getConfig();
         if (config != null) {
-            // <taxonomyId, mapping>
-            HashMap<String, String> configMap = new HashMap<String, String>();
-            configMap = new Gson().fromJson(config, configMap.getClass());
-            if (configMap == null) { return null; }
-            // <taxonomyId, value>
-            final HashMap<MixTaxonomyData, BigDecimal> resultMap = new HashMap<MixTaxonomyData, BigDecimal>();
-            setupBalanceMap(getAccountSql(startDate, endDate));
-            for (final Entry<String, String> entry : configMap.entrySet()) {
-                final BigDecimal value = processMappingString(entry.getValue());
-                if (value != null) {
-                    final MixTaxonomyData taxonomy = this.readTaxonomyService.retrieveOne(Long.parseLong(entry.getKey()));
-                    resultMap.put(taxonomy, value);
-                }
+            final CompiledMapping compiledMapping = compiledMappingFor(config);
+            if (compiledMapping == null) { return null; }
 
+            final Map<Long, MixTaxonomyData> taxonomies = new HashMap<Long, MixTaxonomyData>();
+            for (final MixTaxonomyData taxonomy : this.readTaxonomyService.retrieveAll()) {
+                taxonomies.put(taxonomy.getId(), taxonomy);
             }
-            return resultMap;
-        }
-        return null;
-    }
-
-    private String getAccountSql(final Date startDate, final Date endDate) {
-        final String sql = "select debits.glcode as 'glcode', debits.name as 'name', (ifnull(debits.debitamount,0)-ifnull(credits.creditamount,0)) as 'balance' "
-                + "from (select acc_gl_account.gl_code as 'glcode',name,sum(amount) as 'debitamount' "
-                + "from acc_gl_journal_entry,acc_gl_account "
-                + "where acc_gl_account.id = acc_gl_journal_entry.account_id "
-                + "and acc_gl_journal_entry.type_enum=2 " + "and acc_gl_journal_entry.entry_date <= "
-                + endDate
-                + " and acc_gl_journal_entry.entry_date > "
-                + startDate
-                +
-                // "and (acc_gl_journal_entry.office_id=${branch} or ${branch}=1) "
-                // +
-                " group by glcode "
-                + "order by glcode) debits "
-                + "LEFT OUTER JOIN "
-                + "(select acc_gl_account.gl_code as 'glcode',name,sum(amount) as 'creditamount' "
-                + "from acc_gl_journal_entry,acc_gl_account "
-                + "where acc_gl_account.id = acc_gl_journal_entry.account_id "
-                + "and acc_gl_journal_entry.type_enum=1 "
-                + "and acc_gl_journal_entry.entry_date <= "
-                + endDate
-                + " and acc_gl_journal_entry.entry_date > "
-                + startDate
-                +
-                // "and (acc_gl_journal_entry.office_id=${branch} or ${branch}=1) "
-                // +
-                " group by glcode "
-                + "order by glcode) credits "
-                + "on debits.glcode=credits.glcode "
-                + "union "
-                + "select credits.glcode as 'glcode', credits.name as 'name', (ifnull(debits.debitamount,0)-ifnull(credits.creditamount,0)) as 'balance' "
-                + "from (select acc_gl_account.gl_code as 'glcode',name,sum(amount) as 'debitamount' "
-                + "from acc_gl_journal_entry,acc_gl_account "
-                + "where acc_gl_account.id = acc_gl_journal_entry.account_id "
-                + "and acc_gl_journal_entry.type_enum=2 "
-                + "and acc_gl_journal_entry.entry_date <= "
-                + endDate
-                + " and acc_gl_journal_entry.entry_date > "
-                + startDate
-                +
-                // "and (acc_gl_journal_entry.office_id=${branch} or ${branch}=1) "
-                // +
-                " group by glcode "
-                + "order by glcode) debits "
-                + "RIGHT OUTER JOIN "
-                + "(select acc_gl_account.gl_code as 'glcode',name,sum(amount) as 'creditamount' "
-                + "from acc_gl_journal_entry,acc_gl_account "
-                + "where acc_gl_account.id = acc_gl_journal_entry.account_id "
-                + "and acc_gl_journal_entry.type_enum=1 "
-                + "and acc_gl_journal_entry.entry_date <= "
-                + endDate
-                + " and acc_gl_journal_entry.entry_date > " + startDate +
-                // "and (acc_gl_journal_entry.office_id=${branch} or ${branch}=1) "
-                // +
-                " group by name " + "order by glcode) credits " + "on debits.glcode=credits.glcode;";
-        return sql;
-    }
 
-    private void setupBalanceMap(final String sql) {
-        if (this.accountBalanceMap == null) {
-            this.accountBalanceMap = new HashMap<String, BigDecimal>();
-            final SqlRowSet rs = this.jdbcTemplate.queryForRowSet(sql);
-            while (rs.next()) {
-                this.accountBalanceMap.put(rs.getString("glcode"), rs.getBigDecimal("balance"));
+            // <glCode, net movement> for the period, from the daily balances
+            final Map<String, BigDecimal> balances = this.glBalanceReadPlatformService.retrieveNetMovementsByGLCode(startDate, endDate);
+            // <taxonomy, value>
+            final HashMap<MixTaxonomyData, BigDecimal> resultMap = new HashMap<MixTaxonomyData, BigDecimal>();
+            for (final Entry<Long, TaxonomyExpression> entry : compiledMapping.expressions.entrySet()) {
+                final MixTaxonomyData taxonomy = taxonomies.get(entry.getKey());
+                if (taxonomy == null) { throw new XBRLMappingInvalidException("Taxonomy " + entry.getKey() + " does not exist"); }
+                resultMap.put(taxonomy, entry.getValue().evaluate(balances));
             }
+            return resultMap;
         }
+        return null;
     }
 
-    // Calculate Taxonomy value from expression
-    private BigDecimal processMappingString(String mappingString) {
-        final ArrayList<String> glCodes = getGLCodes(mappingString);
-        for (final String glcode : glCodes) {
-
-            final BigDecimal balance = this.accountBalanceMap.get(glcode);
-            mappingString = mappingString.replaceAll("\\{" + glcode + "\\}", balance != null ? balance.toString() : "0");
-        }
-
-        // evaluate the expression
-        Float eval = 0f;
-        try {
-            final Number value = (Number) SCRIPT_ENGINE.eval(mappingString);
-            if (value != null) {
-                eval = value.floatValue();
-            }
-        } catch (final ScriptException e) {
-            e.printStackTrace();
-            throw new IllegalArgumentException(e.getMessage());
+    /**
+     * Mappings only change through the mapping API, so the compiled
+     * expressions of a tenant are reused for as long as its mapping config is
+     * unchanged.
+     */
+    @SuppressWarnings("unchecked")
+    private CompiledMapping compiledMappingFor(final String config) {
+        final String tenantIdentifier = ThreadLocalContextUtil.getTenant().getTenantIdentifier();
+        final CompiledMapping cached = this.compiledMappings.get(tenantIdentifier);
+        if (cached != null && cached.config.equals(config)) { return cached; }
+
+        // <taxonomyId, mapping>
+        HashMap<String, String> configMap = new HashMap<String, String>();
+        configMap = new Gson().fromJson(config, configMap.getClass());
+        if (configMap == null) { return null; }
+
+        final Map<Long, TaxonomyExpression> expressions = new LinkedHashMap<Long, TaxonomyExpression>();
+        for (final Entry<String, String> entry : configMap.entrySet()) {
+            expressions.put(Long.valueOf(entry.getKey()), TaxonomyExpression.compile(entry.getValue()));
         }
-
-        return new BigDecimal(eval);
+        final CompiledMapping compiled = new CompiledMapping(config, expressions);
+        this.compiledMappings.put(tenantIdentifier, compiled);
+        return compiled;
     }
 
     public ArrayList<String> getGLCodes(final String template) {
@@ -186,4 +117,15 @@ public class XBRLResultServiceImpl implements XBRLResultService {
         }
         return placeholders;
     }
-}
\ No newline at end of file
+
+    private static final class CompiledMapping {
+
+        private final String config;
+        private final Map<Long, TaxonomyExpression> expressions;
+
+        CompiledMapping(final String config, final Map<Long, TaxonomyExpression> expressions) {
+            this.config = config;
+            this.expressions = expressions;
+        }
+    }
+}
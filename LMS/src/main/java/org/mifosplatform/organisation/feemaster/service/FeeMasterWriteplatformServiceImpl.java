@@ -12,6 +12,7 @@ import org.mifosplatform.organisation.feemaster.domain.FeeMasterRepository;
 import org.mifosplatform.organisation.feemaster.exception.FeeMasterNotFoundException;
 import org.mifosplatform.organisation.feemaster.serialization.FeeMasterCommandFromApiJsonDeserializer;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 
@@ -65,6 +66,7 @@ public class FeeMasterWriteplatformServiceImpl implements FeeMasterWriteplatform
 
 
 	@Override
+	@CacheEvict(value = "loanProducts", allEntries = true)
 	public CommandProcessingResult updateFeeMaster(JsonCommand command) {
 
    	 try{
@@ -98,6 +100,7 @@ public class FeeMasterWriteplatformServiceImpl implements FeeMasterWriteplatform
 	
 	
 	@Override
+	@CacheEvict(value = "loanProducts", allEntries = true)
 	public CommandProcessingResult deleteFeeMaster(Long id) {
 		try{
 			this.context.authenticatedUser();
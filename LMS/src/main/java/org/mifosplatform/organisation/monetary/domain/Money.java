@@ -68,8 +68,7 @@ public class Money implements Comparable<Money> {
         this.inMultiplesOf = inMultiplesOf;
 
         final BigDecimal amountZeroed = defaultToZeroIfNull(amount);
-        final BigDecimal amountStripped = amountZeroed.stripTrailingZeros();
-        final BigDecimal amountScaled = amountStripped.setScale(this.currencyDigitsAfterDecimal, RoundingMode.HALF_EVEN);
+        final BigDecimal amountScaled = amountZeroed.setScale(this.currencyDigitsAfterDecimal, RoundingMode.HALF_EVEN);
 
         // round monetary amounts into multiplesof say 20/50.
         if (inMultiplesOf != null && this.currencyDigitsAfterDecimal == 0 && inMultiplesOf > 0 && amountScaled.doubleValue() > 0) {
@@ -228,7 +227,7 @@ public class Money implements Comparable<Money> {
     }
 
     public boolean isZero() {
-        return isEqualTo(Money.zero(getCurrency()));
+        return this.amount.signum() == 0;
     }
 
     public boolean isEqualTo(final Money other) {
@@ -248,7 +247,7 @@ public class Money implements Comparable<Money> {
     }
 
     public boolean isGreaterThanZero() {
-        return isGreaterThan(Money.zero(getCurrency()));
+        return this.amount.signum() > 0;
     }
 
     public boolean isLessThan(final Money other) {
@@ -256,7 +255,7 @@ public class Money implements Comparable<Money> {
     }
 
     public boolean isLessThanZero() {
-        return isLessThan(Money.zero(getCurrency()));
+        return this.amount.signum() < 0;
     }
 
     public String getCurrencyCode() {
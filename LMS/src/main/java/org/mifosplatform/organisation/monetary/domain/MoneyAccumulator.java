@@ -0,0 +1,139 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.organisation.monetary.domain;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Mutable running total of {@link Money} for loops that add up many amounts.
+ *
+ * The total is kept as a count of the currency's minor units (cents for two
+ * digits after the decimal) in a <code>long</code>, so adding to it allocates
+ * nothing. Each step rounds exactly as {@link Money#plus(Money)},
+ * {@link Money#plus(BigDecimal)} and their <code>minus</code> counterparts
+ * would, including rounding into multiples of the currency, and
+ * {@link #toMoney()} gives a {@link Money} of the same amount as the chain of
+ * those calls. Totals are expected to stay within the range of minor units a
+ * <code>long</code> holds exactly as a <code>double</code>, as the rounding
+ * into multiples in {@link Money} is done in <code>double</code>s.
+ */
+public final class MoneyAccumulator {
+
+    private final MonetaryCurrency currency;
+    private final int digitsAfterDecimal;
+    private final long inMultiplesOf;
+    private long minorUnits;
+
+    public static MoneyAccumulator zero(final MonetaryCurrency currency) {
+        return new MoneyAccumulator(currency);
+    }
+
+    public static MoneyAccumulator of(final Money money) {
+        final MoneyAccumulator accumulator = new MoneyAccumulator(money.getCurrency());
+        accumulator.minorUnits = accumulator.toMinorUnits(money.getAmount());
+        return accumulator;
+    }
+
+    private MoneyAccumulator(final MonetaryCurrency currency) {
+        this.currency = currency;
+        this.digitsAfterDecimal = currency.getDigitsAfterDecimal();
+        final Integer multiplesOf = currency.getCurrencyInMultiplesOf();
+        // as in Money, amounts are only rounded into multiples for currencies
+        // without a decimal part
+        this.inMultiplesOf = multiplesOf != null && multiplesOf > 0 && this.digitsAfterDecimal == 0 ? multiplesOf : 0;
+    }
+
+    public MoneyAccumulator plus(final Money money) {
+        checkCurrencyEqual(money);
+        return add(toMinorUnits(money.getAmount()));
+    }
+
+    public MoneyAccumulator plus(final BigDecimal amount) {
+        if (amount == null || amount.signum() == 0) { return this; }
+        if (amount.scale() <= this.digitsAfterDecimal) { return add(toMinorUnits(amount)); }
+
+        final BigDecimal total = BigDecimal.valueOf(this.minorUnits, this.digitsAfterDecimal).add(amount)
+                .setScale(this.digitsAfterDecimal, RoundingMode.HALF_EVEN);
+        if (total.unscaledValue().bitLength() > 63) { throw new ArithmeticException("Money total overflows"); }
+        this.minorUnits = roundIntoMultiples(total.unscaledValue().longValue());
+        return this;
+    }
+
+    public MoneyAccumulator minus(final Money money) {
+        checkCurrencyEqual(money);
+        return add(negate(toMinorUnits(money.getAmount())));
+    }
+
+    public MoneyAccumulator minus(final BigDecimal amount) {
+        if (amount == null || amount.signum() == 0) { return this; }
+        return plus(amount.negate());
+    }
+
+    public MoneyAccumulator reset() {
+        this.minorUnits = 0;
+        return this;
+    }
+
+    public boolean isZero() {
+        return this.minorUnits == 0;
+    }
+
+    public boolean isGreaterThanZero() {
+        return this.minorUnits > 0;
+    }
+
+    public boolean isLessThanZero() {
+        return this.minorUnits < 0;
+    }
+
+    public BigDecimal getAmount() {
+        return toMoney().getAmount();
+    }
+
+    public Money toMoney() {
+        return Money.of(this.currency, BigDecimal.valueOf(this.minorUnits, this.digitsAfterDecimal));
+    }
+
+    @Override
+    public String toString() {
+        return toMoney().toString();
+    }
+
+    private MoneyAccumulator add(final long minorUnitsToAdd) {
+        if (minorUnitsToAdd == 0) { return this; }
+        final long total = this.minorUnits + minorUnitsToAdd;
+        if (((this.minorUnits ^ total) & (minorUnitsToAdd ^ total)) < 0) { throw new ArithmeticException("Money total overflows"); }
+        this.minorUnits = roundIntoMultiples(total);
+        return this;
+    }
+
+    /**
+     * Rounds positive totals to the nearest multiple, halves going up, like
+     * the constructor of {@link Money} does.
+     */
+    private long roundIntoMultiples(final long total) {
+        if (this.inMultiplesOf == 0 || total <= 0) { return total; }
+        final long floor = total / this.inMultiplesOf * this.inMultiplesOf;
+        if (floor == total) { return total; }
+        final long ceiling = floor + this.inMultiplesOf;
+        return ceiling - total > total - floor ? floor : ceiling;
+    }
+
+    private long toMinorUnits(final BigDecimal amount) {
+        return amount.movePointRight(this.digitsAfterDecimal).longValueExact();
+    }
+
+    private static long negate(final long value) {
+        if (value == Long.MIN_VALUE) { throw new ArithmeticException("Money total overflows"); }
+        return -value;
+    }
+
+    private void checkCurrencyEqual(final Money money) {
+        if (!this.currency.getCode().equals(money.getCurrencyCode())) { throw new UnsupportedOperationException(
+                "currencies are different."); }
+    }
+}
@@ -1,5 +1,6 @@
 package org.mifosplatform.organisation.taxmapping.handler;
 
+import org.mifosplatform.commands.annotation.CommandType;
 import org.mifosplatform.organisation.taxmapping.service.TaxMapWritePlatformService;
 import org.mifosplatform.commands.handler.NewCommandSourceHandler;
 import org.mifosplatform.infrastructure.core.api.JsonCommand;
@@ -7,6 +8,7 @@ import org.mifosplatform.infrastructure.core.data.CommandProcessingResult;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+@CommandType(entity = "TAXMAPPING", action = "CREATE")
 @Service
 public class CreateTaxMapCommandHandler implements NewCommandSourceHandler{
 
@@ -1,5 +1,6 @@
 package org.mifosplatform.organisation.taxmapping.handler;
 
+import org.mifosplatform.commands.annotation.CommandType;
 import org.mifosplatform.commands.handler.NewCommandSourceHandler;
 import org.mifosplatform.infrastructure.core.api.JsonCommand;
 import org.mifosplatform.infrastructure.core.data.CommandProcessingResult;
@@ -7,6 +8,7 @@ import org.mifosplatform.organisation.taxmapping.service.TaxMapWritePlatformServ
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+@CommandType(entity = "LOANTAXMAPPING", action = "DELETEALL")
 @Service
 public class DeleteAllLoanTaxMapCommandHandler implements NewCommandSourceHandler  {
  
@@ -4,6 +4,7 @@ import java.math.BigDecimal;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 
 import org.joda.time.LocalDate;
@@ -12,6 +13,7 @@ import org.mifosplatform.infrastructure.core.service.RoutingDataSource;
 import org.mifosplatform.infrastructure.security.service.PlatformSecurityContext;
 import org.mifosplatform.organisation.taxmapping.data.TaxMapData;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.RowMapper;
@@ -40,6 +42,7 @@ public class TaxMapReadPlatformServiceImp implements TaxMapReadPlatformService {
 	 * based on charge code
 	 */
 	@Override
+	@Cacheable(value = "taxMaps", key = "T(org.mifosplatform.infrastructure.core.service.ThreadLocalContextUtil).getTenant().getTenantIdentifier().concat(#isNew+'tm')")
 	public List<TaxMapData> retriveTaxMapData(final boolean isNew) {
 
 		final TaxMapDataMapper mapper = new TaxMapDataMapper();
@@ -52,7 +55,7 @@ public class TaxMapReadPlatformServiceImp implements TaxMapReadPlatformService {
 		
 		sql += " order by tm.end_date asc ";
 		
-		return jdbcTemplate.query(sql,mapper,new Object[]{});
+		return Collections.unmodifiableList(jdbcTemplate.query(sql,mapper,new Object[]{}));
 	}
 
 	/* (non-Javadoc)
@@ -105,6 +108,7 @@ public class TaxMapReadPlatformServiceImp implements TaxMapReadPlatformService {
 	}
 
 	@Override
+	@Cacheable(value = "taxMaps", key = "T(org.mifosplatform.infrastructure.core.service.ThreadLocalContextUtil).getTenant().getTenantIdentifier().concat(#loanProductId+'lptm')")
 	public Collection<TaxMapData> retrieveLoanProductTaxes(Long loanProductId) {
 		
 		this.context.authenticatedUser();
@@ -112,7 +116,7 @@ public class TaxMapReadPlatformServiceImp implements TaxMapReadPlatformService {
 
         final String sql = "select " + tm.loanProductTaxSchema() + " where plt.product_loan_id=?";
 
-        return this.jdbcTemplate.query(sql, tm, new Object[] { loanProductId });
+        return Collections.unmodifiableList(this.jdbcTemplate.query(sql, tm, new Object[] { loanProductId }));
 	}
 	
 	}
@@ -26,6 +26,8 @@ import org.mifosplatform.portfolio.loanproduct.service.LoanProductReadPlatformSe
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -73,6 +75,9 @@ public class TaxMapWritePlatformServiceImp implements TaxMapWritePlatformService
 	 */
 	@Transactional
 	@Override
+	@Caching(evict = {
+	        @CacheEvict(value = "taxMaps", allEntries = true),
+	        @CacheEvict(value = "loanProducts", allEntries = true)})
 	public CommandProcessingResult createTaxMap(final JsonCommand command){
 		
 		TaxMap  taxmap = null;
@@ -131,6 +136,9 @@ public class TaxMapWritePlatformServiceImp implements TaxMapWritePlatformService
 	 */
 	@Transactional
 	@Override
+	@Caching(evict = {
+	        @CacheEvict(value = "taxMaps", allEntries = true),
+	        @CacheEvict(value = "loanProducts", allEntries = true)})
 	public CommandProcessingResult updateTaxMap(final JsonCommand command,final Long taxMapId){
 		TaxMap taxMap = null;
 		try{
@@ -1,5 +1,6 @@
 package org.mifosplatform.portfolio.asset.handler;
 
+import org.mifosplatform.commands.annotation.CommandType;
 import org.mifosplatform.commands.handler.NewCommandSourceHandler;
 import org.mifosplatform.infrastructure.core.api.JsonCommand;
 import org.mifosplatform.infrastructure.core.data.CommandProcessingResult;
@@ -7,6 +8,7 @@ import org.mifosplatform.portfolio.asset.service.AssetWritePlatformService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+@CommandType(entity = "ASSET", action = "DELETE")
 @Service
 public class DeleteAssetCommandHandler implements NewCommandSourceHandler{
 	private AssetWritePlatformService assetWritePlatformService;
@@ -9,6 +9,7 @@ import java.math.BigDecimal;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 
 import org.joda.time.MonthDay;
@@ -97,6 +98,7 @@ public class ChargeReadPlatformServiceImpl implements ChargeReadPlatformService
     }
 
     @Override
+    @Cacheable(value = "productCharges", key = "T(org.mifosplatform.infrastructure.core.service.ThreadLocalContextUtil).getTenant().getTenantIdentifier().concat(#loanProductId+'lpch')")
     public Collection<ChargeData> retrieveLoanProductCharges(final Long loanProductId) {
 
         this.context.authenticatedUser();
@@ -105,7 +107,7 @@ public class ChargeReadPlatformServiceImpl implements ChargeReadPlatformService
 
         final String sql = "select " + rm.loanProductChargeSchema() + " where c.is_deleted=0 and c.is_active=1 and plc.product_loan_id=?";
 
-        return this.jdbcTemplate.query(sql, rm, new Object[] { loanProductId });
+        return Collections.unmodifiableList(this.jdbcTemplate.query(sql, rm, new Object[] { loanProductId }));
     }
 @Override
     public List<BigDecimal> reteriveAmt(Long loanId){
@@ -245,6 +247,7 @@ public class ChargeReadPlatformServiceImpl implements ChargeReadPlatformService
     }
 
     @Override
+    @Cacheable(value = "productCharges", key = "T(org.mifosplatform.infrastructure.core.service.ThreadLocalContextUtil).getTenant().getTenantIdentifier().concat(#savingsProductId+'spch')")
     public Collection<ChargeData> retrieveSavingsProductCharges(final Long savingsProductId) {
         this.context.authenticatedUser();
 
@@ -253,7 +256,7 @@ public class ChargeReadPlatformServiceImpl implements ChargeReadPlatformService
         final String sql = "select " + rm.savingsProductChargeSchema()
                 + " where c.is_deleted=0 and c.is_active=1 and spc.savings_product_id=?";
 
-        return this.jdbcTemplate.query(sql, rm, new Object[] { savingsProductId });
+        return Collections.unmodifiableList(this.jdbcTemplate.query(sql, rm, new Object[] { savingsProductId }));
     }
 
 }
\ No newline at end of file
@@ -103,7 +103,10 @@ public class ClientReadPlatformServiceImpl implements ClientReadPlatformService
 //        }
 
         final StringBuilder sqlBuilder = new StringBuilder(200);
-        sqlBuilder.append("select SQL_CALC_FOUND_ROWS ");
+        sqlBuilder.append("select ");
+        if (!searchParameters.isKeysetPaginationRequested()) {
+            sqlBuilder.append("SQL_CALC_FOUND_ROWS ");
+        }
         sqlBuilder.append(this.clientMapper.schema());
         sqlBuilder.append(" where (o.hierarchy like ? or transferToOffice.hierarchy like ?) ");
 
@@ -113,6 +116,11 @@ public class ClientReadPlatformServiceImpl implements ClientReadPlatformService
             sqlBuilder.append(" and (").append(extraCriteria).append(")");
         }
 
+        if (searchParameters.isKeysetPaginationRequested()) {
+            return this.paginationHelper.fetchPage(this.jdbcTemplate, sqlBuilder.toString(), new Object[] { underHierarchySearchString,
+                    underHierarchySearchString }, "c.id", "id", searchParameters.getKeysetPageRequest(false), this.clientMapper);
+        }
+
         if (searchParameters.isOrderByRequested()) {
             sqlBuilder.append(" order by ").append(searchParameters.getOrderBy());
 
@@ -44,6 +44,8 @@ import org.mifosplatform.portfolio.note.domain.Note;
 import org.mifosplatform.portfolio.note.domain.NoteRepository;
 import org.mifosplatform.portfolio.savings.domain.SavingsAccount;
 import org.mifosplatform.portfolio.savings.domain.SavingsAccountRepository;
+import org.mifosplatform.portfolio.search.domain.SearchEntityType;
+import org.mifosplatform.portfolio.search.service.SearchIndexService;
 import org.mifosplatform.useradministration.domain.AppUser;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -68,6 +70,7 @@ public class ClientWritePlatformServiceJpaRepositoryImpl implements ClientWriteP
     private final CodeValueRepositoryWrapper codeValueRepository;
     private final LoanRepository loanRepository;
     private final SavingsAccountRepository savingsRepository;
+    private final SearchIndexService searchIndexService;
 
     @Autowired
     public ClientWritePlatformServiceJpaRepositoryImpl(final PlatformSecurityContext context,
@@ -75,7 +78,7 @@ public class ClientWritePlatformServiceJpaRepositoryImpl implements ClientWriteP
             final ClientDataValidator fromApiJsonDeserializer, final AccountNumberGeneratorFactory accountIdentifierGeneratorFactory,
             final GroupRepository groupRepository, final StaffRepositoryWrapper staffRepository,
             final CodeValueRepositoryWrapper codeValueRepository, final LoanRepository loanRepository,
-            final SavingsAccountRepository savingsRepository) {
+            final SavingsAccountRepository savingsRepository, final SearchIndexService searchIndexService) {
         this.context = context;
         this.clientRepository = clientRepository;
         this.officeRepository = officeRepository;
@@ -87,6 +90,7 @@ public class ClientWritePlatformServiceJpaRepositoryImpl implements ClientWriteP
         this.codeValueRepository = codeValueRepository;
         this.loanRepository = loanRepository;
         this.savingsRepository = savingsRepository;
+        this.searchIndexService = searchIndexService;
     }
 
     @Transactional
@@ -101,6 +105,7 @@ public class ClientWritePlatformServiceJpaRepositoryImpl implements ClientWriteP
         this.noteRepository.deleteInBatch(relatedNotes);
 
         this.clientRepository.delete(client);
+        this.searchIndexService.entityChanged(SearchEntityType.CLIENT, clientId);
 
         return new CommandProcessingResultBuilder() //
                 .withOfficeId(client.officeId()) //
@@ -170,6 +175,7 @@ public class ClientWritePlatformServiceJpaRepositoryImpl implements ClientWriteP
                 newClient.updateAccountNo(accountNoGenerator.generate());
                 this.clientRepository.save(newClient);
             }
+            this.searchIndexService.entityChanged(SearchEntityType.CLIENT, newClient.getId());
 
             return new CommandProcessingResultBuilder() //
                     .withCommandId(command.commandId()) //
@@ -211,6 +217,7 @@ public class ClientWritePlatformServiceJpaRepositoryImpl implements ClientWriteP
 
             if (!changes.isEmpty()) {
                 this.clientRepository.saveAndFlush(clientForUpdate);
+                this.searchIndexService.entityChanged(SearchEntityType.CLIENT, clientId);
             }
 
             return new CommandProcessingResultBuilder() //
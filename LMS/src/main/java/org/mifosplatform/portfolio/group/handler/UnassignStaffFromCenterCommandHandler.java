@@ -10,10 +10,8 @@ import org.mifosplatform.infrastructure.core.api.JsonCommand;
 import org.mifosplatform.infrastructure.core.data.CommandProcessingResult;
 import org.mifosplatform.portfolio.group.service.GroupingTypesWritePlatformService;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-@Service
 public class UnassignStaffFromCenterCommandHandler implements NewCommandSourceHandler {
 
     private final GroupingTypesWritePlatformService writePlatformService;
@@ -51,6 +51,8 @@ import org.mifosplatform.portfolio.note.domain.Note;
 import org.mifosplatform.portfolio.note.domain.NoteRepository;
 import org.mifosplatform.portfolio.savings.domain.SavingsAccount;
 import org.mifosplatform.portfolio.savings.domain.SavingsAccountRepository;
+import org.mifosplatform.portfolio.search.domain.SearchEntityType;
+import org.mifosplatform.portfolio.search.service.SearchIndexService;
 import org.mifosplatform.useradministration.domain.AppUser;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -77,6 +79,7 @@ public class GroupingTypesWritePlatformServiceJpaRepositoryImpl implements Group
     private final LoanRepository loanRepository;
     private final CodeValueRepositoryWrapper codeValueRepository;
     private final SavingsAccountRepository savingsRepository;
+    private final SearchIndexService searchIndexService;
 
     @Autowired
     public GroupingTypesWritePlatformServiceJpaRepositoryImpl(final PlatformSecurityContext context,
@@ -84,7 +87,7 @@ public class GroupingTypesWritePlatformServiceJpaRepositoryImpl implements Group
             final OfficeRepository officeRepository, final StaffRepositoryWrapper staffRepository, final NoteRepository noteRepository,
             final GroupLevelRepository groupLevelRepository, final GroupingTypesDataValidator fromApiJsonDeserializer,
             final LoanRepository loanRepository, final SavingsAccountRepository savingsRepository,
-            final CodeValueRepositoryWrapper codeValueRepository) {
+            final CodeValueRepositoryWrapper codeValueRepository, final SearchIndexService searchIndexService) {
         this.context = context;
         this.groupRepository = groupRepository;
         this.clientRepositoryWrapper = clientRepositoryWrapper;
@@ -96,6 +99,7 @@ public class GroupingTypesWritePlatformServiceJpaRepositoryImpl implements Group
         this.loanRepository = loanRepository;
         this.savingsRepository = savingsRepository;
         this.codeValueRepository = codeValueRepository;
+        this.searchIndexService = searchIndexService;
     }
 
     private CommandProcessingResult createGroupingType(final JsonCommand command, final GroupTypes groupingType, final Long centerId) {
@@ -150,6 +154,7 @@ public class GroupingTypesWritePlatformServiceJpaRepositoryImpl implements Group
             newGroup.generateHierarchy();
 
             this.groupRepository.saveAndFlush(newGroup);
+            this.searchIndexService.entityChanged(SearchEntityType.GROUP, newGroup.getId());
 
             return new CommandProcessingResultBuilder() //
                     .withCommandId(command.commandId()) //
@@ -324,6 +329,7 @@ public class GroupingTypesWritePlatformServiceJpaRepositoryImpl implements Group
              */
 
             this.groupRepository.saveAndFlush(groupForUpdate);
+            this.searchIndexService.entityChanged(SearchEntityType.GROUP, groupId);
 
             return new CommandProcessingResultBuilder() //
                     .withCommandId(command.commandId()) //
@@ -413,6 +419,7 @@ public class GroupingTypesWritePlatformServiceJpaRepositoryImpl implements Group
         this.noteRepository.deleteInBatch(relatedNotes);
 
         this.groupRepository.delete(groupForDelete);
+        this.searchIndexService.entityChanged(SearchEntityType.GROUP, groupId);
 
         return new CommandProcessingResultBuilder() //
                 .withOfficeId(groupForDelete.getId()) //
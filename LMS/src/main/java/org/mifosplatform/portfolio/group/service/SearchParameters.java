@@ -6,6 +6,8 @@
 package org.mifosplatform.portfolio.group.service;
 
 import org.apache.commons.lang.StringUtils;
+import org.mifosplatform.infrastructure.core.exception.UnrecognizedQueryParamException;
+import org.mifosplatform.infrastructure.core.service.KeysetPageRequest;
 
 public final class SearchParameters {
 
@@ -20,37 +22,58 @@ public final class SearchParameters {
     private final Integer limit;
     private final String orderBy;
     private final String sortOrder;
+    private final String cursor;
+    private final String totalCount;
 
     public static SearchParameters from(final String sqlSearch, final Long officeId, final String externalId, final String name,
             final String hierarchy) {
-        return new SearchParameters(sqlSearch, officeId, externalId, name, hierarchy, null, null, null, null, null, null);
+        return new SearchParameters(sqlSearch, officeId, externalId, name, hierarchy, null, null, null, null, null, null, null, null);
     }
 
     public static SearchParameters forClients(final String sqlSearch, final Long officeId, final String externalId,
             final String displayName, final String firstname, final String lastname, final String hierarchy, final Integer offset,
             final Integer limit, final String orderBy, final String sortOrder) {
+        return forClients(sqlSearch, officeId, externalId, displayName, firstname, lastname, hierarchy, offset, limit, orderBy, sortOrder,
+                null, null);
+    }
+
+    public static SearchParameters forClients(final String sqlSearch, final Long officeId, final String externalId,
+            final String displayName, final String firstname, final String lastname, final String hierarchy, final Integer offset,
+            final Integer limit, final String orderBy, final String sortOrder, final String cursor, final String totalCount) {
 
         final Integer maxLimitAllowed = getCheckedLimit(limit);
 
         return new SearchParameters(sqlSearch, officeId, externalId, displayName, hierarchy, firstname, lastname, offset, maxLimitAllowed,
-                orderBy, sortOrder);
+                orderBy, sortOrder, cursor, totalCount);
     }
 
     public static SearchParameters forGroups(final String sqlSearch, final Long officeId, final String externalId, final String name,
             final String hierarchy, final Integer offset, final Integer limit, final String orderBy, final String sortOrder) {
+        return forGroups(sqlSearch, officeId, externalId, name, hierarchy, offset, limit, orderBy, sortOrder, null, null);
+    }
+
+    public static SearchParameters forGroups(final String sqlSearch, final Long officeId, final String externalId, final String name,
+            final String hierarchy, final Integer offset, final Integer limit, final String orderBy, final String sortOrder,
+            final String cursor, final String totalCount) {
 
         final Integer maxLimitAllowed = getCheckedLimit(limit);
 
         return new SearchParameters(sqlSearch, officeId, externalId, name, hierarchy, null, null, offset, maxLimitAllowed, orderBy,
-                sortOrder);
+                sortOrder, cursor, totalCount);
     }
 
     public static SearchParameters forLoans(final String sqlSearch, final String externalId, final Integer offset, final Integer limit,
             final String orderBy, final String sortOrder) {
+        return forLoans(sqlSearch, externalId, offset, limit, orderBy, sortOrder, null, null);
+    }
+
+    public static SearchParameters forLoans(final String sqlSearch, final String externalId, final Integer offset, final Integer limit,
+            final String orderBy, final String sortOrder, final String cursor, final String totalCount) {
 
         final Integer maxLimitAllowed = getCheckedLimit(limit);
 
-        return new SearchParameters(sqlSearch, null, externalId, null, null, null, null, offset, maxLimitAllowed, orderBy, sortOrder);
+        return new SearchParameters(sqlSearch, null, externalId, null, null, null, null, offset, maxLimitAllowed, orderBy, sortOrder,
+                cursor, totalCount);
     }
 
     public static SearchParameters forJournalEntries(final Long officeId, final Integer offset, final Integer limit, final String orderBy,
@@ -58,19 +81,20 @@ public final class SearchParameters {
 
         final Integer maxLimitAllowed = getCheckedLimit(limit);
 
-        return new SearchParameters(null, officeId, null, null, null, null, null, offset, maxLimitAllowed, orderBy, sortOrder);
+        return new SearchParameters(null, officeId, null, null, null, null, null, offset, maxLimitAllowed, orderBy, sortOrder, null,
+                null);
     }
 
     public static SearchParameters forPagination(final Integer offset, final Integer limit, final String orderBy, final String sortOrder) {
 
         final Integer maxLimitAllowed = getCheckedLimit(limit);
 
-        return new SearchParameters(null, null, null, null, null, null, null, offset, maxLimitAllowed, orderBy, sortOrder);
+        return new SearchParameters(null, null, null, null, null, null, null, offset, maxLimitAllowed, orderBy, sortOrder, null, null);
     }
 
     private SearchParameters(final String sqlSearch, final Long officeId, final String externalId, final String name,
             final String hierarchy, final String firstname, final String lastname, final Integer offset, final Integer limit,
-            final String orderBy, final String sortOrder) {
+            final String orderBy, final String sortOrder, final String cursor, final String totalCount) {
         this.sqlSearch = sqlSearch;
         this.officeId = officeId;
         this.externalId = externalId;
@@ -82,6 +106,8 @@ public final class SearchParameters {
         this.limit = limit;
         this.orderBy = orderBy;
         this.sortOrder = sortOrder;
+        this.cursor = cursor;
+        this.totalCount = totalCount;
     }
 
     public boolean isOrderByRequested() {
@@ -108,6 +134,21 @@ public final class SearchParameters {
         return checkedLimit;
     }
 
+    /**
+     * Keyset pagination is used when the client passes a <code>cursor</code>
+     * (blank for the first page) instead of an offset.
+     */
+    public boolean isKeysetPaginationRequested() {
+        return this.cursor != null;
+    }
+
+    public KeysetPageRequest getKeysetPageRequest(final boolean descendingByDefault) {
+        // a keyset can only be seeked on the unique key it is ordered by
+        if (isOrderByRequested() && !"id".equalsIgnoreCase(this.orderBy.trim())) { throw new UnrecognizedQueryParamException("orderBy",
+                this.orderBy, "id"); }
+        return KeysetPageRequest.from(this.cursor, this.sortOrder, this.limit, this.totalCount, descendingByDefault);
+    }
+
     public boolean isOfficeIdPassed() {
         return this.officeId != null && this.officeId != 0;
     }
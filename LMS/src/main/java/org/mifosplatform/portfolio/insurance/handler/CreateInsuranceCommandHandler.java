@@ -1,11 +1,13 @@
 package org.mifosplatform.portfolio.insurance.handler;
 
+import org.mifosplatform.commands.annotation.CommandType;
 import org.mifosplatform.commands.handler.NewCommandSourceHandler;
 import org.mifosplatform.infrastructure.core.api.JsonCommand;
 import org.mifosplatform.infrastructure.core.data.CommandProcessingResult;
 import org.mifosplatform.portfolio.insurance.service.InsuranceWritePlatformService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+@CommandType(entity = "INSURANCE", action = "CREATE")
 @Service
 public class CreateInsuranceCommandHandler implements NewCommandSourceHandler {
 private InsuranceWritePlatformService insuranceWritePlatformService;
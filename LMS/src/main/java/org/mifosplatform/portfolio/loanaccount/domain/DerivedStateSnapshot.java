@@ -0,0 +1,173 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.portfolio.loanaccount.domain;
+
+import java.math.BigDecimal;
+import java.util.Date;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Copy of the amounts, flags and dates of a loan schedule entity taken while
+ * its transactions are processed, so that the processing can later resume
+ * from it instead of starting over. Parts of the entity, such as the
+ * installment charges of a loan charge, are keyed by installment number.
+ *
+ * Amounts are compared by value with <code>null</code> taken as zero, as the
+ * entities store zero amounts either way. The text form of a snapshot is
+ * stored with the replay checkpoints of a loan and follows the same rule, so
+ * that equal snapshots have equal text.
+ */
+public final class DerivedStateSnapshot {
+
+    private static final char FIELD_SEPARATOR = '/';
+    private static final char VALUE_SEPARATOR = ',';
+    private static final char PART_SEPARATOR = ';';
+    private static final char PART_KEY_SEPARATOR = '=';
+    private static final String NO_DATE = "-";
+
+    private final BigDecimal[] amounts;
+    private final boolean[] flags;
+    private final Date[] dates;
+    private final Map<Integer, DerivedStateSnapshot> parts;
+
+    DerivedStateSnapshot(final BigDecimal[] amounts, final boolean[] flags, final Date[] dates,
+            final Map<Integer, DerivedStateSnapshot> parts) {
+        this.amounts = amounts;
+        this.flags = flags;
+        this.dates = dates;
+        this.parts = parts == null ? new TreeMap<Integer, DerivedStateSnapshot>() : parts;
+    }
+
+    /**
+     * Reads a snapshot back from the text written by
+     * {@link #appendTo(StringBuilder)}.
+     */
+    public static DerivedStateSnapshot parse(final String text) {
+        final String[] partTexts = text.split(String.valueOf(PART_SEPARATOR), -1);
+        final Map<Integer, DerivedStateSnapshot> parts = new TreeMap<Integer, DerivedStateSnapshot>();
+        for (int i = 1; i < partTexts.length; i++) {
+            final int keyEnd = partTexts[i].indexOf(PART_KEY_SEPARATOR);
+            parts.put(Integer.valueOf(partTexts[i].substring(0, keyEnd)), parseFields(partTexts[i].substring(keyEnd + 1), null));
+        }
+        return parseFields(partTexts[0], parts);
+    }
+
+    private static DerivedStateSnapshot parseFields(final String text, final Map<Integer, DerivedStateSnapshot> parts) {
+        final String[] fields = text.split(String.valueOf(FIELD_SEPARATOR), -1);
+
+        final String[] amountTexts = split(fields[0]);
+        final BigDecimal[] amounts = new BigDecimal[amountTexts.length];
+        for (int i = 0; i < amountTexts.length; i++) {
+            amounts[i] = new BigDecimal(amountTexts[i]);
+        }
+        final boolean[] flags = new boolean[fields[1].length()];
+        for (int i = 0; i < flags.length; i++) {
+            flags[i] = fields[1].charAt(i) == '1';
+        }
+        final String[] dateTexts = split(fields[2]);
+        final Date[] dates = new Date[dateTexts.length];
+        for (int i = 0; i < dateTexts.length; i++) {
+            dates[i] = NO_DATE.equals(dateTexts[i]) ? null : new Date(Long.parseLong(dateTexts[i]));
+        }
+        return new DerivedStateSnapshot(amounts, flags, dates, parts);
+    }
+
+    private static String[] split(final String values) {
+        if (values.length() == 0) { return new String[0]; }
+        return values.split(String.valueOf(VALUE_SEPARATOR), -1);
+    }
+
+    BigDecimal amount(final int index) {
+        return this.amounts[index];
+    }
+
+    boolean flag(final int index) {
+        return this.flags[index];
+    }
+
+    Date date(final int index) {
+        return copyOf(this.dates[index]);
+    }
+
+    DerivedStateSnapshot part(final Integer installmentNumber) {
+        return this.parts.get(installmentNumber);
+    }
+
+    public boolean isSameAs(final DerivedStateSnapshot other) {
+        if (other == null || this.amounts.length != other.amounts.length || this.flags.length != other.flags.length
+                || this.dates.length != other.dates.length || this.parts.size() != other.parts.size()) { return false; }
+
+        for (int i = 0; i < this.amounts.length; i++) {
+            if (zeroIfNull(this.amounts[i]).compareTo(zeroIfNull(other.amounts[i])) != 0) { return false; }
+        }
+        for (int i = 0; i < this.flags.length; i++) {
+            if (this.flags[i] != other.flags[i]) { return false; }
+        }
+        for (int i = 0; i < this.dates.length; i++) {
+            if (!sameDate(this.dates[i], other.dates[i])) { return false; }
+        }
+        for (final Map.Entry<Integer, DerivedStateSnapshot> part : this.parts.entrySet()) {
+            if (!part.getValue().isSameAs(other.parts.get(part.getKey()))) { return false; }
+        }
+        return true;
+    }
+
+    /**
+     * Writes the snapshot as text, with each amount in its shortest form so
+     * that amounts of equal value are written the same.
+     */
+    public void appendTo(final StringBuilder text) {
+        appendFieldsTo(text);
+        for (final Map.Entry<Integer, DerivedStateSnapshot> part : this.parts.entrySet()) {
+            text.append(PART_SEPARATOR).append(part.getKey()).append(PART_KEY_SEPARATOR);
+            part.getValue().appendFieldsTo(text);
+        }
+    }
+
+    private void appendFieldsTo(final StringBuilder text) {
+        for (int i = 0; i < this.amounts.length; i++) {
+            if (i > 0) {
+                text.append(VALUE_SEPARATOR);
+            }
+            text.append(canonical(this.amounts[i]));
+        }
+        text.append(FIELD_SEPARATOR);
+        for (final boolean flag : this.flags) {
+            text.append(flag ? '1' : '0');
+        }
+        text.append(FIELD_SEPARATOR);
+        for (int i = 0; i < this.dates.length; i++) {
+            if (i > 0) {
+                text.append(VALUE_SEPARATOR);
+            }
+            text.append(this.dates[i] == null ? NO_DATE : String.valueOf(this.dates[i].getTime()));
+        }
+    }
+
+    /**
+     * @return the amount without trailing zeros, and zero for
+     *         <code>null</code>
+     */
+    public static String canonical(final BigDecimal amount) {
+        final BigDecimal value = zeroIfNull(amount);
+        if (value.signum() == 0) { return "0"; }
+        return value.stripTrailingZeros().toPlainString();
+    }
+
+    static Date copyOf(final Date date) {
+        return date == null ? null : new Date(date.getTime());
+    }
+
+    private static BigDecimal zeroIfNull(final BigDecimal value) {
+        return value == null ? BigDecimal.ZERO : value;
+    }
+
+    private static boolean sameDate(final Date first, final Date second) {
+        if (first == null || second == null) { return first == second; }
+        return first.getTime() == second.getTime();
+    }
+}
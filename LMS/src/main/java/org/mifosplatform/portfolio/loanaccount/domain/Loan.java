@@ -9,6 +9,7 @@ import java.math.BigDecimal;
 import java.math.MathContext;
 import java.math.RoundingMode;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
@@ -68,6 +69,7 @@ import org.mifosplatform.portfolio.group.domain.Group;
 import org.mifosplatform.portfolio.loanaccount.command.LoanChargeCommand;
 import org.mifosplatform.portfolio.loanaccount.command.LoanFeeMasterCommand;
 import org.mifosplatform.portfolio.loanaccount.data.LoanFeeMasterData;
+import org.mifosplatform.portfolio.loanaccount.domain.transactionprocessor.LoanReplayCheckpoints;
 import org.mifosplatform.portfolio.loanaccount.domain.transactionprocessor.LoanRepaymentScheduleTransactionProcessor;
 import org.mifosplatform.portfolio.loanaccount.exception.InvalidLoanStateTransitionException;
 import org.mifosplatform.portfolio.loanaccount.exception.InvalidLoanTransactionTypeException;
@@ -279,6 +281,9 @@ public class Loan extends AbstractPersistable<Long> {
     @Transient
     private LoanSummaryWrapper loanSummaryWrapper;
 
+    @OneToMany(cascade = CascadeType.ALL, mappedBy = "loan", orphanRemoval = true, fetch = FetchType.LAZY)
+    private List<LoanReplayCheckpoint> replayCheckpoints = new ArrayList<LoanReplayCheckpoint>();
+
     @Column(name = "residual_amount", nullable = true)
     private BigDecimal residualAmount;
     
@@ -461,8 +466,49 @@ public class Loan extends AbstractPersistable<Long> {
 
     public ChangedTransactionDetail addLoanCharge(final LoanCharge loanCharge, final List<Long> existingTransactionIds,
             final List<Long> existingReversedTransactionIds) {
+        return addLoanCharges(Arrays.asList(loanCharge), existingTransactionIds, existingReversedTransactionIds);
+    }
+
+    /**
+     * Adds the charges and reprocesses the repayment schedule and transactions
+     * once for all of them.
+     */
+    public ChangedTransactionDetail addLoanCharges(final List<LoanCharge> loanCharges, final List<Long> existingTransactionIds,
+            final List<Long> existingReversedTransactionIds) {
         ChangedTransactionDetail changedTransactionDetail = null;
 
+        boolean allDueAtDisbursement = true;
+        for (final LoanCharge loanCharge : loanCharges) {
+            addLoanChargeWithoutReprocessing(loanCharge);
+            allDueAtDisbursement = allDueAtDisbursement && loanCharge.isDueAtDisbursement();
+        }
+
+        final LoanRepaymentScheduleTransactionProcessor loanRepaymentScheduleTransactionProcessor = this.transactionProcessorFactory
+                .determineProcessor(this.transactionProcessingStrategy);
+
+        // store Id's of existing loan transactions and existing reversed loan
+        // transactions
+        existingTransactionIds.addAll(findExistingTransactionIds());
+        existingReversedTransactionIds.addAll(findExistingReversedTransactionIds());
+        final LoanRepaymentScheduleProcessingWrapper wrapper = new LoanRepaymentScheduleProcessingWrapper();
+        wrapper.reprocess(getCurrency(), getDisbursementDate(), this.repaymentScheduleInstallments, setOfLoanCharges());
+        if (!allDueAtDisbursement) {
+            final List<LoanTransaction> allNonContraTransactionsPostDisbursement = retreiveListOfTransactionsPostDisbursement();
+            changedTransactionDetail = loanRepaymentScheduleTransactionProcessor.handleTransaction(getDisbursementDate(),
+                    allNonContraTransactionsPostDisbursement, getCurrency(), this.repaymentScheduleInstallments, setOfLoanCharges(),
+                    new LoanReplayCheckpoints(this, this.replayCheckpoints));
+            for (final Map.Entry<Long, LoanTransaction> mapEntry : changedTransactionDetail.getNewTransactionMappings().entrySet()) {
+                mapEntry.getValue().updateLoan(this);
+            }
+            // this.loanTransactions.addAll(changedTransactionDetail.getNewTransactionMappings().values());
+        }
+
+        updateLoanSummaryDerivedFields();
+
+        return changedTransactionDetail;
+    }
+
+    private void addLoanChargeWithoutReprocessing(final LoanCharge loanCharge) {
         validateLoanIsNotClosed(loanCharge);
 
         if (isDisbursed() && loanCharge.isDueAtDisbursement()) {
@@ -508,29 +554,6 @@ public class Loan extends AbstractPersistable<Long> {
         // NOTE: must add new loan charge to set of loan charges before
         // reporcessing the repayment schedule.
         setOfLoanCharges().add(loanCharge);
-
-        final LoanRepaymentScheduleTransactionProcessor loanRepaymentScheduleTransactionProcessor = this.transactionProcessorFactory
-                .determineProcessor(this.transactionProcessingStrategy);
-
-        // store Id's of existing loan transactions and existing reversed loan
-        // transactions
-        existingTransactionIds.addAll(findExistingTransactionIds());
-        existingReversedTransactionIds.addAll(findExistingReversedTransactionIds());
-        final LoanRepaymentScheduleProcessingWrapper wrapper = new LoanRepaymentScheduleProcessingWrapper();
-        wrapper.reprocess(getCurrency(), getDisbursementDate(), this.repaymentScheduleInstallments, setOfLoanCharges());
-        if (!loanCharge.isDueAtDisbursement()) {
-            final List<LoanTransaction> allNonContraTransactionsPostDisbursement = retreiveListOfTransactionsPostDisbursement();
-            changedTransactionDetail = loanRepaymentScheduleTransactionProcessor.handleTransaction(getDisbursementDate(),
-                    allNonContraTransactionsPostDisbursement, getCurrency(), this.repaymentScheduleInstallments, setOfLoanCharges());
-            for (final Map.Entry<Long, LoanTransaction> mapEntry : changedTransactionDetail.getNewTransactionMappings().entrySet()) {
-                mapEntry.getValue().updateLoan(this);
-            }
-            // this.loanTransactions.addAll(changedTransactionDetail.getNewTransactionMappings().values());
-        }
-
-        updateLoanSummaryDerivedFields();
-
-        return changedTransactionDetail;
     }
 
     /**
@@ -667,7 +690,7 @@ public class Loan extends AbstractPersistable<Long> {
              ***/
             final List<LoanTransaction> allNonContraTransactionsPostDisbursement = retreiveListOfTransactionsPostDisbursement();
             loanRepaymentScheduleTransactionProcessor.handleTransaction(getDisbursementDate(), allNonContraTransactionsPostDisbursement,
-                    getCurrency(), this.repaymentScheduleInstallments, setOfLoanCharges());
+                    getCurrency(), this.repaymentScheduleInstallments, setOfLoanCharges(), new LoanReplayCheckpoints(this, this.replayCheckpoints));
         }
 
         updateLoanSummaryDerivedFields();
@@ -725,7 +748,7 @@ public class Loan extends AbstractPersistable<Long> {
              ***/
             final List<LoanTransaction> allNonContraTransactionsPostDisbursement = retreiveListOfTransactionsPostDisbursement();
             loanRepaymentScheduleTransactionProcessor.handleTransaction(getDisbursementDate(), allNonContraTransactionsPostDisbursement,
-                    getCurrency(), this.repaymentScheduleInstallments, setOfLoanCharges());
+                    getCurrency(), this.repaymentScheduleInstallments, setOfLoanCharges(), new LoanReplayCheckpoints(this, this.replayCheckpoints));
         } else {
             // reprocess loan schedule based on charge been waived.
             final LoanRepaymentScheduleProcessingWrapper wrapper = new LoanRepaymentScheduleProcessingWrapper();
@@ -885,7 +908,7 @@ public class Loan extends AbstractPersistable<Long> {
              ***/
             final List<LoanTransaction> allNonContraTransactionsPostDisbursement = retreiveListOfTransactionsPostDisbursement();
             loanRepaymentScheduleTransactionProcessor.handleTransaction(getDisbursementDate(), allNonContraTransactionsPostDisbursement,
-                    getCurrency(), this.repaymentScheduleInstallments, setOfLoanCharges());
+                    getCurrency(), this.repaymentScheduleInstallments, setOfLoanCharges(), new LoanReplayCheckpoints(this, this.replayCheckpoints));
         } else {
             // reprocess loan schedule based on charge been waived.
             final LoanRepaymentScheduleProcessingWrapper wrapper = new LoanRepaymentScheduleProcessingWrapper();
@@ -2040,7 +2063,8 @@ public class Loan extends AbstractPersistable<Long> {
         } else {
             final List<LoanTransaction> allNonContraTransactionsPostDisbursement = retreiveListOfTransactionsPostDisbursement();
             changedTransactionDetail = loanRepaymentScheduleTransactionProcessor.handleTransaction(getDisbursementDate(),
-                    allNonContraTransactionsPostDisbursement, getCurrency(), this.repaymentScheduleInstallments, setOfLoanCharges());
+                    allNonContraTransactionsPostDisbursement, getCurrency(), this.repaymentScheduleInstallments, setOfLoanCharges(),
+                    new LoanReplayCheckpoints(this, this.replayCheckpoints));
             for (final Map.Entry<Long, LoanTransaction> mapEntry : changedTransactionDetail.getNewTransactionMappings().entrySet()) {
                 mapEntry.getValue().updateLoan(this);
             }
@@ -2281,7 +2305,8 @@ public class Loan extends AbstractPersistable<Long> {
                 .determineProcessor(this.transactionProcessingStrategy);
         final List<LoanTransaction> allNonContraTransactionsPostDisbursement = retreiveListOfTransactionsPostDisbursement();
         ChangedTransactionDetail changedTransactionDetail = loanRepaymentScheduleTransactionProcessor.handleTransaction(getDisbursementDate(),
-                allNonContraTransactionsPostDisbursement, getCurrency(), this.repaymentScheduleInstallments, setOfLoanCharges());
+                allNonContraTransactionsPostDisbursement, getCurrency(), this.repaymentScheduleInstallments, setOfLoanCharges(),
+                new LoanReplayCheckpoints(this, this.replayCheckpoints));
         updateLoanSummaryDerivedFields();
         return changedTransactionDetail;
     }
@@ -8,8 +8,11 @@ package org.mifosplatform.portfolio.loanaccount.domain;
 import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.apache.commons.lang.StringUtils;
 import org.joda.time.LocalDate;
@@ -18,6 +21,8 @@ import org.mifosplatform.infrastructure.configuration.domain.ConfigurationDomain
 import org.mifosplatform.infrastructure.core.data.ApiParameterError;
 import org.mifosplatform.infrastructure.core.data.CommandProcessingResultBuilder;
 import org.mifosplatform.infrastructure.core.data.DataValidatorBuilder;
+import org.mifosplatform.infrastructure.core.exception.AbstractPlatformDomainRuleException;
+import org.mifosplatform.infrastructure.core.exception.AbstractPlatformResourceNotFoundException;
 import org.mifosplatform.infrastructure.core.exception.PlatformApiDataValidationException;
 import org.mifosplatform.organisation.holiday.domain.Holiday;
 import org.mifosplatform.organisation.holiday.domain.HolidayRepository;
@@ -32,9 +37,11 @@ import org.mifosplatform.portfolio.account.domain.AccountTransfer;
 import org.mifosplatform.portfolio.account.domain.AccountTransferRepository;
 import org.mifosplatform.portfolio.client.domain.Client;
 import org.mifosplatform.portfolio.client.exception.ClientNotActiveException;
+import org.mifosplatform.portfolio.collectionsheet.command.SingleRepaymentCommand;
 import org.mifosplatform.portfolio.group.domain.Group;
 import org.mifosplatform.portfolio.group.exception.GroupNotActiveException;
 import org.mifosplatform.portfolio.loanaccount.service.LoanAssembler;
+import org.mifosplatform.portfolio.loanaccount.service.LoanSummaryChangeLogService;
 import org.mifosplatform.portfolio.note.domain.Note;
 import org.mifosplatform.portfolio.note.domain.NoteRepository;
 import org.mifosplatform.portfolio.paymentdetail.domain.PaymentDetail;
@@ -57,6 +64,7 @@ public class LoanAccountDomainServiceJpa implements LoanAccountDomainService {
     private final JournalEntryWritePlatformService journalEntryWritePlatformService;
     private final NoteRepository noteRepository;
     private final AccountTransferRepository accountTransferRepository;
+    private final LoanSummaryChangeLogService loanSummaryChangeLogService;
 
     @Autowired
     public LoanAccountDomainServiceJpa(final LoanAssembler loanAccountAssembler, final LoanRepository loanRepository,
@@ -65,7 +73,7 @@ public class LoanAccountDomainServiceJpa implements LoanAccountDomainService {
             final WorkingDaysRepositoryWrapper workingDaysRepository,
             final ApplicationCurrencyRepositoryWrapper applicationCurrencyRepositoryWrapper,
             final JournalEntryWritePlatformService journalEntryWritePlatformService,
-            final AccountTransferRepository accountTransferRepository) {
+            final AccountTransferRepository accountTransferRepository, final LoanSummaryChangeLogService loanSummaryChangeLogService) {
         this.loanAccountAssembler = loanAccountAssembler;
         this.loanRepository = loanRepository;
         this.loanTransactionRepository = loanTransactionRepository;
@@ -76,6 +84,7 @@ public class LoanAccountDomainServiceJpa implements LoanAccountDomainService {
         this.applicationCurrencyRepositoryWrapper = applicationCurrencyRepositoryWrapper;
         this.journalEntryWritePlatformService = journalEntryWritePlatformService;
         this.accountTransferRepository = accountTransferRepository;
+        this.loanSummaryChangeLogService = loanSummaryChangeLogService;
     }
 
     @Transactional
@@ -160,6 +169,125 @@ public class LoanAccountDomainServiceJpa implements LoanAccountDomainService {
         return newRepaymentTransaction;
     }
 
+    /**
+     * Records the repayments of a whole collection sheet in one unit of work.
+     * All loans on the sheet are loaded with a single query, and the journal
+     * entries of the sheet are posted together as one batch afterwards.
+     * Validation failures are collected per loan and reported together; if
+     * any loan fails nothing is recorded.
+     */
+    @Transactional
+    @Override
+    public List<LoanTransaction> makeBulkRepayment(final SingleRepaymentCommand[] repaymentCommands, final LocalDate transactionDate,
+            final String noteText) {
+
+        final Set<Long> loanIds = new LinkedHashSet<Long>(repaymentCommands.length);
+        for (final SingleRepaymentCommand repaymentCommand : repaymentCommands) {
+            loanIds.add(repaymentCommand.getLoanId());
+        }
+        final Map<Long, Loan> loans = this.loanAccountAssembler.assembleFrom(loanIds);
+
+        final boolean allowTransactionsOnHoliday = this.configurationDomainService.allowTransactionsOnHolidayEnabled();
+        final WorkingDays workingDays = this.workingDaysRepository.findOne();
+        final boolean allowTransactionsOnNonWorkingDay = this.configurationDomainService.allowTransactionsOnNonWorkingDayEnabled();
+        final Map<Long, List<Holiday>> holidaysByOffice = new HashMap<Long, List<Holiday>>();
+        final Map<String, ApplicationCurrency> applicationCurrencies = new HashMap<String, ApplicationCurrency>();
+
+        final List<ApiParameterError> dataValidationErrors = new ArrayList<ApiParameterError>();
+        final List<LoanTransaction> newRepaymentTransactions = new ArrayList<LoanTransaction>(repaymentCommands.length);
+        final List<Map<String, Object>> accountingBridgeDataForLoans = new ArrayList<Map<String, Object>>(repaymentCommands.length);
+
+        for (final SingleRepaymentCommand repaymentCommand : repaymentCommands) {
+            final Long loanId = repaymentCommand.getLoanId();
+            final Loan loan = loans.get(loanId);
+            if (loan == null) {
+                dataValidationErrors.add(bulkRepaymentError(loanId, "error.msg.loan.id.invalid", "Loan with identifier " + loanId
+                        + " does not exist"));
+                continue;
+            }
+
+            try {
+                checkClientOrGroupActive(loan);
+
+                List<Holiday> holidays = holidaysByOffice.get(loan.getOfficeId());
+                if (holidays == null) {
+                    holidays = this.holidayRepository.findByOfficeIdAndGreaterThanDate(loan.getOfficeId(), transactionDate.toDate(),
+                            HolidayStatusType.ACTIVE.getValue());
+                    holidaysByOffice.put(loan.getOfficeId(), holidays);
+                }
+
+                final List<Long> existingTransactionIds = new ArrayList<Long>();
+                final List<Long> existingReversedTransactionIds = new ArrayList<Long>();
+
+                final Money repaymentAmount = Money.of(loan.getCurrency(), repaymentCommand.getTransactionAmount());
+                final LoanTransaction newRepaymentTransaction = LoanTransaction.repayment(loan.getOffice(), repaymentAmount, null,
+                        transactionDate, null);
+
+                final ChangedTransactionDetail changedTransactionDetail = loan.makeRepayment(newRepaymentTransaction,
+                        defaultLoanLifecycleStateMachine(), existingTransactionIds, existingReversedTransactionIds,
+                        allowTransactionsOnHoliday, holidays, workingDays, allowTransactionsOnNonWorkingDay);
+
+                this.loanTransactionRepository.save(newRepaymentTransaction);
+                this.loanRepository.saveAndFlush(loan);
+
+                if (changedTransactionDetail != null) {
+                    for (Map.Entry<Long, LoanTransaction> mapEntry : changedTransactionDetail.getNewTransactionMappings().entrySet()) {
+                        this.loanTransactionRepository.save(mapEntry.getValue());
+                        updateLoanTransaction(mapEntry.getKey(), mapEntry.getValue());
+                    }
+                }
+
+                if (StringUtils.isNotBlank(noteText)) {
+                    final Note note = Note.loanTransactionNote(loan, newRepaymentTransaction, noteText);
+                    this.noteRepository.save(note);
+                }
+
+                // derived now, as a later repayment of the same loan on the
+                // sheet adds to the transactions it is derived from
+                final MonetaryCurrency currency = loan.getCurrency();
+                ApplicationCurrency applicationCurrency = applicationCurrencies.get(currency.getCode());
+                if (applicationCurrency == null) {
+                    applicationCurrency = this.applicationCurrencyRepositoryWrapper.findOneWithNotFoundDetection(currency);
+                    applicationCurrencies.put(currency.getCode(), applicationCurrency);
+                }
+                accountingBridgeDataForLoans.add(loan.deriveAccountingBridgeData(applicationCurrency.toData(), existingTransactionIds,
+                        existingReversedTransactionIds));
+
+                newRepaymentTransactions.add(newRepaymentTransaction);
+            } catch (final AbstractPlatformDomainRuleException e) {
+                dataValidationErrors.add(bulkRepaymentError(loanId, e.getGlobalisationMessageCode(), e.getDefaultUserMessage(),
+                        e.getDefaultUserMessageArgs()));
+            } catch (final AbstractPlatformResourceNotFoundException e) {
+                dataValidationErrors.add(bulkRepaymentError(loanId, e.getGlobalisationMessageCode(), e.getDefaultUserMessage(),
+                        e.getDefaultUserMessageArgs()));
+            } catch (final PlatformApiDataValidationException e) {
+                for (final ApiParameterError error : e.getErrors()) {
+                    dataValidationErrors.add(bulkRepaymentError(loanId, error.getUserMessageGlobalisationCode(),
+                            error.getDefaultUserMessage()));
+                }
+            }
+        }
+
+        if (!dataValidationErrors.isEmpty()) { throw new PlatformApiDataValidationException("validation.msg.validation.errors.exist",
+                "Validation errors exist.", dataValidationErrors); }
+
+        this.journalEntryWritePlatformService.createJournalEntriesForLoans(accountingBridgeDataForLoans);
+
+        for (final Long loanId : loanIds) {
+            this.loanSummaryChangeLogService.markLoanAsChanged(loanId);
+        }
+
+        return newRepaymentTransactions;
+    }
+
+    private ApiParameterError bulkRepaymentError(final Long loanId, final String globalisationMessageCode,
+            final String defaultUserMessage, final Object... defaultUserMessageArgs) {
+        final ApiParameterError error = ApiParameterError.parameterError(globalisationMessageCode, defaultUserMessage, "loanId",
+                defaultUserMessageArgs);
+        error.setValue(loanId);
+        return error;
+    }
+
     @Override
     @Transactional
     public LoanTransaction makeChargePayment(final Loan loan, final Long chargeId, final LocalDate transactionDate,
@@ -208,6 +336,7 @@ public class LoanAccountDomainServiceJpa implements LoanAccountDomainService {
         final Map<String, Object> accountingBridgeData = loanAccount.deriveAccountingBridgeData(applicationCurrency.toData(),
                 existingTransactionIds, existingReversedTransactionIds);
         this.journalEntryWritePlatformService.createJournalEntriesForLoan(accountingBridgeData);
+        this.loanSummaryChangeLogService.markLoanAsChanged(loanAccount.getId());
     }
 
     private LoanLifecycleStateMachine defaultLoanLifecycleStateMachine() {
@@ -16,6 +16,7 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
 
 import javax.persistence.CascadeType;
 import javax.persistence.Column;
@@ -116,6 +117,11 @@ public class LoanCharge extends AbstractPersistable<Long> {
         final BigDecimal amount = command.bigDecimalValueOfParameterNamed("amount");
         final LocalDate dueDate = command.localDateValueOfParameterNamed("dueDate");
 
+        return createNew(loan, chargeDefinition, amount, dueDate);
+    }
+
+    public static LoanCharge createNew(final Loan loan, final Charge chargeDefinition, final BigDecimal amount, final LocalDate dueDate) {
+
         final ChargeTimeType chargeTime = null;
         final ChargeCalculationType chargeCalculation = null;
         final ChargePaymentMode chargePaymentMode = null;
@@ -811,4 +817,32 @@ public class LoanCharge extends AbstractPersistable<Long> {
         }
         return null;
     }
+
+    public DerivedStateSnapshot snapshotDerivedState() {
+        final BigDecimal[] amounts = new BigDecimal[] { this.amountPaid, this.amountWaived, this.amountWrittenOff, this.amountOutstanding,
+                this.amount };
+        final Map<Integer, DerivedStateSnapshot> installmentCharges = new TreeMap<Integer, DerivedStateSnapshot>();
+        for (final LoanInstallmentCharge installmentCharge : this.loanInstallmentCharge) {
+            installmentCharges.put(installmentCharge.getRepaymentInstallment().getInstallmentNumber(),
+                    installmentCharge.snapshotDerivedState());
+        }
+        return new DerivedStateSnapshot(amounts, new boolean[] { this.paid, this.waived }, new Date[] { DerivedStateSnapshot
+                .copyOf(this.dueDate) }, installmentCharges);
+    }
+
+    public void restoreDerivedState(final DerivedStateSnapshot snapshot) {
+        this.amountPaid = snapshot.amount(0);
+        this.amountWaived = snapshot.amount(1);
+        this.amountWrittenOff = snapshot.amount(2);
+        this.amountOutstanding = snapshot.amount(3);
+        this.paid = snapshot.flag(0);
+        this.waived = snapshot.flag(1);
+        for (final LoanInstallmentCharge installmentCharge : this.loanInstallmentCharge) {
+            final DerivedStateSnapshot installmentChargeSnapshot = snapshot.part(installmentCharge.getRepaymentInstallment()
+                    .getInstallmentNumber());
+            if (installmentChargeSnapshot != null) {
+                installmentCharge.restoreDerivedState(installmentChargeSnapshot);
+            }
+        }
+    }
 }
\ No newline at end of file
@@ -6,6 +6,7 @@
 package org.mifosplatform.portfolio.loanaccount.domain;
 
 import java.math.BigDecimal;
+import java.util.Date;
 
 import javax.persistence.Column;
 import javax.persistence.Entity;
@@ -207,4 +208,20 @@ public class LoanInstallmentCharge extends AbstractPersistable<Long> {
         return Money.of(currency, this.amountThroughChargePayment);
     }
 
+    public DerivedStateSnapshot snapshotDerivedState() {
+        final BigDecimal[] amounts = new BigDecimal[] { this.amountPaid, this.amountWaived, this.amountWrittenOff, this.amountOutstanding,
+                this.amountThroughChargePayment, this.amount };
+        return new DerivedStateSnapshot(amounts, new boolean[] { this.paid, this.waived }, new Date[0], null);
+    }
+
+    public void restoreDerivedState(final DerivedStateSnapshot snapshot) {
+        this.amountPaid = snapshot.amount(0);
+        this.amountWaived = snapshot.amount(1);
+        this.amountWrittenOff = snapshot.amount(2);
+        this.amountOutstanding = snapshot.amount(3);
+        this.amountThroughChargePayment = snapshot.amount(4);
+        this.paid = snapshot.flag(0);
+        this.waived = snapshot.flag(1);
+    }
+
 }
\ No newline at end of file
@@ -532,4 +532,37 @@ public final class LoanRepaymentScheduleInstallment extends AbstractAuditableCus
             this.fromDate = newFromDate.toDate();
         }
     }
+
+    public DerivedStateSnapshot snapshotDerivedState() {
+        final BigDecimal[] amounts = new BigDecimal[] { this.principalCompleted, this.principalWrittenOff, this.interestPaid,
+                this.interestWaived, this.interestWrittenOff, this.feeChargesPaid, this.feeChargesWaived, this.feeChargesWrittenOff,
+                this.penaltyChargesPaid, this.penaltyChargesWaived, this.penaltyChargesWrittenOff, this.totalPaidInAdvance,
+                this.totalPaidLate, this.principal, this.interestCharged, this.feeChargesCharged, this.penaltyCharges };
+        final Date[] dates = new Date[] { DerivedStateSnapshot.copyOf(this.obligationsMetOnDate), DerivedStateSnapshot.copyOf(this.fromDate),
+                DerivedStateSnapshot.copyOf(this.dueDate) };
+        return new DerivedStateSnapshot(amounts, new boolean[] { this.obligationsMet }, dates, null);
+    }
+
+    /**
+     * Puts back the derived components of a snapshot taken of this installment;
+     * the amounts charged and the dates of the installment are left as they
+     * are.
+     */
+    public void restoreDerivedState(final DerivedStateSnapshot snapshot) {
+        this.principalCompleted = snapshot.amount(0);
+        this.principalWrittenOff = snapshot.amount(1);
+        this.interestPaid = snapshot.amount(2);
+        this.interestWaived = snapshot.amount(3);
+        this.interestWrittenOff = snapshot.amount(4);
+        this.feeChargesPaid = snapshot.amount(5);
+        this.feeChargesWaived = snapshot.amount(6);
+        this.feeChargesWrittenOff = snapshot.amount(7);
+        this.penaltyChargesPaid = snapshot.amount(8);
+        this.penaltyChargesWaived = snapshot.amount(9);
+        this.penaltyChargesWrittenOff = snapshot.amount(10);
+        this.totalPaidInAdvance = snapshot.amount(11);
+        this.totalPaidLate = snapshot.amount(12);
+        this.obligationsMet = snapshot.flag(0);
+        this.obligationsMetOnDate = snapshot.date(0);
+    }
 }
\ No newline at end of file
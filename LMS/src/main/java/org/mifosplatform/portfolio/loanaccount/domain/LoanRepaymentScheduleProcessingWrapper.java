@@ -12,6 +12,7 @@ import java.util.Set;
 import org.joda.time.LocalDate;
 import org.mifosplatform.organisation.monetary.domain.MonetaryCurrency;
 import org.mifosplatform.organisation.monetary.domain.Money;
+import org.mifosplatform.organisation.monetary.domain.MoneyAccumulator;
 
 /**
  * A wrapper around loan schedule related data exposing needed behaviour by
@@ -22,10 +23,11 @@ public class LoanRepaymentScheduleProcessingWrapper {
     public void reprocess(final MonetaryCurrency currency, final LocalDate disbursementDate,
             final List<LoanRepaymentScheduleInstallment> repaymentPeriods, final Set<LoanCharge> loanCharges) {
 
-        Money totalInterest = Money.zero(currency);
+        final MoneyAccumulator interestCharged = MoneyAccumulator.zero(currency);
         for (final LoanRepaymentScheduleInstallment installment : repaymentPeriods) {
-            totalInterest = totalInterest.plus(installment.getInterestCharged(currency));
+            interestCharged.plus(installment.getInterestCharged(currency));
         }
+        final Money totalInterest = interestCharged.toMoney();
         LocalDate startDate = disbursementDate;
         for (final LoanRepaymentScheduleInstallment period : repaymentPeriods) {
 
@@ -54,7 +56,7 @@ public class LoanRepaymentScheduleProcessingWrapper {
     private Money cumulativeFeeChargesDueWithin(final LocalDate periodStart, final LocalDate periodEnd, final Set<LoanCharge> loanCharges,
             final MonetaryCurrency monetaryCurrency,LoanRepaymentScheduleInstallment period,int numberOfRepayments,final Money totalInterest) {
 
-        Money cumulative = Money.zero(monetaryCurrency);
+        final MoneyAccumulator cumulative = MoneyAccumulator.zero(monetaryCurrency);
 
         for (final LoanCharge loanCharge : loanCharges) {
             if (loanCharge.isFeeCharge()) {
@@ -70,9 +72,9 @@ public class LoanRepaymentScheduleProcessingWrapper {
                             amount = amount.add(period.getPrincipal(monetaryCurrency).getAmount());
                         }
                         BigDecimal loanChargeAmt = amount.multiply(loanCharge.getPercentage()).divide(BigDecimal.valueOf(100));
-                        cumulative = cumulative.plus(loanChargeAmt);
+                        cumulative.plus(loanChargeAmt);
                     } else {
-                        cumulative = cumulative.plus(loanCharge.amount().divide(BigDecimal.valueOf(numberOfRepayments)));
+                        cumulative.plus(loanCharge.amount().divide(BigDecimal.valueOf(numberOfRepayments)));
                     }
                 } else if (loanCharge.isDueForCollectionFromAndUpToAndIncluding(periodStart, periodEnd) && 
                         loanCharge.getChargeCalculation().isPercentageBased()) {
@@ -85,59 +87,59 @@ public class LoanRepaymentScheduleProcessingWrapper {
                         amount = amount.add(period.getLoan().getPrincpal().getAmount());
                     }
                     BigDecimal loanChargeAmt = amount.multiply(loanCharge.getPercentage()).divide(BigDecimal.valueOf(100));
-                    cumulative = cumulative.plus(loanChargeAmt);
+                    cumulative.plus(loanChargeAmt);
                 } else if (loanCharge.isDueForCollectionFromAndUpToAndIncluding(periodStart, periodEnd)) {
-                    cumulative = cumulative.plus(loanCharge.amount());
+                    cumulative.plus(loanCharge.amount());
                 }
             }
         }
 
-        return cumulative;
+        return cumulative.toMoney();
     }
 
     private Money cumulativeFeeChargesWaivedWithin(final LocalDate periodStart, final LocalDate periodEnd,
             final Set<LoanCharge> loanCharges, final MonetaryCurrency currency) {
 
-        Money cumulative = Money.zero(currency);
+        final MoneyAccumulator cumulative = MoneyAccumulator.zero(currency);
 
         for (final LoanCharge loanCharge : loanCharges) {
             if(loanCharge.isFeeCharge()){
                 if(loanCharge.isInstalmentFee()){
                     LoanInstallmentCharge loanChargePerInstallment = loanCharge.getInstallmentLoanCharge(periodEnd);
                     if(loanChargePerInstallment != null)
-                    cumulative = cumulative.plus(loanChargePerInstallment.getAmountWaived(currency));
+                    cumulative.plus(loanChargePerInstallment.getAmountWaived(currency));
                 }else if (loanCharge.isDueForCollectionFromAndUpToAndIncluding(periodStart, periodEnd)) {
-                    cumulative = cumulative.plus(loanCharge.getAmountWaived(currency));
+                    cumulative.plus(loanCharge.getAmountWaived(currency));
                 }
             }
         }
 
-        return cumulative;
+        return cumulative.toMoney();
     }
 
     private Money cumulativeFeeChargesWrittenOffWithin(final LocalDate periodStart, final LocalDate periodEnd,
             final Set<LoanCharge> loanCharges, final MonetaryCurrency currency) {
 
-        Money cumulative = Money.zero(currency);
+        final MoneyAccumulator cumulative = MoneyAccumulator.zero(currency);
 
         for (final LoanCharge loanCharge : loanCharges) {
             if(loanCharge.isFeeCharge()){
                 if(loanCharge.isInstalmentFee()){
                     LoanInstallmentCharge loanChargePerInstallment = loanCharge.getInstallmentLoanCharge(periodEnd);
-                    cumulative = cumulative.plus(loanChargePerInstallment.getAmountWrittenOff(currency));
+                    cumulative.plus(loanChargePerInstallment.getAmountWrittenOff(currency));
                 }else if (loanCharge.isDueForCollectionFromAndUpToAndIncluding(periodStart, periodEnd)) {
-                cumulative = cumulative.plus(loanCharge.getAmountWrittenOff(currency));
+                cumulative.plus(loanCharge.getAmountWrittenOff(currency));
                 }
             }
         }
 
-        return cumulative;
+        return cumulative.toMoney();
     }
 
     private Money cumulativePenaltyChargesDueWithin(final LocalDate periodStart, final LocalDate periodEnd,
             final Set<LoanCharge> loanCharges, final MonetaryCurrency currency,LoanRepaymentScheduleInstallment period,int numberOfRepayments, Money totalInterest) {
 
-        Money cumulative = Money.zero(currency);
+        final MoneyAccumulator cumulative = MoneyAccumulator.zero(currency);
 
         for (final LoanCharge loanCharge : loanCharges) {
             if (loanCharge.isPenaltyCharge()) {
@@ -153,9 +155,9 @@ public class LoanRepaymentScheduleProcessingWrapper {
                             amount = amount.add(period.getPrincipal(currency).getAmount());
                         }
                         BigDecimal loanChargeAmt = amount.multiply(loanCharge.getPercentage()).divide(BigDecimal.valueOf(100));
-                        cumulative = cumulative.plus(loanChargeAmt);
+                        cumulative.plus(loanChargeAmt);
                     } else {
-                        cumulative = cumulative.plus(loanCharge.amount().divide(BigDecimal.valueOf(numberOfRepayments)));
+                        cumulative.plus(loanCharge.amount().divide(BigDecimal.valueOf(numberOfRepayments)));
                     }
                 } else if (loanCharge.isDueForCollectionFromAndUpToAndIncluding(periodStart, periodEnd) && 
                         loanCharge.getChargeCalculation().isPercentageBased()) {
@@ -168,51 +170,51 @@ public class LoanRepaymentScheduleProcessingWrapper {
                         amount = amount.add(period.getLoan().getPrincpal().getAmount());
                     }
                     BigDecimal loanChargeAmt = amount.multiply(loanCharge.getPercentage()).divide(BigDecimal.valueOf(100));
-                    cumulative = cumulative.plus(loanChargeAmt);
+                    cumulative.plus(loanChargeAmt);
                 } else if (loanCharge.isDueForCollectionFromAndUpToAndIncluding(periodStart, periodEnd)) {
-                    cumulative = cumulative.plus(loanCharge.amount());
+                    cumulative.plus(loanCharge.amount());
                 }
             }
         }
 
-        return cumulative;
+        return cumulative.toMoney();
     }
 
     private Money cumulativePenaltyChargesWaivedWithin(final LocalDate periodStart, final LocalDate periodEnd,
             final Set<LoanCharge> loanCharges, final MonetaryCurrency currency) {
 
-        Money cumulative = Money.zero(currency);
+        final MoneyAccumulator cumulative = MoneyAccumulator.zero(currency);
 
         for (final LoanCharge loanCharge : loanCharges) {
             if (loanCharge.isPenaltyCharge()) {
                 if(loanCharge.isInstalmentFee()){
                     LoanInstallmentCharge loanChargePerInstallment = loanCharge.getInstallmentLoanCharge(periodEnd);
-                    cumulative = cumulative.plus(loanChargePerInstallment.getAmountWaived(currency));
+                    cumulative.plus(loanChargePerInstallment.getAmountWaived(currency));
                 }else if (loanCharge.isDueForCollectionFromAndUpToAndIncluding(periodStart, periodEnd)) {
-                    cumulative = cumulative.plus(loanCharge.getAmountWaived(currency));
+                    cumulative.plus(loanCharge.getAmountWaived(currency));
                 }
             }
         }
 
-        return cumulative;
+        return cumulative.toMoney();
     }
 
     private Money cumulativePenaltyChargesWrittenOffWithin(final LocalDate periodStart, final LocalDate periodEnd,
             final Set<LoanCharge> loanCharges, final MonetaryCurrency currency) {
 
-        Money cumulative = Money.zero(currency);
+        final MoneyAccumulator cumulative = MoneyAccumulator.zero(currency);
 
         for (final LoanCharge loanCharge : loanCharges) {
             if (loanCharge.isPenaltyCharge()) {
                 if(loanCharge.isInstalmentFee()){
                     LoanInstallmentCharge loanChargePerInstallment = loanCharge.getInstallmentLoanCharge(periodEnd);
-                    cumulative = cumulative.plus(loanChargePerInstallment.getAmountWrittenOff(currency));
+                    cumulative.plus(loanChargePerInstallment.getAmountWrittenOff(currency));
                 }else if (loanCharge.isDueForCollectionFromAndUpToAndIncluding(periodStart, periodEnd)) {
-                cumulative = cumulative.plus(loanCharge.getAmountWrittenOff(currency));
+                cumulative.plus(loanCharge.getAmountWrittenOff(currency));
                 }
             }
         }
 
-        return cumulative;
+        return cumulative.toMoney();
     }
 }
\ No newline at end of file
@@ -0,0 +1,72 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.portfolio.loanaccount.domain;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.JoinColumn;
+import javax.persistence.ManyToOne;
+import javax.persistence.Table;
+
+import org.springframework.data.jpa.domain.AbstractPersistable;
+
+/**
+ * State of a loan's installments and charges after its first
+ * <code>transactionCount</code> transactions were replayed, see
+ * {@link org.mifosplatform.portfolio.loanaccount.domain.transactionprocessor.LoanReplayCheckpoints}.
+ *
+ * The digests identify what the state was derived from: the schedule and
+ * charges the replay started from, and the transactions up to this point.
+ */
+@Entity
+@Table(name = "m_loan_replay_checkpoint")
+public class LoanReplayCheckpoint extends AbstractPersistable<Long> {
+
+    @ManyToOne(optional = false)
+    @JoinColumn(name = "loan_id", nullable = false)
+    private Loan loan;
+
+    @Column(name = "transaction_count", nullable = false)
+    private Integer transactionCount;
+
+    @Column(name = "start_state_digest", length = 40, nullable = false)
+    private String startStateDigest;
+
+    @Column(name = "transactions_digest", length = 40, nullable = false)
+    private String transactionsDigest;
+
+    @Column(name = "state", columnDefinition = "mediumtext", nullable = false)
+    private String state;
+
+    protected LoanReplayCheckpoint() {
+        //
+    }
+
+    public LoanReplayCheckpoint(final Loan loan, final int transactionCount, final String startStateDigest,
+            final String transactionsDigest, final String state) {
+        this.loan = loan;
+        this.transactionCount = transactionCount;
+        this.startStateDigest = startStateDigest;
+        this.transactionsDigest = transactionsDigest;
+        this.state = state;
+    }
+
+    public int getTransactionCount() {
+        return this.transactionCount;
+    }
+
+    public String getStartStateDigest() {
+        return this.startStateDigest;
+    }
+
+    public String getTransactionsDigest() {
+        return this.transactionsDigest;
+    }
+
+    public String getState() {
+        return this.state;
+    }
+}
@@ -5,6 +5,9 @@
  */
 package org.mifosplatform.portfolio.loanaccount.domain;
 
+import java.util.Collection;
+import java.util.List;
+
 import org.mifosplatform.portfolio.loanaccount.exception.LoanNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -31,4 +34,12 @@ public class LoanRepositoryWrapper {
         return loan;
     }
 
+    /**
+     * Loads all loans with the given ids in one query. Ids that do not match a
+     * loan are silently skipped; callers are expected to check for them.
+     */
+    public List<Loan> findAll(final Collection<Long> ids) {
+        return this.repository.findAll(ids);
+    }
+
 }
\ No newline at end of file
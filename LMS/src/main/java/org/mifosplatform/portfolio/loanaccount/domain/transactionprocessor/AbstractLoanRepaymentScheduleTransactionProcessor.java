@@ -46,6 +46,19 @@ public abstract class AbstractLoanRepaymentScheduleTransactionProcessor implemen
     public ChangedTransactionDetail handleTransaction(final LocalDate disbursementDate,
             final List<LoanTransaction> transactionsPostDisbursement, final MonetaryCurrency currency,
             final List<LoanRepaymentScheduleInstallment> installments, final Set<LoanCharge> charges) {
+        return handleTransaction(disbursementDate, transactionsPostDisbursement, currency, installments, charges, null);
+    }
+
+    /**
+     * Re-processes the loan schedule as above, skipping the transactions up to
+     * the latest checkpoint that still holds: a later transaction (such as one
+     * backdated or adjusted) is only processed along with the ones after it.
+     */
+    @Override
+    public ChangedTransactionDetail handleTransaction(final LocalDate disbursementDate,
+            final List<LoanTransaction> transactionsPostDisbursement, final MonetaryCurrency currency,
+            final List<LoanRepaymentScheduleInstallment> installments, final Set<LoanCharge> charges,
+            final LoanReplayCheckpoints checkpoints) {
 
         if (charges != null) {
             for (final LoanCharge loanCharge : charges) {
@@ -104,13 +117,20 @@ public abstract class AbstractLoanRepaymentScheduleTransactionProcessor implemen
             }
         }
 
-        for (final LoanTransaction loanTransaction : transactionstoBeProcessed) {
+        int processFrom = 0;
+        if (checkpoints != null) {
+            processFrom = checkpoints.resume(this, currency, transactionstoBeProcessed, installments, charges);
+        }
+
+        for (final LoanTransaction loanTransaction : transactionstoBeProcessed.subList(processFrom, transactionstoBeProcessed.size())) {
 
+            boolean unchanged = true;
             if (loanTransaction.isRepayment() || loanTransaction.isInterestWaiver()) {
                 // pass through for new transactions
                 if (loanTransaction.getId() == null) {
                     loanTransaction.resetDerivedComponents();
                     handleTransaction(loanTransaction, currency, installments, charges);
+                    unchanged = false;
                 } else {
                     /**
                      * For existing transactions, check if the re-payment
@@ -133,6 +153,7 @@ public abstract class AbstractLoanRepaymentScheduleTransactionProcessor implemen
                         loanTransaction.reverse();
                         loanTransaction.updateExternalId(null);
                         changedTransactionDetail.getNewTransactionMappings().put(loanTransaction.getId(), newLoanTransaction);
+                        unchanged = false;
                     }
                 }
 
@@ -140,6 +161,10 @@ public abstract class AbstractLoanRepaymentScheduleTransactionProcessor implemen
                 loanTransaction.resetDerivedComponents();
                 handleWriteOff(loanTransaction, currency, installments);
             }
+
+            if (checkpoints != null) {
+                checkpoints.processed(loanTransaction, unchanged, currency, installments, charges);
+            }
         }
         return changedTransactionDetail;
     }
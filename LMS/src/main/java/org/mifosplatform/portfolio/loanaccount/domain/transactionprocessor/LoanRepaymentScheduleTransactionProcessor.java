@@ -23,6 +23,15 @@ public interface LoanRepaymentScheduleTransactionProcessor {
     ChangedTransactionDetail handleTransaction(LocalDate disbursementDate, List<LoanTransaction> repaymentsOrWaivers,
             MonetaryCurrency currency, List<LoanRepaymentScheduleInstallment> repaymentScheduleInstallments, Set<LoanCharge> charges);
 
+    /**
+     * As {@link #handleTransaction(LocalDate, List, MonetaryCurrency, List, Set)}
+     * but resuming from the latest of the <code>checkpoints</code> that still
+     * holds, and recording new ones; the result is the same.
+     */
+    ChangedTransactionDetail handleTransaction(LocalDate disbursementDate, List<LoanTransaction> repaymentsOrWaivers,
+            MonetaryCurrency currency, List<LoanRepaymentScheduleInstallment> repaymentScheduleInstallments, Set<LoanCharge> charges,
+            LoanReplayCheckpoints checkpoints);
+
     void handleWriteOff(LoanTransaction loanTransaction, MonetaryCurrency loanCurrency,
             List<LoanRepaymentScheduleInstallment> repaymentScheduleInstallments);
 
@@ -0,0 +1,286 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.portfolio.loanaccount.domain.transactionprocessor;
+
+import java.io.UnsupportedEncodingException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import org.mifosplatform.organisation.monetary.domain.MonetaryCurrency;
+import org.mifosplatform.portfolio.loanaccount.domain.DerivedStateSnapshot;
+import org.mifosplatform.portfolio.loanaccount.domain.Loan;
+import org.mifosplatform.portfolio.loanaccount.domain.LoanCharge;
+import org.mifosplatform.portfolio.loanaccount.domain.LoanRepaymentScheduleInstallment;
+import org.mifosplatform.portfolio.loanaccount.domain.LoanReplayCheckpoint;
+import org.mifosplatform.portfolio.loanaccount.domain.LoanTransaction;
+
+/**
+ * Resumes a replay of a loan's transactions from the state its installments
+ * and charges were in part way through an earlier replay, stored with the loan
+ * as {@link LoanReplayCheckpoint}s, so that a backdated or adjusted
+ * transaction is only processed along with the ones after it.
+ *
+ * A replay records, every {@link #TRANSACTIONS_PER_CHECKPOINT} saved
+ * transactions it leaves unchanged, the state after them; only the latest
+ * {@link #MAXIMUM_CHECKPOINTS} are kept. Each checkpoint carries a digest of
+ * the state the replay started from (with the processor and currency) and a
+ * digest of the transactions up to it (their ids, dates and amounts). The next
+ * replay resumes from the latest checkpoint whose digests match its own start
+ * state and transactions, which holds whether or not the loan was loaded
+ * afresh; checkpoints past that point no longer hold and are dropped.
+ *
+ * Loans with fewer than {@link #MINIMUM_TRANSACTIONS} transactions keep no
+ * checkpoints: replaying them from the start costs less than writing the
+ * state of every installment with the loan each time it changes.
+ *
+ * Repayments and waivers that have not been saved are processed in place and
+ * are never recorded, as processing them again is not the same as keeping
+ * them. Nor is anything recorded while a charge of the loan has not been
+ * saved, as charges are identified by id.
+ */
+public final class LoanReplayCheckpoints {
+
+    private static final int MINIMUM_TRANSACTIONS = 100;
+    private static final int TRANSACTIONS_PER_CHECKPOINT = 25;
+    private static final int MAXIMUM_CHECKPOINTS = 4;
+
+    private final Loan loan;
+    private final List<LoanReplayCheckpoint> checkpoints;
+
+    private String startStateDigest;
+    private String transactionsDigest;
+    private int transactionCount;
+    private boolean recording;
+    private int lastRestoredTransactionCount;
+
+    /**
+     * @param checkpoints
+     *            the stored checkpoints of the loan, which are updated in place
+     */
+    public LoanReplayCheckpoints(final Loan loan, final List<LoanReplayCheckpoint> checkpoints) {
+        this.loan = loan;
+        this.checkpoints = checkpoints;
+    }
+
+    /**
+     * Called once the state the transactions are processed from is in place.
+     * Restores the latest checkpoint that holds, if any.
+     *
+     * @return number of transactions from the start of
+     *         <code>transactions</code> that need not be processed again
+     */
+    int resume(final LoanRepaymentScheduleTransactionProcessor transactionProcessor, final MonetaryCurrency currency,
+            final List<LoanTransaction> transactions, final List<LoanRepaymentScheduleInstallment> installments,
+            final Set<LoanCharge> charges) {
+
+        this.recording = false;
+        this.lastRestoredTransactionCount = 0;
+
+        if (transactions.size() < MINIMUM_TRANSACTIONS) {
+            this.checkpoints.clear();
+            return 0;
+        }
+
+        final String startState = captureState(installments, charges);
+        if (startState == null) {
+            this.checkpoints.clear();
+            return 0;
+        }
+        this.startStateDigest = digest(transactionProcessor.getClass().getName() + "/" + currency.getCode() + "/"
+                + currency.getDigitsAfterDecimal() + "/" + currency.getCurrencyInMultiplesOf() + "\n" + startState);
+
+        final Map<Integer, LoanReplayCheckpoint> checkpointsByCount = new HashMap<Integer, LoanReplayCheckpoint>();
+        int lastCount = 0;
+        for (final Iterator<LoanReplayCheckpoint> iterator = this.checkpoints.iterator(); iterator.hasNext();) {
+            final LoanReplayCheckpoint checkpoint = iterator.next();
+            if (this.startStateDigest.equals(checkpoint.getStartStateDigest())) {
+                checkpointsByCount.put(checkpoint.getTransactionCount(), checkpoint);
+                lastCount = Math.max(lastCount, checkpoint.getTransactionCount());
+            } else {
+                iterator.remove();
+            }
+        }
+
+        int resumeFrom = 0;
+        String resumeDigest = null;
+        String digest = null;
+        for (int i = 0; i < lastCount && i < transactions.size() && transactions.get(i).getId() != null; i++) {
+            digest = nextTransactionsDigest(digest, transactions.get(i), currency);
+            final LoanReplayCheckpoint checkpoint = checkpointsByCount.get(i + 1);
+            if (checkpoint != null && checkpoint.getTransactionsDigest().equals(digest)) {
+                resumeFrom = i + 1;
+                resumeDigest = digest;
+            }
+        }
+        if (resumeFrom > 0 && !restoreState(checkpointsByCount.get(resumeFrom).getState(), installments, charges)) {
+            resumeFrom = 0;
+            resumeDigest = null;
+        }
+
+        for (final Iterator<LoanReplayCheckpoint> iterator = this.checkpoints.iterator(); iterator.hasNext();) {
+            if (iterator.next().getTransactionCount() > resumeFrom) {
+                iterator.remove();
+            }
+        }
+
+        this.transactionsDigest = resumeDigest;
+        this.transactionCount = resumeFrom;
+        this.recording = true;
+        this.lastRestoredTransactionCount = resumeFrom;
+        return resumeFrom;
+    }
+
+    /**
+     * Called after each transaction processed, in order.
+     *
+     * @param unchanged
+     *            whether processing left the transaction as it was and can be
+     *            skipped the next time
+     */
+    void processed(final LoanTransaction transaction, final boolean unchanged, final MonetaryCurrency currency,
+            final List<LoanRepaymentScheduleInstallment> installments, final Set<LoanCharge> charges) {
+        if (!this.recording) { return; }
+        if (!unchanged || transaction.getId() == null) {
+            this.recording = false;
+            return;
+        }
+
+        this.transactionsDigest = nextTransactionsDigest(this.transactionsDigest, transaction, currency);
+        this.transactionCount++;
+        if (this.transactionCount % TRANSACTIONS_PER_CHECKPOINT == 0) {
+            final String state = captureState(installments, charges);
+            if (state == null) {
+                this.recording = false;
+                return;
+            }
+            if (this.checkpoints.size() >= MAXIMUM_CHECKPOINTS) {
+                this.checkpoints.remove(earliestCheckpoint());
+            }
+            this.checkpoints.add(new LoanReplayCheckpoint(this.loan, this.transactionCount, this.startStateDigest,
+                    this.transactionsDigest, state));
+        }
+    }
+
+    /**
+     * @return number of transactions the last replay did not have to process
+     */
+    public int lastRestoredTransactionCount() {
+        return this.lastRestoredTransactionCount;
+    }
+
+    private LoanReplayCheckpoint earliestCheckpoint() {
+        LoanReplayCheckpoint earliest = null;
+        for (final LoanReplayCheckpoint checkpoint : this.checkpoints) {
+            if (earliest == null || checkpoint.getTransactionCount() < earliest.getTransactionCount()) {
+                earliest = checkpoint;
+            }
+        }
+        return earliest;
+    }
+
+    /**
+     * @return the state of the installments, by installment number, and of the
+     *         charges, by id, as text; or <code>null</code> when a charge has
+     *         not been saved
+     */
+    private static String captureState(final List<LoanRepaymentScheduleInstallment> installments, final Set<LoanCharge> charges) {
+        final StringBuilder state = new StringBuilder(installments.size() * 160);
+        for (final LoanRepaymentScheduleInstallment installment : installments) {
+            state.append('I').append(installment.getInstallmentNumber()).append(':');
+            installment.snapshotDerivedState().appendTo(state);
+            state.append('\n');
+        }
+        if (charges != null) {
+            final TreeMap<Long, LoanCharge> chargesById = new TreeMap<Long, LoanCharge>();
+            for (final LoanCharge charge : charges) {
+                if (charge.getId() == null) { return null; }
+                chargesById.put(charge.getId(), charge);
+            }
+            for (final Map.Entry<Long, LoanCharge> charge : chargesById.entrySet()) {
+                state.append('C').append(charge.getKey()).append(':');
+                charge.getValue().snapshotDerivedState().appendTo(state);
+                state.append('\n');
+            }
+        }
+        return state.toString();
+    }
+
+    /**
+     * Puts back the installments and charges from their state as text.
+     *
+     * @return false, with nothing put back, when the state does not cover
+     *         every installment and charge
+     */
+    private static boolean restoreState(final String state, final List<LoanRepaymentScheduleInstallment> installments,
+            final Set<LoanCharge> charges) {
+        final Map<String, DerivedStateSnapshot> snapshots = new HashMap<String, DerivedStateSnapshot>();
+        for (final String line : state.split("\n")) {
+            final int keyEnd = line.indexOf(':');
+            if (keyEnd > 0) {
+                snapshots.put(line.substring(0, keyEnd), DerivedStateSnapshot.parse(line.substring(keyEnd + 1)));
+            }
+        }
+
+        final List<DerivedStateSnapshot> installmentStates = new ArrayList<DerivedStateSnapshot>(installments.size());
+        for (final LoanRepaymentScheduleInstallment installment : installments) {
+            final DerivedStateSnapshot snapshot = snapshots.get("I" + installment.getInstallmentNumber());
+            if (snapshot == null) { return false; }
+            installmentStates.add(snapshot);
+        }
+        final Map<LoanCharge, DerivedStateSnapshot> chargeStates = new HashMap<LoanCharge, DerivedStateSnapshot>();
+        if (charges != null) {
+            for (final LoanCharge charge : charges) {
+                final DerivedStateSnapshot snapshot = snapshots.get("C" + charge.getId());
+                if (snapshot == null) { return false; }
+                chargeStates.put(charge, snapshot);
+            }
+        }
+
+        for (int i = 0; i < installments.size(); i++) {
+            installments.get(i).restoreDerivedState(installmentStates.get(i));
+        }
+        for (final Map.Entry<LoanCharge, DerivedStateSnapshot> chargeState : chargeStates.entrySet()) {
+            chargeState.getKey().restoreDerivedState(chargeState.getValue());
+        }
+        return true;
+    }
+
+    private static String nextTransactionsDigest(final String previousDigest, final LoanTransaction transaction,
+            final MonetaryCurrency currency) {
+        final StringBuilder text = new StringBuilder(128);
+        text.append(previousDigest == null ? "" : previousDigest).append('/').append(transaction.getId()).append('@')
+                .append(transaction.getDateOf() == null ? "-" : String.valueOf(transaction.getDateOf().getTime()));
+        text.append(':').append(DerivedStateSnapshot.canonical(transaction.getAmount(currency).getAmount()));
+        text.append(',').append(DerivedStateSnapshot.canonical(transaction.getPrincipalPortion(currency).getAmount()));
+        text.append(',').append(DerivedStateSnapshot.canonical(transaction.getInterestPortion(currency).getAmount()));
+        text.append(',').append(DerivedStateSnapshot.canonical(transaction.getFeeChargesPortion(currency).getAmount()));
+        text.append(',').append(DerivedStateSnapshot.canonical(transaction.getPenaltyChargesPortion(currency).getAmount()));
+        text.append(',').append(DerivedStateSnapshot.canonical(transaction.getOverPaymentPortion(currency).getAmount()));
+        return digest(text.toString());
+    }
+
+    private static String digest(final String text) {
+        try {
+            final byte[] hash = MessageDigest.getInstance("SHA-1").digest(text.getBytes("UTF-8"));
+            final StringBuilder hex = new StringBuilder(hash.length * 2);
+            for (final byte b : hash) {
+                hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return hex.toString();
+        } catch (final NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        } catch (final UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
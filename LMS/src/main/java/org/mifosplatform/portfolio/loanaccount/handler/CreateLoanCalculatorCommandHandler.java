@@ -1,5 +1,6 @@
 package org.mifosplatform.portfolio.loanaccount.handler;
 
+import org.mifosplatform.commands.annotation.CommandType;
 import org.mifosplatform.commands.handler.NewCommandSourceHandler;
 import org.mifosplatform.infrastructure.core.api.JsonCommand;
 import org.mifosplatform.infrastructure.core.data.CommandProcessingResult;
@@ -8,6 +9,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+@CommandType(entity = "LOANCALCULATOR", action = "CREATE")
 @Service
 public class CreateLoanCalculatorCommandHandler implements NewCommandSourceHandler {
 
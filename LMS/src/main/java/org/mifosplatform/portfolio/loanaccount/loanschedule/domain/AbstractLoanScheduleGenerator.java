@@ -18,6 +18,7 @@ import org.mifosplatform.organisation.holiday.domain.Holiday;
 import org.mifosplatform.organisation.monetary.domain.ApplicationCurrency;
 import org.mifosplatform.organisation.monetary.domain.MonetaryCurrency;
 import org.mifosplatform.organisation.monetary.domain.Money;
+import org.mifosplatform.organisation.monetary.domain.MoneyAccumulator;
 import org.mifosplatform.organisation.workingdays.domain.WorkingDays;
 import org.mifosplatform.portfolio.loanaccount.domain.LoanCharge;
 
@@ -178,7 +179,7 @@ public abstract class AbstractLoanScheduleGenerator implements LoanScheduleGener
             final MonetaryCurrency monetaryCurrency, final PrincipalInterest principalInterestForThisPeriod,
             final Money principalDisbursed, final Money totalInterestChargedForFullLoanTerm, int numberOfRepayments) {
 
-        Money cumulative = Money.zero(monetaryCurrency);
+        final MoneyAccumulator cumulative = MoneyAccumulator.zero(monetaryCurrency);
 
         for (final LoanCharge loanCharge : loanCharges) {
             if (loanCharge.isFeeCharge()) {
@@ -194,9 +195,9 @@ public abstract class AbstractLoanScheduleGenerator implements LoanScheduleGener
                             amount = amount.add(principalInterestForThisPeriod.principal().getAmount());
                         }
                         BigDecimal loanChargeAmt = amount.multiply(loanCharge.getPercentage()).divide(BigDecimal.valueOf(100));
-                        cumulative = cumulative.plus(loanChargeAmt);
+                        cumulative.plus(loanChargeAmt);
                     } else {
-                        cumulative = cumulative.plus(loanCharge.amount().divide(BigDecimal.valueOf(numberOfRepayments)));
+                        cumulative.plus(loanCharge.amount().divide(BigDecimal.valueOf(numberOfRepayments)));
                     }
                 } else if (loanCharge.isDueForCollectionFromAndUpToAndIncluding(periodStart, periodEnd) 
                         && loanCharge.getChargeCalculation().isPercentageBased()) {
@@ -209,14 +210,14 @@ public abstract class AbstractLoanScheduleGenerator implements LoanScheduleGener
                         amount = amount.add(principalDisbursed.getAmount());
                     }
                     BigDecimal loanChargeAmt = amount.multiply(loanCharge.getPercentage()).divide(BigDecimal.valueOf(100));
-                    cumulative = cumulative.plus(loanChargeAmt);
+                    cumulative.plus(loanChargeAmt);
                 } else if (loanCharge.isDueForCollectionFromAndUpToAndIncluding(periodStart, periodEnd)) {
-                    cumulative = cumulative.plus(loanCharge.amount());
+                    cumulative.plus(loanCharge.amount());
                 }
             }
         }
 
-        return cumulative;
+        return cumulative.toMoney();
     }
 
     private Money cumulativePenaltyChargesDueWithin(final LocalDate periodStart, final LocalDate periodEnd,
@@ -224,7 +225,7 @@ public abstract class AbstractLoanScheduleGenerator implements LoanScheduleGener
             final PrincipalInterest principalInterestForThisPeriod, final Money principalDisbursed,
             final Money totalInterestChargedForFullLoanTerm, int numberOfRepayments) {
 
-        Money cumulative = Money.zero(monetaryCurrency);
+        final MoneyAccumulator cumulative = MoneyAccumulator.zero(monetaryCurrency);
 
         for (final LoanCharge loanCharge : loanCharges) {
             if (loanCharge.isPenaltyCharge()) {
@@ -240,9 +241,9 @@ public abstract class AbstractLoanScheduleGenerator implements LoanScheduleGener
                             amount = amount.add(principalInterestForThisPeriod.principal().getAmount());
                         }
                         BigDecimal loanChargeAmt = amount.multiply(loanCharge.getPercentage()).divide(BigDecimal.valueOf(100));
-                        cumulative = cumulative.plus(loanChargeAmt);
+                        cumulative.plus(loanChargeAmt);
                     } else {
-                        cumulative = cumulative.plus(loanCharge.amount().divide(BigDecimal.valueOf(numberOfRepayments)));
+                        cumulative.plus(loanCharge.amount().divide(BigDecimal.valueOf(numberOfRepayments)));
                     }
                 } else if (loanCharge.isDueForCollectionFromAndUpToAndIncluding(periodStart, periodEnd) 
                         && loanCharge.getChargeCalculation().isPercentageBased()) {
@@ -255,13 +256,13 @@ public abstract class AbstractLoanScheduleGenerator implements LoanScheduleGener
                         amount = amount.add(principalDisbursed.getAmount());
                     }
                     BigDecimal loanChargeAmt = amount.multiply(loanCharge.getPercentage()).divide(BigDecimal.valueOf(100));
-                    cumulative = cumulative.plus(loanChargeAmt);
+                    cumulative.plus(loanChargeAmt);
                 } else if (loanCharge.isDueForCollectionFromAndUpToAndIncluding(periodStart, periodEnd)) {
-                    cumulative = cumulative.plus(loanCharge.amount());
+                    cumulative.plus(loanCharge.amount());
                 }
             }
         }
 
-        return cumulative;
+        return cumulative.toMoney();
     }
 }
\ No newline at end of file
@@ -0,0 +1,137 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.portfolio.loanaccount.service;
+
+import java.util.Date;
+import java.util.List;
+
+import org.mifosplatform.infrastructure.core.service.RoutingDataSource;
+import org.mifosplatform.organisation.holiday.domain.Holiday;
+import org.mifosplatform.organisation.holiday.domain.HolidayRepositoryWrapper;
+import org.mifosplatform.portfolio.loanaccount.domain.LoanStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallbackWithoutResult;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Moves the repayments of loans falling due in a holiday to the holiday's
+ * repayment rescheduled to date.
+ *
+ * Only loans of the holiday's offices with an installment due in the holiday
+ * are touched. They are found in pages ordered by loan id, and each page is
+ * shifted with set based updates of <code>m_loan_repayment_schedule</code>
+ * committed on its own, so no loan entities are loaded. This gives the same
+ * schedules as {@link org.mifosplatform.portfolio.loanaccount.domain.Loan#applyHolidayToRepaymentScheduleDates(Holiday)}:
+ * installments due in the holiday get the new due date and the installment
+ * after each of them starts from it.
+ *
+ * Shifting is idempotent, so a run that stops part way is completed by the
+ * next run; the holiday is flagged processed once all its pages are done.
+ */
+@Component
+public class HolidayRepaymentRescheduler {
+
+    private final static Logger logger = LoggerFactory.getLogger(HolidayRepaymentRescheduler.class);
+
+    private static final int BATCH_SIZE = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final HolidayRepositoryWrapper holidayRepository;
+
+    @Autowired
+    public HolidayRepaymentRescheduler(final RoutingDataSource dataSource, final PlatformTransactionManager transactionManager,
+            final HolidayRepositoryWrapper holidayRepository) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.holidayRepository = holidayRepository;
+    }
+
+    /**
+     * @return number of loans rescheduled
+     */
+    public long rescheduleRepayments(final Holiday holiday) {
+
+        final Date fromDate = holiday.getFromDateLocalDate().toDate();
+        final Date toDate = holiday.getToDateLocalDate().toDate();
+        final Date rescheduledToDate = holiday.getRepaymentsRescheduledToLocalDate().toDate();
+
+        // individual and jlg loans belong to the client's office, group loans
+        // to the group's
+        final String sql = "select l.id from m_loan l left join m_client c on c.id = l.client_id "
+                + "left join m_group g on g.id = l.group_id "
+                + "where l.id > ? and l.loan_status_id in (?, ?, ?) "
+                + "and exists (select 1 from m_holiday_office ho where ho.holiday_id = ? "
+                + "and (ho.office_id = c.office_id or ho.office_id = g.office_id)) "
+                + "and exists (select 1 from m_loan_repayment_schedule rs where rs.loan_id = l.id and rs.duedate between ? and ?) "
+                + "order by l.id limit " + BATCH_SIZE;
+
+        long rescheduled = 0;
+        long lastLoanId = 0;
+        while (true) {
+            final List<Long> loanIds = this.jdbcTemplate.queryForList(sql, Long.class, lastLoanId,
+                    LoanStatus.SUBMITTED_AND_PENDING_APPROVAL.getValue(), LoanStatus.APPROVED.getValue(), LoanStatus.ACTIVE.getValue(),
+                    holiday.getId(), fromDate, toDate);
+            if (loanIds.isEmpty()) {
+                break;
+            }
+
+            shift(loanIds, fromDate, toDate, rescheduledToDate);
+            rescheduled += loanIds.size();
+
+            lastLoanId = loanIds.get(loanIds.size() - 1);
+            if (loanIds.size() < BATCH_SIZE) {
+                break;
+            }
+        }
+
+        holiday.processed();
+        this.holidayRepository.save(holiday);
+
+        logger.debug("Rescheduled repayments of " + rescheduled + " loans for holiday " + holiday.getId());
+        return rescheduled;
+    }
+
+    private void shift(final List<Long> loanIds, final Date fromDate, final Date toDate, final Date rescheduledToDate) {
+
+        final StringBuilder placeholders = new StringBuilder();
+        for (int i = 0; i < loanIds.size(); i++) {
+            placeholders.append(i == 0 ? "?" : ", ?");
+        }
+
+        // installments following one due in the holiday start from its new
+        // due date; done first as the old due dates identify them
+        final String fromDateSql = "update m_loan_repayment_schedule rs join m_loan_repayment_schedule previous "
+                + "on previous.loan_id = rs.loan_id and previous.installment = rs.installment - 1 "
+                + "set rs.fromdate = ?, rs.lastmodified_date = now() " //
+                + "where rs.loan_id in (" + placeholders + ") and previous.duedate between ? and ?";
+        final String dueDateSql = "update m_loan_repayment_schedule rs set rs.duedate = ?, rs.lastmodified_date = now() "
+                + "where rs.loan_id in (" + placeholders + ") and rs.duedate between ? and ?";
+
+        final Object[] params = new Object[loanIds.size() + 3];
+        params[0] = rescheduledToDate;
+        for (int i = 0; i < loanIds.size(); i++) {
+            params[i + 1] = loanIds.get(i);
+        }
+        params[loanIds.size() + 1] = fromDate;
+        params[loanIds.size() + 2] = toDate;
+
+        this.transactionTemplate.execute(new TransactionCallbackWithoutResult() {
+
+            @Override
+            protected void doInTransactionWithoutResult(@SuppressWarnings("unused") final TransactionStatus status) {
+                HolidayRepaymentRescheduler.this.jdbcTemplate.update(fromDateSql, params);
+                HolidayRepaymentRescheduler.this.jdbcTemplate.update(dueDateSql, params);
+            }
+        });
+    }
+}
@@ -77,6 +77,8 @@ import org.mifosplatform.portfolio.note.domain.Note;
 import org.mifosplatform.portfolio.note.domain.NoteRepository;
 import org.mifosplatform.portfolio.savings.domain.SavingsAccount;
 import org.mifosplatform.portfolio.savings.domain.SavingsAccountAssembler;
+import org.mifosplatform.portfolio.search.domain.SearchEntityType;
+import org.mifosplatform.portfolio.search.service.SearchIndexService;
 import org.mifosplatform.useradministration.domain.AppUser;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -118,6 +120,7 @@ public class LoanApplicationWritePlatformServiceJpaRepositoryImpl implements Loa
     private final LoanReadPlatformService loanReadPlatformService;
     private final LoanFeeMasterAssembler loanFeeMasterAssembler;
     private final LoanRepaymentScheduleInstallmentRepository repaymentScheduleInstallmentRepository;
+    private final SearchIndexService searchIndexService;
 
     @Autowired
     public LoanApplicationWritePlatformServiceJpaRepositoryImpl(final PlatformSecurityContext context, final FromJsonHelper fromJsonHelper,
@@ -133,7 +136,8 @@ public class LoanApplicationWritePlatformServiceJpaRepositoryImpl implements Loa
             final CalendarRepository calendarRepository, final CalendarInstanceRepository calendarInstanceRepository,
             final SavingsAccountAssembler savingsAccountAssembler, final AccountAssociationsRepository accountAssociationsRepository,
             final LoanChargeRepository loanChargeRepository, final LoanReadPlatformService loanReadPlatformService,
-            final LoanFeeMasterAssembler loanFeeMasterAssembler,final LoanRepaymentScheduleInstallmentRepository repaymentScheduleInstallmentRepository) {
+            final LoanFeeMasterAssembler loanFeeMasterAssembler,final LoanRepaymentScheduleInstallmentRepository repaymentScheduleInstallmentRepository,
+            final SearchIndexService searchIndexService) {
         this.context = context;
         this.fromJsonHelper = fromJsonHelper;
         this.loanApplicationTransitionApiJsonValidator = loanApplicationTransitionApiJsonValidator;
@@ -160,6 +164,7 @@ public class LoanApplicationWritePlatformServiceJpaRepositoryImpl implements Loa
         this.loanReadPlatformService = loanReadPlatformService;
         this.loanFeeMasterAssembler = loanFeeMasterAssembler;
         this.repaymentScheduleInstallmentRepository = repaymentScheduleInstallmentRepository;
+        this.searchIndexService = searchIndexService;
     }
 
     private LoanLifecycleStateMachine defaultLoanLifecycleStateMachine() {
@@ -216,6 +221,7 @@ public class LoanApplicationWritePlatformServiceJpaRepositoryImpl implements Loa
                 newLoanApplication.updateAccountNo(accountNoGenerator.generate());
                 this.loanRepository.save(newLoanApplication);
             }
+            this.searchIndexService.entityChanged(SearchEntityType.LOAN, newLoanApplication.getId());
 
             final String submittedOnNote = command.stringValueOfParameterNamed("submittedOnNote");
             if (StringUtils.isNotBlank(submittedOnNote)) {
@@ -408,6 +414,7 @@ public class LoanApplicationWritePlatformServiceJpaRepositoryImpl implements Loa
             }
             
             saveAndFlushLoanWithDataIntegrityViolationChecks(existingLoanApplication);
+            this.searchIndexService.entityChanged(SearchEntityType.LOAN, loanId);
 //madhav need to check
             //this.loanRepository.saveAndFlush(existingLoanApplication);
 
@@ -560,6 +567,7 @@ public class LoanApplicationWritePlatformServiceJpaRepositoryImpl implements Loa
         this.noteRepository.deleteInBatch(relatedNotes);
 
         this.loanRepository.delete(loanId);
+        this.searchIndexService.entityChanged(SearchEntityType.LOAN, loanId);
 
         return new CommandProcessingResultBuilder() //
                 .withEntityId(loanId) //
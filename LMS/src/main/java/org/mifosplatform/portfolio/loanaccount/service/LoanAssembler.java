@@ -7,7 +7,10 @@ package org.mifosplatform.portfolio.loanaccount.service;
 
 import java.math.BigDecimal;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.joda.time.LocalDate;
@@ -129,6 +132,19 @@ public class LoanAssembler {
         return loanAccount;
     }
 
+    public Map<Long, Loan> assembleFrom(final Collection<Long> accountIds) {
+        final Map<Long, Loan> loanAccounts = new HashMap<Long, Loan>();
+        if (accountIds.isEmpty()) { return loanAccounts; }
+
+        final LoanLifecycleStateMachine loanLifecycleStateMachine = defaultLoanLifecycleStateMachine();
+        for (final Loan loanAccount : this.loanRepository.findAll(accountIds)) {
+            loanAccount.setHelpers(loanLifecycleStateMachine, this.loanSummaryWrapper, this.loanRepaymentScheduleTransactionProcessorFactory);
+            loanAccounts.put(loanAccount.getId(), loanAccount);
+        }
+
+        return loanAccounts;
+    }
+
     public Loan assembleFrom(final JsonCommand command, final AppUser currentUser) {
         final JsonElement element = command.parsedJson();
 
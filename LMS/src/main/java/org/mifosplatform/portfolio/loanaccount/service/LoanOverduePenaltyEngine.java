@@ -0,0 +1,314 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.portfolio.loanaccount.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import org.joda.time.LocalDate;
+import org.mifosplatform.accounting.journalentry.service.JournalEntryWritePlatformService;
+import org.mifosplatform.infrastructure.core.data.ApiParameterError;
+import org.mifosplatform.infrastructure.core.exception.PlatformApiDataValidationException;
+import org.mifosplatform.infrastructure.core.service.TenantAwareCallable;
+import org.mifosplatform.infrastructure.jobs.service.JobWorkerPool;
+import org.mifosplatform.organisation.monetary.domain.ApplicationCurrency;
+import org.mifosplatform.organisation.monetary.domain.ApplicationCurrencyRepositoryWrapper;
+import org.mifosplatform.organisation.monetary.domain.MonetaryCurrency;
+import org.mifosplatform.portfolio.account.service.AccountAssociationsReadPlatformService;
+import org.mifosplatform.portfolio.account.service.AccountTransfersWritePlatformService;
+import org.mifosplatform.portfolio.charge.domain.Charge;
+import org.mifosplatform.portfolio.charge.domain.ChargeRepositoryWrapper;
+import org.mifosplatform.portfolio.client.domain.Client;
+import org.mifosplatform.portfolio.client.exception.ClientNotActiveException;
+import org.mifosplatform.portfolio.group.domain.Group;
+import org.mifosplatform.portfolio.group.exception.GroupNotActiveException;
+import org.mifosplatform.portfolio.loanaccount.domain.ChangedTransactionDetail;
+import org.mifosplatform.portfolio.loanaccount.domain.Loan;
+import org.mifosplatform.portfolio.loanaccount.domain.LoanCharge;
+import org.mifosplatform.portfolio.loanaccount.domain.LoanChargeRepository;
+import org.mifosplatform.portfolio.loanaccount.domain.LoanRepository;
+import org.mifosplatform.portfolio.loanaccount.domain.LoanTransaction;
+import org.mifosplatform.portfolio.loanaccount.domain.LoanTransactionRepository;
+import org.mifosplatform.portfolio.loanaccount.exception.LoanNotFoundException;
+import org.mifosplatform.portfolio.loanaccount.loanschedule.data.OverdueLoanScheduleData;
+import org.mifosplatform.portfolio.loanproduct.exception.InvalidCurrencyException;
+import org.mifosplatform.portfolio.loanproduct.exception.LinkedAccountRequiredException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallbackWithoutResult;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Applies the penalties of overdue installments.
+ *
+ * Overdue installments are grouped by loan so that each loan is assembled,
+ * reprocessed and saved once for all its penalties. Loans are processed in
+ * batches on the job worker pool; a batch loads its loans with one query,
+ * flushes once and posts the journal entries of all its loans together, in
+ * one transaction. When a batch fails it is retried one loan at a time so
+ * that a single bad loan cannot hold back the rest of the batch.
+ */
+@Component
+public class LoanOverduePenaltyEngine {
+
+    private final static Logger logger = LoggerFactory.getLogger(LoanOverduePenaltyEngine.class);
+
+    private static final int LOANS_PER_BATCH = 50;
+
+    private final TransactionTemplate transactionTemplate;
+    private final LoanAssembler loanAssembler;
+    private final LoanRepository loanRepository;
+    private final LoanChargeRepository loanChargeRepository;
+    private final LoanTransactionRepository loanTransactionRepository;
+    private final ChargeRepositoryWrapper chargeRepository;
+    private final ApplicationCurrencyRepositoryWrapper applicationCurrencyRepository;
+    private final AccountAssociationsReadPlatformService accountAssociationsReadPlatformService;
+    private final AccountTransfersWritePlatformService accountTransfersWritePlatformService;
+    private final JournalEntryWritePlatformService journalEntryWritePlatformService;
+    private final LoanSummaryChangeLogService loanSummaryChangeLogService;
+    private final JobWorkerPool jobWorkerPool;
+
+    @Autowired
+    public LoanOverduePenaltyEngine(final PlatformTransactionManager transactionManager, final LoanAssembler loanAssembler,
+            final LoanRepository loanRepository, final LoanChargeRepository loanChargeRepository,
+            final LoanTransactionRepository loanTransactionRepository, final ChargeRepositoryWrapper chargeRepository,
+            final ApplicationCurrencyRepositoryWrapper applicationCurrencyRepository,
+            final AccountAssociationsReadPlatformService accountAssociationsReadPlatformService,
+            final AccountTransfersWritePlatformService accountTransfersWritePlatformService,
+            final JournalEntryWritePlatformService journalEntryWritePlatformService,
+            final LoanSummaryChangeLogService loanSummaryChangeLogService, final JobWorkerPool jobWorkerPool) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.loanAssembler = loanAssembler;
+        this.loanRepository = loanRepository;
+        this.loanChargeRepository = loanChargeRepository;
+        this.loanTransactionRepository = loanTransactionRepository;
+        this.chargeRepository = chargeRepository;
+        this.applicationCurrencyRepository = applicationCurrencyRepository;
+        this.accountAssociationsReadPlatformService = accountAssociationsReadPlatformService;
+        this.accountTransfersWritePlatformService = accountTransfersWritePlatformService;
+        this.journalEntryWritePlatformService = journalEntryWritePlatformService;
+        this.loanSummaryChangeLogService = loanSummaryChangeLogService;
+        this.jobWorkerPool = jobWorkerPool;
+    }
+
+    /**
+     * @return overdue installments keyed by loan id, in the order the loans
+     *         first appear
+     */
+    public static Map<Long, List<OverdueLoanScheduleData>> groupByLoan(final Collection<OverdueLoanScheduleData> overdueInstallments) {
+        final Map<Long, List<OverdueLoanScheduleData>> overdueInstallmentsByLoan = new LinkedHashMap<Long, List<OverdueLoanScheduleData>>();
+        for (final OverdueLoanScheduleData overdueInstallment : overdueInstallments) {
+            List<OverdueLoanScheduleData> loanInstallments = overdueInstallmentsByLoan.get(overdueInstallment.getLoanId());
+            if (loanInstallments == null) {
+                loanInstallments = new ArrayList<OverdueLoanScheduleData>();
+                overdueInstallmentsByLoan.put(overdueInstallment.getLoanId(), loanInstallments);
+            }
+            loanInstallments.add(overdueInstallment);
+        }
+        return overdueInstallmentsByLoan;
+    }
+
+    /**
+     * @return a message for each loan its penalties could not be applied to
+     */
+    public List<String> applyPenalties(final Map<Long, List<OverdueLoanScheduleData>> overdueInstallmentsByLoan) {
+
+        final List<String> failures = new ArrayList<String>();
+        if (overdueInstallmentsByLoan.isEmpty()) { return failures; }
+
+        final ExecutorService executorService = this.jobWorkerPool.newExecutorService(this.jobWorkerPool.threadCount());
+        final LinkedList<Future<List<String>>> pendingBatches = new LinkedList<Future<List<String>>>();
+        try {
+            Map<Long, List<OverdueLoanScheduleData>> batch = new LinkedHashMap<Long, List<OverdueLoanScheduleData>>();
+            for (final Map.Entry<Long, List<OverdueLoanScheduleData>> loanInstallments : overdueInstallmentsByLoan.entrySet()) {
+                batch.put(loanInstallments.getKey(), loanInstallments.getValue());
+                if (batch.size() == LOANS_PER_BATCH) {
+                    pendingBatches.add(executorService.submit(new OverduePenaltyTask(batch)));
+                    batch = new LinkedHashMap<Long, List<OverdueLoanScheduleData>>();
+                }
+            }
+            if (!batch.isEmpty()) {
+                pendingBatches.add(executorService.submit(new OverduePenaltyTask(batch)));
+            }
+            while (!pendingBatches.isEmpty()) {
+                failures.addAll(pendingBatches.removeFirst().get());
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Applying penalties to overdue loans was interrupted", e);
+        } catch (final ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) { throw (RuntimeException) cause; }
+            throw new IllegalStateException(cause);
+        } finally {
+            executorService.shutdownNow();
+        }
+        return failures;
+    }
+
+    private final class OverduePenaltyTask extends TenantAwareCallable<List<String>> {
+
+        private final Map<Long, List<OverdueLoanScheduleData>> overdueInstallmentsByLoan;
+
+        OverduePenaltyTask(final Map<Long, List<OverdueLoanScheduleData>> overdueInstallmentsByLoan) {
+            this.overdueInstallmentsByLoan = overdueInstallmentsByLoan;
+        }
+
+        @Override
+        protected List<String> callForTenant() {
+            final List<String> failures = new ArrayList<String>();
+            try {
+                applyPenaltiesInTransaction(this.overdueInstallmentsByLoan);
+            } catch (final RuntimeException batchException) {
+                for (final Map.Entry<Long, List<OverdueLoanScheduleData>> loanInstallments : this.overdueInstallmentsByLoan.entrySet()) {
+                    final Long loanId = loanInstallments.getKey();
+                    try {
+                        final Map<Long, List<OverdueLoanScheduleData>> singleLoan = new HashMap<Long, List<OverdueLoanScheduleData>>();
+                        singleLoan.put(loanId, loanInstallments.getValue());
+                        applyPenaltiesInTransaction(singleLoan);
+                    } catch (final PlatformApiDataValidationException e) {
+                        for (final ApiParameterError error : e.getErrors()) {
+                            logger.error("Apply Charges due for overdue loans failed for account:" + loanId + " with message "
+                                    + error.getDeveloperMessage());
+                        }
+                        failures.add("Apply Charges due for overdue loans failed for account:" + loanId + " with message "
+                                + e.getMessage());
+                    } catch (final RuntimeException e) {
+                        logger.error("Apply Charges due for overdue loans failed for account:" + loanId, e);
+                        failures.add("Apply Charges due for overdue loans failed for account:" + loanId + " with message "
+                                + e.getMessage());
+                    }
+                }
+            }
+            return failures;
+        }
+    }
+
+    private void applyPenaltiesInTransaction(final Map<Long, List<OverdueLoanScheduleData>> overdueInstallmentsByLoan) {
+        this.transactionTemplate.execute(new TransactionCallbackWithoutResult() {
+
+            @Override
+            protected void doInTransactionWithoutResult(@SuppressWarnings("unused") final TransactionStatus status) {
+                applyPenalties(overdueInstallmentsByLoan.keySet(), overdueInstallmentsByLoan);
+            }
+        });
+    }
+
+    private void applyPenalties(final Collection<Long> loanIds, final Map<Long, List<OverdueLoanScheduleData>> overdueInstallmentsByLoan) {
+
+        final Map<Long, Loan> loans = this.loanAssembler.assembleFrom(loanIds);
+        final Map<Long, Charge> chargeDefinitions = new HashMap<Long, Charge>();
+
+        final Map<Long, List<Long>> existingTransactionIdsByLoan = new LinkedHashMap<Long, List<Long>>();
+        final Map<Long, List<Long>> existingReversedTransactionIdsByLoan = new HashMap<Long, List<Long>>();
+        for (final Long loanId : loanIds) {
+            final Loan loan = loans.get(loanId);
+            if (loan == null) { throw new LoanNotFoundException(loanId); }
+            checkClientOrGroupActive(loan);
+
+            final List<LoanCharge> loanCharges = new ArrayList<LoanCharge>();
+            boolean requiresLinkedAccount = false;
+            for (final OverdueLoanScheduleData overdueInstallment : overdueInstallmentsByLoan.get(loanId)) {
+                Charge chargeDefinition = chargeDefinitions.get(overdueInstallment.getChargeId());
+                if (chargeDefinition == null) {
+                    chargeDefinition = this.chargeRepository.findOneWithNotFoundDetection(overdueInstallment.getChargeId());
+                    chargeDefinitions.put(chargeDefinition.getId(), chargeDefinition);
+                }
+                if (!loan.hasCurrencyCodeOf(chargeDefinition.getCurrencyCode())) {
+                    final String errorMessage = "Charge and Loan must have the same currency.";
+                    throw new InvalidCurrencyException("loanCharge", "attach.to.loan", errorMessage);
+                }
+
+                final LoanCharge loanCharge = LoanCharge.createNew(loan, chargeDefinition, overdueInstallment.getAmount(), new LocalDate(
+                        overdueInstallment.getDueDate()));
+                if (loanCharge.getChargePaymentMode().isPaymentModeAccountTransfer() && !requiresLinkedAccount) {
+                    requiresLinkedAccount = true;
+                    if (this.accountAssociationsReadPlatformService.retriveLoanAssociation(loanId) == null) {
+                        final String errorMessage = loanCharge.name() + "Charge  requires linked savings account for payment";
+                        throw new LinkedAccountRequiredException("loanCharge.add", errorMessage, loanCharge.name());
+                    }
+                }
+                loanCharges.add(loanCharge);
+            }
+
+            final List<Long> existingTransactionIds = new ArrayList<Long>();
+            final List<Long> existingReversedTransactionIds = new ArrayList<Long>();
+            this.loanChargeRepository.save(loanCharges);
+
+            final ChangedTransactionDetail changedTransactionDetail = loan.addLoanCharges(loanCharges, existingTransactionIds,
+                    existingReversedTransactionIds);
+
+            // we want to apply charge transactions only for those loans charges
+            // that are applied when a loan is active
+            if (loan.status().isActive()) {
+                final List<LoanTransaction> applyLoanChargeTransactions = new ArrayList<LoanTransaction>(loanCharges.size());
+                for (final LoanCharge loanCharge : loanCharges) {
+                    applyLoanChargeTransactions.add(loan.handleChargeAppliedTransaction(loanCharge, null));
+                }
+                this.loanTransactionRepository.save(applyLoanChargeTransactions);
+                this.loanRepository.save(loan);
+                if (changedTransactionDetail != null) {
+                    for (final Map.Entry<Long, LoanTransaction> mapEntry : changedTransactionDetail.getNewTransactionMappings().entrySet()) {
+                        this.loanTransactionRepository.save(mapEntry.getValue());
+                        this.accountTransfersWritePlatformService.updateLoanTransaction(mapEntry.getKey(), mapEntry.getValue());
+                    }
+                }
+
+                existingTransactionIdsByLoan.put(loanId, existingTransactionIds);
+                existingReversedTransactionIdsByLoan.put(loanId, existingReversedTransactionIds);
+            } else {
+                this.loanRepository.save(loan);
+            }
+        }
+
+        this.loanRepository.flush();
+
+        // we post Journal entries only for loans in active status
+        final List<Map<String, Object>> accountingBridgeDataForLoans = new ArrayList<Map<String, Object>>(
+                existingTransactionIdsByLoan.size());
+        final Map<String, ApplicationCurrency> applicationCurrencies = new HashMap<String, ApplicationCurrency>();
+        for (final Long loanId : existingTransactionIdsByLoan.keySet()) {
+            final Loan loan = loans.get(loanId);
+            final MonetaryCurrency currency = loan.getCurrency();
+            ApplicationCurrency applicationCurrency = applicationCurrencies.get(currency.getCode());
+            if (applicationCurrency == null) {
+                applicationCurrency = this.applicationCurrencyRepository.findOneWithNotFoundDetection(currency);
+                applicationCurrencies.put(currency.getCode(), applicationCurrency);
+            }
+            accountingBridgeDataForLoans.add(loan.deriveAccountingBridgeData(applicationCurrency.toData(),
+                    existingTransactionIdsByLoan.get(loanId), existingReversedTransactionIdsByLoan.get(loanId)));
+        }
+        this.journalEntryWritePlatformService.createJournalEntriesForLoans(accountingBridgeDataForLoans);
+
+        for (final Long loanId : existingTransactionIdsByLoan.keySet()) {
+            this.loanSummaryChangeLogService.markLoanAsChanged(loanId);
+        }
+    }
+
+    private void checkClientOrGroupActive(final Loan loan) {
+        final Client client = loan.client();
+        if (client != null) {
+            if (client.isNotActive()) { throw new ClientNotActiveException(client.getId()); }
+        }
+        final Group group = loan.group();
+        if (group != null) {
+            if (group.isNotActive()) { throw new GroupNotActiveException(group.getId()); }
+        }
+    }
+
+}
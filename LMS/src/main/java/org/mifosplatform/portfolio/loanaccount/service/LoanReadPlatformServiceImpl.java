@@ -269,7 +269,10 @@ public class LoanReadPlatformServiceImpl implements LoanReadPlatformService {
         final String hierarchySearchString = hierarchy + "%";
 
         final StringBuilder sqlBuilder = new StringBuilder(200);
-        sqlBuilder.append("select SQL_CALC_FOUND_ROWS ");
+        sqlBuilder.append("select ");
+        if (!searchParameters.isKeysetPaginationRequested()) {
+            sqlBuilder.append("SQL_CALC_FOUND_ROWS ");
+        }
         sqlBuilder.append(this.loaanLoanMapper.loanSchema());
 
         // TODO - for time being this will data scope list of loans returned to
@@ -298,6 +301,11 @@ public class LoanReadPlatformServiceImpl implements LoanReadPlatformService {
             arrayPos = arrayPos + 1;
         }
 
+        if (searchParameters.isKeysetPaginationRequested()) {
+            return this.paginationHelper.fetchPage(this.jdbcTemplate, sqlBuilder.toString(), Arrays.copyOf(objectArray, arrayPos), "l.id",
+                    "id", searchParameters.getKeysetPageRequest(false), this.loaanLoanMapper);
+        }
+
         if (searchParameters.isOrderByRequested()) {
             sqlBuilder.append(" order by ").append(searchParameters.getOrderBy());
 
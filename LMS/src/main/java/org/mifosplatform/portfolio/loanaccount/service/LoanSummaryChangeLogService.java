@@ -0,0 +1,25 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.portfolio.loanaccount.service;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Keeps track of loans whose repayment schedule has been touched since the
+ * last run of the loan summary job, so that only those loans need their
+ * <code>*_derived</code> summary columns recomputed.
+ */
+public interface LoanSummaryChangeLogService {
+
+    void markLoanAsChanged(Long loanId);
+
+    Long retrieveMaxLogEntryId();
+
+    List<Long> retrieveChangedLoanIds(Long maxLogEntryId, Long afterLoanId, int limit);
+
+    void removeLogEntries(Long maxLogEntryId, Collection<Long> loanIds);
+}
@@ -0,0 +1,72 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.portfolio.loanaccount.service;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.mifosplatform.infrastructure.core.service.RoutingDataSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+
+/**
+ * The change log is append only: writers never update or lock existing rows,
+ * and the summary job consumes entries up to a watermark id captured at the
+ * start of its run, so loans touched while the job is running are picked up
+ * on the next run.
+ */
+@Service
+public class LoanSummaryChangeLogServiceImpl implements LoanSummaryChangeLogService {
+
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    @Autowired
+    public LoanSummaryChangeLogServiceImpl(final RoutingDataSource dataSource) {
+        this.namedParameterJdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+    }
+
+    @Override
+    public void markLoanAsChanged(final Long loanId) {
+        if (loanId == null) { return; }
+
+        final String sql = "insert into m_loan_summary_change_log (loan_id, created_date) values (:loanId, now())";
+        this.namedParameterJdbcTemplate.update(sql, new MapSqlParameterSource("loanId", loanId));
+    }
+
+    @Override
+    public Long retrieveMaxLogEntryId() {
+        final String sql = "select ifnull(max(id), 0) from m_loan_summary_change_log";
+        return this.namedParameterJdbcTemplate.queryForObject(sql, new MapSqlParameterSource(), Long.class);
+    }
+
+    @Override
+    public List<Long> retrieveChangedLoanIds(final Long maxLogEntryId, final Long afterLoanId, final int limit) {
+        final String sql = "select distinct loan_id from m_loan_summary_change_log where id <= :maxLogEntryId and loan_id > :afterLoanId "
+                + "order by loan_id limit :limit";
+
+        final MapSqlParameterSource paramMap = new MapSqlParameterSource();
+        paramMap.addValue("maxLogEntryId", maxLogEntryId);
+        paramMap.addValue("afterLoanId", afterLoanId);
+        paramMap.addValue("limit", limit);
+
+        return this.namedParameterJdbcTemplate.queryForList(sql, paramMap, Long.class);
+    }
+
+    @Override
+    public void removeLogEntries(final Long maxLogEntryId, final Collection<Long> loanIds) {
+        if (loanIds == null || loanIds.isEmpty()) { return; }
+
+        final String sql = "delete from m_loan_summary_change_log where id <= :maxLogEntryId and loan_id in (:loanIds)";
+
+        final MapSqlParameterSource paramMap = new MapSqlParameterSource();
+        paramMap.addValue("maxLogEntryId", maxLogEntryId);
+        paramMap.addValue("loanIds", loanIds);
+
+        this.namedParameterJdbcTemplate.update(sql, paramMap);
+    }
+}
@@ -31,9 +31,14 @@ import org.mifosplatform.infrastructure.core.exception.PlatformApiDataValidation
 import org.mifosplatform.infrastructure.core.exception.PlatformServiceUnavailableException;
 import org.mifosplatform.infrastructure.core.serialization.FromJsonHelper;
 import org.mifosplatform.infrastructure.core.service.GmailSendingNotificationToClients;
+import org.mifosplatform.infrastructure.core.service.ThreadLocalContextUtil;
 import org.mifosplatform.infrastructure.jobs.annotation.CronTarget;
 import org.mifosplatform.infrastructure.jobs.exception.JobExecutionException;
+import org.mifosplatform.infrastructure.jobs.service.ChunkedJob;
+import org.mifosplatform.infrastructure.jobs.service.ChunkedJobExecutor;
 import org.mifosplatform.infrastructure.jobs.service.JobName;
+import org.mifosplatform.infrastructure.jobs.service.JobRunStatistics;
+import org.mifosplatform.infrastructure.jobs.service.JobRunStatisticsHolder;
 import org.mifosplatform.infrastructure.security.service.PlatformSecurityContext;
 import org.mifosplatform.organisation.holiday.domain.Holiday;
 import org.mifosplatform.organisation.holiday.domain.HolidayRepositoryWrapper;
@@ -120,7 +125,6 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.CollectionUtils;
 
-import com.google.gson.JsonElement;
 
 @Service
 public class LoanWritePlatformServiceJpaRepositoryImpl implements LoanWritePlatformService {
@@ -153,6 +157,10 @@ public class LoanWritePlatformServiceJpaRepositoryImpl implements LoanWritePlatf
     private final LoanReadPlatformService loanReadPlatformService;
     private final FromJsonHelper fromApiJsonHelper;
     private final GmailSendingNotificationToClients gmailSendingNotificationToClients;
+    private final LoanSummaryChangeLogService loanSummaryChangeLogService;
+    private final HolidayRepaymentRescheduler holidayRepaymentRescheduler;
+    private final LoanOverduePenaltyEngine loanOverduePenaltyEngine;
+    private final ChunkedJobExecutor chunkedJobExecutor;
 
     @Autowired
     public LoanWritePlatformServiceJpaRepositoryImpl(final PlatformSecurityContext context,
@@ -171,7 +179,9 @@ public class LoanWritePlatformServiceJpaRepositoryImpl implements LoanWritePlatf
             final AccountTransfersReadPlatformService accountTransfersReadPlatformService,
             final AccountAssociationsReadPlatformService accountAssociationsReadPlatformService,
             final LoanChargeReadPlatformService loanChargeReadPlatformService, final LoanReadPlatformService loanReadPlatformService,
-            final FromJsonHelper fromApiJsonHelper,final GmailSendingNotificationToClients gmailSendingNotificationToClients) {
+            final FromJsonHelper fromApiJsonHelper,final GmailSendingNotificationToClients gmailSendingNotificationToClients,
+            final LoanSummaryChangeLogService loanSummaryChangeLogService, final HolidayRepaymentRescheduler holidayRepaymentRescheduler,
+            final LoanOverduePenaltyEngine loanOverduePenaltyEngine, final ChunkedJobExecutor chunkedJobExecutor) {
         this.context = context;
         this.loanEventApiJsonValidator = loanEventApiJsonValidator;
         this.loanAssembler = loanAssembler;
@@ -198,6 +208,10 @@ public class LoanWritePlatformServiceJpaRepositoryImpl implements LoanWritePlatf
         this.loanReadPlatformService = loanReadPlatformService;
         this.fromApiJsonHelper = fromApiJsonHelper;
         this.gmailSendingNotificationToClients=gmailSendingNotificationToClients;
+        this.loanSummaryChangeLogService = loanSummaryChangeLogService;
+        this.holidayRepaymentRescheduler = holidayRepaymentRescheduler;
+        this.loanOverduePenaltyEngine = loanOverduePenaltyEngine;
+        this.chunkedJobExecutor = chunkedJobExecutor;
     }
 
     private LoanLifecycleStateMachine defaultLoanLifecycleStateMachine() {
@@ -487,6 +501,7 @@ public class LoanWritePlatformServiceJpaRepositoryImpl implements LoanWritePlatf
             final Map<String, Object> accountingBridgeData = loan.deriveAccountingBridgeData(applicationCurrency.toData(),
                     existingTransactionIds, existingReversedTransactionIds);
             this.journalEntryWritePlatformService.createJournalEntriesForLoan(accountingBridgeData);
+            this.loanSummaryChangeLogService.markLoanAsChanged(loan.getId());
         }
 
         return new CommandProcessingResultBuilder() //
@@ -551,19 +566,16 @@ public class LoanWritePlatformServiceJpaRepositoryImpl implements LoanWritePlatf
         final SingleRepaymentCommand[] repaymentCommand = bulkRepaymentCommand.getLoanTransactions();
         final Map<String, Object> changes = new LinkedHashMap<String, Object>();
 
-        if (repaymentCommand == null) { return changes; }
+        if (repaymentCommand == null || repaymentCommand.length == 0) { return changes; }
 
-        for (final SingleRepaymentCommand singleLoanRepaymentCommand : repaymentCommand) {
-            /****
-             * TODO Vishwas, have a re-look at this implementation, defaulting
-             * it to null for now
-             ***/
-            final Loan loan = this.loanAssembler.assembleFrom(singleLoanRepaymentCommand.getLoanId());
-            final PaymentDetail paymentDetail = null;
-            final CommandProcessingResultBuilder commandProcessingResultBuilder = new CommandProcessingResultBuilder();
-            this.loanAccountDomainService.makeRepayment(loan, commandProcessingResultBuilder, bulkRepaymentCommand.getTransactionDate(),
-                    singleLoanRepaymentCommand.getTransactionAmount(), paymentDetail, bulkRepaymentCommand.getNote(), null);
+        /****
+         * TODO Vishwas, have a re-look at this implementation, payment details
+         * are defaulted to null for now
+         ***/
+        this.loanAccountDomainService.makeBulkRepayment(repaymentCommand, bulkRepaymentCommand.getTransactionDate(),
+                bulkRepaymentCommand.getNote());
 
+        for (final SingleRepaymentCommand singleLoanRepaymentCommand : repaymentCommand) {
             changes.put("bulkTransations", singleLoanRepaymentCommand);
         }
         return changes;
@@ -1164,60 +1176,80 @@ public class LoanWritePlatformServiceJpaRepositoryImpl implements LoanWritePlatf
                 .withSavingsId(portfolioAccountData.accountId()).build();
     }
 
+    /**
+     * Pays the due fee charges of active loans from their linked savings
+     * accounts. Transfers are partitioned by linked savings and loan account
+     * and run in checkpointed chunks on the job worker pool, see
+     * {@link ChunkedJobExecutor}.
+     */
     @Override
     @CronTarget(jobName = JobName.TRANSFER_FEE_CHARGE_FOR_LOANS)
     public void transferFeeCharges() throws JobExecutionException {
         final Collection<LoanChargeData> chargeDatas = this.loanChargeReadPlatformService.retrieveLoanChargesForFeePayment(
                 ChargePaymentMode.ACCOUNT_TRANSFER.getValue(), LoanStatus.ACTIVE.getValue());
-        final StringBuilder sb = new StringBuilder();
+        final LocalDate today = new LocalDate();
+        final List<AccountTransferDTO> transfers = new ArrayList<AccountTransferDTO>();
+        final Map<Long, PortfolioAccountData> linkedAccounts = new HashMap<Long, PortfolioAccountData>();
         if (chargeDatas != null) {
             for (final LoanChargeData chargeData : chargeDatas) {
                 if (chargeData.isInstallmentFee()) {
                     final Collection<LoanInstallmentChargeData> chargePerInstallments = this.loanChargeReadPlatformService
                             .retrieveInstallmentLoanCharges(chargeData.getId(), true);
-                    PortfolioAccountData portfolioAccountData = null;
                     for (final LoanInstallmentChargeData installmentChargeData : chargePerInstallments) {
-                        if (!installmentChargeData.getDueDate().isAfter(new LocalDate())) {
-                            if (portfolioAccountData == null) {
-                                portfolioAccountData = this.accountAssociationsReadPlatformService.retriveLoanAssociation(chargeData
-                                        .getLoanId());
-                            }
-                            final AccountTransferDTO accountTransferDTO = new AccountTransferDTO(new LocalDate(),
-                                    installmentChargeData.getAmountOutstanding(), PortfolioAccountType.SAVINGS, PortfolioAccountType.LOAN,
-                                    portfolioAccountData.accountId(), chargeData.getLoanId(), "Loan Charge Payment", null, null, null,
-                                    null, LoanTransactionType.CHARGE_PAYMENT.getValue(), chargeData.getId(),
-                                    installmentChargeData.getInstallmentNumber());
-                            transferFeeCharge(sb, accountTransferDTO);
+                        if (!installmentChargeData.getDueDate().isAfter(today)) {
+                            final PortfolioAccountData portfolioAccountData = retrieveLinkedAccount(linkedAccounts,
+                                    chargeData.getLoanId());
+                            transfers.add(new AccountTransferDTO(today, installmentChargeData.getAmountOutstanding(),
+                                    PortfolioAccountType.SAVINGS, PortfolioAccountType.LOAN, portfolioAccountData.accountId(), chargeData
+                                            .getLoanId(), "Loan Charge Payment", null, null, null, null, LoanTransactionType.CHARGE_PAYMENT
+                                            .getValue(), chargeData.getId(), installmentChargeData.getInstallmentNumber()));
                         }
                     }
-                } else if (chargeData.getDueDate() != null && !chargeData.getDueDate().isAfter(new LocalDate())) {
-                    final PortfolioAccountData portfolioAccountData = this.accountAssociationsReadPlatformService
-                            .retriveLoanAssociation(chargeData.getLoanId());
-                    final AccountTransferDTO accountTransferDTO = new AccountTransferDTO(new LocalDate(),
-                            chargeData.getAmountOutstanding(), PortfolioAccountType.SAVINGS, PortfolioAccountType.LOAN,
-                            portfolioAccountData.accountId(), chargeData.getLoanId(), "Loan Charge Payment", null, null, null, null,
-                            LoanTransactionType.CHARGE_PAYMENT.getValue(), chargeData.getId(), null);
-                    transferFeeCharge(sb, accountTransferDTO);
+                } else if (chargeData.getDueDate() != null && !chargeData.getDueDate().isAfter(today)) {
+                    final PortfolioAccountData portfolioAccountData = retrieveLinkedAccount(linkedAccounts, chargeData.getLoanId());
+                    transfers.add(new AccountTransferDTO(today, chargeData.getAmountOutstanding(), PortfolioAccountType.SAVINGS,
+                            PortfolioAccountType.LOAN, portfolioAccountData.accountId(), chargeData.getLoanId(), "Loan Charge Payment",
+                            null, null, null, null, LoanTransactionType.CHARGE_PAYMENT.getValue(), chargeData.getId(), null));
+                }
+            }
+        }
+
+        this.chunkedJobExecutor.execute(JobName.TRANSFER_FEE_CHARGE_FOR_LOANS, transfers, new ChunkedJob<AccountTransferDTO>() {
+
+            @Override
+            public String partitionKey(final AccountTransferDTO accountTransferDTO) {
+                return ChunkedJobExecutor.partitionKey(accountTransferDTO.getFromAccountId(), accountTransferDTO.getToAccountId());
+            }
+
+            @Override
+            public List<String> processPartition(final List<AccountTransferDTO> accountTransferDTOs) {
+                final List<String> failures = new ArrayList<String>();
+                for (final AccountTransferDTO accountTransferDTO : accountTransferDTOs) {
+                    transferFeeCharge(failures, accountTransferDTO);
                 }
+                return failures;
             }
+        });
+    }
+
+    private PortfolioAccountData retrieveLinkedAccount(final Map<Long, PortfolioAccountData> linkedAccounts, final Long loanId) {
+        PortfolioAccountData portfolioAccountData = linkedAccounts.get(loanId);
+        if (portfolioAccountData == null) {
+            portfolioAccountData = this.accountAssociationsReadPlatformService.retriveLoanAssociation(loanId);
+            linkedAccounts.put(loanId, portfolioAccountData);
         }
-        if (sb.length() > 0) { throw new JobExecutionException(sb.toString()); }
+        return portfolioAccountData;
     }
 
-    /**
-     * @param sb
-     * @param accountTransferDTO
-     */
-    private void transferFeeCharge(final StringBuilder sb, final AccountTransferDTO accountTransferDTO) {
+    private void transferFeeCharge(final List<String> failures, final AccountTransferDTO accountTransferDTO) {
         try {
             this.accountTransfersWritePlatformService.transferFunds(accountTransferDTO);
         } catch (final PlatformApiDataValidationException e) {
-            sb.append("Validation exception while paying charge ").append(accountTransferDTO.getChargeId()).append(" for loan id:")
-                    .append(accountTransferDTO.getToAccountId()).append("--------");
+            failures.add("Validation exception while paying charge " + accountTransferDTO.getChargeId() + " for loan id:"
+                    + accountTransferDTO.getToAccountId());
         } catch (final InsufficientAccountBalanceException e) {
-            sb.append("InsufficientAccountBalance Exception while paying charge ").append(accountTransferDTO.getChargeId())
-                    .append("for loan id:").append(accountTransferDTO.getToAccountId()).append("--------");
-
+            failures.add("InsufficientAccountBalance Exception while paying charge " + accountTransferDTO.getChargeId()
+                    + "for loan id:" + accountTransferDTO.getToAccountId());
         }
     }
 
@@ -1411,6 +1443,7 @@ public class LoanWritePlatformServiceJpaRepositoryImpl implements LoanWritePlatf
         final Map<String, Object> accountingBridgeData = loan.deriveAccountingBridgeData(applicationCurrency.toData(),
                 existingTransactionIds, existingReversedTransactionIds);
         this.journalEntryWritePlatformService.createJournalEntriesForLoan(accountingBridgeData);
+        this.loanSummaryChangeLogService.markLoanAsChanged(loan.getId());
     }
 
     @Transactional
@@ -1589,7 +1622,6 @@ public class LoanWritePlatformServiceJpaRepositoryImpl implements LoanWritePlatf
         this.loanRepository.save(loansToUpdate);
     }
 
-    @Transactional
     @Override
     @CronTarget(jobName = JobName.APPLY_HOLIDAYS_TO_LOANS)
     public void applyHolidaysToLoans() {
@@ -1598,37 +1630,18 @@ public class LoanWritePlatformServiceJpaRepositoryImpl implements LoanWritePlatf
 
         if (!isHolidayEnabled) { return; }
 
-        final Collection<Integer> loanStatuses = new ArrayList<Integer>(Arrays.asList(LoanStatus.SUBMITTED_AND_PENDING_APPROVAL.getValue(),
-                LoanStatus.APPROVED.getValue(), LoanStatus.ACTIVE.getValue()));
+        final long startTime = System.currentTimeMillis();
+        long rescheduled = 0;
         // Get all Holidays which are active and not processed
         final List<Holiday> holidays = this.holidayRepository.findUnprocessed();
-
-        // Loop through all holidays
         for (final Holiday holiday : holidays) {
-            // All offices to which holiday is applied
-            final Set<Office> offices = holiday.getOffices();
-            final Collection<Long> officeIds = new ArrayList<Long>(offices.size());
-            for (final Office office : offices) {
-                officeIds.add(office.getId());
-            }
-
-            // get all loans
-            final List<Loan> loans = new ArrayList<Loan>();
-            // get all individual and jlg loans
-            loans.addAll(this.loanRepository.findByClientOfficeIdsAndLoanStatus(officeIds, loanStatuses));
-            // FIXME: AA optimize to get all client and group loans belongs to a
-            // office id
-            // get all group loans
-            loans.addAll(this.loanRepository.findByGroupOfficeIdsAndLoanStatus(officeIds, loanStatuses));
-
-            for (final Loan loan : loans) {
-                // apply holiday
-                loan.applyHolidayToRepaymentScheduleDates(holiday);
-            }
-            this.loanRepository.save(loans);
-            holiday.processed();
+            rescheduled += this.holidayRepaymentRescheduler.rescheduleRepayments(holiday);
         }
-        this.holidayRepository.save(holidays);
+
+        final JobRunStatistics statistics = new JobRunStatistics(rescheduled, System.currentTimeMillis() - startTime);
+        JobRunStatisticsHolder.setStatistics(statistics);
+        logger.info(ThreadLocalContextUtil.getTenant().getName() + ": Loans rescheduled for holidays: " + rescheduled + " ("
+                + statistics.getProcessedPerSecond() + " loans/second)");
     }
 
     private void checkForProductMixRestrictions(final Loan loan) {
@@ -1673,77 +1686,26 @@ public class LoanWritePlatformServiceJpaRepositoryImpl implements LoanWritePlatf
     @CronTarget(jobName = JobName.APPLY_CHARGE_TO_OVERDUE_LOAN_INSTALLMENT)
     public void applyChargeForOverdueLoans() throws JobExecutionException {
 
+        final long startTime = System.currentTimeMillis();
         final Long penaltyWaitPeriodValue = this.configurationDomainService.retrievePenaltyWaitPeriod();
         final Collection<OverdueLoanScheduleData> overdueLoanScheduledInstallments = this.loanReadPlatformService
                 .retrieveAllLoansWithOverdueInstallmentsNotAlreadyPenalized(penaltyWaitPeriodValue);
 
-        if (!overdueLoanScheduledInstallments.isEmpty()) {
-            for (final OverdueLoanScheduleData overdueInstallment : overdueLoanScheduledInstallments) {
-                try {
-
-                    final JsonElement parsedCommand = this.fromApiJsonHelper.parse(overdueInstallment.toString());
-
-                    final JsonCommand command = JsonCommand.from(overdueInstallment.toString(), parsedCommand, this.fromApiJsonHelper,
-                            null, null, null, null, null, overdueInstallment.getLoanId(), null, null, null, null, null, null, null);
-
-                    applyChargeToOverdueLoanInstallment(overdueInstallment.getLoanId(), overdueInstallment.getChargeId(), command);
-
-                } catch (final PlatformApiDataValidationException e) {
-                    final List<ApiParameterError> errors = e.getErrors();
-                    for (final ApiParameterError error : errors) {
-                        logger.error("Apply Charges due for overdue loans failed for account:" + overdueInstallment.getLoanId()
-                                + " with message " + error.getDeveloperMessage());
-                    }
-                }
-            }
-        }
-    }
-
-    @Transactional
-    public void applyChargeToOverdueLoanInstallment(final Long loanId, final Long loanChargeId, final JsonCommand command) {
-
-        final Loan loan = this.loanAssembler.assembleFrom(loanId);
-        checkClientOrGroupActive(loan);
-
-        final Charge chargeDefinition = this.chargeRepository.findOneWithNotFoundDetection(loanChargeId);
-
-        final LoanCharge loanCharge = LoanCharge.createNewFromJson(loan, chargeDefinition, command);
+        final Map<Long, List<OverdueLoanScheduleData>> overdueInstallmentsByLoan = LoanOverduePenaltyEngine
+                .groupByLoan(overdueLoanScheduledInstallments);
+        final List<String> failures = this.loanOverduePenaltyEngine.applyPenalties(overdueInstallmentsByLoan);
 
-        if (!loan.hasCurrencyCodeOf(chargeDefinition.getCurrencyCode())) {
-            final String errorMessage = "Charge and Loan must have the same currency.";
-            throw new InvalidCurrencyException("loanCharge", "attach.to.loan", errorMessage);
-        }
+        final int applied = overdueInstallmentsByLoan.size() - failures.size();
+        JobRunStatisticsHolder.setStatistics(new JobRunStatistics(applied, failures.size(), System.currentTimeMillis() - startTime));
+        logger.info(ThreadLocalContextUtil.getTenant().getName() + ": Loans penalized for overdue installments: " + applied
+                + ", failed: " + failures.size());
 
-        if (loanCharge.getChargePaymentMode().isPaymentModeAccountTransfer()) {
-            final PortfolioAccountData portfolioAccountData = this.accountAssociationsReadPlatformService.retriveLoanAssociation(loanId);
-            if (portfolioAccountData == null) {
-                final String errorMessage = loanCharge.name() + "Charge  requires linked savings account for payment";
-                throw new LinkedAccountRequiredException("loanCharge.add", errorMessage, loanCharge.name());
+        if (!failures.isEmpty()) {
+            final StringBuilder sb = new StringBuilder();
+            for (final String failure : failures) {
+                sb.append(failure).append("--------");
             }
-        }
-
-        final List<Long> existingTransactionIds = new ArrayList<Long>();
-        final List<Long> existingReversedTransactionIds = new ArrayList<Long>();
-        this.loanChargeRepository.save(loanCharge);
-
-        final ChangedTransactionDetail changedTransactionDetail = loan.addLoanCharge(loanCharge, existingTransactionIds,
-                existingReversedTransactionIds);
-
-        // we want to apply charge transactions only for those loans charges
-        // that are applied when a loan is active
-        if (loan.status().isActive()) {
-            final LoanTransaction applyLoanChargeTransaction = loan.handleChargeAppliedTransaction(loanCharge, null);
-            this.loanTransactionRepository.save(applyLoanChargeTransaction);
-            this.loanRepository.saveAndFlush(loan);
-            if (changedTransactionDetail != null) {
-                for (final Map.Entry<Long, LoanTransaction> mapEntry : changedTransactionDetail.getNewTransactionMappings().entrySet()) {
-                    this.loanTransactionRepository.save(mapEntry.getValue());
-                    this.accountTransfersWritePlatformService.updateLoanTransaction(mapEntry.getKey(), mapEntry.getValue());
-                }
-            }
-
-            // we post Journal entries only for loans in active status
-            postJournalEntries(loan, existingTransactionIds, existingReversedTransactionIds);
+            throw new JobExecutionException(sb.toString());
         }
     }
 
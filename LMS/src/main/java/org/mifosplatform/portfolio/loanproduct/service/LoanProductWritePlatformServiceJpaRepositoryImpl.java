@@ -41,6 +41,8 @@ import org.mifosplatform.portfolio.loanproduct.serialization.LoanProductDataVali
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -85,6 +87,11 @@ public class LoanProductWritePlatformServiceJpaRepositoryImpl implements LoanPro
 
     @Transactional
     @Override
+    @Caching(evict = {
+            @CacheEvict(value = "loanProducts", allEntries = true),
+            @CacheEvict(value = "productCharges", allEntries = true),
+            @CacheEvict(value = "taxMaps", allEntries = true),
+            @CacheEvict(value = "glAccountMappings", allEntries = true)})
     public CommandProcessingResult createLoanProduct(final JsonCommand command) {
 
         try {
@@ -144,6 +151,11 @@ public class LoanProductWritePlatformServiceJpaRepositoryImpl implements LoanPro
 
     @Transactional
     @Override
+    @Caching(evict = {
+            @CacheEvict(value = "loanProducts", allEntries = true),
+            @CacheEvict(value = "productCharges", allEntries = true),
+            @CacheEvict(value = "taxMaps", allEntries = true),
+            @CacheEvict(value = "glAccountMappings", allEntries = true)})
     public CommandProcessingResult updateLoanProduct(final Long loanProductId, final JsonCommand command) {
 
         try {
@@ -5,13 +5,14 @@ import java.util.List;
 
 import org.mifosplatform.organisation.monetary.domain.MonetaryCurrency;
 import org.mifosplatform.organisation.monetary.domain.Money;
+import org.mifosplatform.organisation.monetary.domain.MoneyAccumulator;
 
 public class CompoundInterestHelper {
 
     public Money calculateInterestForAllPostingPeriods(final MonetaryCurrency currency, final List<PostingPeriod> allPeriods) {
 
         // sum up the 'rounded' values that are posted each posting period
-        Money interestEarned = Money.zero(currency);
+        final MoneyAccumulator interestEarned = MoneyAccumulator.zero(currency);
 
         // total interest earned in previous periods but not yet recognised
         BigDecimal interestEarnedButNotPosted = BigDecimal.ZERO;
@@ -21,11 +22,11 @@ public class CompoundInterestHelper {
 
             final Money moneyToBePostedForPeriod = Money.of(currency, interestEarnedThisPeriod);
 
-            interestEarned = interestEarned.plus(moneyToBePostedForPeriod);
+            interestEarned.plus(moneyToBePostedForPeriod);
 
             interestEarnedButNotPosted = interestEarnedButNotPosted.add(moneyToBePostedForPeriod.getAmount());
         }
 
-        return interestEarned;
+        return interestEarned.toMoney();
     }
 }
\ No newline at end of file
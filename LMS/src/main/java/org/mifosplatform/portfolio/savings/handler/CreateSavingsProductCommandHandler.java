@@ -5,6 +5,7 @@
  */
 package org.mifosplatform.portfolio.savings.handler;
 
+import org.mifosplatform.commands.annotation.CommandType;
 import org.mifosplatform.commands.handler.NewCommandSourceHandler;
 import org.mifosplatform.infrastructure.core.api.JsonCommand;
 import org.mifosplatform.infrastructure.core.data.CommandProcessingResult;
@@ -12,6 +13,7 @@ import org.mifosplatform.portfolio.savings.service.SavingsProductWritePlatformSe
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+@CommandType(entity = "SAVINGSPRODUCT", action = "CREATE")
 @Service
 public class CreateSavingsProductCommandHandler implements NewCommandSourceHandler {
 
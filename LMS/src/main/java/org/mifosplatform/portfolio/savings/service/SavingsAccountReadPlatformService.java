@@ -6,6 +6,7 @@
 package org.mifosplatform.portfolio.savings.service;
 
 import java.util.Collection;
+import java.util.List;
 
 import org.mifosplatform.infrastructure.core.service.Page;
 import org.mifosplatform.portfolio.group.service.SearchParameters;
@@ -29,4 +30,6 @@ public interface SavingsAccountReadPlatformService {
     //Collection<SavingsAccountAnnualFeeData> retrieveAccountsWithAnnualFeeDue();
 
     SavingsAccountTransactionData retrieveSavingsTransaction(Long savingsId, Long transactionId);
+
+    List<Long> retrieveActiveSavingsAccountIds(Long afterSavingsId, int limit);
 }
\ No newline at end of file
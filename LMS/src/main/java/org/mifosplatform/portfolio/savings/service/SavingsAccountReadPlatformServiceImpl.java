@@ -11,6 +11,7 @@ import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.List;
 
 import org.apache.commons.lang.StringUtils;
 import org.joda.time.LocalDate;
@@ -47,6 +48,7 @@ import org.mifosplatform.portfolio.savings.data.SavingsAccountSummaryData;
 import org.mifosplatform.portfolio.savings.data.SavingsAccountTransactionData;
 import org.mifosplatform.portfolio.savings.data.SavingsAccountTransactionEnumData;
 import org.mifosplatform.portfolio.savings.data.SavingsProductData;
+import org.mifosplatform.portfolio.savings.domain.SavingsAccountStatusType;
 import org.mifosplatform.portfolio.savings.exception.SavingsAccountNotFoundException;
 import org.mifosplatform.useradministration.domain.AppUser;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -861,4 +863,10 @@ public class SavingsAccountReadPlatformServiceImpl implements SavingsAccountRead
             return SavingsAccountAnnualFeeData.instance(id, accountNo, annualFeeNextDueDate);
         }
     }*/
-}
\ No newline at end of file
+
+    @Override
+    public List<Long> retrieveActiveSavingsAccountIds(final Long afterSavingsId, final int limit) {
+        final String sql = "select sa.id from m_savings_account sa where sa.status_enum = ? and sa.id > ? order by sa.id limit ?";
+        return this.jdbcTemplate.queryForList(sql, Long.class, SavingsAccountStatusType.ACTIVE.getValue(), afterSavingsId, limit);
+    }
+}
@@ -14,6 +14,7 @@ import java.math.BigDecimal;
 import java.math.MathContext;
 import java.math.RoundingMode;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -34,8 +35,6 @@ import org.mifosplatform.infrastructure.core.data.DataValidatorBuilder;
 import org.mifosplatform.infrastructure.core.exception.PlatformApiDataValidationException;
 import org.mifosplatform.infrastructure.core.exception.PlatformServiceUnavailableException;
 import org.mifosplatform.infrastructure.core.service.DateUtils;
-import org.mifosplatform.infrastructure.jobs.annotation.CronTarget;
-import org.mifosplatform.infrastructure.jobs.service.JobName;
 import org.mifosplatform.infrastructure.security.service.PlatformSecurityContext;
 import org.mifosplatform.organisation.holiday.service.HolidayWritePlatformService;
 import org.mifosplatform.organisation.monetary.domain.ApplicationCurrency;
@@ -321,13 +320,15 @@ public class SavingsAccountWritePlatformServiceJpaRepositoryImpl implements Savi
         postJournalEntries(account, existingTransactionIds, existingReversedTransactionIds);
     }
 
-    @CronTarget(jobName = JobName.POST_INTEREST_FOR_SAVINGS)
+    /**
+     * Posts interest for the given accounts in a single transaction, so the
+     * persistence context only ever holds one batch of accounts.
+     */
+    @Transactional
     @Override
-    public void postInterestForAccounts() {
-        final List<SavingsAccount> savingsAccounts = this.savingAccountRepository.findSavingAccountByStatus(SavingsAccountStatusType.ACTIVE
-                .getValue());
-        for (final SavingsAccount savingsAccount : savingsAccounts) {
-            this.savingAccountAssembler.assignSavingAccountHelpers(savingsAccount);
+    public void postInterestForAccounts(final Collection<Long> savingsAccountIds) {
+        for (final Long savingsId : savingsAccountIds) {
+            final SavingsAccount savingsAccount = this.savingAccountAssembler.assembleFrom(savingsId);
             postInterest(savingsAccount);
         }
     }
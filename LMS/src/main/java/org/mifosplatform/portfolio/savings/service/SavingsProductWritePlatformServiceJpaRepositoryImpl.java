@@ -26,6 +26,8 @@ import org.mifosplatform.portfolio.savings.exception.SavingsProductNotFoundExcep
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.dao.DataAccessException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -78,6 +80,10 @@ public class SavingsProductWritePlatformServiceJpaRepositoryImpl implements Savi
 
     @Transactional
     @Override
+    @Caching(evict = {
+            @CacheEvict(value = "savingsProducts", allEntries = true),
+            @CacheEvict(value = "productCharges", allEntries = true),
+            @CacheEvict(value = "glAccountMappings", allEntries = true)})
     public CommandProcessingResult create(final JsonCommand command) {
 
         try {
@@ -101,6 +107,10 @@ public class SavingsProductWritePlatformServiceJpaRepositoryImpl implements Savi
 
     @Transactional
     @Override
+    @Caching(evict = {
+            @CacheEvict(value = "savingsProducts", allEntries = true),
+            @CacheEvict(value = "productCharges", allEntries = true),
+            @CacheEvict(value = "glAccountMappings", allEntries = true)})
     public CommandProcessingResult update(final Long productId, final JsonCommand command) {
 
         try {
@@ -142,6 +152,10 @@ public class SavingsProductWritePlatformServiceJpaRepositoryImpl implements Savi
 
     @Transactional
     @Override
+    @Caching(evict = {
+            @CacheEvict(value = "savingsProducts", allEntries = true),
+            @CacheEvict(value = "productCharges", allEntries = true),
+            @CacheEvict(value = "glAccountMappings", allEntries = true)})
     public CommandProcessingResult delete(final Long productId) {
 
         this.context.authenticatedUser();
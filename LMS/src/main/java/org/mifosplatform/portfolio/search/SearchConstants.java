@@ -42,7 +42,7 @@ public class SearchConstants {
     }
 
     public static enum SEARCH_SUPPORTED_PARAMETERS {
-        QUERY("query"), RESOURCE("resource");
+        QUERY("query"), RESOURCE("resource"), LIMIT("limit");
 
         private final String value;
 
@@ -72,7 +72,7 @@ public class SearchConstants {
     }
 
     public static enum SEARCH_SUPPORTED_RESOURCES {
-        CLIENTS("clients"), GROUPS("groups"), LOANS("loans"), CLIENTIDENTIFIERS("clientIdentifiers");
+        CLIENTS("clients"), GROUPS("groups"), LOANS("loans"), CLIENTIDENTIFIERS("clientIdentifiers"), PROSPECTS("prospects");
 
         private final String value;
 
@@ -53,9 +53,9 @@ public class SearchApiResource {
     @Consumes({ MediaType.APPLICATION_JSON })
     @Produces({ MediaType.APPLICATION_JSON })
     public String searchData(@Context final UriInfo uriInfo, @QueryParam("query") final String query,
-            @QueryParam("resource") final String resource) {
+            @QueryParam("resource") final String resource, @QueryParam("limit") final Integer limit) {
 
-        final SearchConditions searchConditions = new SearchConditions(query, resource);
+        final SearchConditions searchConditions = new SearchConditions(query, resource, limit);
 
         final Collection<SearchData> searchResults = this.searchReadPlatformService.retriveMatchingData(searchConditions);
 
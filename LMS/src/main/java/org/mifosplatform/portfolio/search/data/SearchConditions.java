@@ -15,8 +15,18 @@ public class SearchConditions {
     private final Boolean groupSearch;
     private final Boolean loanSeach;
     private final Boolean clientIdentifierSearch;
+    private final Boolean prospectSearch;
+    private final Integer limit;
 
     public SearchConditions(final String searchQueryParam, final String searchResource) {
+        this(searchQueryParam, searchResource, null);
+    }
+
+    /**
+     * Prospects are only searched when asked for by name in
+     * <code>searchResource</code>.
+     */
+    public SearchConditions(final String searchQueryParam, final String searchResource, final Integer limit) {
         this.searchQuery = searchQueryParam;
         this.searchResource = searchResource;
         this.clientSearch = (null == searchResource || searchResource.toLowerCase().contains(
@@ -27,6 +37,9 @@ public class SearchConditions {
                 SEARCH_SUPPORTED_RESOURCES.LOANS.name().toLowerCase())) ? true : false;
         this.clientIdentifierSearch = (null == searchResource || searchResource.toLowerCase().contains(
                 SEARCH_SUPPORTED_RESOURCES.CLIENTIDENTIFIERS.name().toLowerCase())) ? true : false;
+        this.prospectSearch = (null != searchResource && searchResource.toLowerCase().contains(
+                SEARCH_SUPPORTED_RESOURCES.PROSPECTS.name().toLowerCase())) ? true : false;
+        this.limit = limit;
     }
 
     public SearchConditions(final String searchQueryParam, final String searchResource, final Boolean clientSearch,
@@ -37,6 +50,8 @@ public class SearchConditions {
         this.groupSearch = groupSearch;
         this.loanSeach = loanSeach;
         this.clientIdentifierSearch = clientIdentifierSearch;
+        this.prospectSearch = false;
+        this.limit = null;
     }
 
     public String getSearchQuery() {
@@ -63,4 +78,15 @@ public class SearchConditions {
         return this.clientIdentifierSearch;
     }
 
+    public Boolean isProspectSearch() {
+        return this.prospectSearch;
+    }
+
+    /**
+     * @return maximum number of results, <code>null</code> for all
+     */
+    public Integer getLimit() {
+        return this.limit;
+    }
+
 }
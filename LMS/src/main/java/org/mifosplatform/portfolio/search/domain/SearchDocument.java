@@ -0,0 +1,82 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.portfolio.search.domain;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+import org.mifosplatform.portfolio.search.data.SearchData;
+
+/**
+ * One searchable record of the {@link SearchIndex}: what is returned when it
+ * matches, the office hierarchy it is visible in and the values it is matched
+ * on.
+ */
+public class SearchDocument {
+
+    private final SearchEntityType type;
+    private final SearchData data;
+    private final String officeHierarchy;
+    private final List<String> searchableValues;
+
+    /**
+     * @param officeHierarchy
+     *            hierarchy of the office the record belongs to, or
+     *            <code>null</code> if it is visible in every office
+     * @param searchableValues
+     *            values the record is matched on; <code>null</code> and blank
+     *            values are ignored
+     */
+    public static SearchDocument instance(final SearchEntityType type, final SearchData data, final String officeHierarchy,
+            final String... searchableValues) {
+        final List<String> normalized = new ArrayList<String>(searchableValues.length);
+        for (final String value : searchableValues) {
+            final String normalizedValue = normalize(value);
+            if (normalizedValue.length() > 0 && !normalized.contains(normalizedValue)) {
+                normalized.add(normalizedValue);
+            }
+        }
+        return new SearchDocument(type, data, officeHierarchy, Collections.unmodifiableList(normalized));
+    }
+
+    /**
+     * Search is case insensitive, like the <code>LIKE</code> queries it
+     * replaces.
+     */
+    public static String normalize(final String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ENGLISH);
+    }
+
+    private SearchDocument(final SearchEntityType type, final SearchData data, final String officeHierarchy,
+            final List<String> searchableValues) {
+        this.type = type;
+        this.data = data;
+        this.officeHierarchy = officeHierarchy;
+        this.searchableValues = searchableValues;
+    }
+
+    public SearchEntityType getType() {
+        return this.type;
+    }
+
+    public Long getEntityId() {
+        return this.data.getEntityId();
+    }
+
+    public SearchData getData() {
+        return this.data;
+    }
+
+    public List<String> getSearchableValues() {
+        return this.searchableValues;
+    }
+
+    public boolean isVisibleIn(final String hierarchy) {
+        return this.officeHierarchy == null || hierarchy == null || this.officeHierarchy.startsWith(hierarchy);
+    }
+}
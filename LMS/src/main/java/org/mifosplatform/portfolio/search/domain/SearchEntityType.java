@@ -0,0 +1,20 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.portfolio.search.domain;
+
+/**
+ * Kinds of records held in the {@link SearchIndex}, in the order their
+ * matches are listed within the same rank. Groups and centers are both kept
+ * in <code>m_group</code> and share {@link #GROUP}.
+ */
+public enum SearchEntityType {
+
+    CLIENT, //
+    LOAN, //
+    CLIENTIDENTIFIER, //
+    GROUP, //
+    PROSPECT;
+}
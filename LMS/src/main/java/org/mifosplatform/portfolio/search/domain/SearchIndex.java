@@ -0,0 +1,368 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.portfolio.search.domain;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In memory search index over the {@link SearchDocument}s of one tenant.
+ *
+ * Every searchable value is indexed by its trigrams, which answer substring
+ * queries of three or more characters, and by itself and each of its words,
+ * which answer prefix queries of one or two characters. Queries of four or
+ * more characters also match words within one edit of the query when there
+ * are fewer matches than asked for; the trigrams of each word padded with
+ * {@link #WORD_BOUNDARY} find the candidates for those.
+ *
+ * Matches are ranked exact value, then prefix of a value or word, then
+ * substring, then fuzzy; within a rank by {@link SearchEntityType} and id.
+ */
+public class SearchIndex {
+
+    private static final int GRAM_LENGTH = 3;
+    private static final int FUZZY_MINIMUM_QUERY_LENGTH = 4;
+    private static final char WORD_BOUNDARY = '\u0000';
+
+    private static final int RANK_EXACT = 0;
+    private static final int RANK_PREFIX = 1;
+    private static final int RANK_SUBSTRING = 2;
+    private static final int RANK_FUZZY = 3;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, SearchDocument> documents = new HashMap<String, SearchDocument>();
+    private final Map<String, Set<SearchDocument>> gramPostings = new HashMap<String, Set<SearchDocument>>();
+    private final NavigableMap<String, Set<SearchDocument>> wordPostings = new TreeMap<String, Set<SearchDocument>>();
+
+    /**
+     * Adds the document, replacing any document of the same type and id.
+     */
+    public void put(final SearchDocument document) {
+        this.lock.writeLock().lock();
+        try {
+            final String key = key(document.getType(), document.getEntityId());
+            unindex(this.documents.remove(key));
+            this.documents.put(key, document);
+            for (final String value : document.getSearchableValues()) {
+                for (final String gram : grams(value)) {
+                    posting(this.gramPostings, gram).add(document);
+                }
+                for (final String word : words(value)) {
+                    posting(this.wordPostings, word).add(document);
+                    for (final String gram : paddedGrams(word)) {
+                        posting(this.gramPostings, gram).add(document);
+                    }
+                }
+            }
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(final SearchEntityType type, final Long entityId) {
+        this.lock.writeLock().lock();
+        try {
+            unindex(this.documents.remove(key(type, entityId)));
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        this.lock.readLock().lock();
+        try {
+            return this.documents.size();
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @param types
+     *            types of documents to return
+     * @param hierarchy
+     *            office hierarchy the documents must be visible in, or
+     *            <code>null</code> for all
+     * @param limit
+     *            maximum number of documents returned
+     * @return the best matching documents, best first
+     */
+    public List<SearchDocument> search(final String query, final Set<SearchEntityType> types, final String hierarchy, final int limit) {
+
+        final String normalizedQuery = SearchDocument.normalize(query);
+        if (normalizedQuery.length() == 0 || limit <= 0) { return new ArrayList<SearchDocument>(); }
+
+        final TopMatches matches = new TopMatches(limit);
+        final Set<SearchDocument> matched = new HashSet<SearchDocument>();
+
+        this.lock.readLock().lock();
+        try {
+            if (normalizedQuery.length() < GRAM_LENGTH) {
+                for (final Set<SearchDocument> posting : this.wordPostings.subMap(normalizedQuery, true,
+                        normalizedQuery + Character.MAX_VALUE, false).values()) {
+                    collect(posting, normalizedQuery, types, hierarchy, matched, matches);
+                }
+            } else {
+                final Set<String> queryGrams = grams(normalizedQuery);
+                collect(smallestPosting(queryGrams), normalizedQuery, types, hierarchy, matched, matches);
+
+                if (normalizedQuery.length() >= FUZZY_MINIMUM_QUERY_LENGTH && matched.size() < limit) {
+                    collectFuzzy(paddedGrams(normalizedQuery), normalizedQuery, types, hierarchy, matched, matches);
+                }
+            }
+        } finally {
+            this.lock.readLock().unlock();
+        }
+        return matches.best();
+    }
+
+    private void collect(final Set<SearchDocument> candidates, final String query, final Set<SearchEntityType> types,
+            final String hierarchy, final Set<SearchDocument> matched, final TopMatches matches) {
+        for (final SearchDocument candidate : candidates) {
+            if (matched.contains(candidate) || !types.contains(candidate.getType()) || !candidate.isVisibleIn(hierarchy)) {
+                continue;
+            }
+            final int rank = rank(candidate, query);
+            if (rank >= 0) {
+                matched.add(candidate);
+                matches.offer(candidate, rank);
+            }
+        }
+    }
+
+    /**
+     * One edit changes at most three trigrams of a padded word, so a word
+     * within one edit of the query shares all but at most three of the padded
+     * query's trigrams and only documents sharing that many are compared.
+     */
+    private void collectFuzzy(final Set<String> queryGrams, final String query, final Set<SearchEntityType> types, final String hierarchy,
+            final Set<SearchDocument> matched, final TopMatches matches) {
+
+        final Map<SearchDocument, int[]> sharedGrams = new HashMap<SearchDocument, int[]>();
+        for (final String gram : queryGrams) {
+            final Set<SearchDocument> posting = this.gramPostings.get(gram);
+            if (posting == null) {
+                continue;
+            }
+            for (final SearchDocument document : posting) {
+                final int[] count = sharedGrams.get(document);
+                if (count == null) {
+                    sharedGrams.put(document, new int[] { 1 });
+                } else {
+                    count[0]++;
+                }
+            }
+        }
+
+        final int minimumSharedGrams = Math.max(1, queryGrams.size() - GRAM_LENGTH);
+        for (final Map.Entry<SearchDocument, int[]> candidate : sharedGrams.entrySet()) {
+            final SearchDocument document = candidate.getKey();
+            if (candidate.getValue()[0] < minimumSharedGrams || matched.contains(document) || !types.contains(document.getType())
+                    || !document.isVisibleIn(hierarchy)) {
+                continue;
+            }
+            if (isWithinOneEdit(document, query)) {
+                matched.add(document);
+                matches.offer(document, RANK_FUZZY);
+            }
+        }
+    }
+
+    private Set<SearchDocument> smallestPosting(final Set<String> queryGrams) {
+        Set<SearchDocument> smallest = null;
+        for (final String gram : queryGrams) {
+            final Set<SearchDocument> posting = this.gramPostings.get(gram);
+            if (posting == null) { return Collections.emptySet(); }
+            if (smallest == null || posting.size() < smallest.size()) {
+                smallest = posting;
+            }
+        }
+        return smallest;
+    }
+
+    private static int rank(final SearchDocument document, final String query) {
+        int best = -1;
+        for (final String value : document.getSearchableValues()) {
+            if (value.equals(query)) { return RANK_EXACT; }
+            if (startsWithWord(value, query)) {
+                best = RANK_PREFIX;
+            } else if (best < 0 && value.contains(query)) {
+                best = RANK_SUBSTRING;
+            }
+        }
+        return best;
+    }
+
+    private static boolean startsWithWord(final String value, final String query) {
+        if (value.startsWith(query)) { return true; }
+        for (final String word : words(value)) {
+            if (word.startsWith(query)) { return true; }
+        }
+        return false;
+    }
+
+    private static boolean isWithinOneEdit(final SearchDocument document, final String query) {
+        for (final String value : document.getSearchableValues()) {
+            for (final String word : words(value)) {
+                if (isWithinOneEdit(word, query)) { return true; }
+            }
+        }
+        return false;
+    }
+
+    static boolean isWithinOneEdit(final String first, final String second) {
+        final int lengthDifference = first.length() - second.length();
+        if (lengthDifference > 1 || lengthDifference < -1) { return false; }
+        final String longer = lengthDifference >= 0 ? first : second;
+        final String shorter = lengthDifference >= 0 ? second : first;
+
+        int i = 0;
+        while (i < shorter.length() && longer.charAt(i) == shorter.charAt(i)) {
+            i++;
+        }
+        if (i == shorter.length()) { return true; }
+        if (longer.length() == shorter.length()) {
+            // one substitution
+            return longer.substring(i + 1).equals(shorter.substring(i + 1));
+        }
+        // one insertion into the shorter value
+        return longer.substring(i + 1).equals(shorter.substring(i));
+    }
+
+    private void unindex(final SearchDocument document) {
+        if (document == null) { return; }
+        for (final String value : document.getSearchableValues()) {
+            for (final String gram : grams(value)) {
+                removeFromPosting(this.gramPostings, gram, document);
+            }
+            for (final String word : words(value)) {
+                removeFromPosting(this.wordPostings, word, document);
+                for (final String gram : paddedGrams(word)) {
+                    removeFromPosting(this.gramPostings, gram, document);
+                }
+            }
+        }
+    }
+
+    private static Set<SearchDocument> posting(final Map<String, Set<SearchDocument>> postings, final String term) {
+        Set<SearchDocument> posting = postings.get(term);
+        if (posting == null) {
+            posting = new HashSet<SearchDocument>();
+            postings.put(term, posting);
+        }
+        return posting;
+    }
+
+    private static void removeFromPosting(final Map<String, Set<SearchDocument>> postings, final String term,
+            final SearchDocument document) {
+        final Set<SearchDocument> posting = postings.get(term);
+        if (posting != null) {
+            posting.remove(document);
+            if (posting.isEmpty()) {
+                postings.remove(term);
+            }
+        }
+    }
+
+    private static Set<String> grams(final String value) {
+        final Set<String> grams = new LinkedHashSet<String>();
+        for (int i = 0; i + GRAM_LENGTH <= value.length(); i++) {
+            grams.add(value.substring(i, i + GRAM_LENGTH));
+        }
+        return grams;
+    }
+
+    private static Set<String> paddedGrams(final String word) {
+        return grams(WORD_BOUNDARY + word + WORD_BOUNDARY);
+    }
+
+    /**
+     * The value itself and each of its whitespace separated words.
+     */
+    private static Set<String> words(final String value) {
+        final Set<String> words = new LinkedHashSet<String>();
+        words.add(value);
+        for (final String word : value.split("\\s+")) {
+            if (word.length() > 0) {
+                words.add(word);
+            }
+        }
+        return words;
+    }
+
+    private static String key(final SearchEntityType type, final Long entityId) {
+        return type.name() + ":" + entityId;
+    }
+
+    /**
+     * Keeps the <code>limit</code> best matches offered.
+     */
+    private static final class TopMatches {
+
+        private static final Comparator<RankedDocument> BEST_FIRST = new Comparator<RankedDocument>() {
+
+            @Override
+            public int compare(final RankedDocument first, final RankedDocument second) {
+                if (first.rank != second.rank) { return first.rank < second.rank ? -1 : 1; }
+                final int typeOrder = first.document.getType().compareTo(second.document.getType());
+                if (typeOrder != 0) { return typeOrder; }
+                return first.document.getEntityId().compareTo(second.document.getEntityId());
+            }
+        };
+
+        private final int limit;
+        // worst of the kept matches at the head
+        private final PriorityQueue<RankedDocument> kept;
+
+        TopMatches(final int limit) {
+            this.limit = limit;
+            this.kept = new PriorityQueue<RankedDocument>(Math.min(limit, 64), Collections.reverseOrder(BEST_FIRST));
+        }
+
+        void offer(final SearchDocument document, final int rank) {
+            final RankedDocument ranked = new RankedDocument(document, rank);
+            if (this.kept.size() < this.limit) {
+                this.kept.add(ranked);
+            } else if (BEST_FIRST.compare(ranked, this.kept.peek()) < 0) {
+                this.kept.poll();
+                this.kept.add(ranked);
+            }
+        }
+
+        List<SearchDocument> best() {
+            final List<RankedDocument> ranked = new ArrayList<RankedDocument>(this.kept);
+            Collections.sort(ranked, BEST_FIRST);
+            final List<SearchDocument> best = new ArrayList<SearchDocument>(ranked.size());
+            for (final RankedDocument document : ranked) {
+                best.add(document.document);
+            }
+            return best;
+        }
+    }
+
+    private static final class RankedDocument {
+
+        private final SearchDocument document;
+        private final int rank;
+
+        RankedDocument(final SearchDocument document, final int rank) {
+            this.document = document;
+            this.rank = rank;
+        }
+    }
+}
@@ -0,0 +1,27 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.portfolio.search.service;
+
+import org.mifosplatform.portfolio.search.domain.SearchEntityType;
+import org.mifosplatform.portfolio.search.domain.SearchIndex;
+
+public interface SearchIndexService {
+
+    /**
+     * @return the search index of the current tenant, built on first use
+     */
+    SearchIndex retrieveSearchIndex();
+
+    /**
+     * Reloads the record from the database into the index of the current
+     * tenant once the surrounding transaction, if any, commits. Records that
+     * no longer exist are removed. A changed client also reloads its loans and
+     * identifiers, whose results show the client's name.
+     */
+    void entityChanged(SearchEntityType type, Long entityId);
+
+    void rebuildSearchIndex();
+}
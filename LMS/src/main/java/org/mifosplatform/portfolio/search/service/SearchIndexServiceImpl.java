@@ -0,0 +1,349 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.portfolio.search.service;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.mifosplatform.infrastructure.core.domain.JdbcSupport;
+import org.mifosplatform.infrastructure.core.domain.MifosPlatformTenant;
+import org.mifosplatform.infrastructure.core.service.RoutingDataSource;
+import org.mifosplatform.infrastructure.core.service.ThreadLocalContextUtil;
+import org.mifosplatform.infrastructure.jobs.annotation.CronTarget;
+import org.mifosplatform.infrastructure.jobs.service.JobName;
+import org.mifosplatform.infrastructure.jobs.service.JobRunStatistics;
+import org.mifosplatform.infrastructure.jobs.service.JobRunStatisticsHolder;
+import org.mifosplatform.infrastructure.security.service.TenantDetailsService;
+import org.mifosplatform.portfolio.search.data.SearchData;
+import org.mifosplatform.portfolio.search.domain.SearchDocument;
+import org.mifosplatform.portfolio.search.domain.SearchEntityType;
+import org.mifosplatform.portfolio.search.domain.SearchIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Keeps one {@link SearchIndex} per tenant in memory. The indexes of all
+ * tenants are loaded in the background on startup, so that searches do not
+ * wait for them unless they come in before the load is done. They are kept
+ * current by the write services through
+ * {@link #entityChanged(SearchEntityType, Long)} and rebuilt in full by the
+ * "Rebuild Search Index" job, which also picks up changes made outside the
+ * write services such as renamed offices and products.
+ *
+ * Changes only reach the index of the node that made them. When the platform
+ * runs on more than one node, the other nodes see them once the "Rebuild
+ * Search Index" job has run there, so the job should be scheduled on every
+ * node as often as stale results can be tolerated.
+ */
+@Service
+public class SearchIndexServiceImpl implements SearchIndexService {
+
+    private final static Logger logger = LoggerFactory.getLogger(SearchIndexServiceImpl.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TenantDetailsService tenantDetailsService;
+    private final ConcurrentMap<String, TenantSearchIndex> indexes = new ConcurrentHashMap<String, TenantSearchIndex>();
+    private ExecutorService warmUpExecutor;
+
+    @Autowired
+    public SearchIndexServiceImpl(final RoutingDataSource dataSource, final TenantDetailsService tenantDetailsService) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.tenantDetailsService = tenantDetailsService;
+    }
+
+    @PostConstruct
+    public void warmUp() {
+        this.warmUpExecutor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+
+            @Override
+            public Thread newThread(final Runnable runnable) {
+                final Thread thread = new Thread(runnable, "search-index-warm-up");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        for (final MifosPlatformTenant tenant : this.tenantDetailsService.findAllTenants()) {
+            this.warmUpExecutor.execute(new Runnable() {
+
+                @Override
+                public void run() {
+                    ThreadLocalContextUtil.setTenant(tenant);
+                    try {
+                        retrieveSearchIndex();
+                    } catch (final RuntimeException e) {
+                        // the first search loads it instead
+                        logger.warn(tenant.getName() + ": Unable to load search index on startup", e);
+                    } finally {
+                        ThreadLocalContextUtil.clearTenant();
+                    }
+                }
+            });
+        }
+        this.warmUpExecutor.shutdown();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (this.warmUpExecutor != null) {
+            this.warmUpExecutor.shutdownNow();
+        }
+    }
+
+    @Override
+    public SearchIndex retrieveSearchIndex() {
+        final TenantSearchIndex tenantIndex = tenantSearchIndex();
+        SearchIndex index = tenantIndex.index;
+        if (index == null) {
+            synchronized (tenantIndex.rebuildLock) {
+                index = tenantIndex.index;
+                if (index == null) {
+                    index = rebuild(tenantIndex);
+                }
+            }
+        }
+        return index;
+    }
+
+    @Override
+    public void entityChanged(final SearchEntityType type, final Long entityId) {
+        if (entityId == null) { return; }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+
+                @Override
+                public void afterCommit() {
+                    reindex(type, entityId);
+                }
+            });
+        } else {
+            reindex(type, entityId);
+        }
+    }
+
+    @Override
+    @CronTarget(jobName = JobName.REBUILD_SEARCH_INDEX)
+    public void rebuildSearchIndex() {
+        final long startTime = System.currentTimeMillis();
+        final TenantSearchIndex tenantIndex = tenantSearchIndex();
+        final SearchIndex index;
+        synchronized (tenantIndex.rebuildLock) {
+            index = rebuild(tenantIndex);
+        }
+
+        final JobRunStatistics statistics = new JobRunStatistics(index.size(), System.currentTimeMillis() - startTime);
+        JobRunStatisticsHolder.setStatistics(statistics);
+        logger.info(ThreadLocalContextUtil.getTenant().getName() + ": Records in search index: " + index.size() + " ("
+                + statistics.getProcessedPerSecond() + " rows/second)");
+    }
+
+    private TenantSearchIndex tenantSearchIndex() {
+        final String tenantIdentifier = ThreadLocalContextUtil.getTenant().getTenantIdentifier();
+        TenantSearchIndex tenantIndex = this.indexes.get(tenantIdentifier);
+        if (tenantIndex == null) {
+            final TenantSearchIndex created = new TenantSearchIndex();
+            tenantIndex = this.indexes.putIfAbsent(tenantIdentifier, created);
+            if (tenantIndex == null) {
+                tenantIndex = created;
+            }
+        }
+        return tenantIndex;
+    }
+
+    /**
+     * Loads a new index and swaps it in. Changes committed while it loads are
+     * applied to both the current index and, after the swap, the new one, so
+     * none are lost to the snapshot the new index was loaded from.
+     */
+    private SearchIndex rebuild(final TenantSearchIndex tenantIndex) {
+        synchronized (tenantIndex) {
+            tenantIndex.changesDuringRebuild = new ArrayList<PendingChange>();
+        }
+        try {
+            final SearchIndex index = new SearchIndex();
+            for (final SearchEntityType type : SearchEntityType.values()) {
+                load(index, type, null, null);
+            }
+
+            final List<PendingChange> changes;
+            synchronized (tenantIndex) {
+                tenantIndex.index = index;
+                changes = tenantIndex.changesDuringRebuild;
+                tenantIndex.changesDuringRebuild = null;
+            }
+            for (final PendingChange change : changes) {
+                reindex(index, change.type, change.entityId);
+            }
+            return index;
+        } finally {
+            synchronized (tenantIndex) {
+                tenantIndex.changesDuringRebuild = null;
+            }
+        }
+    }
+
+    private void reindex(final SearchEntityType type, final Long entityId) {
+        final TenantSearchIndex tenantIndex = this.indexes.get(ThreadLocalContextUtil.getTenant().getTenantIdentifier());
+        // not loaded yet, the first search loads the change
+        if (tenantIndex == null) { return; }
+
+        final SearchIndex index;
+        synchronized (tenantIndex) {
+            if (tenantIndex.changesDuringRebuild != null) {
+                tenantIndex.changesDuringRebuild.add(new PendingChange(type, entityId));
+            }
+            index = tenantIndex.index;
+        }
+        if (index != null) {
+            reindex(index, type, entityId);
+        }
+    }
+
+    private void reindex(final SearchIndex index, final SearchEntityType type, final Long entityId) {
+        if (load(index, type, idColumn(type), entityId) == 0) {
+            index.remove(type, entityId);
+        }
+        if (SearchEntityType.CLIENT.equals(type)) {
+            load(index, SearchEntityType.LOAN, "c.id", entityId);
+            load(index, SearchEntityType.CLIENTIDENTIFIER, "c.id", entityId);
+        }
+    }
+
+    /**
+     * @return number of documents put into the index
+     */
+    private int load(final SearchIndex index, final SearchEntityType type, final String column, final Long id) {
+
+        String sql = schema(type);
+        final Object[] params;
+        if (column == null) {
+            params = new Object[0];
+        } else {
+            sql += (sql.contains(" where ") ? " and " : " where ") + column + " = ?";
+            params = new Object[] { id };
+        }
+
+        final int[] loaded = new int[1];
+        this.jdbcTemplate.query(sql, new RowCallbackHandler() {
+
+            @Override
+            public void processRow(final ResultSet rs) throws SQLException {
+                index.put(mapRow(type, rs));
+                loaded[0]++;
+            }
+        }, params);
+        return loaded[0];
+    }
+
+    private static String idColumn(final SearchEntityType type) {
+        switch (type) {
+            case CLIENT:
+                return "c.id";
+            case LOAN:
+                return "l.id";
+            case CLIENTIDENTIFIER:
+                return "ci.id";
+            case GROUP:
+                return "g.id";
+            default:
+                return "p.id";
+        }
+    }
+
+    private static String schema(final SearchEntityType type) {
+        switch (type) {
+            case CLIENT:
+                return "select 'CLIENT' as entityType, c.id as entityId, c.display_name as entityName, c.external_id as entityExternalId, "
+                        + "c.account_no as entityAccountNo, c.office_id as parentId, o.name as parentName, o.hierarchy as hierarchy "
+                        + "from m_client c join m_office o on o.id = c.office_id";
+            case LOAN:
+                return "select 'LOAN' as entityType, l.id as entityId, pl.name as entityName, l.external_id as entityExternalId, "
+                        + "l.account_no as entityAccountNo, c.id as parentId, c.display_name as parentName, o.hierarchy as hierarchy "
+                        + "from m_loan l join m_client c on l.client_id = c.id join m_office o on o.id = c.office_id "
+                        + "join m_product_loan pl on pl.id = l.product_id";
+            case CLIENTIDENTIFIER:
+                return "select 'CLIENTIDENTIFIER' as entityType, ci.id as entityId, ci.document_key as entityName, "
+                        + "null as entityExternalId, null as entityAccountNo, c.id as parentId, c.display_name as parentName, "
+                        + "o.hierarchy as hierarchy from m_client_identifier ci join m_client c on ci.client_id = c.id "
+                        + "join m_office o on o.id = c.office_id";
+            case GROUP:
+                return "select IF(g.level_id = 1, 'CENTER', 'GROUP') as entityType, g.id as entityId, g.display_name as entityName, "
+                        + "g.external_id as entityExternalId, null as entityAccountNo, g.office_id as parentId, o.name as parentName, "
+                        + "o.hierarchy as hierarchy from m_group g join m_office o on o.id = g.office_id";
+            default:
+                // prospects have no office, they belong to the office of the
+                // user who entered them, or the head office when unknown
+                return "select 'PROSPECT' as entityType, p.id as entityId, "
+                        + "concat_ws(' ', p.first_name, p.middle_name, p.last_name) as entityName, null as entityExternalId, "
+                        + "null as entityAccountNo, null as parentId, null as parentName, coalesce(o.hierarchy, '.') as hierarchy, "
+                        + "p.mobile_no as mobileNo, p.email_id as emailId, p.tin as tin from m_prospect p "
+                        + "left join m_appuser u on u.id = p.createdby_id left join m_office o on o.id = u.office_id "
+                        + "where p.is_deleted = 'N'";
+        }
+    }
+
+    private static SearchDocument mapRow(final SearchEntityType type, final ResultSet rs) throws SQLException {
+
+        final Long entityId = JdbcSupport.getLong(rs, "entityId");
+        final String entityAccountNo = rs.getString("entityAccountNo");
+        final String entityExternalId = rs.getString("entityExternalId");
+        final String entityName = rs.getString("entityName");
+        final String entityType = rs.getString("entityType");
+        final Long parentId = JdbcSupport.getLong(rs, "parentId");
+        final String parentName = rs.getString("parentName");
+        final String hierarchy = rs.getString("hierarchy");
+
+        final SearchData data = new SearchData(entityId, entityAccountNo, entityExternalId, entityName, entityType, parentId, parentName);
+
+        switch (type) {
+            case CLIENT:
+                return SearchDocument.instance(type, data, hierarchy, entityAccountNo, entityName, entityExternalId);
+            case LOAN:
+                return SearchDocument.instance(type, data, hierarchy, entityAccountNo, entityExternalId);
+            case CLIENTIDENTIFIER:
+                return SearchDocument.instance(type, data, hierarchy, entityName);
+            case GROUP:
+                return SearchDocument.instance(type, data, hierarchy, entityName, entityExternalId);
+            default:
+                return SearchDocument.instance(type, data, hierarchy, entityName, rs.getString("mobileNo"), rs.getString("emailId"),
+                        rs.getString("tin"));
+        }
+    }
+
+    private static final class TenantSearchIndex {
+
+        private final Object rebuildLock = new Object();
+        private volatile SearchIndex index;
+        private List<PendingChange> changesDuringRebuild;
+    }
+
+    private static final class PendingChange {
+
+        private final SearchEntityType type;
+        private final Long entityId;
+
+        PendingChange(final SearchEntityType type, final Long entityId) {
+            this.type = type;
+            this.entityId = entityId;
+        }
+    }
+}
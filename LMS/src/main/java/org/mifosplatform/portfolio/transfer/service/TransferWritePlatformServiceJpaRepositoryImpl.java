@@ -38,6 +38,8 @@ import org.mifosplatform.portfolio.note.service.NoteWritePlatformService;
 import org.mifosplatform.portfolio.savings.domain.SavingsAccount;
 import org.mifosplatform.portfolio.savings.domain.SavingsAccountRepository;
 import org.mifosplatform.portfolio.savings.service.SavingsAccountWritePlatformService;
+import org.mifosplatform.portfolio.search.domain.SearchEntityType;
+import org.mifosplatform.portfolio.search.service.SearchIndexService;
 import org.mifosplatform.portfolio.transfer.api.TransferApiConstants;
 import org.mifosplatform.portfolio.transfer.data.TransfersDataValidator;
 import org.mifosplatform.portfolio.transfer.exception.ClientNotAwaitingTransferApprovalException;
@@ -66,6 +68,7 @@ public class TransferWritePlatformServiceJpaRepositoryImpl implements TransferWr
     private final TransfersDataValidator transfersDataValidator;
     private final NoteWritePlatformService noteWritePlatformService;
     private final StaffRepositoryWrapper staffRepositoryWrapper;
+    private final SearchIndexService searchIndexService;
 
     @Autowired
     public TransferWritePlatformServiceJpaRepositoryImpl(final ClientRepositoryWrapper clientRepository,
@@ -74,7 +77,7 @@ public class TransferWritePlatformServiceJpaRepositoryImpl implements TransferWr
             final LoanRepository loanRepository, final TransfersDataValidator transfersDataValidator,
             final NoteWritePlatformService noteWritePlatformService, final StaffRepositoryWrapper staffRepositoryWrapper,
             final SavingsAccountRepository savingsAccountRepository,
-            final SavingsAccountWritePlatformService savingsAccountWritePlatformService) {
+            final SavingsAccountWritePlatformService savingsAccountWritePlatformService, final SearchIndexService searchIndexService) {
         this.clientRepository = clientRepository;
         this.officeRepository = officeRepository;
         this.calendarInstanceRepository = calendarInstanceRepository;
@@ -86,6 +89,7 @@ public class TransferWritePlatformServiceJpaRepositoryImpl implements TransferWr
         this.staffRepositoryWrapper = staffRepositoryWrapper;
         this.savingsAccountRepository = savingsAccountRepository;
         this.savingsAccountWritePlatformService = savingsAccountWritePlatformService;
+        this.searchIndexService = searchIndexService;
     }
 
     @Override
@@ -218,6 +222,8 @@ public class TransferWritePlatformServiceJpaRepositoryImpl implements TransferWr
         // change client group membership
         client.getGroups().remove(sourceGroup);
 
+        this.searchIndexService.entityChanged(SearchEntityType.CLIENT, client.getId());
+
     }
 
     /**
@@ -413,6 +419,7 @@ public class TransferWritePlatformServiceJpaRepositoryImpl implements TransferWr
                 client.updateTransferToOffice(null);
                 client.updateOffice(destinationOffice);
                 client.updateOfficeJoiningDate(todaysDate);
+                this.searchIndexService.entityChanged(SearchEntityType.CLIENT, client.getId());
                 if (client.getGroups().size() == 1) {
                     if (destinationGroup == null) {
                         throw new TransferNotSupportedException(TRANSFER_NOT_SUPPORTED_REASON.CLIENT_DESTINATION_GROUP_NOT_SPECIFIED,
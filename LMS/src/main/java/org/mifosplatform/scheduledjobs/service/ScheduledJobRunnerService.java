@@ -5,15 +5,21 @@
  */
 package org.mifosplatform.scheduledjobs.service;
 
+import org.mifosplatform.infrastructure.jobs.exception.JobExecutionException;
+
 public interface ScheduledJobRunnerService {
 
     void updateLoanSummaryDetails();
 
-    void updateLoanArrearsAgeingDetails();
+    void rebuildLoanSummaryDetails();
+
+    void updateLoanArrearsAgeingDetails() throws JobExecutionException;
+
+    void updateLoanPaidInAdvance() throws JobExecutionException;
 
-    void updateLoanPaidInAdvance();
+    void postInterestForSavings() throws JobExecutionException;
 
     void applyAnnualFeeForSavings();
     
-    void applyDueChargesForSavings();
+    void applyDueChargesForSavings() throws JobExecutionException;
 }
@@ -5,22 +5,44 @@
  */
 package org.mifosplatform.scheduledjobs.service;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
+import javax.sql.DataSource;
+
+import org.mifosplatform.infrastructure.configuration.domain.ConfigurationDomainService;
 import org.mifosplatform.infrastructure.core.data.ApiParameterError;
 import org.mifosplatform.infrastructure.core.exception.PlatformApiDataValidationException;
 import org.mifosplatform.infrastructure.core.service.RoutingDataSourceServiceFactory;
+import org.mifosplatform.infrastructure.core.service.TenantAwareCallable;
 import org.mifosplatform.infrastructure.core.service.ThreadLocalContextUtil;
 import org.mifosplatform.infrastructure.jobs.annotation.CronTarget;
+import org.mifosplatform.infrastructure.jobs.exception.JobExecutionException;
+import org.mifosplatform.infrastructure.jobs.service.ChunkedJob;
+import org.mifosplatform.infrastructure.jobs.service.ChunkedJobExecutor;
 import org.mifosplatform.infrastructure.jobs.service.JobName;
+import org.mifosplatform.infrastructure.jobs.service.JobRunStatistics;
+import org.mifosplatform.infrastructure.jobs.service.JobRunStatisticsHolder;
+import org.mifosplatform.infrastructure.jobs.service.JobWorkerPool;
+import org.mifosplatform.portfolio.loanaccount.service.LoanSummaryChangeLogService;
 import org.mifosplatform.portfolio.savings.data.SavingsAccountAnnualFeeData;
 import org.mifosplatform.portfolio.savings.service.SavingsAccountChargeReadPlatformService;
+import org.mifosplatform.portfolio.savings.service.SavingsAccountReadPlatformService;
 import org.mifosplatform.portfolio.savings.service.SavingsAccountWritePlatformService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -29,26 +51,98 @@ public class ScheduledJobRunnerServiceImpl implements ScheduledJobRunnerService
 
     private final static Logger logger = LoggerFactory.getLogger(ScheduledJobRunnerServiceImpl.class);
 
+    private static final int DEFAULT_LOAN_SUMMARY_UPDATE_CHUNK_SIZE = 500;
+    private static final long DEFAULT_LOAN_ARREARS_REBUILD_CHUNK_SIZE = 5000;
+    private static final int DEFAULT_SAVINGS_INTEREST_POSTING_BATCH_SIZE = 100;
+
+    private static final String LOAN_ARREARS_AGEING_TABLE = "m_loan_arrears_aging";
+    private static final String LOAN_PAID_IN_ADVANCE_TABLE = "m_loan_paid_in_advance";
+    private static final String SHADOW_TABLE_SUFFIX = "_shadow";
+    private static final String RETIRED_TABLE_SUFFIX = "_retired";
+    private static final String LOAN_ARREARS_AGEING_FOREIGN_KEY = "foreign key (loan_id) references m_loan (id)";
+
     private final RoutingDataSourceServiceFactory dataSourceServiceFactory;
     private final SavingsAccountWritePlatformService savingsAccountWritePlatformService;
     private final SavingsAccountChargeReadPlatformService savingsAccountChargeReadPlatformService;
+    private final LoanSummaryChangeLogService loanSummaryChangeLogService;
+    private final ConfigurationDomainService configurationDomainService;
+    private final SavingsAccountReadPlatformService savingsAccountReadPlatformService;
+    private final ChunkedJobExecutor chunkedJobExecutor;
+    private final JobWorkerPool jobWorkerPool;
 
     @Autowired
     public ScheduledJobRunnerServiceImpl(final RoutingDataSourceServiceFactory dataSourceServiceFactory,
             final SavingsAccountWritePlatformService savingsAccountWritePlatformService,
-            final SavingsAccountChargeReadPlatformService savingsAccountChargeReadPlatformService) {
+            final SavingsAccountChargeReadPlatformService savingsAccountChargeReadPlatformService,
+            final LoanSummaryChangeLogService loanSummaryChangeLogService, final ConfigurationDomainService configurationDomainService,
+            final SavingsAccountReadPlatformService savingsAccountReadPlatformService, final ChunkedJobExecutor chunkedJobExecutor,
+            final JobWorkerPool jobWorkerPool) {
         this.dataSourceServiceFactory = dataSourceServiceFactory;
         this.savingsAccountWritePlatformService = savingsAccountWritePlatformService;
         this.savingsAccountChargeReadPlatformService = savingsAccountChargeReadPlatformService;
+        this.loanSummaryChangeLogService = loanSummaryChangeLogService;
+        this.configurationDomainService = configurationDomainService;
+        this.savingsAccountReadPlatformService = savingsAccountReadPlatformService;
+        this.chunkedJobExecutor = chunkedJobExecutor;
+        this.jobWorkerPool = jobWorkerPool;
     }
 
-    @Transactional
+    /**
+     * Recomputes the loan summary only for loans recorded in the loan summary
+     * change log since the last run, in chunks of
+     * <code>loan-summary-update-chunk-size</code> loans. Each chunk is
+     * committed on its own so that <code>m_loan</code> is never locked for
+     * the whole portfolio.
+     */
     @Override
     @CronTarget(jobName = JobName.UPDATE_LOAN_SUMMARY)
     public void updateLoanSummaryDetails() {
 
+        final NamedParameterJdbcTemplate namedParameterJdbcTemplate = new NamedParameterJdbcTemplate(this.dataSourceServiceFactory
+                .determineDataSourceService().retrieveDataSource());
+
+        final String updateSql = loanSummaryUpdateSql(true);
+        final int chunkSize = retrieveLoanSummaryUpdateChunkSize();
+        final Long maxLogEntryId = this.loanSummaryChangeLogService.retrieveMaxLogEntryId();
+
+        int result = 0;
+        Long lastLoanId = Long.valueOf(0);
+        List<Long> loanIds = this.loanSummaryChangeLogService.retrieveChangedLoanIds(maxLogEntryId, lastLoanId, chunkSize);
+        while (!loanIds.isEmpty()) {
+            result += namedParameterJdbcTemplate.update(updateSql, new MapSqlParameterSource("loanIds", loanIds));
+            this.loanSummaryChangeLogService.removeLogEntries(maxLogEntryId, loanIds);
+
+            lastLoanId = loanIds.get(loanIds.size() - 1);
+            loanIds = this.loanSummaryChangeLogService.retrieveChangedLoanIds(maxLogEntryId, lastLoanId, chunkSize);
+        }
+
+        logger.info(ThreadLocalContextUtil.getTenant().getName() + ": Results affected by update: " + result);
+    }
+
+    @Transactional
+    @Override
+    @CronTarget(jobName = JobName.REBUILD_LOAN_SUMMARY)
+    public void rebuildLoanSummaryDetails() {
+
         final JdbcTemplate jdbcTemplate = new JdbcTemplate(this.dataSourceServiceFactory.determineDataSourceService().retrieveDataSource());
 
+        final Long maxLogEntryId = this.loanSummaryChangeLogService.retrieveMaxLogEntryId();
+
+        final int result = jdbcTemplate.update(loanSummaryUpdateSql(false));
+
+        jdbcTemplate.update("delete from m_loan_summary_change_log where id <= ?", maxLogEntryId);
+
+        logger.info(ThreadLocalContextUtil.getTenant().getName() + ": Results affected by update: " + result);
+    }
+
+    private int retrieveLoanSummaryUpdateChunkSize() {
+        final Long chunkSize = this.configurationDomainService.retrieveLoanSummaryUpdateChunkSize();
+        if (chunkSize == null || chunkSize.longValue() <= 0) { return DEFAULT_LOAN_SUMMARY_UPDATE_CHUNK_SIZE; }
+        return chunkSize.intValue();
+    }
+
+    private String loanSummaryUpdateSql(final boolean restrictToLoanIds) {
+
         final StringBuilder updateSqlBuilder = new StringBuilder(900);
         updateSqlBuilder.append("update m_loan ");
         updateSqlBuilder.append("join (");
@@ -71,6 +165,9 @@ public class ScheduledJobRunnerServiceImpl implements ScheduledJobRunnerService
         updateSqlBuilder.append(" FROM m_loan ml ");
         updateSqlBuilder.append("INNER JOIN m_loan_repayment_schedule mr on mr.loan_id = ml.id ");
         updateSqlBuilder.append("WHERE ml.disbursedon_date is not null ");
+        if (restrictToLoanIds) {
+            updateSqlBuilder.append("and ml.id in (:loanIds) ");
+        }
         updateSqlBuilder.append("GROUP BY ml.id ");
         updateSqlBuilder.append(") x on x.loanId = m_loan.id ");
 
@@ -118,24 +215,140 @@ public class ScheduledJobRunnerServiceImpl implements ScheduledJobRunnerService
         updateSqlBuilder
                 .append(" (x.penalty_charges_charged_derived - (x.penalty_charges_repaid_derived + x.penalty_charges_waived_derived + x.penalty_charges_writtenoff_derived))");
 
-        final int result = jdbcTemplate.update(updateSqlBuilder.toString());
+        return updateSqlBuilder.toString();
+    }
+
+    @Transactional
+    @Override
+    @CronTarget(jobName = JobName.UPDATE_LOAN_ARREARS_AGEING)
+    public void updateLoanArrearsAgeingDetails() throws JobExecutionException {
+
+        if (this.configurationDomainService.isShadowTableRebuildForLoanArrearsEnabled()) {
+            rebuildInShadowTable(LOAN_ARREARS_AGEING_TABLE,
+                    loanArrearsAgeingInsertSql(LOAN_ARREARS_AGEING_TABLE + SHADOW_TABLE_SUFFIX, true), LOAN_ARREARS_AGEING_FOREIGN_KEY);
+            return;
+        }
+
+        final JdbcTemplate jdbcTemplate = new JdbcTemplate(this.dataSourceServiceFactory.determineDataSourceService().retrieveDataSource());
+
+        jdbcTemplate.execute("truncate table " + LOAN_ARREARS_AGEING_TABLE);
+
+        final int result = jdbcTemplate.update(loanArrearsAgeingInsertSql(LOAN_ARREARS_AGEING_TABLE, false));
 
         logger.info(ThreadLocalContextUtil.getTenant().getName() + ": Results affected by update: " + result);
     }
 
     @Transactional
     @Override
-    @CronTarget(jobName = JobName.UPDATE_LOAN_ARREARS_AGEING)
-    public void updateLoanArrearsAgeingDetails() {
+    @CronTarget(jobName = JobName.UPDATE_LOAN_PAID_IN_ADVANCE)
+    public void updateLoanPaidInAdvance() throws JobExecutionException {
+
+        if (this.configurationDomainService.isShadowTableRebuildForLoanArrearsEnabled()) {
+            rebuildInShadowTable(LOAN_PAID_IN_ADVANCE_TABLE,
+                    loanPaidInAdvanceInsertSql(LOAN_PAID_IN_ADVANCE_TABLE + SHADOW_TABLE_SUFFIX, true), null);
+            return;
+        }
 
         final JdbcTemplate jdbcTemplate = new JdbcTemplate(this.dataSourceServiceFactory.determineDataSourceService().retrieveDataSource());
 
-        jdbcTemplate.execute("truncate table m_loan_arrears_aging");
+        jdbcTemplate.execute("truncate table " + LOAN_PAID_IN_ADVANCE_TABLE);
+
+        final int result = jdbcTemplate.update(loanPaidInAdvanceInsertSql(LOAN_PAID_IN_ADVANCE_TABLE, false));
+
+        logger.info(ThreadLocalContextUtil.getTenant().getName() + ": Results affected by update: " + result);
+    }
+
+    /**
+     * Builds a copy of <code>tableName</code> from scratch in a shadow table,
+     * one loan id range per statement spread over a bounded worker pool, and
+     * then swaps it in with a single atomic <code>RENAME TABLE</code>. Readers
+     * keep seeing the previous contents of the table until the swap.
+     * 
+     * <code>CREATE TABLE ... LIKE</code> does not copy foreign keys, so the
+     * given foreign key is added to the shadow table while it is still empty.
+     * It is named <code>&lt;shadow table&gt;_ibfk_1</code>, which InnoDB
+     * renames to <code>&lt;table&gt;_ibfk_1</code> along with the table.
+     * 
+     * The range inserts run on pooled connections of their own and the table
+     * statements are DDL, which MySQL commits implicitly, so the rebuild does
+     * not depend on the transaction of the caller.
+     */
+    private void rebuildInShadowTable(final String tableName, final String rangeInsertSql, final String foreignKeyDefinition)
+            throws JobExecutionException {
+
+        final DataSource dataSource = this.dataSourceServiceFactory.determineDataSourceService().retrieveDataSource();
+        final JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+
+        final String shadowTableName = tableName + SHADOW_TABLE_SUFFIX;
+        final String retiredTableName = tableName + RETIRED_TABLE_SUFFIX;
+
+        jdbcTemplate.execute("drop table if exists " + shadowTableName);
+        jdbcTemplate.execute("create table " + shadowTableName + " like " + tableName);
+        if (foreignKeyDefinition != null) {
+            jdbcTemplate.execute("alter table " + shadowTableName + " add constraint " + shadowTableName + "_ibfk_1 "
+                    + foreignKeyDefinition);
+        }
+
+        final long startTime = System.currentTimeMillis();
+        final Map<String, Object> loanIdRange = jdbcTemplate
+                .queryForMap("select ifnull(min(ml.id), 0) as minId, ifnull(max(ml.id), 0) as maxId from m_loan ml where ml.loan_status_id = 300");
+        final long minLoanId = ((Number) loanIdRange.get("minId")).longValue();
+        final long maxLoanId = ((Number) loanIdRange.get("maxId")).longValue();
+        final long chunkSize = retrieveLoanArrearsRebuildChunkSize();
+
+        final ExecutorService executorService = this.jobWorkerPool.newExecutorService(this.jobWorkerPool.threadCount());
+        long result = 0;
+        try {
+            final List<Future<Integer>> chunkResults = new ArrayList<Future<Integer>>();
+            for (long fromLoanId = minLoanId; fromLoanId <= maxLoanId; fromLoanId += chunkSize) {
+                final Long chunkFromLoanId = Long.valueOf(fromLoanId);
+                final Long chunkToLoanId = Long.valueOf(Math.min(fromLoanId + chunkSize - 1, maxLoanId));
+                chunkResults.add(executorService.submit(new Callable<Integer>() {
+
+                    @Override
+                    public Integer call() {
+                        return jdbcTemplate.update(rangeInsertSql, chunkFromLoanId, chunkToLoanId);
+                    }
+                }));
+            }
+            for (final Future<Integer> chunkResult : chunkResults) {
+                result += chunkResult.get().intValue();
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            jdbcTemplate.execute("drop table if exists " + shadowTableName);
+            throw new JobExecutionException("Rebuild of " + tableName + " was interrupted");
+        } catch (final ExecutionException e) {
+            logger.error(e.getMessage(), e.getCause());
+            jdbcTemplate.execute("drop table if exists " + shadowTableName);
+            throw new JobExecutionException("Rebuild of " + tableName + " failed: " + e.getCause().getMessage());
+        } finally {
+            executorService.shutdownNow();
+        }
+
+        jdbcTemplate.execute("drop table if exists " + retiredTableName);
+        jdbcTemplate.execute("rename table " + tableName + " to " + retiredTableName + ", " + shadowTableName + " to " + tableName);
+        jdbcTemplate.execute("drop table " + retiredTableName);
+
+        final JobRunStatistics statistics = new JobRunStatistics(result, System.currentTimeMillis() - startTime);
+        JobRunStatisticsHolder.setStatistics(statistics);
+
+        logger.info(ThreadLocalContextUtil.getTenant().getName() + ": Results affected by update: " + result + " ("
+                + statistics.getProcessedPerSecond() + " rows/second)");
+    }
+
+    private long retrieveLoanArrearsRebuildChunkSize() {
+        final Long chunkSize = this.configurationDomainService.retrieveLoanArrearsRebuildChunkSize();
+        if (chunkSize == null || chunkSize.longValue() <= 0) { return DEFAULT_LOAN_ARREARS_REBUILD_CHUNK_SIZE; }
+        return chunkSize.longValue();
+    }
+
+    private String loanArrearsAgeingInsertSql(final String targetTableName, final boolean restrictToLoanIdRange) {
 
         final StringBuilder updateSqlBuilder = new StringBuilder(900);
 
         updateSqlBuilder
-                .append("INSERT INTO m_loan_arrears_aging(`loan_id`,`principal_overdue_derived`,`interest_overdue_derived`,`fee_charges_overdue_derived`,`penalty_charges_overdue_derived`,`total_overdue_derived`,`overdue_since_date_derived`)");
+                .append("INSERT INTO " + targetTableName + "(`loan_id`,`principal_overdue_derived`,`interest_overdue_derived`,`fee_charges_overdue_derived`,`penalty_charges_overdue_derived`,`total_overdue_derived`,`overdue_since_date_derived`)");
         updateSqlBuilder.append("select ml.id as loanId,");
         updateSqlBuilder
                 .append("SUM((ifnull(mr.principal_amount,0) - ifnull(mr.principal_completed_derived, 0))) as principal_overdue_derived,");
@@ -156,26 +369,20 @@ public class ScheduledJobRunnerServiceImpl implements ScheduledJobRunnerService
         updateSqlBuilder.append(" WHERE ml.loan_status_id = 300 "); // active
         updateSqlBuilder.append(" and mr.completed_derived is false ");
         updateSqlBuilder.append(" and mr.duedate < CURDATE() ");
+        if (restrictToLoanIdRange) {
+            updateSqlBuilder.append(" and ml.id between ? and ? ");
+        }
         updateSqlBuilder.append(" GROUP BY ml.id");
 
-        final int result = jdbcTemplate.update(updateSqlBuilder.toString());
-
-        logger.info(ThreadLocalContextUtil.getTenant().getName() + ": Results affected by update: " + result);
+        return updateSqlBuilder.toString();
     }
 
-    @Transactional
-    @Override
-    @CronTarget(jobName = JobName.UPDATE_LOAN_PAID_IN_ADVANCE)
-    public void updateLoanPaidInAdvance() {
-
-        final JdbcTemplate jdbcTemplate = new JdbcTemplate(this.dataSourceServiceFactory.determineDataSourceService().retrieveDataSource());
-
-        jdbcTemplate.execute("truncate table m_loan_paid_in_advance");
+    private String loanPaidInAdvanceInsertSql(final String targetTableName, final boolean restrictToLoanIdRange) {
 
         final StringBuilder updateSqlBuilder = new StringBuilder(900);
 
         updateSqlBuilder
-                .append("INSERT INTO m_loan_paid_in_advance(loan_id, principal_in_advance_derived, interest_in_advance_derived, fee_charges_in_advance_derived, penalty_charges_in_advance_derived, total_in_advance_derived)");
+                .append("INSERT INTO " + targetTableName + "(loan_id, principal_in_advance_derived, interest_in_advance_derived, fee_charges_in_advance_derived, penalty_charges_in_advance_derived, total_in_advance_derived)");
         updateSqlBuilder.append(" select ml.id as loanId,");
         updateSqlBuilder.append(" SUM(ifnull(mr.principal_completed_derived, 0)) as principal_in_advance_derived,");
         updateSqlBuilder.append(" SUM(ifnull(mr.interest_completed_derived, 0)) as interest_in_advance_derived,");
@@ -187,15 +394,111 @@ public class ScheduledJobRunnerServiceImpl implements ScheduledJobRunnerService
         updateSqlBuilder.append(" INNER JOIN m_loan_repayment_schedule mr on mr.loan_id = ml.id ");
         updateSqlBuilder.append(" WHERE ml.loan_status_id = 300 ");
         updateSqlBuilder.append(" and mr.duedate >= CURDATE() ");
+        if (restrictToLoanIdRange) {
+            updateSqlBuilder.append(" and ml.id between ? and ? ");
+        }
         updateSqlBuilder.append(" GROUP BY ml.id");
         updateSqlBuilder
                 .append(" HAVING (SUM(ifnull(mr.principal_completed_derived, 0)) + SUM(ifnull(mr.interest_completed_derived, 0)) +");
         updateSqlBuilder
                 .append(" SUM(ifnull(mr.fee_charges_completed_derived, 0)) + SUM(ifnull(mr.penalty_charges_completed_derived, 0))) > 0.0");
 
-        final int result = jdbcTemplate.update(updateSqlBuilder.toString());
+        return updateSqlBuilder.toString();
+    }
 
-        logger.info(ThreadLocalContextUtil.getTenant().getName() + ": Results affected by update: " + result);
+    /**
+     * Pages through active savings account ids and posts interest for each
+     * page in its own transaction on the job worker pool. When a page fails it
+     * is retried one account at a time so that a single bad account cannot
+     * hold back the rest of the page.
+     */
+    @Override
+    @CronTarget(jobName = JobName.POST_INTEREST_FOR_SAVINGS)
+    public void postInterestForSavings() throws JobExecutionException {
+
+        final int batchSize = retrieveSavingsInterestPostingBatchSize();
+        final int threadCount = this.jobWorkerPool.threadCount();
+        final ExecutorService executorService = this.jobWorkerPool.newExecutorService(threadCount);
+
+        final long startTime = System.currentTimeMillis();
+        final List<String> failures = new ArrayList<String>();
+        final LinkedList<Future<List<String>>> pendingBatches = new LinkedList<Future<List<String>>>();
+        long processed = 0;
+        try {
+            Long lastSavingsId = Long.valueOf(0);
+            List<Long> savingsIds = this.savingsAccountReadPlatformService.retrieveActiveSavingsAccountIds(lastSavingsId, batchSize);
+            while (!savingsIds.isEmpty()) {
+                pendingBatches.add(executorService.submit(new SavingsInterestPostingTask(savingsIds)));
+                processed += savingsIds.size();
+
+                // keep only a bounded number of batches in flight
+                while (pendingBatches.size() >= threadCount * 2) {
+                    failures.addAll(pendingBatches.removeFirst().get());
+                }
+
+                lastSavingsId = savingsIds.get(savingsIds.size() - 1);
+                savingsIds = this.savingsAccountReadPlatformService.retrieveActiveSavingsAccountIds(lastSavingsId, batchSize);
+            }
+            while (!pendingBatches.isEmpty()) {
+                failures.addAll(pendingBatches.removeFirst().get());
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new JobExecutionException("Interest posting for savings accounts was interrupted");
+        } catch (final ExecutionException e) {
+            logger.error(e.getMessage(), e.getCause());
+            throw new JobExecutionException("Interest posting for savings accounts failed: " + e.getCause().getMessage());
+        } finally {
+            executorService.shutdownNow();
+        }
+
+        JobRunStatisticsHolder.setStatistics(new JobRunStatistics(processed - failures.size(), failures.size(), System.currentTimeMillis()
+                - startTime));
+
+        logger.info(ThreadLocalContextUtil.getTenant().getName() + ": Savings accounts affected by update: " + (processed - failures.size())
+                + ", failed: " + failures.size());
+
+        if (!failures.isEmpty()) {
+            final StringBuilder sb = new StringBuilder();
+            for (final String failure : failures) {
+                sb.append(failure).append("--------");
+            }
+            throw new JobExecutionException(sb.toString());
+        }
+    }
+
+    private final class SavingsInterestPostingTask extends TenantAwareCallable<List<String>> {
+
+        private final List<Long> savingsIds;
+
+        SavingsInterestPostingTask(final List<Long> savingsIds) {
+            this.savingsIds = savingsIds;
+        }
+
+        @Override
+        protected List<String> callForTenant() {
+            final List<String> failures = new ArrayList<String>();
+            try {
+                ScheduledJobRunnerServiceImpl.this.savingsAccountWritePlatformService.postInterestForAccounts(this.savingsIds);
+            } catch (final RuntimeException batchException) {
+                for (final Long savingsId : this.savingsIds) {
+                    try {
+                        ScheduledJobRunnerServiceImpl.this.savingsAccountWritePlatformService.postInterestForAccounts(Collections
+                                .singletonList(savingsId));
+                    } catch (final RuntimeException e) {
+                        logger.error("Post interest failed for savings account:" + savingsId, e);
+                        failures.add("Post interest failed for savings account:" + savingsId + " with message " + e.getMessage());
+                    }
+                }
+            }
+            return failures;
+        }
+    }
+
+    private int retrieveSavingsInterestPostingBatchSize() {
+        final Long batchSize = this.configurationDomainService.retrieveSavingsInterestPostingBatchSize();
+        if (batchSize == null || batchSize.longValue() <= 0) { return DEFAULT_SAVINGS_INTEREST_POSTING_BATCH_SIZE; }
+        return batchSize.intValue();
     }
 
     @Override
@@ -223,25 +526,43 @@ public class ScheduledJobRunnerServiceImpl implements ScheduledJobRunnerService
         logger.info(ThreadLocalContextUtil.getTenant().getName() + ": Savings accounts affected by update: " + annualFeeData.size());
     }
 
+    /**
+     * Applies the due charges of savings accounts. Charges are partitioned by
+     * savings account and run in chunks on the job worker pool,
+     * see {@link ChunkedJobExecutor}.
+     */
     @Override
     @CronTarget(jobName = JobName.PAY_DUE_SAVINGS_CHARGES)
-    public void applyDueChargesForSavings() {
+    public void applyDueChargesForSavings() throws JobExecutionException {
         final Collection<SavingsAccountAnnualFeeData> chargesDueData = this.savingsAccountChargeReadPlatformService
                 .retrieveChargesWithDue();
-        
-        for (final SavingsAccountAnnualFeeData savingsAccountReference : chargesDueData) {
-            try {
-                this.savingsAccountWritePlatformService.applyChargeDue(savingsAccountReference.getId(), savingsAccountReference.getAccountId());
-            } catch (final PlatformApiDataValidationException e) {
-                final List<ApiParameterError> errors = e.getErrors();
-                for (final ApiParameterError error : errors) {
-                    logger.error("Apply Charges due for savings failed for account:" + savingsAccountReference.getAccountNo() + " with message "
-                            + error.getDeveloperMessage());
+
+        this.chunkedJobExecutor.execute(JobName.PAY_DUE_SAVINGS_CHARGES, chargesDueData, new ChunkedJob<SavingsAccountAnnualFeeData>() {
+
+            @Override
+            public String partitionKey(final SavingsAccountAnnualFeeData savingsAccountReference) {
+                return ChunkedJobExecutor.partitionKey(savingsAccountReference.getAccountId());
+            }
+
+            @Override
+            public List<String> processPartition(final List<SavingsAccountAnnualFeeData> savingsAccountReferences) {
+                final List<String> failures = new ArrayList<String>();
+                for (final SavingsAccountAnnualFeeData savingsAccountReference : savingsAccountReferences) {
+                    try {
+                        ScheduledJobRunnerServiceImpl.this.savingsAccountWritePlatformService.applyChargeDue(
+                                savingsAccountReference.getId(), savingsAccountReference.getAccountId());
+                    } catch (final PlatformApiDataValidationException e) {
+                        final List<ApiParameterError> errors = e.getErrors();
+                        for (final ApiParameterError error : errors) {
+                            logger.error("Apply Charges due for savings failed for account:" + savingsAccountReference.getAccountNo()
+                                    + " with message " + error.getDeveloperMessage());
+                        }
+                        failures.add("Apply Charges due for savings failed for account:" + savingsAccountReference.getAccountNo());
+                    }
                 }
+                return failures;
             }
-        }
-        
-        logger.info(ThreadLocalContextUtil.getTenant().getName() + ": Savings accounts affected by update: " + chargesDueData.size());
+        });
     }
-   
-}
\ No newline at end of file
+
+}
@@ -176,6 +176,50 @@ public class TemplatesApiResource {
         final
         HashMap<String, Object> result = new ObjectMapper().readValue(apiRequestBodyAsJson, HashMap.class);
 
+        final Map<String, Object> parametersMap = mergeParameters(uriInfo);
+        parametersMap.putAll(result);
+        return this.templateMergeService.compile(template, parametersMap);
+    }
+
+    /**
+     * Merges the template for each id in the <code>entityIds</code> array of
+     * the request body, e.g. to print one letter per client. Each merged
+     * document is followed by a page break.
+     */
+    @POST
+    @Path("{templateId}/bulk")
+    @Produces({ MediaType.TEXT_HTML })
+    public String mergeTemplateInBulk(@PathParam("templateId") final Long templateId, @Context final UriInfo uriInfo,
+            final String apiRequestBodyAsJson) throws MalformedURLException, IOException {
+
+        final Template template = this.templateService.findOneById(templateId);
+
+        @SuppressWarnings("unchecked")
+        final HashMap<String, Object> result = new ObjectMapper().readValue(apiRequestBodyAsJson, HashMap.class);
+
+        final List<Long> entityIds = new ArrayList<Long>();
+        final Object requestedIds = result.remove("entityIds");
+        if (requestedIds instanceof List) {
+            for (final Object id : (List<?>) requestedIds) {
+                entityIds.add(Long.valueOf(id.toString()));
+            }
+        }
+
+        final Map<String, Object> parametersMap = mergeParameters(uriInfo);
+        parametersMap.putAll(result);
+
+        final String entityIdParameter = template.getEntity().getName() + "Id";
+        final Map<Long, String> merged = this.templateMergeService.compile(template, parametersMap, entityIdParameter, entityIds);
+
+        final StringBuilder documents = new StringBuilder();
+        for (final String document : merged.values()) {
+            documents.append("<div style=\"page-break-after: always;\">").append(document).append("</div>");
+        }
+        return documents.toString();
+    }
+
+    private static Map<String, Object> mergeParameters(final UriInfo uriInfo) {
+
         final MultivaluedMap<String, String> parameters = uriInfo.getQueryParameters();
         final Map<String, Object> parametersMap = new HashMap<String, Object>();
         for (final Map.Entry<String, List<String>> entry : parameters.entrySet()) {
@@ -188,7 +232,6 @@ public class TemplatesApiResource {
         }
 
         parametersMap.put("BASE_URI", uriInfo.getBaseUri());
-        parametersMap.putAll(result);
-        return this.templateMergeService.compile(template, parametersMap);
+        return parametersMap;
     }
-}
\ No newline at end of file
+}
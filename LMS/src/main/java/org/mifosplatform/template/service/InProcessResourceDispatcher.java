@@ -0,0 +1,331 @@
+package org.mifosplatform.template.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.net.URI;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.ws.rs.DefaultValue;
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
+import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
+import javax.ws.rs.core.UriInfo;
+
+import org.codehaus.jackson.map.ObjectMapper;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationContext;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.stereotype.Service;
+
+import com.sun.jersey.api.uri.UriComponent;
+import com.sun.jersey.api.uri.UriTemplate;
+import com.sun.jersey.core.util.MultivaluedMapImpl;
+
+/**
+ * Resolves template mapper URLs that point at this platform by invoking the
+ * matching <code>GET</code> resource method directly, instead of issuing an
+ * HTTP request back to ourselves.
+ *
+ * The call runs on the caller's thread, so the authenticated user and tenant
+ * already bound to it are used and the resource still performs its own
+ * permission checks.
+ */
+@Service
+public class InProcessResourceDispatcher {
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private final ApplicationContext applicationContext;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private volatile List<ResourceRoute> routes;
+
+    @Autowired
+    public InProcessResourceDispatcher(final ApplicationContext applicationContext) {
+        this.applicationContext = applicationContext;
+    }
+
+    /**
+     * @param baseUri
+     *            the API base URI the relative path is resolved against
+     * @param relativeUrl
+     *            resource path relative to the API base, optionally with a
+     *            query string, e.g. <code>clients/1?associations=all</code>
+     * @return the response as a map (or list) parsed from JSON, a map with a
+     *         single <code>src</code> entry for plain text resources, or
+     *         <code>null</code> if no resource method matches the path.
+     */
+    public Object dispatch(final URI baseUri, final String relativeUrl) {
+
+        String path = relativeUrl;
+        String query = null;
+        final int queryStart = relativeUrl.indexOf('?');
+        if (queryStart >= 0) {
+            path = relativeUrl.substring(0, queryStart);
+            query = relativeUrl.substring(queryStart + 1);
+        }
+        if (!path.startsWith("/")) {
+            path = "/" + path;
+        }
+        if (path.length() > 1 && path.endsWith("/")) {
+            path = path.substring(0, path.length() - 1);
+        }
+
+        for (final ResourceRoute route : routes()) {
+            final Map<String, String> templateValues = new HashMap<String, String>();
+            if (route.template.match(path, templateValues)) {
+                final MultivaluedMap<String, String> pathParameters = new MultivaluedMapImpl();
+                for (final Map.Entry<String, String> entry : templateValues.entrySet()) {
+                    pathParameters.putSingle(entry.getKey(), UriComponent.decode(entry.getValue(), UriComponent.Type.PATH_SEGMENT));
+                }
+                final MultivaluedMap<String, String> queryParameters = query == null ? new MultivaluedMapImpl() : UriComponent
+                        .decodeQuery(query, true);
+                final UriInfo uriInfo = new InProcessUriInfo(baseUri, path.substring(1), pathParameters, queryParameters,
+                        route.resourcePathSegments, route.resource);
+
+                return invoke(route, pathParameters, queryParameters, uriInfo);
+            }
+        }
+        return null;
+    }
+
+    private Object invoke(final ResourceRoute route, final MultivaluedMap<String, String> pathParameters,
+            final MultivaluedMap<String, String> queryParameters, final UriInfo uriInfo) {
+
+        final Object[] arguments = resolveArguments(route.method, pathParameters, queryParameters, uriInfo);
+
+        Object result;
+        try {
+            result = route.method.invoke(route.resource, arguments);
+        } catch (final InvocationTargetException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) { throw (RuntimeException) cause; }
+            throw new IllegalStateException(cause);
+        } catch (final IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+
+        if (result instanceof Response) {
+            result = ((Response) result).getEntity();
+        }
+
+        if (result instanceof StreamingOutput) {
+            // e.g. run reports, which write their rows straight to the response
+            final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+            try {
+                ((StreamingOutput) result).write(buffer);
+            } catch (final IOException e) {
+                throw new IllegalStateException(e);
+            }
+            result = new String(buffer.toByteArray(), UTF_8);
+        }
+
+        if (result instanceof String) {
+            final String body = (String) result;
+            if (route.producesText) {
+                final Map<String, Object> text = new HashMap<String, Object>();
+                text.put("src", body);
+                return text;
+            }
+            try {
+                return this.objectMapper.readValue(body, Object.class);
+            } catch (final IOException e) {
+                throw new IllegalStateException("Unable to parse response of " + route.template.getTemplate(), e);
+            }
+        }
+        return result == null ? null : this.objectMapper.convertValue(result, Object.class);
+    }
+
+    private static Object[] resolveArguments(final Method method, final MultivaluedMap<String, String> pathParameters,
+            final MultivaluedMap<String, String> queryParameters, final UriInfo uriInfo) {
+
+        final Class<?>[] types = method.getParameterTypes();
+        final Annotation[][] annotations = method.getParameterAnnotations();
+        final Object[] arguments = new Object[types.length];
+
+        for (int i = 0; i < types.length; i++) {
+            String defaultValue = null;
+            for (final Annotation annotation : annotations[i]) {
+                if (annotation instanceof DefaultValue) {
+                    defaultValue = ((DefaultValue) annotation).value();
+                }
+            }
+            for (final Annotation annotation : annotations[i]) {
+                if (annotation instanceof PathParam) {
+                    final String value = pathParameters.getFirst(((PathParam) annotation).value());
+                    arguments[i] = convert(types[i], value == null ? defaultValue : value);
+                } else if (annotation instanceof QueryParam) {
+                    final List<String> values = queryParameters.get(((QueryParam) annotation).value());
+                    if (List.class.equals(types[i])) {
+                        arguments[i] = values == null ? new ArrayList<String>() : values;
+                    } else {
+                        final String value = values == null || values.isEmpty() ? defaultValue : values.get(0);
+                        arguments[i] = convert(types[i], value);
+                    }
+                } else if (annotation instanceof Context && UriInfo.class.equals(types[i])) {
+                    arguments[i] = uriInfo;
+                }
+            }
+            if (arguments[i] == null && types[i].isPrimitive()) {
+                arguments[i] = convert(types[i], null);
+            }
+        }
+        return arguments;
+    }
+
+    private static Object convert(final Class<?> type, final String value) {
+
+        if (type.isPrimitive()) {
+            if (boolean.class.equals(type)) { return Boolean.valueOf(value); }
+            if (value == null) {
+                if (int.class.equals(type)) { return Integer.valueOf(0); }
+                if (long.class.equals(type)) { return Long.valueOf(0); }
+                return null;
+            }
+            if (int.class.equals(type)) { return Integer.valueOf(value); }
+            if (long.class.equals(type)) { return Long.valueOf(value); }
+            throw new IllegalArgumentException("Unsupported parameter type " + type);
+        }
+        if (value == null || String.class.equals(type)) { return value; }
+
+        try {
+            final Method valueOf = type.getMethod("valueOf", String.class);
+            if (Modifier.isStatic(valueOf.getModifiers())) { return valueOf.invoke(null, value); }
+        } catch (final NoSuchMethodException e) {
+            // fall through to the single string constructor
+        } catch (final Exception e) {
+            throw new IllegalArgumentException("Invalid value '" + value + "' for " + type.getSimpleName(), e);
+        }
+        try {
+            final Constructor<?> constructor = type.getConstructor(String.class);
+            return constructor.newInstance(value);
+        } catch (final Exception e) {
+            throw new IllegalArgumentException("Invalid value '" + value + "' for " + type.getSimpleName(), e);
+        }
+    }
+
+    private List<ResourceRoute> routes() {
+        List<ResourceRoute> resolved = this.routes;
+        if (resolved == null) {
+            synchronized (this) {
+                resolved = this.routes;
+                if (resolved == null) {
+                    resolved = buildRoutes();
+                    this.routes = resolved;
+                }
+            }
+        }
+        return resolved;
+    }
+
+    private List<ResourceRoute> buildRoutes() {
+
+        final List<ResourceRoute> resolved = new ArrayList<ResourceRoute>();
+
+        for (final Object resource : this.applicationContext.getBeansWithAnnotation(Path.class).values()) {
+            if (AopUtils.isJdkDynamicProxy(resource)) {
+                continue;
+            }
+            final Class<?> resourceType = AopUtils.getTargetClass(resource);
+            final Path resourcePath = AnnotationUtils.findAnnotation(resourceType, Path.class);
+            if (resourcePath == null) {
+                continue;
+            }
+            for (final Method method : resourceType.getMethods()) {
+                if (!method.isAnnotationPresent(GET.class)) {
+                    continue;
+                }
+                final Path methodPath = method.getAnnotation(Path.class);
+                final String template = join(resourcePath.value(), methodPath == null ? null : methodPath.value());
+                final int resourcePathSegments = segmentCount(join(resourcePath.value(), null));
+                resolved.add(new ResourceRoute(new UriTemplate(template), resource, method, producesText(resourceType, method),
+                        resourcePathSegments));
+            }
+        }
+
+        Collections.sort(resolved, new Comparator<ResourceRoute>() {
+
+            @Override
+            public int compare(final ResourceRoute first, final ResourceRoute second) {
+                return UriTemplate.COMPARATOR.compare(first.template, second.template);
+            }
+        });
+        return Collections.unmodifiableList(resolved);
+    }
+
+    private static String join(final String resourcePath, final String methodPath) {
+        final StringBuilder template = new StringBuilder();
+        if (!resourcePath.startsWith("/")) {
+            template.append('/');
+        }
+        template.append(trimTrailingSlash(resourcePath));
+        if (methodPath != null && methodPath.length() > 0) {
+            if (!methodPath.startsWith("/")) {
+                template.append('/');
+            }
+            template.append(trimTrailingSlash(methodPath));
+        }
+        return template.toString();
+    }
+
+    private static int segmentCount(final String template) {
+        int segments = 0;
+        for (int i = 0; i < template.length(); i++) {
+            if (template.charAt(i) == '/') {
+                segments++;
+            }
+        }
+        return segments;
+    }
+
+    private static String trimTrailingSlash(final String path) {
+        return path.length() > 1 && path.endsWith("/") ? path.substring(0, path.length() - 1) : path;
+    }
+
+    private static boolean producesText(final Class<?> resourceType, final Method method) {
+        Produces produces = method.getAnnotation(Produces.class);
+        if (produces == null) {
+            produces = AnnotationUtils.findAnnotation(resourceType, Produces.class);
+        }
+        if (produces == null) { return false; }
+        final List<String> mediaTypes = Arrays.asList(produces.value());
+        return mediaTypes.contains(MediaType.TEXT_PLAIN) && !mediaTypes.contains(MediaType.APPLICATION_JSON);
+    }
+
+    private static final class ResourceRoute {
+
+        private final UriTemplate template;
+        private final Object resource;
+        private final Method method;
+        private final boolean producesText;
+        private final int resourcePathSegments;
+
+        ResourceRoute(final UriTemplate template, final Object resource, final Method method, final boolean producesText,
+                final int resourcePathSegments) {
+            this.template = template;
+            this.resource = resource;
+            this.method = method;
+            this.producesText = producesText;
+            this.resourcePathSegments = resourcePathSegments;
+        }
+    }
+}
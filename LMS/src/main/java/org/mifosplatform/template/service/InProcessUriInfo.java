@@ -0,0 +1,160 @@
+package org.mifosplatform.template.service;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.core.PathSegment;
+import javax.ws.rs.core.UriBuilder;
+import javax.ws.rs.core.UriInfo;
+
+import com.sun.jersey.api.uri.UriComponent;
+
+/**
+ * {@link UriInfo} handed to resource methods invoked by
+ * {@link InProcessResourceDispatcher}, built from the dispatched request path
+ * the same way Jersey builds it for an HTTP request.
+ *
+ * The path is kept as given, i.e. still encoded, and is decoded on request.
+ * The matched URIs are those of the resource method and, when the method has
+ * its own <code>@Path</code>, of its resource class.
+ */
+final class InProcessUriInfo implements UriInfo {
+
+    private final URI baseUri;
+    private final String path;
+    private final MultivaluedMap<String, String> pathParameters;
+    private final MultivaluedMap<String, String> queryParameters;
+    private final int resourcePathSegments;
+    private final Object resource;
+
+    /**
+     * @param path
+     *            the encoded request path relative to the base URI, without a
+     *            leading slash
+     * @param resourcePathSegments
+     *            the number of leading segments of the path matched by the
+     *            resource class, or the number of all its segments when the
+     *            resource method has no path of its own
+     * @param resource
+     *            the resource the request is dispatched to
+     */
+    InProcessUriInfo(final URI baseUri, final String path, final MultivaluedMap<String, String> pathParameters,
+            final MultivaluedMap<String, String> queryParameters, final int resourcePathSegments, final Object resource) {
+        this.baseUri = baseUri;
+        this.path = path;
+        this.pathParameters = pathParameters;
+        this.queryParameters = queryParameters;
+        this.resourcePathSegments = resourcePathSegments;
+        this.resource = resource;
+    }
+
+    @Override
+    public String getPath() {
+        return getPath(true);
+    }
+
+    @Override
+    public String getPath(final boolean decode) {
+        return decode(this.path, decode);
+    }
+
+    @Override
+    public List<PathSegment> getPathSegments() {
+        return getPathSegments(true);
+    }
+
+    @Override
+    public List<PathSegment> getPathSegments(final boolean decode) {
+        return UriComponent.decodePath(this.path, decode);
+    }
+
+    @Override
+    public URI getRequestUri() {
+        return getAbsolutePath();
+    }
+
+    @Override
+    public UriBuilder getRequestUriBuilder() {
+        return UriBuilder.fromUri(getRequestUri());
+    }
+
+    @Override
+    public URI getAbsolutePath() {
+        return this.baseUri == null ? URI.create(this.path) : this.baseUri.resolve(this.path);
+    }
+
+    @Override
+    public UriBuilder getAbsolutePathBuilder() {
+        return UriBuilder.fromUri(getAbsolutePath());
+    }
+
+    @Override
+    public URI getBaseUri() {
+        return this.baseUri;
+    }
+
+    @Override
+    public UriBuilder getBaseUriBuilder() {
+        return UriBuilder.fromUri(this.baseUri);
+    }
+
+    @Override
+    public MultivaluedMap<String, String> getPathParameters() {
+        return this.pathParameters;
+    }
+
+    @Override
+    public MultivaluedMap<String, String> getPathParameters(@SuppressWarnings("unused") final boolean decode) {
+        return this.pathParameters;
+    }
+
+    @Override
+    public MultivaluedMap<String, String> getQueryParameters() {
+        return this.queryParameters;
+    }
+
+    @Override
+    public MultivaluedMap<String, String> getQueryParameters(@SuppressWarnings("unused") final boolean decode) {
+        return this.queryParameters;
+    }
+
+    @Override
+    public List<String> getMatchedURIs() {
+        return getMatchedURIs(true);
+    }
+
+    /**
+     * @return the URI matched by the resource method followed by the one
+     *         matched by its resource class, if that is shorter
+     */
+    @Override
+    public List<String> getMatchedURIs(final boolean decode) {
+        final List<String> matchedURIs = new ArrayList<String>();
+        matchedURIs.add(decode(this.path, decode));
+
+        final String[] segments = this.path.split("/");
+        if (this.resourcePathSegments < segments.length) {
+            final StringBuilder resourcePath = new StringBuilder();
+            for (int i = 0; i < this.resourcePathSegments; i++) {
+                if (i > 0) {
+                    resourcePath.append('/');
+                }
+                resourcePath.append(segments[i]);
+            }
+            matchedURIs.add(decode(resourcePath.toString(), decode));
+        }
+        return Collections.unmodifiableList(matchedURIs);
+    }
+
+    @Override
+    public List<Object> getMatchedResources() {
+        return Collections.singletonList(this.resource);
+    }
+
+    private static String decode(final String path, final boolean decode) {
+        return decode ? UriComponent.decode(path, UriComponent.Type.PATH) : path;
+    }
+}
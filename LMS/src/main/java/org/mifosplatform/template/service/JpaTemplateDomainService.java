@@ -31,6 +31,9 @@ public class JpaTemplateDomainService implements TemplateDomainService {
     @Autowired
     private TemplateRepository templateRepository;
 
+    @Autowired
+    private TemplateMergeService templateMergeService;
+
     @Override
     public List<Template> getAll() {
         return this.templateRepository.findAll();
@@ -75,6 +78,7 @@ public class JpaTemplateDomainService implements TemplateDomainService {
         template.setMappers(mappersList);
 
         this.templateRepository.saveAndFlush(template);
+        this.templateMergeService.evictCompiledTemplate(templateId);
 
         return new CommandProcessingResultBuilder().withCommandId(command.commandId()).withEntityId(template.getId()).build();
     }
@@ -85,6 +89,7 @@ public class JpaTemplateDomainService implements TemplateDomainService {
         final Template template = findOneById(templateId);
 
         this.templateRepository.delete(template);
+        this.templateMergeService.evictCompiledTemplate(templateId);
 
         return new CommandProcessingResultBuilder().withEntityId(templateId).build();
     }
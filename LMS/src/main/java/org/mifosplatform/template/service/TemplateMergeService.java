@@ -10,76 +10,150 @@ import java.net.Authenticator;
 import java.net.HttpURLConnection;
 import java.net.MalformedURLException;
 import java.net.PasswordAuthentication;
+import java.net.URI;
 import java.net.URL;
 import java.security.KeyManagementException;
 import java.security.KeyStoreException;
 import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 import org.codehaus.jackson.map.ObjectMapper;
+import org.mifosplatform.infrastructure.core.service.ThreadLocalContextUtil;
 import org.mifosplatform.template.domain.Template;
 import org.mifosplatform.template.domain.TemplateFunctions;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 
 import com.github.mustachejava.DefaultMustacheFactory;
 import com.github.mustachejava.Mustache;
 import com.github.mustachejava.MustacheFactory;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 
 @Service
 public class TemplateMergeService {
 
-//    private final FromJsonHelper fromApiJsonHelper;
-    private Map<String, Object> scopes;
+    private static final int MAXIMUM_COMPILED_TEMPLATES = 500;
 
-//    @Autowired
-//    public TemplateMergeService(final FromJsonHelper fromApiJsonHelper) {
-//        this.fromApiJsonHelper = fromApiJsonHelper;
-//    }
+    private final InProcessResourceDispatcher resourceDispatcher;
 
-    public String compile(final Template template, final Map<String, Object> scopes) throws MalformedURLException, IOException {
-
-        this.scopes = scopes;
-        this.scopes.put("static", new TemplateFunctions());
+    /**
+     * Compiled templates keyed by tenant and template id. An entry is only
+     * reused while the template text and mappers it was compiled from are
+     * unchanged.
+     */
+    private final Cache<String, CompiledTemplate> compiledTemplates = CacheBuilder.newBuilder().maximumSize(MAXIMUM_COMPILED_TEMPLATES)
+            .build();
 
-        final MustacheFactory mf = new DefaultMustacheFactory();
-        final Mustache mustache = mf.compile(new StringReader(template.getText()), template.getName());
+    @Autowired
+    public TemplateMergeService(final InProcessResourceDispatcher resourceDispatcher) {
+        this.resourceDispatcher = resourceDispatcher;
+    }
 
-        final Map<String, Object> mappers = getCompiledMapFromMappers(template.getMappersAsMap());
-        this.scopes.putAll(mappers);
+    public String compile(final Template template, final Map<String, Object> scopes) throws MalformedURLException, IOException {
+        return merge(compiledTemplateFor(template), scopes, new HashMap<String, Object>());
+    }
 
-        final StringWriter stringWriter = new StringWriter();
-        mustache.execute(stringWriter, this.scopes);
+    /**
+     * Merges the template once for every entity id, e.g. for mass letter
+     * generation. The template and its mappers are compiled once and mapper
+     * URLs that resolve to the same resource for every entity are only fetched
+     * once.
+     *
+     * @return merged output keyed by entity id, in the order given
+     */
+    public Map<Long, String> compile(final Template template, final Map<String, Object> scopes, final String entityIdParameter,
+            final Collection<Long> entityIds) throws MalformedURLException, IOException {
+
+        final CompiledTemplate compiledTemplate = compiledTemplateFor(template);
+        final Map<String, Object> resolvedUrls = new HashMap<String, Object>();
+
+        final Map<Long, String> merged = new LinkedHashMap<Long, String>();
+        for (final Long entityId : entityIds) {
+            final Map<String, Object> entityScopes = new HashMap<String, Object>(scopes);
+            entityScopes.put(entityIdParameter, entityId);
+            merged.put(entityId, merge(compiledTemplate, entityScopes, resolvedUrls));
+        }
+        return merged;
+    }
 
-        return stringWriter.toString();
+    public void evictCompiledTemplate(final Long templateId) {
+        this.compiledTemplates.invalidate(cacheKey(templateId));
     }
 
-    private Map<String, Object> getCompiledMapFromMappers(final Map<String, String> data) {
+    private String merge(final CompiledTemplate compiledTemplate, final Map<String, Object> scopes, final Map<String, Object> resolvedUrls) {
 
-        final MustacheFactory mf = new DefaultMustacheFactory();
+        scopes.put("static", new TemplateFunctions());
 
-        if (data != null) {
-            for (final Map.Entry<String, String> entry : data.entrySet()) {
+        for (final Map.Entry<String, Mustache> mapper : compiledTemplate.mappers.entrySet()) {
 
-                final Mustache mappersMustache = mf.compile(new StringReader(entry.getValue()), "");
-                final StringWriter stringWriter = new StringWriter();
+            final StringWriter stringWriter = new StringWriter();
+            mapper.getValue().execute(stringWriter, scopes);
+            final String url = stringWriter.toString();
 
-                mappersMustache.execute(stringWriter, this.scopes);
-                String url = stringWriter.toString();
-                if (!url.startsWith("http")) {
-                    url = this.scopes.get("BASE_URI") + url;
-                }
+            Object value = resolvedUrls.get(url);
+            if (value == null) {
                 try {
-                    this.scopes.put(entry.getKey(), getMapFromUrl(url));
+                    value = resolveMapperUrl(url, scopes.get("BASE_URI"));
+                    resolvedUrls.put(url, value);
                 } catch (final MalformedURLException e) {
                     e.printStackTrace();
                 } catch (final IOException e) {
                     e.printStackTrace();
                 }
             }
+            scopes.put(mapper.getKey(), value);
+        }
+
+        final StringWriter stringWriter = new StringWriter();
+        compiledTemplate.mustache.execute(stringWriter, scopes);
+
+        return stringWriter.toString();
+    }
+
+    private Object resolveMapperUrl(final String url, final Object baseUriScope) throws MalformedURLException, IOException {
+
+        final String baseUri = baseUriScope == null ? null : baseUriScope.toString();
+
+        String relativeUrl = null;
+        if (!url.startsWith("http")) {
+            relativeUrl = url;
+        } else if (baseUri != null && url.startsWith(baseUri)) {
+            relativeUrl = url.substring(baseUri.length());
+        }
+
+        if (relativeUrl != null) {
+            final Object value = this.resourceDispatcher.dispatch(baseUri == null ? null : URI.create(baseUri), relativeUrl);
+            if (value != null) { return value; }
+        }
+
+        // not one of our resources, fetch it over http
+        return getMapFromUrl(relativeUrl == null || baseUri == null ? url : baseUri + relativeUrl);
+    }
+
+    private CompiledTemplate compiledTemplateFor(final Template template) {
+
+        final LinkedHashMap<String, String> mapperSources = template.getMappers() == null ? new LinkedHashMap<String, String>()
+                : template.getMappersAsMap();
+
+        // unsaved templates have no id to cache them under
+        if (template.getId() == null) { return new CompiledTemplate(template.getName(), template.getText(), mapperSources); }
+
+        final String key = cacheKey(template.getId());
+        CompiledTemplate compiledTemplate = this.compiledTemplates.getIfPresent(key);
+        if (compiledTemplate == null || !compiledTemplate.isCompiledFrom(template.getText(), mapperSources)) {
+            compiledTemplate = new CompiledTemplate(template.getName(), template.getText(), mapperSources);
+            this.compiledTemplates.put(key, compiledTemplate);
         }
-        return this.scopes;
+        return compiledTemplate;
+    }
+
+    private static String cacheKey(final Long templateId) {
+        return ThreadLocalContextUtil.getTenant().getTenantIdentifier() + ":" + templateId;
     }
 
     @SuppressWarnings("unchecked")
@@ -100,7 +174,8 @@ public class TemplateMergeService {
     private HttpURLConnection getConnection(final String url) {
 
         final String name = SecurityContextHolder.getContext().getAuthentication().getName();
-        final String password = SecurityContextHolder.getContext().getAuthentication().getCredentials().toString();
+        final Object credentials = SecurityContextHolder.getContext().getAuthentication().getCredentials();
+        final String password = credentials == null ? "" : credentials.toString();
 
         Authenticator.setDefault(new Authenticator() {
 
@@ -159,4 +234,27 @@ public class TemplateMergeService {
 
         return sb.toString();
     }
+
+    private static final class CompiledTemplate {
+
+        private final String text;
+        private final Map<String, String> mapperSources;
+        private final Mustache mustache;
+        private final Map<String, Mustache> mappers;
+
+        CompiledTemplate(final String name, final String text, final LinkedHashMap<String, String> mapperSources) {
+            final MustacheFactory mf = new DefaultMustacheFactory();
+            this.text = text;
+            this.mapperSources = mapperSources;
+            this.mustache = mf.compile(new StringReader(text), name);
+            this.mappers = new LinkedHashMap<String, Mustache>();
+            for (final Map.Entry<String, String> entry : mapperSources.entrySet()) {
+                this.mappers.put(entry.getKey(), mf.compile(new StringReader(entry.getValue()), ""));
+            }
+        }
+
+        boolean isCompiledFrom(final String otherText, final Map<String, String> otherMapperSources) {
+            return this.text.equals(otherText) && this.mapperSources.equals(otherMapperSources);
+        }
+    }
 }
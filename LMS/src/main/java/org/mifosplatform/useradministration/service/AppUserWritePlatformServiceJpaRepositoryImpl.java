@@ -18,6 +18,8 @@ import org.mifosplatform.infrastructure.core.data.CommandProcessingResultBuilder
 import org.mifosplatform.infrastructure.core.exception.PlatformApiDataValidationException;
 import org.mifosplatform.infrastructure.core.exception.PlatformDataIntegrityException;
 import org.mifosplatform.infrastructure.core.service.PlatformEmailSendException;
+import org.mifosplatform.infrastructure.core.service.ThreadLocalContextUtil;
+import org.mifosplatform.infrastructure.security.service.AccessTokenService;
 import org.mifosplatform.infrastructure.security.service.PlatformPasswordEncoder;
 import org.mifosplatform.infrastructure.security.service.PlatformSecurityContext;
 import org.mifosplatform.organisation.office.domain.Office;
@@ -52,12 +54,15 @@ public class AppUserWritePlatformServiceJpaRepositoryImpl implements AppUserWrit
     private final OfficeRepository officeRepository;
     private final RoleRepository roleRepository;
     private final UserDataValidator fromApiJsonDeserializer;
+    private final AccessTokenService accessTokenService;
 
     @Autowired
     public AppUserWritePlatformServiceJpaRepositoryImpl(final PlatformSecurityContext context, final AppUserRepository appUserRepository,
             final UserDomainService userDomainService, final OfficeRepository officeRepository, final RoleRepository roleRepository,
-            final PlatformPasswordEncoder platformPasswordEncoder, final UserDataValidator fromApiJsonDeserializer) {
+            final PlatformPasswordEncoder platformPasswordEncoder, final UserDataValidator fromApiJsonDeserializer,
+            final AccessTokenService accessTokenService) {
         this.context = context;
+        this.accessTokenService = accessTokenService;
         this.appUserRepository = appUserRepository;
         this.userDomainService = userDomainService;
         this.officeRepository = officeRepository;
@@ -146,6 +151,7 @@ public class AppUserWritePlatformServiceJpaRepositoryImpl implements AppUserWrit
 
             if (!changes.isEmpty()) {
                 this.appUserRepository.saveAndFlush(userToUpdate);
+                this.accessTokenService.invalidateAccessTokensOfUser(ThreadLocalContextUtil.getTenant().getTenantIdentifier(), userId);
             }
 
             return new CommandProcessingResultBuilder() //
@@ -187,6 +193,7 @@ public class AppUserWritePlatformServiceJpaRepositoryImpl implements AppUserWrit
 
         user.delete();
         this.appUserRepository.save(user);
+        this.accessTokenService.invalidateAccessTokensOfUser(ThreadLocalContextUtil.getTenant().getTenantIdentifier(), userId);
 
         return new CommandProcessingResultBuilder().withEntityId(userId).withOfficeId(user.getOffice().getId()).build();
     }
@@ -12,6 +12,8 @@ import java.util.Map;
 import org.mifosplatform.infrastructure.core.api.JsonCommand;
 import org.mifosplatform.infrastructure.core.data.CommandProcessingResult;
 import org.mifosplatform.infrastructure.core.data.CommandProcessingResultBuilder;
+import org.mifosplatform.infrastructure.core.service.ThreadLocalContextUtil;
+import org.mifosplatform.infrastructure.security.service.AccessTokenService;
 import org.mifosplatform.infrastructure.security.service.PlatformSecurityContext;
 import org.mifosplatform.useradministration.command.PermissionsCommand;
 import org.mifosplatform.useradministration.domain.Permission;
@@ -30,11 +32,14 @@ public class PermissionWritePlatformServiceJpaRepositoryImpl implements Permissi
     private final PlatformSecurityContext context;
     private final PermissionRepository permissionRepository;
     private final PermissionsCommandFromApiJsonDeserializer fromApiJsonDeserializer;
+    private final AccessTokenService accessTokenService;
 
     @Autowired
     public PermissionWritePlatformServiceJpaRepositoryImpl(final PlatformSecurityContext context,
-            final PermissionRepository permissionRepository, final PermissionsCommandFromApiJsonDeserializer fromApiJsonDeserializer) {
+            final PermissionRepository permissionRepository, final PermissionsCommandFromApiJsonDeserializer fromApiJsonDeserializer,
+            final AccessTokenService accessTokenService) {
         this.context = context;
+        this.accessTokenService = accessTokenService;
         this.permissionRepository = permissionRepository;
         this.fromApiJsonDeserializer = fromApiJsonDeserializer;
     }
@@ -73,6 +78,10 @@ public class PermissionWritePlatformServiceJpaRepositoryImpl implements Permissi
             changes.put("permissions", changedPermissions);
         }
 
+        if (!changes.isEmpty()) {
+            this.accessTokenService.invalidateAccessTokensOfTenant(ThreadLocalContextUtil.getTenant().getTenantIdentifier());
+        }
+
         return new CommandProcessingResultBuilder().withCommandId(command.commandId()).with(changes).build();
     }
 
@@ -0,0 +1,127 @@
+package org.mifosplatform.accounting.journalentry.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.joda.time.LocalDate;
+import org.junit.Before;
+import org.junit.Test;
+import org.mifosplatform.accounting.closure.domain.GLClosure;
+import org.mifosplatform.accounting.closure.domain.GLClosureRepository;
+import org.mifosplatform.accounting.common.AccountingConstants.CASH_ACCOUNTS_FOR_LOAN;
+import org.mifosplatform.accounting.glaccount.domain.GLAccount;
+import org.mifosplatform.accounting.glbalance.service.GLBalanceWritePlatformService;
+import org.mifosplatform.accounting.journalentry.domain.JournalEntry;
+import org.mifosplatform.accounting.journalentry.domain.JournalEntryRepository;
+import org.mifosplatform.accounting.producttoaccountmapping.domain.PortfolioProductType;
+import org.mifosplatform.accounting.producttoaccountmapping.domain.ProductToGLAccountMapping;
+import org.mifosplatform.accounting.producttoaccountmapping.domain.ProductToGLAccountMappingRepository;
+import org.mifosplatform.organisation.office.domain.Office;
+import org.mifosplatform.organisation.office.domain.OfficeRepository;
+import org.mifosplatform.portfolio.loanaccount.domain.LoanTransactionRepository;
+import org.mifosplatform.portfolio.savings.domain.SavingsAccountTransactionRepository;
+import org.mockito.Matchers;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+public class AccountingProcessorHelperTest {
+
+    private final JournalEntryRepository journalEntryRepository = mock(JournalEntryRepository.class);
+    private final ProductToGLAccountMappingRepository accountMappingRepository = mock(ProductToGLAccountMappingRepository.class);
+    private final GLClosureRepository closureRepository = mock(GLClosureRepository.class);
+    private final GLBalanceWritePlatformService glBalanceWritePlatformService = mock(GLBalanceWritePlatformService.class);
+    private final Office office = mock(Office.class);
+
+    private AccountingProcessorHelper helper;
+    private final List<JournalEntry> savedTogether = new ArrayList<JournalEntry>();
+
+    @Before
+    public void setUp() {
+        this.helper = new AccountingProcessorHelper(this.journalEntryRepository, this.accountMappingRepository, this.closureRepository,
+                mock(OfficeRepository.class), mock(LoanTransactionRepository.class), mock(SavingsAccountTransactionRepository.class),
+                this.glBalanceWritePlatformService);
+
+        final GLAccount account = mock(GLAccount.class);
+        when(this.accountMappingRepository.findCoreProductToFinAccountMapping(eq(1L), eq(PortfolioProductType.LOAN.getValue()), anyInt()))
+                .thenReturn(new ProductToGLAccountMapping(account, 1L, PortfolioProductType.LOAN.getValue(), 0));
+
+        doAnswer(new Answer<List<JournalEntry>>() {
+
+            @Override
+            public List<JournalEntry> answer(final InvocationOnMock invocation) {
+                @SuppressWarnings("unchecked")
+                final Iterable<JournalEntry> journalEntries = (Iterable<JournalEntry>) invocation.getArguments()[0];
+                for (final JournalEntry journalEntry : journalEntries) {
+                    AccountingProcessorHelperTest.this.savedTogether.add(journalEntry);
+                }
+                return AccountingProcessorHelperTest.this.savedTogether;
+            }
+        }).when(this.journalEntryRepository).save(Matchers.<Iterable<JournalEntry>> any());
+    }
+
+    @Test
+    public void eachLoanJournalEntryIsWrittenAsItIsCreated() {
+        postRepayment(this.helper, 1L, "11");
+
+        verify(this.journalEntryRepository, times(2)).saveAndFlush(any(JournalEntry.class));
+        verify(this.glBalanceWritePlatformService, times(2)).recordJournalEntry(any(JournalEntry.class));
+    }
+
+    @Test
+    public void batchWritesTheLoanJournalEntriesOfSeveralLoansWithOneFlush() {
+        final AccountingProcessorHelper batch = this.helper.batch();
+
+        postRepayment(batch, 1L, "11");
+        postRepayment(batch, 2L, "12");
+
+        verify(this.journalEntryRepository, never()).saveAndFlush(any(JournalEntry.class));
+        verify(this.journalEntryRepository, never()).flush();
+        assertEquals(0, this.savedTogether.size());
+
+        batch.flushJournalEntries();
+
+        assertEquals(4, this.savedTogether.size());
+        verify(this.journalEntryRepository, times(1)).flush();
+        verify(this.glBalanceWritePlatformService, times(1)).recordJournalEntries(Matchers.<Collection<JournalEntry>> any());
+        verify(this.glBalanceWritePlatformService, never()).recordJournalEntry(any(JournalEntry.class));
+
+        // nothing is written twice
+        batch.flushJournalEntries();
+        verify(this.journalEntryRepository, times(1)).flush();
+    }
+
+    @Test
+    public void batchReadsTheLatestClosureOfEachBranchOnce() {
+        final GLClosure closure = mock(GLClosure.class);
+        when(this.closureRepository.getLatestGLClosureByBranch(anyLong())).thenReturn(closure);
+        final AccountingProcessorHelper batch = this.helper.batch();
+
+        assertSame(closure, batch.getLatestClosureByBranch(1L));
+        assertSame(closure, batch.getLatestClosureByBranch(1L));
+        batch.getLatestClosureByBranch(2L);
+
+        verify(this.closureRepository, times(1)).getLatestGLClosureByBranch(1L);
+        verify(this.closureRepository, times(1)).getLatestGLClosureByBranch(2L);
+    }
+
+    private void postRepayment(final AccountingProcessorHelper helper, final Long loanId, final String transactionId) {
+        helper.createCashBasedJournalEntriesAndReversalsForLoan(this.office, "USD", CASH_ACCOUNTS_FOR_LOAN.FUND_SOURCE,
+                CASH_ACCOUNTS_FOR_LOAN.LOAN_PORTFOLIO, 1L, null, loanId, transactionId, new LocalDate(2014, 3, 1).toDate(),
+                new BigDecimal("100.00"), false);
+    }
+}
@@ -0,0 +1,219 @@
+package org.mifosplatform.accounting.journalentry.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.anyVararg;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+
+import org.junit.After;
+import org.junit.Test;
+import org.mifosplatform.accounting.glbalance.service.GLBalanceReadPlatformService;
+import org.mifosplatform.infrastructure.core.domain.MifosPlatformTenant;
+import org.mifosplatform.infrastructure.core.service.ThreadLocalContextUtil;
+import org.mifosplatform.infrastructure.jobs.service.JobWorkerPool;
+import org.mockito.Matchers;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+public class JournalEntryRunningBalanceEngineTest {
+
+    @After
+    public void clearTenant() {
+        ThreadLocalContextUtil.clearTenant();
+    }
+
+    @Test
+    public void scaledAmountsRoundTripAtTheStoredScale() {
+        final BigDecimal amount = new BigDecimal("1234567.891234");
+
+        final long scaled = JournalEntryRunningBalanceEngine.toScaledLong(amount);
+
+        assertEquals(1234567891234L, scaled);
+        assertEquals(amount, JournalEntryRunningBalanceEngine.fromScaledLong(scaled));
+    }
+
+    @Test
+    public void scaledAmountsAccumulateWithoutRounding() {
+        long balance = 0;
+        for (int i = 0; i < 10; i++) {
+            balance = JournalEntryRunningBalanceEngine.addExact(balance,
+                    JournalEntryRunningBalanceEngine.toScaledLong(new BigDecimal("0.1")));
+        }
+        balance = JournalEntryRunningBalanceEngine.addExact(balance, -JournalEntryRunningBalanceEngine.toScaledLong(new BigDecimal("0.3")));
+
+        assertEquals(new BigDecimal("0.700000"), JournalEntryRunningBalanceEngine.fromScaledLong(balance));
+    }
+
+    @Test
+    public void nullAmountCountsAsZero() {
+        assertEquals(0L, JournalEntryRunningBalanceEngine.toScaledLong(null));
+    }
+
+    @Test(expected = ArithmeticException.class)
+    public void overflowIsRejected() {
+        JournalEntryRunningBalanceEngine.addExact(Long.MAX_VALUE, 1L);
+    }
+
+    @Test
+    public void runningBalanceIsCarriedFromChunkToChunk() throws Exception {
+        ThreadLocalContextUtil.setTenant(new MifosPlatformTenant(1L, "default", "default", null, null, null, null, null, null, false, null));
+        final long accountId = 7;
+        final Date startDate = Date.valueOf("2014-01-01");
+
+        // 2500 entries of an asset account over two offices, so two full chunks
+        // and a last, short one
+        final List<Object[]> entries = new ArrayList<Object[]>();
+        for (int i = 0; i < 2500; i++) {
+            final Date entryDate = new Date(startDate.getTime() + (i / 100) * 24L * 60 * 60 * 1000);
+            final boolean debit = i % 4 != 0;
+            entries.add(new Object[] { Long.valueOf(10000 + i), entryDate, Long.valueOf(1 + i % 2), Integer.valueOf(debit ? 2 : 1),
+                    new BigDecimal(i % 7 + ".250000") });
+        }
+
+        final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        final TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+        final GLBalanceReadPlatformService glBalanceReadPlatformService = mock(GLBalanceReadPlatformService.class);
+        final JobWorkerPool jobWorkerPool = mock(JobWorkerPool.class);
+
+        when(jobWorkerPool.threadCount()).thenReturn(1);
+        when(jobWorkerPool.newExecutorService(anyInt())).thenReturn(Executors.newSingleThreadExecutor());
+        when(glBalanceReadPlatformService.retrieveAccountBalancesBefore(eq(Long.valueOf(accountId)), (Long) eq(null), any(Date.class)))
+                .thenReturn(Collections.singletonMap(Long.valueOf(1), new BigDecimal("100.000000")));
+        doAnswer(new Answer<Object>() {
+
+            @Override
+            public Object answer(final InvocationOnMock invocation) throws Throwable {
+                return ((TransactionCallback<?>) invocation.getArguments()[0]).doInTransaction(null);
+            }
+        }).when(transactionTemplate).execute(Matchers.<TransactionCallback<Object>> any());
+
+        final List<Object[]> chunkCursors = new ArrayList<Object[]>();
+        doAnswer(new Answer<Object>() {
+
+            @Override
+            public Object answer(final InvocationOnMock invocation) throws Throwable {
+                final Object[] arguments = invocation.getArguments();
+                final String sql = (String) arguments[0];
+                final RowCallbackHandler handler = (RowCallbackHandler) arguments[1];
+                if (sql.contains("group by je.account_id")) {
+                    final ResultSet rs = mock(ResultSet.class);
+                    when(rs.findColumn("classification")).thenReturn(1);
+                    when(rs.getInt(1)).thenReturn(1);
+                    when(rs.getLong("accountId")).thenReturn(accountId);
+                    when(rs.getDate("startDate")).thenReturn(startDate);
+                    handler.processRow(rs);
+                    return null;
+                }
+
+                final Object[] parameters = parameters(arguments);
+                final Date afterDate = (Date) parameters[parameters.length - 3];
+                final long afterId = ((Long) parameters[parameters.length - 1]).longValue();
+                chunkCursors.add(new Object[] { afterDate, Long.valueOf(afterId) });
+                int rows = 0;
+                for (final Object[] entry : entries) {
+                    final int dateOrder = ((Date) entry[1]).compareTo(afterDate);
+                    if (rows < 1000 && (dateOrder > 0 || dateOrder == 0 && ((Long) entry[0]).longValue() > afterId)) {
+                        handler.processRow(row(entry));
+                        rows++;
+                    }
+                }
+                return null;
+            }
+        }).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class), anyVararg());
+
+        final Map<Long, BigDecimal[]> writtenBalances = new HashMap<Long, BigDecimal[]>();
+        doAnswer(new Answer<int[]>() {
+
+            @Override
+            public int[] answer(final InvocationOnMock invocation) throws Throwable {
+                final BatchPreparedStatementSetter setter = (BatchPreparedStatementSetter) invocation.getArguments()[1];
+                for (int i = 0; i < setter.getBatchSize(); i++) {
+                    final Map<Integer, Object> values = new HashMap<Integer, Object>();
+                    setter.setValues(recordingStatement(values), i);
+                    writtenBalances.put((Long) values.get(3), new BigDecimal[] { (BigDecimal) values.get(1), (BigDecimal) values.get(2) });
+                }
+                return new int[setter.getBatchSize()];
+            }
+        }).when(jdbcTemplate).batchUpdate(anyString(), any(BatchPreparedStatementSetter.class));
+
+        final JournalEntryRunningBalanceEngine engine = new JournalEntryRunningBalanceEngine(jdbcTemplate, transactionTemplate,
+                glBalanceReadPlatformService, jobWorkerPool);
+
+        assertEquals(2500, engine.updateOrganizationRunningBalances());
+
+        // each chunk continues after the last entry of the previous one
+        assertEquals(3, chunkCursors.size());
+        assertEquals(Arrays.<Object> asList(startDate, Long.valueOf(0)), Arrays.asList(chunkCursors.get(0)));
+        assertEquals(Arrays.asList(entries.get(999)[1], entries.get(999)[0]), Arrays.asList(chunkCursors.get(1)));
+        assertEquals(Arrays.asList(entries.get(1999)[1], entries.get(1999)[0]), Arrays.asList(chunkCursors.get(2)));
+
+        BigDecimal organizationBalance = new BigDecimal("100.000000");
+        final BigDecimal[] officeBalances = { null, new BigDecimal("100.000000"), BigDecimal.ZERO.setScale(6) };
+        assertEquals(entries.size(), writtenBalances.size());
+        for (final Object[] entry : entries) {
+            final int office = ((Long) entry[2]).intValue();
+            final BigDecimal amount = ((Integer) entry[3]).intValue() == 2 ? (BigDecimal) entry[4] : ((BigDecimal) entry[4]).negate();
+            officeBalances[office] = officeBalances[office].add(amount);
+            organizationBalance = organizationBalance.add(amount);
+
+            final BigDecimal[] written = writtenBalances.get(entry[0]);
+            assertEquals("office balance of entry " + entry[0], officeBalances[office], written[0]);
+            assertEquals("organization balance of entry " + entry[0], organizationBalance, written[1]);
+        }
+    }
+
+    private static Object[] parameters(final Object[] arguments) {
+        if (arguments.length == 3 && arguments[2] instanceof Object[]) { return (Object[]) arguments[2]; }
+        return Arrays.copyOfRange(arguments, 2, arguments.length);
+    }
+
+    private static ResultSet row(final Object[] entry) throws SQLException {
+        final ResultSet rs = mock(ResultSet.class);
+        when(rs.getLong("id")).thenReturn(((Long) entry[0]).longValue());
+        when(rs.getDate("entryDate")).thenReturn((Date) entry[1]);
+        when(rs.getLong("officeId")).thenReturn(((Long) entry[2]).longValue());
+        when(rs.getInt("entryType")).thenReturn(((Integer) entry[3]).intValue());
+        when(rs.getBigDecimal("amount")).thenReturn((BigDecimal) entry[4]);
+        return rs;
+    }
+
+    private static PreparedStatement recordingStatement(final Map<Integer, Object> values) {
+        return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(), new Class<?>[] { PreparedStatement.class },
+                new InvocationHandler() {
+
+                    @Override
+                    public Object invoke(@SuppressWarnings("unused") final Object proxy, final Method method, final Object[] args) {
+                        if (method.getName().startsWith("set")) {
+                            values.put((Integer) args[0], args[1]);
+                        }
+                        return null;
+                    }
+                });
+    }
+}
@@ -0,0 +1,45 @@
+package org.mifosplatform.commands.domain;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+import org.mifosplatform.commands.service.CommandWrapperBuilder;
+
+public class CommandWrapperTest {
+
+    @Test
+    public void datatableDefinitionCommandsAreHandledOnTheDatatable() {
+        assertHandledOn("DATATABLE", new CommandWrapperBuilder().createDBDatatable("{}").build());
+        assertHandledOn("DATATABLE", new CommandWrapperBuilder().updateDBDatatable("dt_sample", "{}").build());
+        assertHandledOn("DATATABLE", new CommandWrapperBuilder().deleteDBDatatable("dt_sample", "{}").build());
+    }
+
+    @Test
+    public void datatableEntryCommandsAreHandledOnTheEntry() {
+        assertHandledOn("DATATABLE_ENTRY", new CommandWrapperBuilder().createDatatable("dt_sample", 1L, null).build());
+        assertHandledOn("DATATABLE_ENTRY", new CommandWrapperBuilder().updateDatatable("dt_sample", 1L, null).build());
+        assertHandledOn("DATATABLE_ENTRY", new CommandWrapperBuilder().deleteDatatable("dt_sample", 1L, null).build());
+    }
+
+    @Test
+    public void multiRowDatatableEntryCommandsAreHandledOnTheMultiRowEntry() {
+        assertHandledOn("DATATABLE_MULTIROW_ENTRY", new CommandWrapperBuilder().updateDatatable("dt_sample", 1L, 2L).build());
+        assertHandledOn("DATATABLE_MULTIROW_ENTRY", new CommandWrapperBuilder().deleteDatatable("dt_sample", 1L, 2L).build());
+        // a new row of a multi-row datatable is created like any entry
+        assertHandledOn("DATATABLE_ENTRY", new CommandWrapperBuilder().createDatatable("dt_sample", 1L, 2L).build());
+    }
+
+    @Test
+    public void otherCommandsAreHandledOnTheirEntityInUpperCase() {
+        final CommandWrapper wrapper = new CommandWrapperBuilder().updateNote("clientnote", "clients", 1L, 2L).build();
+
+        assertSame("CLIENTNOTE".intern(), wrapper.handlerEntityName());
+        assertSame("UPDATE".intern(), wrapper.handlerActionName());
+        assertHandledOn("CLIENT", new CommandWrapperBuilder().createClient().build());
+    }
+
+    private static void assertHandledOn(final String handlerEntityName, final CommandWrapper wrapper) {
+        assertEquals(wrapper.getHref(), handlerEntityName, wrapper.handlerEntityName());
+    }
+}
@@ -0,0 +1,296 @@
+package org.mifosplatform.commands.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+
+import org.junit.Test;
+import org.mifosplatform.commands.annotation.CommandType;
+import org.mifosplatform.commands.domain.CommandWrapper;
+import org.mifosplatform.commands.exception.UnsupportedCommandException;
+import org.mifosplatform.commands.handler.NewCommandSourceHandler;
+import org.mifosplatform.infrastructure.core.api.JsonCommand;
+import org.mifosplatform.infrastructure.core.data.CommandProcessingResult;
+import org.springframework.beans.factory.annotation.AnnotatedBeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.support.SimpleBeanDefinitionRegistry;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.AnnotationBeanNameGenerator;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.core.type.AnnotationMetadata;
+import org.springframework.core.type.filter.RegexPatternTypeFilter;
+
+public class CommandHandlerRegistryTest {
+
+    /**
+     * Builder methods that add to a command rather than start one.
+     */
+    private static final Set<String> BUILDER_MODIFIERS = new HashSet<String>(Arrays.asList("withLoanId", "withClientId", "withJson",
+            "withNoJsonBody", "withProduct"));
+    private static final String UNSUPPORTED = "UNSUPPORTED";
+
+    @Test(expected = IllegalStateException.class)
+    public void twoHandlersOfTheSameCommandFailTheRefresh() {
+        final Map<String, Class<?>> beans = new LinkedHashMap<String, Class<?>>();
+        beans.put("updateWidgetCommandHandler", UpdateWidgetCommandHandler.class);
+        beans.put("otherUpdateWidgetCommandHandler", OtherUpdateWidgetCommandHandler.class);
+
+        registryOf(beans, new IdentityHashMap<NewCommandSourceHandler, String>());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void commandTypeOnABeanThatIsNotAHandlerFailsTheRefresh() {
+        final Map<String, Class<?>> beans = new LinkedHashMap<String, Class<?>>();
+        beans.put("updateWidgetCommandHandler", UpdateWidgetCommandHandler.class);
+        beans.put("notACommandHandler", NotACommandHandler.class);
+
+        registryOf(beans, new IdentityHashMap<NewCommandSourceHandler, String>());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void handlerWithoutCommandTypeFailsTheRefresh() {
+        final Map<String, Class<?>> beans = new LinkedHashMap<String, Class<?>>();
+        beans.put("updateWidgetCommandHandler", UpdateWidgetCommandHandler.class);
+        beans.put("undeclaredWidgetCommandHandler", UndeclaredWidgetCommandHandler.class);
+
+        registryOf(beans, new IdentityHashMap<NewCommandSourceHandler, String>());
+    }
+
+    @Test
+    public void updateAndDeleteWithoutResourceIdOnlyReachHandlersThatDoNotNeedOne() {
+        final Map<String, Class<?>> beans = new LinkedHashMap<String, Class<?>>();
+        beans.put("updateWidgetCommandHandler", UpdateWidgetCommandHandler.class);
+        beans.put("deleteWidgetCommandHandler", DeleteWidgetCommandHandler.class);
+        final Map<NewCommandSourceHandler, String> beanNames = new IdentityHashMap<NewCommandSourceHandler, String>();
+        final CommandHandlerRegistry registry = registryOf(beans, beanNames);
+
+        assertEquals("updateWidgetCommandHandler",
+                beanNames.get(registry.findCommandHandler(CommandWrapper.wrap("UPDATE", "WIDGET", 1L, null))));
+        assertEquals("deleteWidgetCommandHandler",
+                beanNames.get(registry.findCommandHandler(CommandWrapper.wrap("DELETE", "WIDGET", 1L, null))));
+        assertEquals("deleteWidgetCommandHandler",
+                beanNames.get(registry.findCommandHandler(CommandWrapper.wrap("DELETE", "WIDGET", null, null))));
+        try {
+            registry.findCommandHandler(CommandWrapper.wrap("UPDATE", "WIDGET", null, null));
+            fail("UPDATE_WIDGET without a resource id was dispatched");
+        } catch (final UnsupportedCommandException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void handlerIsFoundWhateverTheCaseOfTheCommand() {
+        final Map<String, Class<?>> beans = new LinkedHashMap<String, Class<?>>();
+        beans.put("updateWidgetCommandHandler", UpdateWidgetCommandHandler.class);
+        final Map<NewCommandSourceHandler, String> beanNames = new IdentityHashMap<NewCommandSourceHandler, String>();
+        final CommandHandlerRegistry registry = registryOf(beans, beanNames);
+
+        assertSame(registry.findCommandHandler(CommandWrapper.wrap("UPDATE", "WIDGET", 1L, null)),
+                registry.findCommandHandler(CommandWrapper.wrap("update", "widget", 1L, null)));
+    }
+
+    /**
+     * Every command the API builds goes to the handler the if/else chain the
+     * registry replaced sent it to, as recorded in
+     * <code>command-handlers.txt</code>, and commands built by new builder
+     * methods go to a handler.
+     */
+    @Test
+    public void commandsBuiltByTheApiAreDispatchedAsBefore() throws Exception {
+        final Map<NewCommandSourceHandler, String> beanNames = new IdentityHashMap<NewCommandSourceHandler, String>();
+        final CommandHandlerRegistry registry = registryOf(handlerComponents(), beanNames);
+        final Map<String, String> expectedHandlers = readExpectedHandlers();
+
+        final List<String> differences = new ArrayList<String>();
+        for (final Map.Entry<String, CommandWrapper> command : commandsBuiltByTheApi().entrySet()) {
+            String handler;
+            try {
+                handler = beanNames.get(registry.findCommandHandler(command.getValue()));
+            } catch (final UnsupportedCommandException e) {
+                handler = UNSUPPORTED;
+            }
+            final String expectedHandler = expectedHandlers.get(command.getKey());
+            if (expectedHandler == null ? UNSUPPORTED.equals(handler) : !expectedHandler.equals(handler)) {
+                differences.add(command.getKey() + " = " + handler + " (expected " + (expectedHandler == null ? "a handler" : expectedHandler)
+                        + ")");
+            }
+        }
+        assertEquals(new ArrayList<String>(), differences);
+    }
+
+    private static CommandHandlerRegistry registryOf(final Map<String, Class<?>> beanClasses,
+            final Map<NewCommandSourceHandler, String> beanNames) {
+        final ApplicationContext applicationContext = mock(ApplicationContext.class);
+        final List<String> handlerBeanNames = new ArrayList<String>();
+        final Map<String, Object> annotatedBeans = new LinkedHashMap<String, Object>();
+        for (final Map.Entry<String, Class<?>> bean : beanClasses.entrySet()) {
+            final CommandType commandType = bean.getValue().getAnnotation(CommandType.class);
+            Object instance = new Object();
+            if (NewCommandSourceHandler.class.isAssignableFrom(bean.getValue())) {
+                final NewCommandSourceHandler handler = mock(NewCommandSourceHandler.class, bean.getKey());
+                beanNames.put(handler, bean.getKey());
+                handlerBeanNames.add(bean.getKey());
+                when(applicationContext.getBean(bean.getKey(), NewCommandSourceHandler.class)).thenReturn(handler);
+                when(applicationContext.findAnnotationOnBean(bean.getKey(), CommandType.class)).thenReturn(commandType);
+                instance = handler;
+            }
+            if (commandType != null) {
+                annotatedBeans.put(bean.getKey(), instance);
+            }
+        }
+        when(applicationContext.getBeanNamesForType(NewCommandSourceHandler.class)).thenReturn(
+                handlerBeanNames.toArray(new String[handlerBeanNames.size()]));
+        when(applicationContext.getBeansWithAnnotation(CommandType.class)).thenReturn(annotatedBeans);
+
+        final CommandHandlerRegistry registry = new CommandHandlerRegistry(applicationContext);
+        registry.onApplicationEvent(new ContextRefreshedEvent(applicationContext));
+        return registry;
+    }
+
+    /**
+     * @return the components of the platform that are handlers or declare a
+     *         command, by bean name
+     */
+    private static Map<String, Class<?>> handlerComponents() throws ClassNotFoundException {
+        final ClassPathScanningCandidateComponentProvider scanner = new ClassPathScanningCandidateComponentProvider(true);
+        scanner.addExcludeFilter(new RegexPatternTypeFilter(Pattern.compile(Pattern.quote(CommandHandlerRegistryTest.class.getName())
+                + ".*")));
+
+        final AnnotationBeanNameGenerator beanNameGenerator = new AnnotationBeanNameGenerator();
+        final Map<String, Class<?>> handlers = new TreeMap<String, Class<?>>();
+        for (final BeanDefinition definition : scanner.findCandidateComponents("org.mifosplatform")) {
+            final AnnotationMetadata metadata = ((AnnotatedBeanDefinition) definition).getMetadata();
+            if (!Arrays.asList(metadata.getInterfaceNames()).contains(NewCommandSourceHandler.class.getName())
+                    && !metadata.hasAnnotation(CommandType.class.getName())) {
+                continue;
+            }
+            handlers.put(beanNameGenerator.generateBeanName(definition, new SimpleBeanDefinitionRegistry()),
+                    Class.forName(definition.getBeanClassName()));
+        }
+        return handlers;
+    }
+
+    /**
+     * Builds a command with every method of {@link CommandWrapperBuilder},
+     * with ids of 1 and, if the last argument is an id, once more without it.
+     * String arguments are the name of a datatable, or the entities notes and
+     * one time sales are made on.
+     *
+     * @return the commands by method, its number of arguments, the string
+     *         passed and whether the last id was left out
+     */
+    private static Map<String, CommandWrapper> commandsBuiltByTheApi() throws IllegalAccessException {
+        final Map<String, CommandWrapper> commands = new TreeMap<String, CommandWrapper>();
+        for (final Method method : CommandWrapperBuilder.class.getDeclaredMethods()) {
+            if (!Modifier.isPublic(method.getModifiers()) || method.getReturnType() != CommandWrapperBuilder.class
+                    || BUILDER_MODIFIERS.contains(method.getName())) {
+                continue;
+            }
+            final Class<?>[] parameterTypes = method.getParameterTypes();
+            final boolean takesString = Arrays.asList(parameterTypes).contains(String.class);
+            List<String> strings = Arrays.asList((String) null);
+            if (method.getName().endsWith("Note")) {
+                strings = Arrays.asList("CLIENTNOTE", "GROUPNOTE", "LOANNOTE", "LOANTRANSACTIONNOTE", "SAVINGNOTE");
+            } else if ("createOneTimeSale".equals(method.getName())) {
+                strings = Arrays.asList("DEVICERENTAL", "NEWSALE", "SECONDSALE");
+            } else if (takesString) {
+                strings = Arrays.asList("dt_sample");
+            }
+            final boolean endsWithId = parameterTypes.length > 0 && parameterTypes[parameterTypes.length - 1] == Long.class;
+
+            for (final String string : strings) {
+                for (final boolean withoutLastId : new boolean[] { false, true }) {
+                    if (withoutLastId && !endsWithId) {
+                        continue;
+                    }
+                    final Object[] arguments = new Object[parameterTypes.length];
+                    for (int i = 0; i < parameterTypes.length; i++) {
+                        arguments[i] = parameterTypes[i] == Long.class ? Long.valueOf(1) : string;
+                    }
+                    if (withoutLastId) {
+                        arguments[arguments.length - 1] = null;
+                    }
+                    try {
+                        final CommandWrapperBuilder builder = (CommandWrapperBuilder) method.invoke(new CommandWrapperBuilder(), arguments);
+                        commands.put(method.getName() + "/" + parameterTypes.length + (takesString ? " " + string : "")
+                                + (withoutLastId ? " no-id" : ""), builder.build());
+                    } catch (final InvocationTargetException e) {
+                        // the method cannot build the command without the id
+                    }
+                }
+            }
+        }
+        return commands;
+    }
+
+    private Map<String, String> readExpectedHandlers() throws IOException {
+        final Map<String, String> expectedHandlers = new TreeMap<String, String>();
+        final BufferedReader reader = new BufferedReader(new InputStreamReader(getClass().getResourceAsStream("command-handlers.txt"),
+                "UTF-8"));
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.trim().length() == 0 || line.startsWith("#")) {
+                    continue;
+                }
+                final int separator = line.lastIndexOf(" = ");
+                expectedHandlers.put(line.substring(0, separator), line.substring(separator + 3).trim());
+            }
+        } finally {
+            reader.close();
+        }
+        return expectedHandlers;
+    }
+
+    @CommandType(entity = "WIDGET", action = "UPDATE")
+    static class UpdateWidgetCommandHandler extends WidgetCommandHandler {
+        //
+    }
+
+    @CommandType(entity = "WIDGET", action = "UPDATE")
+    static class OtherUpdateWidgetCommandHandler extends WidgetCommandHandler {
+        //
+    }
+
+    @CommandType(entity = "WIDGET", action = "DELETE", resourceIdRequired = false)
+    static class DeleteWidgetCommandHandler extends WidgetCommandHandler {
+        //
+    }
+
+    static class UndeclaredWidgetCommandHandler extends WidgetCommandHandler {
+        //
+    }
+
+    @CommandType(entity = "WIDGET", action = "CREATE")
+    static class NotACommandHandler {
+        //
+    }
+
+    abstract static class WidgetCommandHandler implements NewCommandSourceHandler {
+
+        @Override
+        public CommandProcessingResult processCommand(@SuppressWarnings("unused") final JsonCommand command) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package org.mifosplatform.infrastructure.cache.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import net.sf.ehcache.config.CacheConfiguration;
+import net.sf.ehcache.config.Configuration;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mifosplatform.infrastructure.cache.domain.CacheType;
+import org.mifosplatform.infrastructure.core.domain.MifosPlatformTenant;
+import org.mifosplatform.infrastructure.core.service.ThreadLocalContextUtil;
+import org.springframework.cache.Cache;
+import org.springframework.cache.ehcache.EhCacheCacheManager;
+
+public class RuntimeDelegatingCacheManagerTest {
+
+    private net.sf.ehcache.CacheManager ehcacheInstance;
+    private RuntimeDelegatingCacheManager cacheManager;
+
+    @Before
+    public void setUp() {
+        final Configuration configuration = new Configuration().name("RuntimeDelegatingCacheManagerTest");
+        configuration.addCache(new CacheConfiguration("loanProducts", 100));
+        configuration.addCache(new CacheConfiguration("tenantsById", 100));
+        this.ehcacheInstance = new net.sf.ehcache.CacheManager(configuration);
+
+        final EhCacheCacheManager ehCacheCacheManager = new EhCacheCacheManager();
+        ehCacheCacheManager.setCacheManager(this.ehcacheInstance);
+        ehCacheCacheManager.afterPropertiesSet();
+        this.cacheManager = new RuntimeDelegatingCacheManager(ehCacheCacheManager);
+    }
+
+    @After
+    public void tearDown() {
+        ThreadLocalContextUtil.clearTenant();
+        this.ehcacheInstance.shutdown();
+    }
+
+    @Test
+    public void cachesOnASingleNodeByDefault() {
+        useTenant("default");
+        this.cacheManager.getCache("loanProducts").put("1lp", "product");
+
+        assertEquals("product", this.cacheManager.getCache("loanProducts").get("1lp").get());
+    }
+
+    @Test
+    public void tenantsDoNotSeeEachOthersEntries() {
+        useTenant("default");
+        this.cacheManager.getCache("loanProducts").put("1lp", "product of default");
+        useTenant("other");
+
+        assertNull(this.cacheManager.getCache("loanProducts").get("1lp"));
+    }
+
+    @Test
+    public void evictingAllEntriesOnlyEvictsThoseOfTheCurrentTenant() {
+        useTenant("default");
+        this.cacheManager.getCache("loanProducts").put("1lp", "product of default");
+        useTenant("default2");
+        this.cacheManager.getCache("loanProducts").put("1lp", "product of default2");
+
+        this.cacheManager.getCache("loanProducts").clear();
+
+        assertNull(this.cacheManager.getCache("loanProducts").get("1lp"));
+        useTenant("default");
+        assertEquals("product of default", this.cacheManager.getCache("loanProducts").get("1lp").get());
+    }
+
+    @Test
+    public void tenantsAreCachedForAllTenants() {
+        this.cacheManager.getCache("tenantsById").put("default", "tenant");
+        useTenant("other");
+
+        assertEquals("tenant", this.cacheManager.getCache("tenantsById").get("default").get());
+    }
+
+    @Test
+    public void noCacheCanStillBeSwitchedTo() {
+        this.cacheManager.switchToCache(true, CacheType.NO_CACHE);
+        useTenant("default");
+        final Cache cache = this.cacheManager.getCache("loanProducts");
+        cache.put("1lp", "product");
+
+        assertNull(cache.get("1lp"));
+    }
+
+    private static void useTenant(final String tenantIdentifier) {
+        ThreadLocalContextUtil.setTenant(new MifosPlatformTenant(1L, tenantIdentifier, tenantIdentifier, null, null, null, null, null,
+                null, false, null));
+    }
+}
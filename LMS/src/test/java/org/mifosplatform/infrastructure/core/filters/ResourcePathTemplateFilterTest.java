@@ -0,0 +1,59 @@
+package org.mifosplatform.infrastructure.core.filters;
+
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.sun.jersey.api.core.ExtendedUriInfo;
+import com.sun.jersey.api.uri.UriTemplate;
+import com.sun.jersey.spi.container.ContainerRequest;
+import com.sun.jersey.spi.container.ContainerResponse;
+
+public class ResourcePathTemplateFilterTest {
+
+    private final ExtendedUriInfo uriInfo = mock(ExtendedUriInfo.class);
+    private final HttpServletRequest servletRequest = mock(HttpServletRequest.class);
+    private final ContainerResponse response = mock(ContainerResponse.class);
+    private final ResourcePathTemplateFilter filter = new ResourcePathTemplateFilter();
+
+    @Before
+    public void setUp() {
+        ReflectionTestUtils.setField(this.filter, "uriInfo", this.uriInfo);
+        ReflectionTestUtils.setField(this.filter, "servletRequest", this.servletRequest);
+    }
+
+    @Test
+    public void matchedTemplatesAreRecordedFromTheRootResource() {
+        when(this.uriInfo.getMatchedTemplates()).thenReturn(
+                Arrays.asList(new UriTemplate("/transactions"), new UriTemplate("/{loanId}"), new UriTemplate("/loans")));
+        when(this.response.getStatus()).thenReturn(200);
+
+        this.filter.filter(mock(ContainerRequest.class), this.response);
+
+        verify(this.servletRequest).setAttribute(ResourcePathTemplateFilter.PATH_TEMPLATE_ATTRIBUTE, "/loans/{loanId}/transactions");
+        verify(this.servletRequest).setAttribute(ResourcePathTemplateFilter.RESPONSE_STATUS_ATTRIBUTE, Integer.valueOf(200));
+    }
+
+    @Test
+    public void onlyTheStatusIsRecordedWhenNoResourceMatched() {
+        when(this.uriInfo.getMatchedTemplates()).thenReturn(Collections.<UriTemplate> emptyList());
+        when(this.response.getStatus()).thenReturn(404);
+
+        this.filter.filter(mock(ContainerRequest.class), this.response);
+
+        verify(this.servletRequest, never()).setAttribute(eq(ResourcePathTemplateFilter.PATH_TEMPLATE_ATTRIBUTE), anyString());
+        verify(this.servletRequest).setAttribute(ResourcePathTemplateFilter.RESPONSE_STATUS_ATTRIBUTE, Integer.valueOf(404));
+    }
+}
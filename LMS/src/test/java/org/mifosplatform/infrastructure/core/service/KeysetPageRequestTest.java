@@ -0,0 +1,162 @@
+package org.mifosplatform.infrastructure.core.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+import org.mifosplatform.infrastructure.core.exception.UnrecognizedQueryParamException;
+import org.mockito.ArgumentCaptor;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+public class KeysetPageRequestTest {
+
+    @Test
+    public void firstPageDefaultsToMaximumLimitWithoutCount() {
+        final KeysetPageRequest request = KeysetPageRequest.from("", null, null, null, false);
+
+        assertTrue(request.isFirstPage());
+        assertNull(request.getAfterKey());
+        assertFalse(request.isDescending());
+        assertEquals(200, request.getLimit());
+        assertFalse(request.isExactCountRequested());
+        assertFalse(request.isEstimatedCountRequested());
+    }
+
+    @Test
+    public void cursorRoundTripsKeyAndDirection() {
+        final KeysetPageRequest first = KeysetPageRequest.from("", "desc", Integer.valueOf(50), "exact", false);
+        final String cursor = first.cursorAfter(Long.valueOf(1234));
+
+        // sort order of later requests is taken from the cursor
+        final KeysetPageRequest next = KeysetPageRequest.from(cursor, "asc", Integer.valueOf(50), null, false);
+
+        assertFalse(next.isFirstPage());
+        assertEquals(Long.valueOf(1234), next.getAfterKey());
+        assertTrue(next.isDescending());
+        assertEquals(50, next.getLimit());
+    }
+
+    @Test(expected = UnrecognizedQueryParamException.class)
+    public void rejectsTamperedCursor() {
+        KeysetPageRequest.from("bm90LWEtY3Vyc29y", null, null, null, false);
+    }
+
+    @Test(expected = UnrecognizedQueryParamException.class)
+    public void rejectsUnknownTotalCountMode() {
+        KeysetPageRequest.from("", null, null, "sometimes", false);
+    }
+
+    @Test
+    public void limitIsCappedAtTheMaximum() {
+        assertEquals(200, KeysetPageRequest.from("", null, Integer.valueOf(100000), null, false).getLimit());
+        assertEquals(200, KeysetPageRequest.from("", null, Integer.valueOf(-1), null, false).getLimit());
+        assertEquals(20, KeysetPageRequest.from("", null, Integer.valueOf(20), null, false).getLimit());
+    }
+
+    @Test
+    public void fetchedPageSeeksAfterTheCursorAndHandsOutTheNextOne() {
+        final String sql = "select l.id as id, l.account_no as accountNo from m_loan l where l.office_id = ?";
+        final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        final PaginationHelper<String> paginationHelper = new PaginationHelper<String>();
+
+        // one row more than the limit comes back when there is a next page
+        whenFetching(jdbcTemplate, 11L, 12L, 13L);
+        final KeysetPageRequest first = KeysetPageRequest.from("", null, Integer.valueOf(2), null, false);
+        final Page<String> firstPage = paginationHelper.fetchPage(jdbcTemplate, sql, new Object[] { 1L }, "l.id", "id", first,
+                new AccountNoMapper());
+
+        assertEquals(Arrays.asList("000011", "000012"), firstPage.getPageItems());
+        assertNull(firstPage.getTotalFilteredRecords());
+        final String firstFetch = capturedFetch(jdbcTemplate, Arrays.<Object> asList(1L));
+        assertEquals(sql + " order by l.id asc limit 3", firstFetch);
+
+        whenFetching(jdbcTemplate, 13L);
+        final KeysetPageRequest next = KeysetPageRequest.from(firstPage.getNextCursor(), null, Integer.valueOf(2), null, false);
+        final Page<String> lastPage = paginationHelper.fetchPage(jdbcTemplate, sql, new Object[] { 1L }, "l.id", "id", next,
+                new AccountNoMapper());
+
+        assertEquals(Arrays.asList("000013"), lastPage.getPageItems());
+        assertNull(lastPage.getNextCursor());
+        final String nextFetch = capturedFetch(jdbcTemplate, Arrays.<Object> asList(1L, 12L));
+        assertEquals(sql + " and l.id > ? order by l.id asc limit 3", nextFetch);
+    }
+
+    @Test
+    public void fetchedPageCountsTheSameFilterWhenAnExactCountIsRequested() {
+        final String sql = "select l.id as id, (select count(*) from m_loan_charge lc where lc.loan_id = l.id) as charges"
+                + " from m_loan l where l.office_id = ? and l.external_id <> 'from here'";
+        final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        whenFetching(jdbcTemplate, 11L);
+        when(jdbcTemplate.queryForObject(anyString(), any(Object[].class), eq(Integer.class))).thenReturn(Integer.valueOf(1));
+
+        final KeysetPageRequest request = KeysetPageRequest.from("", "desc", null, "exact", false);
+        final Page<String> page = new PaginationHelper<String>().fetchPage(jdbcTemplate, sql, new Object[] { 1L }, "l.id", "id",
+                request, new AccountNoMapper());
+
+        assertEquals(Integer.valueOf(1), page.getTotalFilteredRecords());
+        verify(jdbcTemplate).queryForObject(
+                eq("select count(*) from (select l.id from m_loan l where l.office_id = ? and l.external_id <> 'from here') filtered"),
+                eq(new Object[] { 1L }), eq(Integer.class));
+    }
+
+    @Test
+    public void countKeepsDistinctSelects() {
+        assertEquals("select count(*) from (select distinct g.id from m_group g join m_client c on c.office_id = g.office_id) filtered",
+                PaginationHelper.countSql(" select DISTINCT g.id as id, g.display_name as name"
+                        + " from m_group g join m_client c on c.office_id = g.office_id", "g.id"));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void whenFetching(final JdbcTemplate jdbcTemplate, final Long... keys) {
+        doAnswer(new Answer<List<Object>>() {
+
+            @Override
+            public List<Object> answer(final InvocationOnMock invocation) throws Throwable {
+                final RowMapper<Object> rowMapper = (RowMapper<Object>) invocation.getArguments()[2];
+                final List<Object> rows = new ArrayList<Object>();
+                for (int i = 0; i < keys.length; i++) {
+                    final ResultSet rs = mock(ResultSet.class);
+                    when(rs.getLong("id")).thenReturn(keys[i]);
+                    rows.add(rowMapper.mapRow(rs, i));
+                }
+                return rows;
+            }
+        }).when(jdbcTemplate).query(anyString(), any(Object[].class), any(RowMapper.class));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static String capturedFetch(final JdbcTemplate jdbcTemplate, final List<Object> expectedArgs) {
+        final ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        final ArgumentCaptor<Object[]> args = ArgumentCaptor.forClass(Object[].class);
+        verify(jdbcTemplate, atLeastOnce()).query(sql.capture(), args.capture(), any(RowMapper.class));
+        assertEquals(expectedArgs, Arrays.asList(args.getValue()));
+        return sql.getValue();
+    }
+
+    private static final class AccountNoMapper implements RowMapper<String> {
+
+        @Override
+        public String mapRow(final ResultSet rs, @SuppressWarnings("unused") final int rowNum) throws SQLException {
+            return String.format("%06d", rs.getLong("id"));
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package org.mifosplatform.infrastructure.core.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.apache.tomcat.jdbc.pool.PoolConfiguration;
+import org.apache.tomcat.jdbc.pool.PoolProperties;
+import org.junit.Test;
+import org.mifosplatform.infrastructure.core.domain.MifosPlatformTenant;
+import org.mifosplatform.infrastructure.core.domain.TenantConnectionPoolSettings;
+
+public class TomcatJdbcDataSourcePerTenantServiceTest {
+
+    @Test
+    public void tenantWithoutPoolSettingsKeepsThePoolDefaults() {
+        final PoolConfiguration defaults = new PoolProperties();
+
+        final PoolConfiguration configuration = TomcatJdbcDataSourcePerTenantService.poolConfigurationFor(tenant(null));
+
+        assertEquals("jdbc:mysql://localhost:3306/mifostenant-default", configuration.getUrl());
+        assertEquals(5, configuration.getInitialSize());
+        assertEquals(defaults.getMaxActive(), configuration.getMaxActive());
+        assertEquals(100, configuration.getMaxActive());
+        assertEquals(defaults.getMaxIdle(), configuration.getMaxIdle());
+        assertEquals(defaults.getMinIdle(), configuration.getMinIdle());
+        assertEquals(defaults.getMaxWait(), configuration.getMaxWait());
+        assertTrue(configuration.isTestOnBorrow());
+        assertEquals(30000, configuration.getValidationInterval());
+    }
+
+    @Test
+    public void unsetPoolSettingsKeepThePoolDefaults() {
+        final PoolConfiguration defaults = new PoolProperties();
+        final TenantConnectionPoolSettings settings = new TenantConnectionPoolSettings(null, null, null, 0, null, null, null);
+
+        final PoolConfiguration configuration = TomcatJdbcDataSourcePerTenantService.poolConfigurationFor(tenant(settings));
+
+        assertEquals(5, configuration.getInitialSize());
+        assertEquals(defaults.getMaxActive(), configuration.getMaxActive());
+        assertEquals(defaults.getMaxIdle(), configuration.getMaxIdle());
+        assertEquals(defaults.getMinIdle(), configuration.getMinIdle());
+        assertTrue(configuration.isTestOnBorrow());
+    }
+
+    @Test
+    public void configuredPoolSettingsOverrideTheDefaults() {
+        final TenantConnectionPoolSettings settings = new TenantConnectionPoolSettings(2, 3, 8, 20, 10000, Boolean.FALSE, 60000);
+
+        final PoolConfiguration configuration = TomcatJdbcDataSourcePerTenantService.poolConfigurationFor(tenant(settings));
+
+        assertEquals(2, configuration.getInitialSize());
+        assertEquals(3, configuration.getMinIdle());
+        assertEquals(8, configuration.getMaxIdle());
+        assertEquals(20, configuration.getMaxActive());
+        assertEquals(10000, configuration.getMaxWait());
+        assertFalse(configuration.isTestOnBorrow());
+        assertEquals(60000, configuration.getValidationInterval());
+    }
+
+    @Test
+    public void partlyConfiguredPoolSettingsOnlyOverrideWhatIsSet() {
+        final PoolConfiguration defaults = new PoolProperties();
+        final TenantConnectionPoolSettings settings = new TenantConnectionPoolSettings(null, null, null, 250, null, null, null);
+
+        final PoolConfiguration configuration = TomcatJdbcDataSourcePerTenantService.poolConfigurationFor(tenant(settings));
+
+        assertEquals(250, configuration.getMaxActive());
+        assertEquals(5, configuration.getInitialSize());
+        assertEquals(defaults.getMaxIdle(), configuration.getMaxIdle());
+        assertEquals(defaults.getMinIdle(), configuration.getMinIdle());
+        assertEquals(defaults.getMaxWait(), configuration.getMaxWait());
+    }
+
+    private static MifosPlatformTenant tenant(final TenantConnectionPoolSettings settings) {
+        return new MifosPlatformTenant(1L, "default", "default", "mifostenant-default", "localhost", "3306", "root", "mysql", null,
+                false, settings);
+    }
+}
@@ -0,0 +1,122 @@
+package org.mifosplatform.infrastructure.dataqueries.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mifosplatform.infrastructure.core.domain.MifosPlatformTenant;
+import org.mifosplatform.infrastructure.core.service.ThreadLocalContextUtil;
+import org.mifosplatform.infrastructure.dataqueries.data.ResultsetColumnHeaderData;
+import org.mifosplatform.infrastructure.dataqueries.service.DatatableSchemaRegistry.ColumnHeaderLoader;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+public class DatatableSchemaRegistryTest {
+
+    private DatatableSchemaRegistry registry;
+    private CountingLoader loader;
+
+    @Before
+    public void setUp() {
+        setTenant("default");
+        this.registry = new DatatableSchemaRegistry();
+        this.loader = new CountingLoader();
+    }
+
+    @After
+    public void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        ThreadLocalContextUtil.clearTenant();
+    }
+
+    @Test
+    public void columnHeadersAreLoadedOncePerTenant() {
+        final List<ResultsetColumnHeaderData> headers = this.registry.columnHeaders("m_guarantor_details", this.loader);
+        assertSame(headers, this.registry.columnHeaders("m_guarantor_details", this.loader));
+        assertEquals(1, this.loader.loads);
+
+        setTenant("other");
+        this.registry.columnHeaders("m_guarantor_details", this.loader);
+        assertEquals(2, this.loader.loads);
+    }
+
+    @Test
+    public void evictionWaitsForTheTransactionToComplete() {
+        this.registry.columnHeaders("m_guarantor_details", this.loader);
+
+        TransactionSynchronizationManager.initSynchronization();
+        this.registry.evictAfterTransaction();
+        this.registry.columnHeaders("m_guarantor_details", this.loader);
+        assertEquals(1, this.loader.loads);
+
+        completeTransaction();
+        this.registry.columnHeaders("m_guarantor_details", this.loader);
+        assertEquals(2, this.loader.loads);
+    }
+
+    @Test
+    public void columnHeadersLoadedBeforeAnEvictionAreNotKept() {
+        final ColumnHeaderLoader evictingLoader = new ColumnHeaderLoader() {
+
+            @Override
+            public List<ResultsetColumnHeaderData> load(final String datatable) {
+                final List<ResultsetColumnHeaderData> headers = DatatableSchemaRegistryTest.this.loader.load(datatable);
+                // a datatable write commits while the headers are read
+                DatatableSchemaRegistryTest.this.registry.evictAfterTransaction();
+                return headers;
+            }
+        };
+
+        this.registry.columnHeaders("m_guarantor_details", evictingLoader);
+        this.registry.columnHeaders("m_guarantor_details", this.loader);
+
+        assertEquals(2, this.loader.loads);
+    }
+
+    @Test
+    public void evictionOnlyDropsTheSchemasOfItsTenant() {
+        this.registry.columnHeaders("m_guarantor_details", this.loader);
+        setTenant("other");
+        this.registry.columnHeaders("m_guarantor_details", this.loader);
+
+        this.registry.evictAfterTransaction();
+        setTenant("default");
+        this.registry.columnHeaders("m_guarantor_details", this.loader);
+
+        assertEquals(2, this.loader.loads);
+    }
+
+    private static void completeTransaction() {
+        final List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        for (final TransactionSynchronization synchronization : synchronizations) {
+            synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+        }
+    }
+
+    private static void setTenant(final String tenantIdentifier) {
+        ThreadLocalContextUtil.setTenant(new MifosPlatformTenant(1L, tenantIdentifier, tenantIdentifier, null, null, null, null, null, null,
+                false, null));
+    }
+
+    private static final class CountingLoader implements ColumnHeaderLoader {
+
+        private int loads;
+
+        @Override
+        public List<ResultsetColumnHeaderData> load(final String datatable) {
+            this.loads++;
+            final List<ResultsetColumnHeaderData> headers = new ArrayList<ResultsetColumnHeaderData>();
+            headers.add(ResultsetColumnHeaderData.basic(datatable + "_id", "BIGINT"));
+            return Collections.unmodifiableList(headers);
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package org.mifosplatform.infrastructure.dataqueries.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+import org.mifosplatform.infrastructure.core.serialization.GoogleGsonSerializerHelper;
+import org.mifosplatform.infrastructure.dataqueries.data.GenericResultsetData;
+import org.mifosplatform.infrastructure.dataqueries.data.ResultsetColumnHeaderData;
+import org.mifosplatform.infrastructure.dataqueries.data.ResultsetRowData;
+
+import com.google.gson.Gson;
+
+public class ResultsetRowWriterTest {
+
+    private final List<ResultsetColumnHeaderData> columnHeaders = Arrays.asList(ResultsetColumnHeaderData.basic("id", "BIGINT"),
+            ResultsetColumnHeaderData.basic("name", "VARCHAR"));
+
+    @Test
+    public void csvQuotesTextAndLeavesNullsEmpty() throws IOException {
+        final List<List<String>> rows = new ArrayList<List<String>>();
+        rows.add(row("1", "say \"hi\""));
+        rows.add(row("2", null));
+        final StringWriter out = new StringWriter();
+        write(new CsvResultsetRowWriter(out), rows);
+
+        assertEquals("\"id\",\"name\"\n1,\"say \"\"hi\"\"\"\n2,\n", out.toString());
+    }
+
+    @Test
+    public void jsonRowsAreObjectsKeyedByColumnName() throws IOException {
+        final List<List<String>> rows = new ArrayList<List<String>>();
+        rows.add(row("1", "say \"hi\""));
+        rows.add(row("2", null));
+        final StringWriter out = new StringWriter();
+        write(new ResultsetJsonRowWriter(out), rows);
+
+        assertEquals("[\n{\"id\": 1,\n\"name\": \"say \\\"hi\\\"\"},\n{\"id\": 2,\n\"name\": null}\n]", out.toString());
+    }
+
+    @Test
+    public void genericResultsetJsonMatchesSerializedResultset() throws IOException {
+        final Gson gson = new GoogleGsonSerializerHelper().createGsonBuilder(false);
+        final List<List<String>> rows = new ArrayList<List<String>>();
+        rows.add(row("1", "<b>"));
+        rows.add(row("2", null));
+        final StringWriter out = new StringWriter();
+        write(new GenericResultsetJsonRowWriter(gson, out), rows);
+
+        final List<ResultsetRowData> resultsetRows = new ArrayList<ResultsetRowData>();
+        for (final List<String> row : rows) {
+            resultsetRows.add(ResultsetRowData.create(row));
+        }
+        assertEquals(gson.toJson(new GenericResultsetData(this.columnHeaders, resultsetRows)), out.toString());
+    }
+
+    @Test
+    public void pdfIsWrittenInChunks() throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final ResultsetRowWriter writer = new PdfResultsetRowWriter(out);
+        writer.writeHeader(this.columnHeaders);
+        int sizeAfterFirstRows = 0;
+        for (int i = 0; i < 3000; i++) {
+            writer.writeRow(row(String.valueOf(i), i % 2 == 0 ? null : "name " + i));
+            if (i + 1 == 1000) {
+                sizeAfterFirstRows = out.size();
+            }
+        }
+        final int sizeBeforeFinish = out.size();
+        final int pagesBeforeFinish = pageCount(out);
+        writer.finish();
+
+        // finished pages reach the stream while rows are still being added,
+        // only the last page and the trailer are left for finish()
+        assertTrue(sizeAfterFirstRows > 0);
+        assertTrue(sizeBeforeFinish > sizeAfterFirstRows);
+        assertTrue(sizeBeforeFinish * 4 > out.size() * 3);
+        assertTrue(pagesBeforeFinish > 0);
+        assertTrue(pageCount(out) > pagesBeforeFinish);
+
+        final String pdf = new String(out.toByteArray(), "ISO-8859-1");
+        assertTrue(pdf.startsWith("%PDF"));
+        assertTrue(pdf.trim().endsWith("%%EOF"));
+    }
+
+    private static int pageCount(final ByteArrayOutputStream out) throws IOException {
+        final String pdf = new String(out.toByteArray(), "ISO-8859-1");
+        int pages = 0;
+        int from = pdf.indexOf("/Type/Page");
+        while (from >= 0) {
+            if (!pdf.startsWith("/Type/Pages", from)) {
+                pages++;
+            }
+            from = pdf.indexOf("/Type/Page", from + 1);
+        }
+        return pages;
+    }
+
+    private void write(final ResultsetRowWriter writer, final List<List<String>> rows) throws IOException {
+        writer.writeHeader(this.columnHeaders);
+        for (final List<String> row : rows) {
+            writer.writeRow(row);
+        }
+        writer.finish();
+    }
+
+    private static List<String> row(final String... values) {
+        return new ArrayList<String>(Arrays.asList(values));
+    }
+}
@@ -0,0 +1,143 @@
+package org.mifosplatform.infrastructure.jobs.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mifosplatform.infrastructure.core.domain.MifosPlatformTenant;
+import org.mifosplatform.infrastructure.core.service.ThreadLocalContextUtil;
+import org.mifosplatform.infrastructure.jobs.exception.JobExecutionException;
+
+public class ChunkedJobExecutorTest {
+
+    private ChunkedJobExecutor executor;
+
+    @Before
+    public void setUp() {
+        ThreadLocalContextUtil.setTenant(new MifosPlatformTenant(1L, "default", "default", null, null, null, null, null, null, false, null));
+
+        final JobWorkerPool jobWorkerPool = mock(JobWorkerPool.class);
+        when(jobWorkerPool.threadCount()).thenReturn(2);
+        when(jobWorkerPool.newExecutorService(anyInt())).thenReturn(Executors.newFixedThreadPool(2));
+
+        this.executor = new ChunkedJobExecutor(jobWorkerPool);
+    }
+
+    @After
+    public void clearThreadLocals() {
+        ThreadLocalContextUtil.clearTenant();
+        JobRunStatisticsHolder.clearStatistics();
+    }
+
+    @Test
+    public void partitionKeysArePaddedSoThatTheySortByTheirIds() {
+        assertEquals("0000000000000000002:0000000000000000010", ChunkedJobExecutor.partitionKey(2L, 10L));
+        assertTrue(ChunkedJobExecutor.partitionKey(9L).compareTo(ChunkedJobExecutor.partitionKey(10L)) < 0);
+        assertTrue(ChunkedJobExecutor.partitionKey(1L, 99L).compareTo(ChunkedJobExecutor.partitionKey(2L, 1L)) < 0);
+    }
+
+    @Test
+    public void everyItemIsProcessedOnce() throws Exception {
+        final RecordingJob job = new RecordingJob();
+
+        this.executor.execute(JobName.PAY_DUE_SAVINGS_CHARGES, accounts(120), job);
+
+        assertEquals(120, job.processed.size());
+        assertEquals(120, new HashSet<Long>(job.processed).size());
+        assertEquals(120, JobRunStatisticsHolder.getStatistics().getProcessedCount());
+    }
+
+    @Test
+    public void partitionsAreChunkedInKeyOrder() {
+        final TreeMap<String, List<Long>> partitions = new TreeMap<String, List<Long>>();
+        for (final Long accountId : accounts(120)) {
+            partitions.put(ChunkedJobExecutor.partitionKey(accountId), Collections.singletonList(accountId));
+        }
+
+        assertEquals(Arrays.asList(ChunkedJobExecutor.partitionKey(50L), ChunkedJobExecutor.partitionKey(100L),
+                ChunkedJobExecutor.partitionKey(120L)), lastKeys(ChunkedJobExecutor.chunks(partitions)));
+    }
+
+    @Test
+    public void partitionsOfOneAccountAreKeptInOneChunk() {
+        final TreeMap<String, List<Long[]>> partitions = new TreeMap<String, List<Long[]>>();
+        for (long toAccountId = 1; toAccountId <= 60; toAccountId++) {
+            final Long[] transfer = new Long[] { 1L, toAccountId };
+            partitions.put(ChunkedJobExecutor.partitionKey(transfer), Collections.singletonList(transfer));
+        }
+        final Long[] transfer = new Long[] { 2L, 1L };
+        partitions.put(ChunkedJobExecutor.partitionKey(transfer), Collections.singletonList(transfer));
+
+        assertEquals(Arrays.asList(ChunkedJobExecutor.partitionKey(1L, 60L), ChunkedJobExecutor.partitionKey(2L, 1L)),
+                lastKeys(ChunkedJobExecutor.chunks(partitions)));
+    }
+
+    @Test
+    public void failuresAreReportedOnceAllChunksAreDone() throws Exception {
+        final RecordingJob job = new RecordingJob();
+        job.failing = 7L;
+
+        try {
+            this.executor.execute(JobName.PAY_DUE_SAVINGS_CHARGES, accounts(60), job);
+            fail();
+        } catch (final JobExecutionException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("account 7 failed"));
+        }
+        assertEquals(60, job.processed.size());
+        assertEquals(1, JobRunStatisticsHolder.getStatistics().getFailedCount());
+    }
+
+    private static <T> List<String> lastKeys(final List<ChunkedJobExecutor.Chunk<T>> chunks) {
+        final List<String> lastKeys = new ArrayList<String>();
+        for (final ChunkedJobExecutor.Chunk<T> chunk : chunks) {
+            lastKeys.add(chunk.lastKey());
+        }
+        return lastKeys;
+    }
+
+    private static List<Long> accounts(final long count) {
+        final List<Long> accountIds = new ArrayList<Long>();
+        // fetched in no particular order
+        for (long accountId = count; accountId >= 1; accountId--) {
+            accountIds.add(accountId);
+        }
+        return accountIds;
+    }
+
+    private static final class RecordingJob implements ChunkedJob<Long> {
+
+        private final List<Long> processed = Collections.synchronizedList(new ArrayList<Long>());
+        private Long failing;
+
+        @Override
+        public String partitionKey(final Long accountId) {
+            return ChunkedJobExecutor.partitionKey(accountId);
+        }
+
+        @Override
+        public List<String> processPartition(final List<Long> accountIds) {
+            final List<String> failures = new ArrayList<String>();
+            for (final Long accountId : accountIds) {
+                this.processed.add(accountId);
+                if (accountId.equals(this.failing)) {
+                    failures.add("account " + accountId + " failed");
+                }
+            }
+            return failures;
+        }
+    }
+}
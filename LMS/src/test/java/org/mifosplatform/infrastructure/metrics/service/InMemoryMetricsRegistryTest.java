@@ -0,0 +1,109 @@
+package org.mifosplatform.infrastructure.metrics.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.TreeSet;
+
+import org.junit.After;
+import org.junit.Test;
+import org.mifosplatform.infrastructure.core.domain.MifosPlatformTenant;
+import org.mifosplatform.infrastructure.core.service.ThreadLocalContextUtil;
+import org.mifosplatform.infrastructure.metrics.data.MetricData;
+import org.springframework.test.util.ReflectionTestUtils;
+
+public class InMemoryMetricsRegistryTest {
+
+    private final InMemoryMetricsRegistry registry = new InMemoryMetricsRegistry();
+
+    @After
+    public void clearTenant() {
+        ThreadLocalContextUtil.clearTenant();
+    }
+
+    @Test
+    public void latenciesAreRecordedPerTenantPathAndMethod() {
+        useTenant("default");
+        this.registry.recordLatency(MetricsRegistry.HTTP_REQUESTS, "/loans/{loanId}", "GET", 2000000L);
+        this.registry.recordLatency(MetricsRegistry.HTTP_REQUESTS, "/loans/{loanId}", "GET", 4000000L);
+        this.registry.recordLatency(MetricsRegistry.HTTP_REQUESTS, "/loans/{loanId}", "PUT", 1000000L);
+        useTenant("other");
+        this.registry.recordLatency(MetricsRegistry.HTTP_REQUESTS, "/loans/{loanId}", "GET", 1000000L);
+
+        assertEquals(Arrays.asList("http.requests default /loans/{loanId} GET 2", "http.requests default /loans/{loanId} PUT 1",
+                "http.requests other /loans/{loanId} GET 1"), describe(this.registry.retrieveAll()));
+        assertEquals(Arrays.asList("http.requests other /loans/{loanId} GET 1"), describe(this.registry.retrieveAllForTenant("other")));
+    }
+
+    @Test
+    public void countersAreKeptApartFromLatencies() {
+        useTenant("default");
+        this.registry.recordLatency(MetricsRegistry.COMMANDS, "LOAN", "CREATE", 1000L);
+        this.registry.incrementCounter(MetricsRegistry.COMMAND_ERRORS, "LOAN", "CREATE");
+        this.registry.incrementCounter(MetricsRegistry.COMMAND_ERRORS, "LOAN", "CREATE");
+
+        assertEquals(Arrays.asList("commands default LOAN CREATE 1", "commands.errors default LOAN CREATE 2"),
+                describe(this.registry.retrieveAll()));
+    }
+
+    @Test
+    public void seriesWithoutPathOrTenantAreRecorded() {
+        this.registry.recordLatency(MetricsRegistry.JDBC_POOL_WAIT, null, null, 1000L);
+        this.registry.recordLatency(MetricsRegistry.JDBC_POOL_WAIT, null, null, 1000L);
+
+        assertEquals(Arrays.asList("jdbc.pool.wait none null null 2"), describe(this.registry.retrieveAll()));
+    }
+
+    @Test
+    public void recordingToAnExistingSeriesReusesIt() {
+        final MetricSeriesTable<Object> table = new MetricSeriesTable<Object>(10) {
+
+            @Override
+            protected Object newSeries() {
+                return new Object();
+            }
+
+            @Override
+            protected MetricData toMetricData(final String name, final String tenantIdentifier, final String pathTemplate,
+                    final String method, @SuppressWarnings("unused") final Object series) {
+                return MetricData.counter(name, tenantIdentifier, pathTemplate, method, 0);
+            }
+        };
+
+        final Object series = table.findOrAdd("http.requests", "default", "/loans", "GET");
+
+        assertSame(series, table.findOrAdd("http.requests", "default", new String("/loans"), new String("GET")));
+    }
+
+    @Test
+    public void seriesPastTheLimitAreFoldedIntoAnOverflowSeries() {
+        useTenant("default");
+        for (int i = 0; i < 5010; i++) {
+            this.registry.incrementCounter(MetricsRegistry.HTTP_REQUEST_ERRORS, "/path" + i, "GET");
+        }
+
+        final List<String> metrics = describe(this.registry.retrieveAll());
+        assertEquals(5001, metrics.size());
+        assertTrue(metrics.contains("http.requests.errors overflow overflow overflow 10"));
+    }
+
+    private static List<String> describe(final Collection<MetricData> metrics) {
+        final TreeSet<String> descriptions = new TreeSet<String>();
+        for (final MetricData metric : metrics) {
+            descriptions.add(ReflectionTestUtils.getField(metric, "name") + " " + ReflectionTestUtils.getField(metric, "tenantIdentifier")
+                    + " " + ReflectionTestUtils.getField(metric, "pathTemplate") + " " + ReflectionTestUtils.getField(metric, "method")
+                    + " " + ReflectionTestUtils.getField(metric, "count"));
+        }
+        return new ArrayList<String>(descriptions);
+    }
+
+    private static void useTenant(final String tenantIdentifier) {
+        ThreadLocalContextUtil.setTenant(new MifosPlatformTenant(1L, tenantIdentifier, tenantIdentifier, null, null, null, null, null,
+                null, false, null));
+    }
+}
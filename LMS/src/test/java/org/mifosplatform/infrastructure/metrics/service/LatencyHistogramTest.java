@@ -0,0 +1,68 @@
+package org.mifosplatform.infrastructure.metrics.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class LatencyHistogramTest {
+
+    @Test
+    public void emptyHistogramReportsZero() {
+        final LatencyHistogram histogram = new LatencyHistogram();
+
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getMeanMicros());
+        assertEquals(0, histogram.getValueAtPercentile(99));
+    }
+
+    @Test
+    public void smallValuesAreRecordedExactly() {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 10; i++) {
+            histogram.recordMicros(i);
+        }
+
+        assertEquals(10, histogram.getCount());
+        assertEquals(5, histogram.getValueAtPercentile(50));
+        assertEquals(10, histogram.getValueAtPercentile(100));
+        assertEquals(10, histogram.getMaxMicros());
+    }
+
+    @Test
+    public void percentilesStayWithinRelativeError() {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 100000; i++) {
+            histogram.recordMicros(i);
+        }
+
+        assertWithinRelativeError(50000, histogram.getValueAtPercentile(50));
+        assertWithinRelativeError(90000, histogram.getValueAtPercentile(90));
+        assertWithinRelativeError(99000, histogram.getValueAtPercentile(99));
+        assertEquals(100000, histogram.getMaxMicros());
+    }
+
+    @Test
+    public void bucketBoundsCoverEveryValue() {
+        for (long value = 0; value < 1L << 20; value += 7) {
+            final int index = LatencyHistogram.bucketIndex(value);
+            assertTrue(LatencyHistogram.bucketUpperBound(index) >= value);
+            assertTrue(index == 0 || LatencyHistogram.bucketUpperBound(index - 1) < value);
+        }
+    }
+
+    @Test
+    public void negativeAndHugeValuesAreClamped() {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        histogram.recordMicros(-5);
+        histogram.recordMicros(Long.MAX_VALUE);
+
+        assertEquals(2, histogram.getCount());
+        assertEquals(0, histogram.getValueAtPercentile(50));
+        assertTrue(histogram.getValueAtPercentile(100) > 0);
+    }
+
+    private static void assertWithinRelativeError(final long expected, final long actual) {
+        assertTrue("expected ~" + expected + " but was " + actual, Math.abs(actual - expected) <= expected * 0.07);
+    }
+}
@@ -0,0 +1,99 @@
+package org.mifosplatform.infrastructure.security.filter;
+
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Collections;
+
+import javax.servlet.FilterChain;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mifosplatform.infrastructure.cache.service.CacheWritePlatformService;
+import org.mifosplatform.infrastructure.configuration.domain.ConfigurationDomainService;
+import org.mifosplatform.infrastructure.core.domain.MifosPlatformTenant;
+import org.mifosplatform.infrastructure.core.filters.ResourcePathTemplateFilter;
+import org.mifosplatform.infrastructure.core.serialization.ToApiJsonSerializer;
+import org.mifosplatform.infrastructure.core.service.ThreadLocalContextUtil;
+import org.mifosplatform.infrastructure.metrics.service.MetricsRegistry;
+import org.mifosplatform.infrastructure.security.data.PlatformRequestLog;
+import org.mifosplatform.infrastructure.security.service.BasicAuthTenantDetailsService;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.web.AuthenticationEntryPoint;
+
+public class TenantAwareBasicAuthenticationFilterTest {
+
+    private final BasicAuthTenantDetailsService basicAuthTenantDetailsService = mock(BasicAuthTenantDetailsService.class);
+    private final MetricsRegistry metricsRegistry = mock(MetricsRegistry.class);
+    private TenantAwareBasicAuthenticationFilter filter;
+
+    private final HttpServletRequest request = mock(HttpServletRequest.class);
+    private final HttpServletResponse response = mock(HttpServletResponse.class);
+    private final FilterChain chain = mock(FilterChain.class);
+
+    @Before
+    public void setUp() {
+        @SuppressWarnings("unchecked")
+        final ToApiJsonSerializer<PlatformRequestLog> toApiJsonSerializer = mock(ToApiJsonSerializer.class);
+        this.filter = new TenantAwareBasicAuthenticationFilter(mock(AuthenticationManager.class), mock(AuthenticationEntryPoint.class),
+                this.basicAuthTenantDetailsService, toApiJsonSerializer, mock(ConfigurationDomainService.class),
+                mock(CacheWritePlatformService.class), this.metricsRegistry);
+
+        when(this.request.getRequestURL()).thenReturn(new StringBuffer("https://localhost/mifosng-provider/api/v1/loans/1"));
+        when(this.request.getParameterMap()).thenReturn(Collections.emptyMap());
+    }
+
+    @After
+    public void clearTenant() {
+        ThreadLocalContextUtil.clearTenant();
+    }
+
+    @Test
+    public void requestIsTimedByItsPathTemplate() throws Exception {
+        when(this.request.getMethod()).thenReturn("GET");
+        when(this.request.getHeader("X-Mifos-Platform-TenantId")).thenReturn("default");
+        when(this.basicAuthTenantDetailsService.loadTenantById("default")).thenReturn(
+                new MifosPlatformTenant(1L, "default", "default", null, null, null, null, null, null, false, null));
+        when(this.request.getAttribute(ResourcePathTemplateFilter.PATH_TEMPLATE_ATTRIBUTE)).thenReturn("/loans/{loanId}");
+        when(this.request.getAttribute(ResourcePathTemplateFilter.RESPONSE_STATUS_ATTRIBUTE)).thenReturn(Integer.valueOf(200));
+
+        this.filter.doFilter(this.request, this.response, this.chain);
+
+        verify(this.chain).doFilter(this.request, this.response);
+        verify(this.metricsRegistry).recordLatency(eq(MetricsRegistry.HTTP_REQUESTS), eq("/loans/{loanId}"), eq("GET"), anyLong());
+        verify(this.metricsRegistry, never()).incrementCounter(anyString(), anyString(), anyString());
+    }
+
+    @Test
+    public void failedRequestIsCountedAsAnError() throws Exception {
+        when(this.request.getMethod()).thenReturn("GET");
+        when(this.request.getHeader("X-Mifos-Platform-TenantId")).thenReturn("default");
+        when(this.basicAuthTenantDetailsService.loadTenantById("default")).thenReturn(
+                new MifosPlatformTenant(1L, "default", "default", null, null, null, null, null, null, false, null));
+        when(this.request.getAttribute(ResourcePathTemplateFilter.PATH_TEMPLATE_ATTRIBUTE)).thenReturn("/loans/{loanId}");
+        when(this.request.getAttribute(ResourcePathTemplateFilter.RESPONSE_STATUS_ATTRIBUTE)).thenReturn(Integer.valueOf(404));
+
+        this.filter.doFilter(this.request, this.response, this.chain);
+
+        verify(this.metricsRegistry).recordLatency(eq(MetricsRegistry.HTTP_REQUESTS), eq("/loans/{loanId}"), eq("GET"), anyLong());
+        verify(this.metricsRegistry).incrementCounter(MetricsRegistry.HTTP_REQUEST_ERRORS, "/loans/{loanId}", "GET");
+    }
+
+    @Test
+    public void requestWithoutTenantIsTimedAsUnmatched() throws Exception {
+        when(this.request.getMethod()).thenReturn("GET");
+
+        this.filter.doFilter(this.request, this.response, this.chain);
+
+        verify(this.response).sendError(eq(HttpServletResponse.SC_BAD_REQUEST), anyString());
+        verify(this.metricsRegistry).recordLatency(eq(MetricsRegistry.HTTP_REQUESTS), eq("unmatched"), eq("GET"), anyLong());
+    }
+}
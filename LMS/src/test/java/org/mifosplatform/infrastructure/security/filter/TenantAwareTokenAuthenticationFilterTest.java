@@ -0,0 +1,142 @@
+package org.mifosplatform.infrastructure.security.filter;
+
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Collections;
+
+import javax.servlet.FilterChain;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mifosplatform.infrastructure.core.domain.MifosPlatformTenant;
+import org.mifosplatform.infrastructure.core.service.ThreadLocalContextUtil;
+import org.mifosplatform.infrastructure.security.service.AccessTokenServiceImpl;
+import org.mifosplatform.infrastructure.security.service.PlatformUserDetailsService;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.web.AuthenticationEntryPoint;
+
+public class TenantAwareTokenAuthenticationFilterTest {
+
+    private final AccessTokenServiceImpl accessTokenService = new AccessTokenServiceImpl();
+    private final PlatformUserDetailsService userDetailsService = mock(PlatformUserDetailsService.class);
+    private final AuthenticationEntryPoint authenticationEntryPoint = mock(AuthenticationEntryPoint.class);
+    private final TenantAwareTokenAuthenticationFilter filter = new TenantAwareTokenAuthenticationFilter(this.accessTokenService,
+            this.userDetailsService, this.authenticationEntryPoint);
+
+    private final HttpServletRequest request = mock(HttpServletRequest.class);
+    private final HttpServletResponse response = mock(HttpServletResponse.class);
+    private final FilterChain chain = mock(FilterChain.class);
+
+    @Before
+    public void setUp() {
+        SecurityContextHolder.clearContext();
+        ThreadLocalContextUtil.setTenant(tenant("default"));
+    }
+
+    @After
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+        ThreadLocalContextUtil.clearTenant();
+    }
+
+    @Test
+    public void validTokenAuthenticatesTheRequest() throws Exception {
+        final UserDetails user = user(true);
+        when(this.userDetailsService.loadUserByUsername("mifos")).thenReturn(user);
+        final String accessToken = this.accessTokenService.createAccessToken("default", 1L, "mifos");
+        when(this.request.getHeader("Authorization")).thenReturn("Bearer " + accessToken);
+
+        this.filter.doFilter(this.request, this.response, this.chain);
+
+        final Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        assertSame(user, authentication.getPrincipal());
+        verify(this.chain).doFilter(this.request, this.response);
+    }
+
+    @Test
+    public void unknownTokenIsRejected() throws Exception {
+        when(this.request.getHeader("Authorization")).thenReturn("Bearer unknown");
+
+        this.filter.doFilter(this.request, this.response, this.chain);
+
+        assertRejected();
+    }
+
+    @Test
+    public void tokenIssuedForAnotherTenantIsRejected() throws Exception {
+        when(this.userDetailsService.loadUserByUsername("mifos")).thenReturn(user(true));
+        final String accessToken = this.accessTokenService.createAccessToken("other", 1L, "mifos");
+        when(this.request.getHeader("Authorization")).thenReturn("Bearer " + accessToken);
+
+        this.filter.doFilter(this.request, this.response, this.chain);
+
+        assertRejected();
+        verify(this.userDetailsService, never()).loadUserByUsername("mifos");
+    }
+
+    @Test
+    public void tokenOfADisabledUserIsRejectedAndInvalidated() throws Exception {
+        when(this.userDetailsService.loadUserByUsername("mifos")).thenReturn(user(false));
+        final String accessToken = this.accessTokenService.createAccessToken("default", 1L, "mifos");
+        when(this.request.getHeader("Authorization")).thenReturn("Bearer " + accessToken);
+
+        this.filter.doFilter(this.request, this.response, this.chain);
+
+        assertRejected();
+        assertNull(this.accessTokenService.retrieveSession(accessToken, "default"));
+    }
+
+    @Test
+    public void tokenOfARemovedUserIsRejectedAndInvalidated() throws Exception {
+        when(this.userDetailsService.loadUserByUsername("mifos")).thenThrow(new UsernameNotFoundException("mifos"));
+        final String accessToken = this.accessTokenService.createAccessToken("default", 1L, "mifos");
+        when(this.request.getHeader("Authorization")).thenReturn("Bearer " + accessToken);
+
+        this.filter.doFilter(this.request, this.response, this.chain);
+
+        assertRejected();
+        assertNull(this.accessTokenService.retrieveSession(accessToken, "default"));
+    }
+
+    @Test
+    public void requestWithoutATokenIsLeftToTheOtherFilters() throws Exception {
+        when(this.request.getHeader("Authorization")).thenReturn("Basic bWlmb3M6cGFzc3dvcmQ=");
+
+        this.filter.doFilter(this.request, this.response, this.chain);
+
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        verify(this.chain).doFilter(this.request, this.response);
+        verify(this.authenticationEntryPoint, never()).commence(eq(this.request), eq(this.response),
+                any(BadCredentialsException.class));
+    }
+
+    private void assertRejected() throws Exception {
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        verify(this.authenticationEntryPoint).commence(eq(this.request), eq(this.response), any(BadCredentialsException.class));
+        verify(this.chain, never()).doFilter(this.request, this.response);
+    }
+
+    private static UserDetails user(final boolean enabled) {
+        return new User("mifos", "password", enabled, true, true, true, Collections.<GrantedAuthority> emptyList());
+    }
+
+    private static MifosPlatformTenant tenant(final String tenantIdentifier) {
+        return new MifosPlatformTenant(1L, tenantIdentifier, tenantIdentifier, null, null, null, null, null, null, false, null);
+    }
+}
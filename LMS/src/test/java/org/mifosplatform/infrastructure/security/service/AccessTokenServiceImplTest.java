@@ -0,0 +1,131 @@
+package org.mifosplatform.infrastructure.security.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+import org.mifosplatform.infrastructure.security.domain.AccessTokenSession;
+
+import com.google.common.base.Ticker;
+
+public class AccessTokenServiceImplTest {
+
+    private final FakeTicker ticker = new FakeTicker();
+    private final AccessTokenServiceImpl accessTokenService = new AccessTokenServiceImpl(this.ticker);
+
+    @Test
+    public void issuedTokenOpensASessionForItsUser() {
+        final String accessToken = this.accessTokenService.createAccessToken("default", 1L, "mifos");
+
+        final AccessTokenSession session = this.accessTokenService.retrieveSession(accessToken, "default");
+
+        assertNotNull(session);
+        assertEquals("mifos", session.getUsername());
+    }
+
+    @Test
+    public void everyTokenIsDifferent() {
+        final String first = this.accessTokenService.createAccessToken("default", 1L, "mifos");
+        final String second = this.accessTokenService.createAccessToken("default", 1L, "mifos");
+
+        assertFalse(first.equals(second));
+        assertEquals(43, first.length());
+    }
+
+    @Test
+    public void unknownTokenHasNoSession() {
+        assertNull(this.accessTokenService.retrieveSession("unknown", "default"));
+    }
+
+    @Test
+    public void tokenExpiresWhenIdleForThirtyMinutes() {
+        final String accessToken = this.accessTokenService.createAccessToken("default", 1L, "mifos");
+
+        this.ticker.advance(29, TimeUnit.MINUTES);
+        assertNotNull(this.accessTokenService.retrieveSession(accessToken, "default"));
+
+        this.ticker.advance(29, TimeUnit.MINUTES);
+        assertNotNull(this.accessTokenService.retrieveSession(accessToken, "default"));
+
+        this.ticker.advance(31, TimeUnit.MINUTES);
+        assertNull(this.accessTokenService.retrieveSession(accessToken, "default"));
+    }
+
+    @Test
+    public void tokenInUseExpiresTwelveHoursAfterItWasIssued() {
+        final String accessToken = this.accessTokenService.createAccessToken("default", 1L, "mifos");
+
+        for (int i = 0; i < 35; i++) {
+            this.ticker.advance(20, TimeUnit.MINUTES);
+            assertNotNull(this.accessTokenService.retrieveSession(accessToken, "default"));
+        }
+
+        this.ticker.advance(20, TimeUnit.MINUTES);
+        this.ticker.advance(1, TimeUnit.SECONDS);
+        assertNull(this.accessTokenService.retrieveSession(accessToken, "default"));
+    }
+
+    @Test
+    public void tokenIsRejectedForAnotherTenant() {
+        final String accessToken = this.accessTokenService.createAccessToken("default", 1L, "mifos");
+
+        assertNull(this.accessTokenService.retrieveSession(accessToken, "other"));
+        // presenting it to the wrong tenant does not end the session
+        assertNotNull(this.accessTokenService.retrieveSession(accessToken, "default"));
+    }
+
+    @Test
+    public void invalidatedTokenHasNoSession() {
+        final String accessToken = this.accessTokenService.createAccessToken("default", 1L, "mifos");
+
+        this.accessTokenService.invalidateAccessToken(accessToken);
+
+        assertNull(this.accessTokenService.retrieveSession(accessToken, "default"));
+    }
+
+    @Test
+    public void invalidatingAUserOnlyEndsTheSessionsOfThatUserInThatTenant() {
+        final String first = this.accessTokenService.createAccessToken("default", 1L, "mifos");
+        final String second = this.accessTokenService.createAccessToken("default", 1L, "mifos");
+        final String otherUser = this.accessTokenService.createAccessToken("default", 2L, "clerk");
+        final String otherTenant = this.accessTokenService.createAccessToken("other", 1L, "mifos");
+
+        this.accessTokenService.invalidateAccessTokensOfUser("default", 1L);
+
+        assertNull(this.accessTokenService.retrieveSession(first, "default"));
+        assertNull(this.accessTokenService.retrieveSession(second, "default"));
+        assertNotNull(this.accessTokenService.retrieveSession(otherUser, "default"));
+        assertNotNull(this.accessTokenService.retrieveSession(otherTenant, "other"));
+    }
+
+    @Test
+    public void invalidatingATenantOnlyEndsTheSessionsOfThatTenant() {
+        final String first = this.accessTokenService.createAccessToken("default", 1L, "mifos");
+        final String second = this.accessTokenService.createAccessToken("default", 2L, "clerk");
+        final String otherTenant = this.accessTokenService.createAccessToken("other", 1L, "mifos");
+
+        this.accessTokenService.invalidateAccessTokensOfTenant("default");
+
+        assertNull(this.accessTokenService.retrieveSession(first, "default"));
+        assertNull(this.accessTokenService.retrieveSession(second, "default"));
+        assertNotNull(this.accessTokenService.retrieveSession(otherTenant, "other"));
+    }
+
+    private static final class FakeTicker extends Ticker {
+
+        private long nanos = TimeUnit.DAYS.toNanos(1);
+
+        @Override
+        public long read() {
+            return this.nanos;
+        }
+
+        void advance(final long duration, final TimeUnit unit) {
+            this.nanos += unit.toNanos(duration);
+        }
+    }
+}
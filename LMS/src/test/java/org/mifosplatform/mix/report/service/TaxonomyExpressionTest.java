@@ -0,0 +1,75 @@
+package org.mifosplatform.mix.report.service;
+
+import static org.junit.Assert.assertEquals;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mifosplatform.mix.exception.XBRLMappingInvalidException;
+import org.mifosplatform.mix.service.TaxonomyExpression;
+
+public class TaxonomyExpressionTest {
+
+    private final Map<String, BigDecimal> balances = new HashMap<String, BigDecimal>();
+
+    @Before
+    public void setUp() {
+        this.balances.put("12000", new BigDecimal("123456789012.345678"));
+        this.balances.put("11000", new BigDecimal("0.000001"));
+        this.balances.put("21000", new BigDecimal("-250.50"));
+    }
+
+    @Test
+    public void shouldAddBalancesExactly() {
+        assertEquals(new BigDecimal("123456789012.345679"), evaluate("{12000}+{11000}"));
+    }
+
+    @Test
+    public void shouldRespectPrecedenceAndParentheses() {
+        assertEquals(new BigDecimal("-251.50"), evaluate("{21000} - 2 * 0.5"));
+        assertEquals(new BigDecimal("-501.00"), evaluate("({21000} - 0) * 2"));
+        assertEquals(new BigDecimal("250.50"), evaluate("-{21000}"));
+        assertEquals(new BigDecimal("1"), evaluate("10 - 6 - 3"));
+    }
+
+    @Test
+    public void shouldDivide() {
+        assertEquals(new BigDecimal("-125.25"), evaluate("{21000}/2"));
+    }
+
+    @Test
+    public void shouldTreatMissingGLCodeAsZero() {
+        assertEquals(new BigDecimal("-250.50"), evaluate("{21000}+{99999}"));
+    }
+
+    @Test
+    public void shouldReuseCompiledExpressionForDifferentBalances() {
+        final TaxonomyExpression expression = TaxonomyExpression.compile("{11000}*3");
+        assertEquals(new BigDecimal("0.000003"), expression.evaluate(this.balances));
+
+        this.balances.put("11000", new BigDecimal("7"));
+        assertEquals(new BigDecimal("21"), expression.evaluate(this.balances));
+    }
+
+    @Test(expected = XBRLMappingInvalidException.class)
+    public void shouldRejectUnbalancedParentheses() {
+        TaxonomyExpression.compile("({12000}+{11000}");
+    }
+
+    @Test(expected = XBRLMappingInvalidException.class)
+    public void shouldRejectUnterminatedGLCode() {
+        TaxonomyExpression.compile("{12000+{11000}");
+    }
+
+    @Test(expected = XBRLMappingInvalidException.class)
+    public void shouldRejectTrailingOperator() {
+        TaxonomyExpression.compile("{12000}+");
+    }
+
+    private BigDecimal evaluate(final String expression) {
+        return TaxonomyExpression.compile(expression).evaluate(this.balances);
+    }
+}
@@ -0,0 +1,137 @@
+package org.mifosplatform.organisation.monetary.domain;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Checks that random sequences of additions and subtractions give the same
+ * amounts through {@link MoneyAccumulator} as through {@link Money}.
+ */
+public class MoneyAccumulatorTest {
+
+    private static final int SEQUENCES = 2000;
+    private static final int OPERATIONS_PER_SEQUENCE = 60;
+
+    private static final MonetaryCurrency[] CURRENCIES = new MonetaryCurrency[] { new MonetaryCurrency("USD", 2, null),
+            new MonetaryCurrency("KWD", 3, null), new MonetaryCurrency("JPY", 0, null), new MonetaryCurrency("INR", 2, 0),
+            new MonetaryCurrency("XOF", 0, 5), new MonetaryCurrency("UGX", 0, 50), new MonetaryCurrency("KES", 0, 20) };
+
+    @Test
+    public void shouldRoundLikeMoneyForRandomSequences() {
+        final Random random = new Random(20131018L);
+        for (int sequence = 0; sequence < SEQUENCES; sequence++) {
+            final MonetaryCurrency currency = CURRENCIES[random.nextInt(CURRENCIES.length)];
+
+            Money expected = Money.of(currency, randomAmount(random));
+            final MoneyAccumulator actual = MoneyAccumulator.of(expected);
+            final StringBuilder steps = new StringBuilder(expected.toString());
+
+            for (int i = 0; i < OPERATIONS_PER_SEQUENCE; i++) {
+                final BigDecimal amount = randomAmount(random);
+                switch (random.nextInt(4)) {
+                    case 0:
+                        expected = expected.plus(Money.of(currency, amount));
+                        actual.plus(Money.of(currency, amount));
+                        steps.append(" +M").append(amount.toPlainString());
+                    break;
+                    case 1:
+                        expected = expected.minus(Money.of(currency, amount));
+                        actual.minus(Money.of(currency, amount));
+                        steps.append(" -M").append(amount.toPlainString());
+                    break;
+                    case 2:
+                        expected = expected.plus(amount);
+                        actual.plus(amount);
+                        steps.append(" +").append(amount.toPlainString());
+                    break;
+                    default:
+                        expected = expected.minus(amount);
+                        actual.minus(amount);
+                        steps.append(" -").append(amount.toPlainString());
+                    break;
+                }
+                assertSame(steps.toString(), expected, actual);
+            }
+        }
+    }
+
+    @Test
+    public void shouldRoundHalvesToEvenAtEachStep() {
+        final MonetaryCurrency currency = new MonetaryCurrency("JPY", 0, null);
+        final MoneyAccumulator accumulator = MoneyAccumulator.zero(currency);
+
+        accumulator.plus(new BigDecimal("0.5"));
+        assertEquals(new BigDecimal("0"), accumulator.getAmount());
+        accumulator.plus(BigDecimal.ONE).plus(new BigDecimal("0.5"));
+        assertEquals(new BigDecimal("2"), accumulator.getAmount());
+        accumulator.plus(new BigDecimal("1.5"));
+        assertEquals(new BigDecimal("4"), accumulator.getAmount());
+    }
+
+    @Test
+    public void shouldRoundPositiveTotalsIntoMultiples() {
+        final MonetaryCurrency currency = new MonetaryCurrency("KES", 0, 20);
+        final MoneyAccumulator accumulator = MoneyAccumulator.of(Money.of(currency, new BigDecimal("-15")));
+        assertEquals(new BigDecimal("-15"), accumulator.getAmount());
+
+        accumulator.plus(Money.of(currency, new BigDecimal("40")));
+        assertEquals(Money.of(currency, new BigDecimal("20")).getAmount(), accumulator.getAmount());
+
+        accumulator.plus(new BigDecimal("10"));
+        assertEquals(Money.of(currency, new BigDecimal("40")).getAmount(), accumulator.getAmount());
+    }
+
+    @Test
+    public void shouldTrackSign() {
+        final MonetaryCurrency currency = new MonetaryCurrency("USD", 2, null);
+        final MoneyAccumulator accumulator = MoneyAccumulator.zero(currency);
+        assertTrue(accumulator.isZero());
+
+        accumulator.plus(new BigDecimal("0.004"));
+        assertTrue(accumulator.isZero());
+
+        accumulator.minus(new BigDecimal("0.01"));
+        assertTrue(accumulator.isLessThanZero());
+        assertFalse(accumulator.isGreaterThanZero());
+
+        accumulator.reset().plus(Money.of(currency, new BigDecimal("12.345")));
+        assertTrue(accumulator.isGreaterThanZero());
+        assertEquals(new BigDecimal("12.34"), accumulator.getAmount());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void shouldRejectOtherCurrencies() {
+        MoneyAccumulator.zero(new MonetaryCurrency("USD", 2, null)).plus(Money.of(new MonetaryCurrency("EUR", 2, null), BigDecimal.ONE));
+    }
+
+    private static void assertSame(final String steps, final Money expected, final MoneyAccumulator actual) {
+        // Money keeps totals rounded down into multiples as 0.0 rather than 0
+        assertEquals(steps + " = " + expected + ", not " + actual, 0, expected.getAmount().compareTo(actual.getAmount()));
+        assertEquals(steps, expected.isZero(), actual.isZero());
+        assertEquals(steps, expected.isGreaterThanZero(), actual.isGreaterThanZero());
+        assertEquals(steps, expected.isLessThanZero(), actual.isLessThanZero());
+    }
+
+    /**
+     * Amounts of up to a million with up to five digits after the decimal, so
+     * that some need rounding, with zeros and exact halves thrown in.
+     */
+    private static BigDecimal randomAmount(final Random random) {
+        switch (random.nextInt(10)) {
+            case 0:
+                return BigDecimal.ZERO;
+            case 1:
+                return BigDecimal.valueOf(random.nextInt(2000) * 5L + 5, random.nextInt(4) + 1);
+            default:
+                final int scale = random.nextInt(6);
+                final long unscaled = (long) (random.nextDouble() * 1000000L * BigDecimal.TEN.pow(scale).longValue());
+                return BigDecimal.valueOf(random.nextBoolean() ? unscaled : -unscaled, scale);
+        }
+    }
+}
@@ -0,0 +1,238 @@
+package org.mifosplatform.portfolio.loanaccount;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.joda.time.LocalDate;
+import org.junit.Test;
+import org.mifosplatform.organisation.monetary.domain.MonetaryCurrency;
+import org.mifosplatform.portfolio.loanaccount.domain.ChangedTransactionDetail;
+import org.mifosplatform.portfolio.loanaccount.domain.LoanCharge;
+import org.mifosplatform.portfolio.loanaccount.domain.LoanRepaymentScheduleInstallment;
+import org.mifosplatform.portfolio.loanaccount.domain.LoanReplayCheckpoint;
+import org.mifosplatform.portfolio.loanaccount.domain.LoanTransaction;
+import org.mifosplatform.portfolio.loanaccount.domain.transactionprocessor.LoanReplayCheckpoints;
+import org.mifosplatform.portfolio.loanaccount.domain.transactionprocessor.LoanRepaymentScheduleTransactionProcessor;
+import org.mifosplatform.portfolio.loanaccount.domain.transactionprocessor.impl.CreocoreLoanRepaymentScheduleTransactionProcessor;
+import org.mifosplatform.portfolio.loanaccount.domain.transactionprocessor.impl.HeavensFamilyLoanRepaymentScheduleTransactionProcessor;
+import org.mifosplatform.portfolio.loanaccount.domain.transactionprocessor.impl.MifosStyleLoanRepaymentScheduleTransactionProcessor;
+import org.mifosplatform.portfolio.loanaccount.domain.transactionprocessor.impl.RBILoanRepaymentScheduleTransactionProcessor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Replays the same changes to two copies of a weekly loan, one with
+ * checkpoints and one from scratch each time, and checks that both end up the
+ * same. Each replay with checkpoints starts from the checkpoints stored by the
+ * one before it only, as it would for a loan loaded afresh.
+ */
+public class LoanTransactionReplayDifferentialTest {
+
+    private static final int INSTALLMENTS = 130;
+    private static final int REPAYMENTS = 120;
+
+    private final LocalDate disbursementDate = new LocalDate(2013, 1, 7);
+    private final MonetaryCurrency usDollars = new MonetaryCurrencyBuilder().withCode("USD").withDigitsAfterDecimal(2).build();
+
+    @Test
+    public void firstReplayOfSavedTransactionsStoresCheckpoints() {
+        for (final LoanRepaymentScheduleTransactionProcessor processor : processors()) {
+            final LoanCopy incremental = new LoanCopy(processor);
+
+            final List<Integer> transactionCounts = new ArrayList<Integer>();
+            for (final LoanReplayCheckpoint checkpoint : incremental.storedCheckpoints) {
+                transactionCounts.add(checkpoint.getTransactionCount());
+            }
+            assertEquals(processor.getClass().getSimpleName(), Arrays.asList(25, 50, 75, 100), transactionCounts);
+        }
+    }
+
+    @Test
+    public void loanWithFewTransactionsStoresNoCheckpoints() {
+        for (final LoanRepaymentScheduleTransactionProcessor processor : processors()) {
+            final LoanCopy incremental = new LoanCopy(processor, 60);
+            final LoanCopy full = new LoanCopy(processor, 60);
+
+            assertTrue(processor.getClass().getSimpleName(), incremental.storedCheckpoints.isEmpty());
+            assertSameAfterReplay(processor, incremental, full, 0);
+        }
+    }
+
+    @Test
+    public void replayingUnchangedTransactionsResumesFromLastCheckpoint() {
+        for (final LoanRepaymentScheduleTransactionProcessor processor : processors()) {
+            final LoanCopy incremental = new LoanCopy(processor);
+            final LoanCopy full = new LoanCopy(processor);
+
+            assertSameAfterReplay(processor, incremental, full, 100);
+        }
+    }
+
+    @Test
+    public void backdatedRepaymentIsReplayedFromCheckpointBeforeIt() {
+        for (final LoanRepaymentScheduleTransactionProcessor processor : processors()) {
+            final LoanCopy incremental = new LoanCopy(processor);
+            final LoanCopy full = new LoanCopy(processor);
+
+            incremental.insertRepayment(40, dueDate(40).minusDays(3), "55");
+            full.insertRepayment(40, dueDate(40).minusDays(3), "55");
+
+            assertSameAfterReplay(processor, incremental, full, 25);
+        }
+    }
+
+    @Test
+    public void repaymentAfterAllOthersIsReplayedOnItsOwn() {
+        for (final LoanRepaymentScheduleTransactionProcessor processor : processors()) {
+            final LoanCopy incremental = new LoanCopy(processor);
+            final LoanCopy full = new LoanCopy(processor);
+
+            incremental.insertRepayment(REPAYMENTS, dueDate(REPAYMENTS), "110");
+            full.insertRepayment(REPAYMENTS, dueDate(REPAYMENTS), "110");
+
+            assertSameAfterReplay(processor, incremental, full, 100);
+        }
+    }
+
+    @Test
+    public void repaymentBeforeAllOthersIsReplayedFromTheStart() {
+        for (final LoanRepaymentScheduleTransactionProcessor processor : processors()) {
+            final LoanCopy incremental = new LoanCopy(processor);
+            final LoanCopy full = new LoanCopy(processor);
+
+            incremental.insertRepayment(0, this.disbursementDate.plusDays(1), "30");
+            full.insertRepayment(0, this.disbursementDate.plusDays(1), "30");
+
+            assertSameAfterReplay(processor, incremental, full, 0);
+        }
+    }
+
+    @Test
+    public void adjustedRepaymentIsReplayedFromCheckpointBeforeIt() {
+        for (final LoanRepaymentScheduleTransactionProcessor processor : processors()) {
+            final LoanCopy incremental = new LoanCopy(processor);
+            final LoanCopy full = new LoanCopy(processor);
+
+            incremental.adjustRepayment(30, "70");
+            full.adjustRepayment(30, "70");
+
+            assertSameAfterReplay(processor, incremental, full, 25);
+        }
+    }
+
+    private void assertSameAfterReplay(final LoanRepaymentScheduleTransactionProcessor processor, final LoanCopy incremental,
+            final LoanCopy full, final int expectedTransactionsSkipped) {
+        final String name = processor.getClass().getSimpleName();
+
+        final LoanReplayCheckpoints checkpoints = new LoanReplayCheckpoints(null, incremental.storedCheckpoints);
+        final ChangedTransactionDetail incrementalChanges = processor.handleTransaction(this.disbursementDate, incremental.transactions,
+                this.usDollars, incremental.installments, incremental.charges, checkpoints);
+        final ChangedTransactionDetail fullChanges = processor.handleTransaction(this.disbursementDate, full.transactions, this.usDollars,
+                full.installments, full.charges);
+
+        assertEquals(name, expectedTransactionsSkipped, checkpoints.lastRestoredTransactionCount());
+
+        for (int i = 0; i < INSTALLMENTS; i++) {
+            assertTrue(name + " installment " + (i + 1),
+                    incremental.installments.get(i).snapshotDerivedState().isSameAs(full.installments.get(i).snapshotDerivedState()));
+        }
+
+        assertEquals(name, full.transactions.size(), incremental.transactions.size());
+        for (int i = 0; i < full.transactions.size(); i++) {
+            assertEquals(name + " transaction " + i, full.transactions.get(i).isReversed(), incremental.transactions.get(i).isReversed());
+            assertEquals(name + " transaction " + i, amountsOf(full.transactions.get(i)), amountsOf(incremental.transactions.get(i)));
+        }
+
+        final Map<Long, LoanTransaction> expectedMappings = fullChanges.getNewTransactionMappings();
+        final Map<Long, LoanTransaction> actualMappings = incrementalChanges.getNewTransactionMappings();
+        assertEquals(name, expectedMappings.keySet(), actualMappings.keySet());
+        for (final Long transactionId : expectedMappings.keySet()) {
+            assertEquals(name + " transaction " + transactionId, amountsOf(expectedMappings.get(transactionId)),
+                    amountsOf(actualMappings.get(transactionId)));
+        }
+    }
+
+    private List<BigDecimal> amountsOf(final LoanTransaction transaction) {
+        return Arrays.asList(transaction.getAmount(this.usDollars).getAmount(), transaction.getPrincipalPortion(this.usDollars)
+                .getAmount(), transaction.getInterestPortion(this.usDollars).getAmount(), transaction.getFeeChargesPortion(this.usDollars)
+                .getAmount(), transaction.getPenaltyChargesPortion(this.usDollars).getAmount(),
+                transaction.getOverPaymentPortion(this.usDollars).getAmount());
+    }
+
+    private LocalDate dueDate(final int installmentIndex) {
+        return this.disbursementDate.plusWeeks(installmentIndex + 1);
+    }
+
+    private static List<LoanRepaymentScheduleTransactionProcessor> processors() {
+        return Arrays.<LoanRepaymentScheduleTransactionProcessor> asList(new MifosStyleLoanRepaymentScheduleTransactionProcessor(),
+                new HeavensFamilyLoanRepaymentScheduleTransactionProcessor(), new CreocoreLoanRepaymentScheduleTransactionProcessor(),
+                new RBILoanRepaymentScheduleTransactionProcessor());
+    }
+
+    /**
+     * A weekly loan repaid on time up to {@link #REPAYMENTS} installments,
+     * unless given fewer, with its repayments saved and replayed once more,
+     * which for the copy with checkpoints stores them.
+     */
+    private final class LoanCopy {
+
+        private final List<LoanRepaymentScheduleInstallment> installments = new ArrayList<LoanRepaymentScheduleInstallment>();
+        private final List<LoanTransaction> transactions = new ArrayList<LoanTransaction>();
+        private final Set<LoanCharge> charges = new HashSet<LoanCharge>();
+        private final List<LoanReplayCheckpoint> storedCheckpoints = new ArrayList<LoanReplayCheckpoint>();
+        private long nextTransactionId = 1;
+
+        LoanCopy(final LoanRepaymentScheduleTransactionProcessor processor) {
+            this(processor, REPAYMENTS);
+        }
+
+        LoanCopy(final LoanRepaymentScheduleTransactionProcessor processor, final int repayments) {
+            final LoanTransactionReplayDifferentialTest test = LoanTransactionReplayDifferentialTest.this;
+            for (int i = 0; i < INSTALLMENTS; i++) {
+                final LocalDate fromDate = i == 0 ? test.disbursementDate : dueDate(i - 1);
+                this.installments.add(new LoanRepaymentScheduleInstallment(null, i + 1, fromDate, dueDate(i), BigDecimal.valueOf(100),
+                        BigDecimal.valueOf(10), BigDecimal.ZERO, BigDecimal.ZERO));
+            }
+            for (int i = 0; i < repayments; i++) {
+                this.transactions.add(repayment(dueDate(i), "110"));
+            }
+
+            processor.handleTransaction(test.disbursementDate, this.transactions, test.usDollars, this.installments, this.charges);
+            for (final LoanTransaction transaction : this.transactions) {
+                save(transaction);
+            }
+            processor.handleTransaction(test.disbursementDate, this.transactions, test.usDollars, this.installments, this.charges,
+                    new LoanReplayCheckpoints(null, this.storedCheckpoints));
+        }
+
+        void insertRepayment(final int index, final LocalDate date, final String amount) {
+            this.transactions.add(index, repayment(date, amount));
+        }
+
+        /**
+         * Replaces a repayment the way an adjustment does: the original is
+         * reversed and left out of the replay, and its replacement is new.
+         */
+        void adjustRepayment(final int index, final String amount) {
+            final LoanTransaction original = this.transactions.get(index);
+            original.reverse();
+            this.transactions.set(index, repayment(original.getTransactionDate(), amount));
+        }
+
+        private LoanTransaction repayment(final LocalDate date, final String amount) {
+            return LoanTransaction.repayment(null, new MoneyBuilder().with(LoanTransactionReplayDifferentialTest.this.usDollars)
+                    .with(amount).build(), null, date, null);
+        }
+
+        private void save(final LoanTransaction transaction) {
+            ReflectionTestUtils.setField(transaction, "id", this.nextTransactionId++);
+        }
+    }
+}
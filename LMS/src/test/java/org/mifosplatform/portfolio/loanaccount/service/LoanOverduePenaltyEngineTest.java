@@ -0,0 +1,163 @@
+package org.mifosplatform.portfolio.loanaccount.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mifosplatform.accounting.journalentry.service.JournalEntryWritePlatformService;
+import org.mifosplatform.infrastructure.core.domain.MifosPlatformTenant;
+import org.mifosplatform.infrastructure.core.service.ThreadLocalContextUtil;
+import org.mifosplatform.infrastructure.jobs.service.JobWorkerPool;
+import org.mifosplatform.organisation.monetary.domain.ApplicationCurrencyRepositoryWrapper;
+import org.mifosplatform.portfolio.account.service.AccountAssociationsReadPlatformService;
+import org.mifosplatform.portfolio.account.service.AccountTransfersWritePlatformService;
+import org.mifosplatform.portfolio.charge.domain.ChargeRepositoryWrapper;
+import org.mifosplatform.portfolio.loanaccount.domain.Loan;
+import org.mifosplatform.portfolio.loanaccount.domain.LoanChargeRepository;
+import org.mifosplatform.portfolio.loanaccount.domain.LoanRepository;
+import org.mifosplatform.portfolio.loanaccount.domain.LoanStatus;
+import org.mifosplatform.portfolio.loanaccount.domain.LoanTransactionRepository;
+import org.mifosplatform.portfolio.loanaccount.loanschedule.data.OverdueLoanScheduleData;
+import org.mockito.Matchers;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+
+public class LoanOverduePenaltyEngineTest {
+
+    private LoanAssembler loanAssembler;
+    private LoanRepository loanRepository;
+    private PlatformTransactionManager transactionManager;
+    private LoanOverduePenaltyEngine engine;
+
+    @Before
+    public void setUp() {
+        ThreadLocalContextUtil.setTenant(new MifosPlatformTenant(1L, "default", "default", null, null, null, null, null, null, false, null));
+
+        this.loanAssembler = mock(LoanAssembler.class);
+        this.loanRepository = mock(LoanRepository.class);
+        this.transactionManager = mock(PlatformTransactionManager.class);
+        when(this.transactionManager.getTransaction(any(TransactionDefinition.class))).thenReturn(mock(TransactionStatus.class));
+
+        final JobWorkerPool jobWorkerPool = mock(JobWorkerPool.class);
+        when(jobWorkerPool.threadCount()).thenReturn(2);
+        when(jobWorkerPool.newExecutorService(anyInt())).thenReturn(Executors.newFixedThreadPool(2));
+
+        this.engine = new LoanOverduePenaltyEngine(this.transactionManager, this.loanAssembler, this.loanRepository,
+                mock(LoanChargeRepository.class), mock(LoanTransactionRepository.class), mock(ChargeRepositoryWrapper.class),
+                mock(ApplicationCurrencyRepositoryWrapper.class), mock(AccountAssociationsReadPlatformService.class),
+                mock(AccountTransfersWritePlatformService.class), mock(JournalEntryWritePlatformService.class),
+                mock(LoanSummaryChangeLogService.class), jobWorkerPool);
+    }
+
+    @After
+    public void clearTenant() {
+        ThreadLocalContextUtil.clearTenant();
+    }
+
+    @Test
+    public void installmentsAreGroupedByLoanInTheOrderTheLoansFirstAppear() {
+        final OverdueLoanScheduleData first = overdueInstallment(7L, "2014-01-05");
+        final OverdueLoanScheduleData second = overdueInstallment(3L, "2014-01-10");
+        final OverdueLoanScheduleData third = overdueInstallment(7L, "2014-02-05");
+
+        final Map<Long, List<OverdueLoanScheduleData>> byLoan = LoanOverduePenaltyEngine.groupByLoan(Arrays.asList(first, second, third));
+
+        assertEquals(Arrays.asList(7L, 3L), new ArrayList<Long>(byLoan.keySet()));
+        assertEquals(Arrays.asList(first, third), byLoan.get(7L));
+        assertEquals(Arrays.asList(second), byLoan.get(3L));
+    }
+
+    @Test
+    public void loansAreAssembledInBatches() {
+        final Map<Long, Loan> loans = new HashMap<Long, Loan>();
+        final Map<Long, List<OverdueLoanScheduleData>> overdueInstallmentsByLoan = new LinkedHashMap<Long, List<OverdueLoanScheduleData>>();
+        for (long loanId = 1; loanId <= 120; loanId++) {
+            loans.put(loanId, pendingLoan());
+            overdueInstallmentsByLoan.put(loanId, Collections.<OverdueLoanScheduleData> emptyList());
+        }
+        final List<Integer> batchSizes = assembleFrom(loans);
+
+        final List<String> failures = this.engine.applyPenalties(overdueInstallmentsByLoan);
+
+        assertTrue(failures.isEmpty());
+        Collections.sort(batchSizes);
+        assertEquals(Arrays.asList(20, 50, 50), batchSizes);
+        verify(this.transactionManager, times(3)).commit(any(TransactionStatus.class));
+    }
+
+    @Test
+    public void failedBatchIsRetriedOneLoanAtATime() {
+        final Loan goodLoan = pendingLoan();
+        final Map<Long, Loan> loans = new HashMap<Long, Loan>();
+        loans.put(1L, goodLoan);
+        // loan 2 cannot be found, which fails the whole batch
+        final List<Integer> batchSizes = assembleFrom(loans);
+
+        final Map<Long, List<OverdueLoanScheduleData>> overdueInstallmentsByLoan = new LinkedHashMap<Long, List<OverdueLoanScheduleData>>();
+        overdueInstallmentsByLoan.put(1L, Collections.<OverdueLoanScheduleData> emptyList());
+        overdueInstallmentsByLoan.put(2L, Collections.<OverdueLoanScheduleData> emptyList());
+
+        final List<String> failures = this.engine.applyPenalties(overdueInstallmentsByLoan);
+
+        assertEquals(Arrays.asList(2, 1, 1), batchSizes);
+        assertEquals(1, failures.size());
+        assertTrue(failures.get(0), failures.get(0).startsWith("Apply Charges due for overdue loans failed for account:2"));
+        verify(this.loanRepository, times(2)).save(goodLoan);
+        verify(this.transactionManager, times(1)).commit(any(TransactionStatus.class));
+        verify(this.transactionManager, times(2)).rollback(any(TransactionStatus.class));
+    }
+
+    private List<Integer> assembleFrom(final Map<Long, Loan> loans) {
+        final List<Integer> batchSizes = Collections.synchronizedList(new ArrayList<Integer>());
+        doAnswer(new Answer<Map<Long, Loan>>() {
+
+            @Override
+            public Map<Long, Loan> answer(final InvocationOnMock invocation) {
+                @SuppressWarnings("unchecked")
+                final Collection<Long> loanIds = (Collection<Long>) invocation.getArguments()[0];
+                batchSizes.add(loanIds.size());
+                final Map<Long, Loan> assembled = new HashMap<Long, Loan>();
+                for (final Long loanId : loanIds) {
+                    if (loans.containsKey(loanId)) {
+                        assembled.put(loanId, loans.get(loanId));
+                    }
+                }
+                return assembled;
+            }
+        }).when(this.loanAssembler).assembleFrom(Matchers.<Collection<Long>> any());
+        return batchSizes;
+    }
+
+    private static Loan pendingLoan() {
+        final Loan loan = mock(Loan.class);
+        when(loan.status()).thenReturn(LoanStatus.SUBMITTED_AND_PENDING_APPROVAL);
+        return loan;
+    }
+
+    private static OverdueLoanScheduleData overdueInstallment(final Long loanId, final String dueDate) {
+        return new OverdueLoanScheduleData(loanId, 1L, dueDate, BigDecimal.TEN, "yyyy-MM-dd", "en");
+    }
+}
@@ -0,0 +1,115 @@
+package org.mifosplatform.portfolio.search.domain;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mifosplatform.portfolio.search.data.SearchData;
+
+public class SearchIndexTest {
+
+    private static final Set<SearchEntityType> ALL_TYPES = EnumSet.allOf(SearchEntityType.class);
+
+    private SearchIndex index;
+
+    @Before
+    public void setUp() {
+        this.index = new SearchIndex();
+        this.index.put(client(1L, ".1.", "Mary Johnson", "000000001"));
+        this.index.put(client(2L, ".1.2.", "John Smith", "000000002"));
+        this.index.put(client(3L, ".1.3.", "Ajohnny Bravo", "000000003"));
+        this.index.put(client(4L, ".1.2.", "John", "000000004"));
+        this.index.put(document(SearchEntityType.LOAN, 10L, ".1.2.", "000000010", "john-ext"));
+        this.index.put(document(SearchEntityType.PROSPECT, 20L, null, "Jon Doe", "9876543210"));
+    }
+
+    @Test
+    public void shouldRankExactBeforePrefixBeforeSubstring() {
+        assertEquals(ids(4L, 1L, 2L, 10L, 3L, 20L), ids(this.index.search("John", ALL_TYPES, null, 10)));
+    }
+
+    @Test
+    public void shouldMatchWordPrefixesOfShortQueries() {
+        assertEquals(ids(1L, 2L, 4L, 10L, 20L), ids(this.index.search("jo", ALL_TYPES, null, 10)));
+        assertEquals(ids(1L), ids(this.index.search("m", ALL_TYPES, null, 10)));
+    }
+
+    @Test
+    public void shouldMatchWithinOneEditWhenTooFewMatches() {
+        assertEquals(ids(2L), ids(this.index.search("Smyth", ALL_TYPES, null, 10)));
+        assertEquals(ids(3L), ids(this.index.search("bravvo", ALL_TYPES, null, 10)));
+        assertEquals(ids(), ids(this.index.search("smythe", ALL_TYPES, null, 10)));
+    }
+
+    @Test
+    public void shouldOnlyReturnDocumentsVisibleInHierarchy() {
+        assertEquals(ids(4L, 2L, 10L, 20L), ids(this.index.search("john", ALL_TYPES, ".1.2.", 10)));
+    }
+
+    @Test
+    public void shouldOnlyReturnRequestedTypes() {
+        assertEquals(ids(10L), ids(this.index.search("john", EnumSet.of(SearchEntityType.LOAN), null, 10)));
+        assertEquals(ids(20L), ids(this.index.search("987654", EnumSet.of(SearchEntityType.PROSPECT), null, 10)));
+    }
+
+    @Test
+    public void shouldReturnOnlyBestMatchesUpToLimit() {
+        assertEquals(ids(4L, 1L), ids(this.index.search("john", ALL_TYPES, null, 2)));
+        assertEquals(ids(), ids(this.index.search("john", ALL_TYPES, null, 0)));
+    }
+
+    @Test
+    public void shouldReplaceAndRemoveDocuments() {
+        this.index.put(client(2L, ".1.2.", "Peter Parker", "000000002"));
+        assertEquals(6, this.index.size());
+        assertEquals(ids(4L, 1L, 10L, 3L), ids(this.index.search("john", EnumSet.of(SearchEntityType.CLIENT, SearchEntityType.LOAN),
+                null, 10)));
+        assertEquals(ids(2L), ids(this.index.search("parker", ALL_TYPES, null, 10)));
+
+        this.index.remove(SearchEntityType.CLIENT, 2L);
+        assertEquals(5, this.index.size());
+        assertEquals(ids(), ids(this.index.search("parker", ALL_TYPES, null, 10)));
+    }
+
+    @Test
+    public void shouldCompareWithinOneEdit() {
+        assertTrue(SearchIndex.isWithinOneEdit("smith", "smith"));
+        assertTrue(SearchIndex.isWithinOneEdit("smith", "smyth"));
+        assertTrue(SearchIndex.isWithinOneEdit("smith", "smiths"));
+        assertTrue(SearchIndex.isWithinOneEdit("smith", "mith"));
+        assertFalse(SearchIndex.isWithinOneEdit("smith", "smythe"));
+        assertFalse(SearchIndex.isWithinOneEdit("smith", "msith"));
+    }
+
+    private static SearchDocument client(final Long id, final String hierarchy, final String name, final String accountNo) {
+        return document(SearchEntityType.CLIENT, id, hierarchy, accountNo, name);
+    }
+
+    private static SearchDocument document(final SearchEntityType type, final Long id, final String hierarchy, final String... values) {
+        final SearchData data = new SearchData(id, null, null, values[0], type.name(), null, null);
+        return SearchDocument.instance(type, data, hierarchy, values);
+    }
+
+    private static List<Long> ids(final Long... ids) {
+        final List<Long> list = new ArrayList<Long>();
+        for (final Long id : ids) {
+            list.add(id);
+        }
+        return list;
+    }
+
+    private static List<Long> ids(final List<SearchDocument> documents) {
+        final List<Long> ids = new ArrayList<Long>();
+        for (final SearchDocument document : documents) {
+            ids.add(document.getEntityId());
+        }
+        return ids;
+    }
+}
@@ -1,23 +1,43 @@
 package org.mifosplatform.template;
 
 import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 import java.io.DataInputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.joda.time.LocalDate;
+import org.junit.After;
 import org.junit.BeforeClass;
 import org.junit.Ignore;
 import org.junit.Test;
+import org.mifosplatform.infrastructure.core.domain.MifosPlatformTenant;
+import org.mifosplatform.infrastructure.core.service.ThreadLocalContextUtil;
 import org.mifosplatform.organisation.monetary.domain.MonetaryCurrency;
 import org.mifosplatform.portfolio.loanaccount.LoanScheduleTestDataHelper;
 import org.mifosplatform.portfolio.loanaccount.MonetaryCurrencyBuilder;
 import org.mifosplatform.portfolio.loanaccount.domain.LoanRepaymentScheduleInstallment;
 import org.mifosplatform.template.domain.Template;
+import org.mifosplatform.template.domain.TemplateEntity;
+import org.mifosplatform.template.domain.TemplateMapper;
+import org.mifosplatform.template.domain.TemplateType;
+import org.mifosplatform.template.service.InProcessResourceDispatcher;
 import org.mifosplatform.template.service.TemplateMergeService;
 
 public class TemplateMergeServiceTest {
@@ -28,9 +48,98 @@ public class TemplateMergeServiceTest {
 
     @BeforeClass
     public static void init() {
-        tms = new TemplateMergeService(
-//                new FromJsonHelper()
-                );
+        tms = new TemplateMergeService(new InProcessResourceDispatcher(null));
+    }
+
+    @After
+    public void clearTenant() {
+        ThreadLocalContextUtil.clearTenant();
+    }
+
+    @Test
+    public void compiledTemplateIsNotReusedOnceItsTextChanges() throws Exception {
+        useTenant("default");
+        final TemplateMergeService mergeService = new TemplateMergeService(mock(InProcessResourceDispatcher.class));
+        final Template saved = savedTemplate(1L, "Hello {{name}}", new ArrayList<TemplateMapper>());
+
+        assertEquals("Hello Ann", mergeService.compile(saved, scopes("name", "Ann")));
+        assertEquals("Hello Bob", mergeService.compile(saved, scopes("name", "Bob")));
+
+        saved.setText("Goodbye {{name}}");
+        assertEquals("Goodbye Ann", mergeService.compile(saved, scopes("name", "Ann")));
+    }
+
+    @Test
+    public void compiledTemplateIsNotReusedOnceItsMappersChange() throws Exception {
+        useTenant("default");
+        final InProcessResourceDispatcher dispatcher = mock(InProcessResourceDispatcher.class);
+        when(dispatcher.dispatch(any(URI.class), eq("clients/1"))).thenReturn(Collections.singletonMap("displayName", "Ann"));
+        when(dispatcher.dispatch(any(URI.class), eq("clients/1/summary"))).thenReturn(Collections.singletonMap("displayName", "Ann S."));
+        final TemplateMergeService mergeService = new TemplateMergeService(dispatcher);
+
+        final Template saved = savedTemplate(1L, "Dear {{client.displayName}}",
+                new ArrayList<TemplateMapper>(Arrays.asList(new TemplateMapper(0, "client", "clients/{{clientId}}"))));
+        assertEquals("Dear Ann", mergeService.compile(saved, scopes("clientId", 1L)));
+
+        saved.setMappers(new ArrayList<TemplateMapper>(Arrays.asList(new TemplateMapper(0, "client", "clients/{{clientId}}/summary"))));
+        assertEquals("Dear Ann S.", mergeService.compile(saved, scopes("clientId", 1L)));
+    }
+
+    @Test
+    public void compiledTemplatesAreKeptPerTenant() throws Exception {
+        final TemplateMergeService mergeService = new TemplateMergeService(mock(InProcessResourceDispatcher.class));
+
+        useTenant("first");
+        assertEquals("First Ann", mergeService.compile(savedTemplate(1L, "First {{name}}", new ArrayList<TemplateMapper>()),
+                scopes("name", "Ann")));
+
+        useTenant("second");
+        assertEquals("Second Ann", mergeService.compile(savedTemplate(1L, "Second {{name}}", new ArrayList<TemplateMapper>()),
+                scopes("name", "Ann")));
+    }
+
+    @Test
+    public void bulkMergeResolvesSharedMapperUrlsOnce() throws Exception {
+        useTenant("default");
+        final InProcessResourceDispatcher dispatcher = mock(InProcessResourceDispatcher.class);
+        when(dispatcher.dispatch(any(URI.class), eq("offices/1"))).thenReturn(Collections.singletonMap("name", "Head Office"));
+        when(dispatcher.dispatch(any(URI.class), eq("clients/1"))).thenReturn(Collections.singletonMap("displayName", "Ann"));
+        when(dispatcher.dispatch(any(URI.class), eq("clients/2"))).thenReturn(Collections.singletonMap("displayName", "Bob"));
+        final TemplateMergeService mergeService = new TemplateMergeService(dispatcher);
+
+        final List<TemplateMapper> mappers = new ArrayList<TemplateMapper>(Arrays.asList(new TemplateMapper(0, "office", "offices/1"),
+                new TemplateMapper(1, "client", "clients/{{clientId}}")));
+        final Template saved = savedTemplate(1L, "{{client.displayName}} of {{office.name}}", mappers);
+
+        final Map<Long, String> merged = mergeService.compile(saved, new HashMap<String, Object>(), "clientId", Arrays.asList(2L, 1L));
+
+        final Map<Long, String> expected = new LinkedHashMap<Long, String>();
+        expected.put(2L, "Bob of Head Office");
+        expected.put(1L, "Ann of Head Office");
+        assertEquals(expected, merged);
+        assertEquals(Arrays.asList(2L, 1L), new ArrayList<Long>(merged.keySet()));
+        verify(dispatcher, times(1)).dispatch(any(URI.class), eq("offices/1"));
+        verify(dispatcher, times(3)).dispatch(any(URI.class), anyString());
+    }
+
+    private static void useTenant(final String tenantIdentifier) {
+        ThreadLocalContextUtil.setTenant(new MifosPlatformTenant(1L, tenantIdentifier, tenantIdentifier, null, null, null, null, null,
+                null, false, null));
+    }
+
+    private static Template savedTemplate(final Long id, final String text, final List<TemplateMapper> mappers) {
+        return new Template("TemplateName", text, TemplateEntity.CLIENT, TemplateType.DOCUMENT, mappers) {
+
+            {
+                setId(id);
+            }
+        };
+    }
+
+    private static Map<String, Object> scopes(final String name, final Object value) {
+        final Map<String, Object> scopes = new HashMap<String, Object>();
+        scopes.put(name, value);
+        return scopes;
     }
 
     @Ignore
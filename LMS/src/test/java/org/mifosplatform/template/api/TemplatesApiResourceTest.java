@@ -0,0 +1,73 @@
+package org.mifosplatform.template.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.net.URI;
+import java.util.ArrayList;
+
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.core.UriInfo;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mifosplatform.template.domain.Template;
+import org.mifosplatform.template.domain.TemplateEntity;
+import org.mifosplatform.template.domain.TemplateMapper;
+import org.mifosplatform.template.domain.TemplateType;
+import org.mifosplatform.template.service.InProcessResourceDispatcher;
+import org.mifosplatform.template.service.TemplateDomainService;
+import org.mifosplatform.template.service.TemplateMergeService;
+
+import com.sun.jersey.core.util.MultivaluedMapImpl;
+
+public class TemplatesApiResourceTest {
+
+    private TemplateDomainService templateService;
+    private TemplatesApiResource resource;
+    private UriInfo uriInfo;
+
+    @Before
+    public void setUp() {
+        this.templateService = mock(TemplateDomainService.class);
+        this.resource = new TemplatesApiResource(null, null, null, null, this.templateService, new TemplateMergeService(
+                mock(InProcessResourceDispatcher.class)), null);
+
+        final MultivaluedMap<String, String> queryParameters = new MultivaluedMapImpl();
+        queryParameters.putSingle("signature", "Branch Manager");
+        this.uriInfo = mock(UriInfo.class);
+        when(this.uriInfo.getQueryParameters()).thenReturn(queryParameters);
+        when(this.uriInfo.getBaseUri()).thenReturn(URI.create("https://localhost:8443/mifosng-provider/api/v1/"));
+    }
+
+    @Test
+    public void bulkMergeWritesOneDocumentPerEntityIdInRequestOrder() throws Exception {
+        when(this.templateService.findOneById(5L)).thenReturn(
+                new Template("Letter", "{{greeting}} client {{clientId}}, {{signature}}", TemplateEntity.CLIENT, TemplateType.DOCUMENT,
+                        null));
+
+        final String documents = this.resource.mergeTemplateInBulk(5L, this.uriInfo, "{\"entityIds\": [3, 1], \"greeting\": \"Dear\"}");
+
+        assertEquals("<div style=\"page-break-after: always;\">Dear client 3, Branch Manager</div>"
+                + "<div style=\"page-break-after: always;\">Dear client 1, Branch Manager</div>", documents);
+    }
+
+    @Test
+    public void bulkMergeBindsTheEntityIdByTemplateEntity() throws Exception {
+        when(this.templateService.findOneById(6L)).thenReturn(
+                new Template("Notice", "loan {{loanId}}", TemplateEntity.LOAN, TemplateType.DOCUMENT, new ArrayList<TemplateMapper>()));
+
+        final String documents = this.resource.mergeTemplateInBulk(6L, this.uriInfo, "{\"entityIds\": [\"12\"]}");
+
+        assertEquals("<div style=\"page-break-after: always;\">loan 12</div>", documents);
+    }
+
+    @Test
+    public void bulkMergeWithoutEntityIdsWritesNothing() throws Exception {
+        when(this.templateService.findOneById(5L)).thenReturn(
+                new Template("Letter", "client {{clientId}}", TemplateEntity.CLIENT, TemplateType.DOCUMENT, null));
+
+        assertEquals("", this.resource.mergeTemplateInBulk(5L, this.uriInfo, "{}"));
+    }
+}
@@ -0,0 +1,145 @@
+package org.mifosplatform.template.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.net.URI;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
+import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.PathSegment;
+import javax.ws.rs.core.UriInfo;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.context.ApplicationContext;
+
+public class InProcessResourceDispatcherTest {
+
+    private static final URI BASE_URI = URI.create("https://localhost:8443/mifosng-provider/api/v1/");
+
+    private WidgetsApiResource resource;
+    private InProcessResourceDispatcher dispatcher;
+
+    @Before
+    public void setUp() {
+        this.resource = new WidgetsApiResource();
+        final ApplicationContext applicationContext = mock(ApplicationContext.class);
+        when(applicationContext.getBeansWithAnnotation(Path.class)).thenReturn(
+                Collections.<String, Object> singletonMap("widgetsApiResource", this.resource));
+        this.dispatcher = new InProcessResourceDispatcher(applicationContext);
+    }
+
+    @Test
+    public void bindsPathAndQueryParametersOfTheMatchingResourceMethod() {
+
+        final Object result = this.dispatcher.dispatch(BASE_URI, "widgets/7?fields=id,name&tag=a&tag=b");
+
+        assertEquals(Long.valueOf(7), this.resource.widgetId);
+        assertEquals("id,name", this.resource.fields);
+        assertEquals(Arrays.asList("a", "b"), this.resource.tags);
+        assertEquals(7, ((Map<?, ?>) result).get("id"));
+    }
+
+    @Test
+    public void wrapsPlainTextResponsesInASrcEntry() {
+
+        final Object result = this.dispatcher.dispatch(BASE_URI, "/widgets/7/label/");
+
+        assertEquals(Collections.singletonMap("src", "widget 7"), result);
+    }
+
+    @Test
+    public void returnsNullWhenNoResourceMethodMatches() {
+
+        assertNull(this.dispatcher.dispatch(BASE_URI, "gadgets/7"));
+    }
+
+    @Test
+    public void uriInfoIsBuiltFromTheRequestPath() {
+
+        this.dispatcher.dispatch(BASE_URI, "widgets/7/label");
+        final UriInfo uriInfo = this.resource.uriInfo;
+
+        assertEquals("widgets/7/label", uriInfo.getPath());
+        assertEquals(URI.create("https://localhost:8443/mifosng-provider/api/v1/widgets/7/label"), uriInfo.getAbsolutePath());
+
+        final List<PathSegment> segments = uriInfo.getPathSegments();
+        assertEquals(3, segments.size());
+        assertEquals("widgets", segments.get(0).getPath());
+        assertEquals("7", segments.get(1).getPath());
+        assertEquals("label", segments.get(2).getPath());
+
+        assertEquals(Arrays.asList("widgets/7/label", "widgets"), uriInfo.getMatchedURIs());
+        assertEquals(1, uriInfo.getMatchedResources().size());
+        assertSame(this.resource, uriInfo.getMatchedResources().get(0));
+    }
+
+    @Test
+    public void uriInfoDecodesThePathOnlyWhenAskedTo() {
+
+        this.dispatcher.dispatch(BASE_URI, "widgets/7%20a/label");
+        final UriInfo uriInfo = this.resource.uriInfo;
+
+        assertEquals("widgets/7 a/label", uriInfo.getPath());
+        assertEquals("widgets/7%20a/label", uriInfo.getPath(false));
+        assertEquals("7 a", uriInfo.getPathSegments().get(1).getPath());
+        assertEquals("7%20a", uriInfo.getPathSegments(false).get(1).getPath());
+        assertEquals(Arrays.asList("widgets/7%20a/label", "widgets"), uriInfo.getMatchedURIs(false));
+    }
+
+    @Test
+    public void matchedURIsOfAResourceMethodWithoutItsOwnPathOnlyHoldTheResourceURI() {
+
+        this.dispatcher.dispatch(BASE_URI, "widgets");
+
+        assertEquals(Arrays.asList("widgets"), this.resource.uriInfo.getMatchedURIs());
+    }
+
+    @Path("/widgets")
+    @Produces({ MediaType.APPLICATION_JSON })
+    public static class WidgetsApiResource {
+
+        Long widgetId;
+        String fields;
+        List<String> tags;
+        UriInfo uriInfo;
+
+        @GET
+        public String retrieveAll(@Context final UriInfo uriInfo) {
+            this.uriInfo = uriInfo;
+            return "[]";
+        }
+
+        @GET
+        @Path("{widgetId}")
+        public String retrieveOne(@PathParam("widgetId") final Long widgetId, @QueryParam("fields") final String fields,
+                @QueryParam("tag") final List<String> tags, @Context final UriInfo uriInfo) {
+            this.widgetId = widgetId;
+            this.fields = fields;
+            this.tags = tags;
+            this.uriInfo = uriInfo;
+            return "{\"id\": " + widgetId + "}";
+        }
+
+        @GET
+        @Path("{widgetId}/label")
+        @Produces({ MediaType.TEXT_PLAIN })
+        public String retrieveLabel(@PathParam("widgetId") final String widgetId, @Context final UriInfo uriInfo) {
+            this.uriInfo = uriInfo;
+            return "widget " + widgetId;
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package org.mifosplatform.useradministration.service;
+
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mifosplatform.infrastructure.core.api.JsonCommand;
+import org.mifosplatform.infrastructure.core.domain.MifosPlatformTenant;
+import org.mifosplatform.infrastructure.core.serialization.FromJsonHelper;
+import org.mifosplatform.infrastructure.core.service.ThreadLocalContextUtil;
+import org.mifosplatform.infrastructure.security.service.AccessTokenServiceImpl;
+import org.mifosplatform.infrastructure.security.service.PlatformPasswordEncoder;
+import org.mifosplatform.infrastructure.security.service.PlatformSecurityContext;
+import org.mifosplatform.organisation.office.domain.Office;
+import org.mifosplatform.organisation.office.domain.OfficeRepository;
+import org.mifosplatform.useradministration.domain.AppUser;
+import org.mifosplatform.useradministration.domain.AppUserRepository;
+import org.mifosplatform.useradministration.domain.Permission;
+import org.mifosplatform.useradministration.domain.PermissionRepository;
+import org.mifosplatform.useradministration.domain.Role;
+import org.mifosplatform.useradministration.domain.RoleRepository;
+import org.mifosplatform.useradministration.domain.UserDomainService;
+import org.mifosplatform.useradministration.serialization.PermissionsCommandFromApiJsonDeserializer;
+
+/**
+ * Access tokens stop being accepted when the user they were issued to, or the
+ * roles and permissions behind them, change.
+ */
+public class AccessTokenInvalidationTest {
+
+    private final FromJsonHelper fromJsonHelper = new FromJsonHelper();
+    private final AccessTokenServiceImpl accessTokenService = new AccessTokenServiceImpl();
+    private final PlatformSecurityContext context = mock(PlatformSecurityContext.class);
+    private final AppUserRepository appUserRepository = mock(AppUserRepository.class);
+    private final RoleRepository roleRepository = mock(RoleRepository.class);
+    private final PermissionRepository permissionRepository = mock(PermissionRepository.class);
+
+    private final Permission createLoan = new Permission("portfolio", "LOAN", "CREATE");
+
+    private String tokenOfUser;
+    private String tokenOfOtherUser;
+    private String tokenInOtherTenant;
+
+    @Before
+    public void setUp() {
+        ThreadLocalContextUtil.setTenant(new MifosPlatformTenant(1L, "default", "default", null, null, null, null, null, null, false,
+                null));
+        when(this.permissionRepository.findAll()).thenReturn(Arrays.asList(this.createLoan));
+
+        this.tokenOfUser = this.accessTokenService.createAccessToken("default", 1L, "mifos");
+        this.tokenOfOtherUser = this.accessTokenService.createAccessToken("default", 2L, "clerk");
+        this.tokenInOtherTenant = this.accessTokenService.createAccessToken("other", 1L, "mifos");
+    }
+
+    @After
+    public void clearTenant() {
+        ThreadLocalContextUtil.clearTenant();
+    }
+
+    @Test
+    public void updatingAUserEndsTheSessionsOfThatUser() {
+        final AppUser user = user();
+        when(user.update(any(JsonCommand.class), any(PlatformPasswordEncoder.class))).thenReturn(
+                Collections.<String, Object> singletonMap("firstname", "Jane"));
+
+        appUserWriteService().updateUser(1L, command("{\"firstname\": \"Jane\"}"));
+
+        assertNull(this.accessTokenService.retrieveSession(this.tokenOfUser, "default"));
+        assertNotNull(this.accessTokenService.retrieveSession(this.tokenOfOtherUser, "default"));
+        assertNotNull(this.accessTokenService.retrieveSession(this.tokenInOtherTenant, "other"));
+    }
+
+    @Test
+    public void updatingAUserWithoutChangesKeepsItsSessions() {
+        final AppUser user = user();
+        when(user.update(any(JsonCommand.class), any(PlatformPasswordEncoder.class))).thenReturn(
+                Collections.<String, Object> emptyMap());
+
+        appUserWriteService().updateUser(1L, command("{\"firstname\": \"Jane\"}"));
+
+        assertNotNull(this.accessTokenService.retrieveSession(this.tokenOfUser, "default"));
+    }
+
+    @Test
+    public void deletingAUserEndsTheSessionsOfThatUser() {
+        user();
+
+        appUserWriteService().deleteUser(1L);
+
+        assertNull(this.accessTokenService.retrieveSession(this.tokenOfUser, "default"));
+        assertNotNull(this.accessTokenService.retrieveSession(this.tokenOfOtherUser, "default"));
+    }
+
+    @Test
+    public void changingThePermissionsOfARoleEndsTheSessionsOfTheTenant() {
+        when(this.roleRepository.findOne(5L)).thenReturn(new Role("Clerk", "Clerk"));
+
+        roleWriteService().updateRolePermissions(5L, command("{\"permissions\": {\"CREATE_LOAN\": true}}"));
+
+        assertNull(this.accessTokenService.retrieveSession(this.tokenOfUser, "default"));
+        assertNull(this.accessTokenService.retrieveSession(this.tokenOfOtherUser, "default"));
+        assertNotNull(this.accessTokenService.retrieveSession(this.tokenInOtherTenant, "other"));
+    }
+
+    @Test
+    public void leavingThePermissionsOfARoleAsTheyWereKeepsTheSessions() {
+        final Role role = new Role("Clerk", "Clerk");
+        role.updatePermission(this.createLoan, true);
+        when(this.roleRepository.findOne(5L)).thenReturn(role);
+
+        roleWriteService().updateRolePermissions(5L, command("{\"permissions\": {\"CREATE_LOAN\": true}}"));
+
+        assertNotNull(this.accessTokenService.retrieveSession(this.tokenOfUser, "default"));
+    }
+
+    @Test
+    public void changingMakerCheckerOfAPermissionEndsTheSessionsOfTheTenant() {
+        permissionWriteService().updateMakerCheckerPermissions(command("{\"permissions\": {\"CREATE_LOAN\": true}}"));
+
+        assertNull(this.accessTokenService.retrieveSession(this.tokenOfUser, "default"));
+        assertNull(this.accessTokenService.retrieveSession(this.tokenOfOtherUser, "default"));
+        assertNotNull(this.accessTokenService.retrieveSession(this.tokenInOtherTenant, "other"));
+    }
+
+    @Test
+    public void leavingMakerCheckerOfAPermissionAsItWasKeepsTheSessions() {
+        permissionWriteService().updateMakerCheckerPermissions(command("{\"permissions\": {\"CREATE_LOAN\": false}}"));
+
+        assertNotNull(this.accessTokenService.retrieveSession(this.tokenOfUser, "default"));
+    }
+
+    private AppUser user() {
+        final AppUser user = mock(AppUser.class);
+        final Office office = mock(Office.class);
+        when(office.getId()).thenReturn(1L);
+        when(user.getOffice()).thenReturn(office);
+        when(this.appUserRepository.findOne(1L)).thenReturn(user);
+        return user;
+    }
+
+    private AppUserWritePlatformServiceJpaRepositoryImpl appUserWriteService() {
+        return new AppUserWritePlatformServiceJpaRepositoryImpl(this.context, this.appUserRepository, mock(UserDomainService.class),
+                mock(OfficeRepository.class), this.roleRepository, mock(PlatformPasswordEncoder.class), new UserDataValidator(
+                        this.fromJsonHelper), this.accessTokenService);
+    }
+
+    private RoleWritePlatformServiceJpaRepositoryImpl roleWriteService() {
+        return new RoleWritePlatformServiceJpaRepositoryImpl(this.context, this.roleRepository, this.permissionRepository,
+                new RoleDataValidator(this.fromJsonHelper), new PermissionsCommandFromApiJsonDeserializer(this.fromJsonHelper),
+                this.accessTokenService);
+    }
+
+    private PermissionWritePlatformServiceJpaRepositoryImpl permissionWriteService() {
+        return new PermissionWritePlatformServiceJpaRepositoryImpl(this.context, this.permissionRepository,
+                new PermissionsCommandFromApiJsonDeserializer(this.fromJsonHelper), this.accessTokenService);
+    }
+
+    private JsonCommand command(final String json) {
+        return JsonCommand.from(json, this.fromJsonHelper.parse(json), this.fromJsonHelper, null, null, null, null, null, null, null,
+                null, null, null, null, null, null);
+    }
+}